@@ -0,0 +1,146 @@
+package com.webthree.batchtransfer.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试回归检查
+ * 将JMH的JSON结果与基线比较：平均耗时（avgt/sample/ss）越高越差，吞吐量（thrpt）越低越差，
+ * 单次操作分配字节数（gc.alloc.rate.norm）越高越差。任一指标超出容差、且差值超出两次测量的误差范围之和时
+ * 视为退化：默认只输出告警，开启失败开关时以非0状态退出。
+ * 基线与运行机器相关，文件不存在时以本次结果作为基线写入
+ * 
+ * 用法：BenchmarkRegressionCheck &lt;结果文件&gt; &lt;基线文件&gt; [容差，默认0.20] [退化时是否失败，默认false]
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public final class BenchmarkRegressionCheck {
+    
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    
+    private BenchmarkRegressionCheck() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: BenchmarkRegressionCheck <结果文件> <基线文件> [容差] [退化时是否失败]");
+            System.exit(2);
+        }
+        
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.20;
+        boolean failOnRegression = args.length > 3 && Boolean.parseBoolean(args[3]);
+        
+        if (!resultFile.exists()) {
+            System.err.println("基准测试结果不存在: " + resultFile);
+            System.exit(2);
+        }
+        
+        if (!baselineFile.exists()) {
+            Files.createDirectories(baselineFile.getAbsoluteFile().toPath().getParent());
+            Files.copy(resultFile.toPath(), baselineFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("基线不存在，已将本次结果写入基线: " + baselineFile);
+            return;
+        }
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = indexByBenchmark(objectMapper.readTree(baselineFile));
+        List<String> regressions = new ArrayList<>();
+        
+        for (JsonNode result : objectMapper.readTree(resultFile)) {
+            String key = benchmarkKey(result);
+            JsonNode base = baseline.get(key);
+            if (base == null) {
+                System.out.printf("[新增] %s%n", key);
+                continue;
+            }
+            
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+            compare(key, "score", base.path("primaryMetric"), result.path("primaryMetric"),
+                    higherIsBetter, tolerance, regressions);
+            compare(key, ALLOC_METRIC, base.path("secondaryMetrics").path(ALLOC_METRIC),
+                    result.path("secondaryMetrics").path(ALLOC_METRIC), false, tolerance, regressions);
+        }
+        
+        if (!regressions.isEmpty()) {
+            System.err.printf("发现 %d 项性能退化（容差 %.0f%%）:%n", regressions.size(), tolerance * 100);
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            if (failOnRegression) {
+                System.exit(1);
+            }
+            System.err.println("未开启 jmh.fail-on-regression，仅告警");
+            return;
+        }
+        System.out.println("未发现性能退化");
+    }
+    
+    /**
+     * 比较单项指标
+     */
+    private static void compare(String key, String metric, JsonNode base, JsonNode current,
+                                boolean higherIsBetter, double tolerance, List<String> regressions) {
+        if (base.isMissingNode() || current.isMissingNode()) {
+            return;
+        }
+        
+        double baseScore = base.path("score").asDouble();
+        double currentScore = current.path("score").asDouble();
+        double errorMargin = errorOf(base) + errorOf(current);
+        String unit = current.path("scoreUnit").asText();
+        if (baseScore <= 0) {
+            return;
+        }
+        
+        double change = (currentScore - baseScore) / baseScore;
+        double degradation = higherIsBetter ? -change : change;
+        String line = String.format("%s %s: %.3f -> %.3f %s (%+.1f%%)",
+                key, metric, baseScore, currentScore, unit, change * 100);
+        System.out.println(line);
+        
+        if (degradation > tolerance && Math.abs(currentScore - baseScore) > errorMargin) {
+            regressions.add(line);
+        }
+    }
+    
+    /**
+     * 测量误差（99.9%置信区间半宽），迭代次数不足时JMH输出NaN
+     */
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+    
+    /**
+     * 按基准测试名称和参数建立索引
+     */
+    private static Map<String, JsonNode> indexByBenchmark(JsonNode results) {
+        Map<String, JsonNode> index = new HashMap<>();
+        for (JsonNode result : results) {
+            index.put(benchmarkKey(result), result);
+        }
+        return index;
+    }
+    
+    /**
+     * 基准测试的唯一标识：名称 + 模式 + 参数
+     */
+    private static String benchmarkKey(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                .append(" [").append(result.path("mode").asText()).append(']');
+        JsonNode params = result.path("params");
+        params.fieldNames().forEachRemaining(name -> key.append(' ').append(name).append('=')
+                .append(params.path(name).asText()));
+        return key.toString();
+    }
+}
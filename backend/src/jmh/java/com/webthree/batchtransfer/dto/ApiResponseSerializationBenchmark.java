@@ -0,0 +1,72 @@
+package com.webthree.batchtransfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.service.TaskResponseMappingBenchmark.BenchmarkTasks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse<TaskResponse> 的JSON序列化基准测试
+ * ObjectMapper按application.yml中的spring.jackson配置构建
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+    
+    private ObjectWriter writer;
+    
+    private ApiResponse<TaskResponse> response;
+    
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .simpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                .timeZone(TimeZone.getTimeZone("GMT+8"))
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build()
+                .writer();
+        
+        BatchTransferTask task = BenchmarkTasks.executingTask();
+        response = ApiResponse.success(TaskResponse.builder()
+                .id(task.getId())
+                .taskName(task.getTaskName())
+                .creatorAddress(task.getCreatorAddress())
+                .totalRecipients(task.getTotalRecipients())
+                .totalAmount(task.getTotalAmount())
+                .status(task.getStatus())
+                .txHash(task.getTxHash())
+                .executionToken(task.getExecutionToken())
+                .executionStartedAt(task.getExecutionStartedAt())
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
+                .build());
+    }
+    
+    @Benchmark
+    public byte[] serializeTaskResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
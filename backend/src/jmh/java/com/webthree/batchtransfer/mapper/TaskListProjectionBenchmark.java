@@ -0,0 +1,187 @@
+package com.webthree.batchtransfer.mapper;
+
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.entity.TaskStatusCount;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务列表查询投影的基准测试
+ * 在H2（MySQL兼容模式）大表上比较列表字段与完整字段（含TEXT列error_message）的查询开销，
+ * 以及统计接口由加载列表计数改为GROUP BY计数的收益。
+ * 查询使用正式的Mapper XML，对照组语句见 benchmark/TaskProjectionBenchmarkMapper.xml
+ * （不放在 mybatis/ 下，避免测试类路径中的同名目录遮蔽正式Mapper）。
+ * H2的大文本同样存放在行外的LOB存储中，趋势与InnoDB溢出页一致，绝对值仅供参考
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskListProjectionBenchmark {
+    
+    private static final String CREATOR = "0x1111111111111111111111111111111111111111";
+    
+    private static final String OTHER_CREATOR = "0x2222222222222222222222222222222222222222";
+    
+    private static final String FULL_ROW_STATEMENT = "benchmark.TaskProjection.selectByCreatorAddressFullRow";
+    
+    /**
+     * 查询的创建者拥有的任务数（表中另有同样数量的其他创建者任务）
+     */
+    @Param({"2000"})
+    public int tasksPerCreator;
+    
+    /**
+     * 失败任务的错误信息长度（每4个任务中有1个失败）
+     */
+    @Param({"2048"})
+    public int errorMessageLength;
+    
+    private PooledDataSource dataSource;
+    
+    private SqlSession sqlSession;
+    
+    private BatchTransferTaskMapper taskMapper;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataSource = new PooledDataSource("org.h2.Driver",
+                "jdbc:h2:mem:projection_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        
+        try (Connection connection = dataSource.getConnection();
+             Reader schema = Resources.getResourceAsReader("sql/schema-h2.sql")) {
+            ScriptRunner scriptRunner = new ScriptRunner(connection);
+            scriptRunner.setLogWriter(null);
+            scriptRunner.runScript(schema);
+            // ScriptRunner会关闭自动提交，写入测试数据前恢复
+            connection.setAutoCommit(true);
+            insertTasks(connection, CREATOR);
+            insertTasks(connection, OTHER_CREATOR);
+        }
+        
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        for (String resource : new String[]{"mybatis/BatchTransferTaskMapper.xml", "benchmark/TaskProjectionBenchmarkMapper.xml"}) {
+            try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+                new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+            }
+        }
+        
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        sqlSession = sqlSessionFactory.openSession(true);
+        taskMapper = sqlSession.getMapper(BatchTransferTaskMapper.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sqlSession.close();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DROP ALL OBJECTS");
+        }
+        dataSource.forceCloseAll();
+    }
+    
+    /**
+     * 列表接口：完整字段（改动前）
+     */
+    @Benchmark
+    public List<BatchTransferTask> listFullRow() {
+        sqlSession.clearCache();
+        return sqlSession.selectList(FULL_ROW_STATEMENT, CREATOR);
+    }
+    
+    /**
+     * 列表接口：列表字段（不含error_message）
+     */
+    @Benchmark
+    public List<BatchTransferTask> listLean() {
+        sqlSession.clearCache();
+        return taskMapper.selectByCreatorAddress(CREATOR);
+    }
+    
+    /**
+     * 统计接口：加载完整列表后按状态计数（改动前）
+     */
+    @Benchmark
+    public long statisticsFromFullList() {
+        sqlSession.clearCache();
+        List<BatchTransferTask> tasks = sqlSession.selectList(FULL_ROW_STATEMENT, CREATOR);
+        return tasks.stream().filter(task -> task.getStatus() == BatchTransferTask.TaskStatus.FAILED).count();
+    }
+    
+    /**
+     * 统计接口：GROUP BY计数
+     */
+    @Benchmark
+    public List<TaskStatusCount> statisticsGroupBy() {
+        sqlSession.clearCache();
+        return taskMapper.countGroupByStatus(CREATOR);
+    }
+    
+    /**
+     * 写入测试任务，状态依次轮换，失败任务带较长的错误信息
+     */
+    private void insertTasks(Connection connection, String creatorAddress) throws Exception {
+        String errorMessage = "execution reverted: ".repeat(errorMessageLength / 20 + 1).substring(0, errorMessageLength);
+        BatchTransferTask.TaskStatus[] statuses = BatchTransferTask.TaskStatus.values();
+        
+        String sql = "INSERT INTO batch_transfer_task (task_name, creator_address, recipient_count, total_amount, "
+                + "status, tx_hash, error_message, execution_token, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < tasksPerCreator; i++) {
+                BatchTransferTask.TaskStatus status = statuses[i % statuses.length];
+                Timestamp createdAt = new Timestamp(System.currentTimeMillis() - i * 1000L);
+                statement.setString(1, "task-" + i);
+                statement.setString(2, creatorAddress);
+                statement.setInt(3, 200);
+                statement.setBigDecimal(4, new BigDecimal("12.5"));
+                statement.setString(5, status.name());
+                statement.setString(6, "0x" + String.format("%064x", i));
+                statement.setString(7, status == BatchTransferTask.TaskStatus.FAILED ? errorMessage : null);
+                statement.setString(8, creatorAddress.substring(2, 10) + "-" + i);
+                statement.setTimestamp(9, createdAt);
+                statement.setTimestamp(10, createdAt);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
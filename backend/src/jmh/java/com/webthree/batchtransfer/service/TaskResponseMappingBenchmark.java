@@ -0,0 +1,81 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.dto.TaskResponse;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务实体到响应DTO映射的基准测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskResponseMappingBenchmark {
+    
+    private BatchTransferService batchTransferService;
+    
+    private BatchTransferTask task;
+    
+    @Setup
+    public void setUp() {
+        // 映射不访问数据库和指标，依赖传null即可
+        batchTransferService = new BatchTransferService(null, null, null, null, null);
+        task = BenchmarkTasks.executingTask();
+    }
+    
+    @Benchmark
+    public TaskResponse convertToTaskResponse() {
+        return batchTransferService.convertToTaskResponse(task);
+    }
+    
+    /**
+     * 基准测试用的任务数据
+     */
+    public static final class BenchmarkTasks {
+        
+        private BenchmarkTasks() {
+        }
+        
+        /**
+         * 创建一个字段齐全的执行中任务
+         * 
+         * @return 任务实体
+         */
+        public static BatchTransferTask executingTask() {
+            LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+            return BatchTransferTask.builder()
+                    .id(10001L)
+                    .taskName("空投第一批")
+                    .creatorAddress("0x5aaeb6053f3e94c9b9a09f33669435e7ef1beaed")
+                    .totalRecipients(200)
+                    .totalAmount(new BigDecimal("12.345678900000000000"))
+                    .status(BatchTransferTask.TaskStatus.EXECUTING)
+                    .txHash("0x88df016429689c079f3b2f6ad39fa052532c56795b733da78a91ebe6a713944b")
+                    .executionToken("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+                    .executionStartedAt(now)
+                    .createdAt(now.minusMinutes(5))
+                    .updatedAt(now)
+                    .version(2)
+                    .build();
+        }
+    }
+}
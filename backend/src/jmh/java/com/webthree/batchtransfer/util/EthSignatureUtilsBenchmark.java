@@ -0,0 +1,68 @@
+package com.webthree.batchtransfer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录签名验证基准测试
+ * 使用固定私钥对挑战消息做personal_sign签名，测量一次完整的公钥恢复与地址比对
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EthSignatureUtilsBenchmark {
+    
+    private static final String MESSAGE = "Welcome to ETH Batch Transfer!\n\n"
+            + "Please sign this message to authenticate with your wallet.\n\n"
+            + "Nonce: 4f1c2d3e-5a6b-7c8d-9e0f-112233445566\nTimestamp: 1700000000000\n\n"
+            + "This request will not trigger a blockchain transaction or cost any gas fee.";
+    
+    private EthSignatureUtils ethSignatureUtils;
+    
+    private String signature;
+    
+    private String address;
+    
+    @Setup
+    public void setUp() {
+        ethSignatureUtils = new EthSignatureUtils();
+        
+        ECKeyPair keyPair = ECKeyPair.create(new BigInteger("4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318", 16));
+        Sign.SignatureData signatureData = Sign.signPrefixedMessage(MESSAGE.getBytes(StandardCharsets.UTF_8), keyPair);
+        signature = Numeric.toHexString(signatureData.getR())
+                + Numeric.toHexStringNoPrefix(signatureData.getS())
+                + Numeric.toHexStringNoPrefix(signatureData.getV());
+        address = "0x" + Keys.getAddress(keyPair);
+        
+        if (!ethSignatureUtils.verifySignature(MESSAGE, signature, address)) {
+            throw new IllegalStateException("基准测试签名无效");
+        }
+    }
+    
+    @Benchmark
+    public boolean verifySignature() {
+        return ethSignatureUtils.verifySignature(MESSAGE, signature, address);
+    }
+}
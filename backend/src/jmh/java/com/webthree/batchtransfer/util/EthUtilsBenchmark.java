@@ -0,0 +1,47 @@
+package com.webthree.batchtransfer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EthUtils地址校验与checksum转换基准测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EthUtilsBenchmark {
+    
+    private final String checksumAddress = "0x5aAeb6053F3E94C9b9A09f33669435E7Ef1BeAed";
+    
+    private final String lowerCaseAddress = checksumAddress.toLowerCase();
+    
+    @Benchmark
+    public boolean isValidAddressChecksum() {
+        return EthUtils.isValidAddress(checksumAddress);
+    }
+    
+    @Benchmark
+    public boolean isValidAddressLowerCase() {
+        return EthUtils.isValidAddress(lowerCaseAddress);
+    }
+    
+    @Benchmark
+    public String toChecksumAddress() {
+        return EthUtils.toChecksumAddress(lowerCaseAddress);
+    }
+}
@@ -0,0 +1,53 @@
+package com.webthree.batchtransfer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT校验与解析基准测试，每个已认证请求都会经过这两步
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+    
+    private JwtUtils jwtUtils;
+    
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "eth-batch-transfer-super-secret-key-2024-production-use-env-var");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 7200000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800000L);
+        token = jwtUtils.generateToken("0x5aAeb6053F3E94C9b9A09f33669435E7Ef1BeAed");
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+    
+    @Benchmark
+    public String getWalletAddressFromToken() {
+        return jwtUtils.getWalletAddressFromToken(token);
+    }
+}
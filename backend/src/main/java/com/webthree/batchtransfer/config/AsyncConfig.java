@@ -0,0 +1,348 @@
+package com.webthree.batchtransfer.config;
+
+import com.webthree.batchtransfer.datasource.DataSourceContextHolder;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步执行器配置
+ * 为区块链监听定义独立、有界、具名的线程池：RPC线程池负责节点调用，DB线程池负责状态落库；
+ * 另有任务变更通知线程池，负责在任务变更后读取任务详情并完成等待中的长轮询请求；
+ * 转账项导出线程池作为Spring MVC的异步执行器，负责向客户端流式写出导出内容；
+ * 服务端执行器提交线程池负责各发送钱包的交易提交，每个钱包的任务队列由一个线程按顺序处理；
+ * 预执行线程池并行执行任务提交前的eth_call模拟，线程数即同时发往节点的模拟调用数上限。
+ * 队列长度、活跃线程数等指标由Spring Boot按Bean名称自动绑定（executor.*），拒绝次数在此单独计数。
+ * 开启虚拟线程模式（spring.threads.virtual.enabled=true，需Java 21运行时）时改用虚拟线程执行器，
+ * 以并发上限代替线程数和队列长度，超出上限的任务在各自的虚拟线程中等待，提交方不阻塞。
+ * 两类执行器中的任务均路由到后台任务连接池
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+    
+    /**
+     * 监听RPC线程池Bean名称
+     */
+    public static final String MONITOR_RPC_EXECUTOR = "monitorRpcExecutor";
+    
+    /**
+     * 监听DB线程池Bean名称
+     */
+    public static final String MONITOR_DB_EXECUTOR = "monitorDbExecutor";
+    
+    /**
+     * 任务变更通知线程池Bean名称
+     */
+    public static final String TASK_WATCH_EXECUTOR = "taskWatchExecutor";
+    
+    /**
+     * 转账项导出线程池Bean名称
+     */
+    public static final String ITEM_EXPORT_EXECUTOR = "itemExportExecutor";
+    
+    /**
+     * 服务端执行器提交线程池Bean名称
+     */
+    public static final String EXECUTOR_SUBMIT_EXECUTOR = "executorSubmitExecutor";
+    
+    /**
+     * 预执行线程池Bean名称
+     */
+    public static final String PREFLIGHT_EXECUTOR = "preflightExecutor";
+    
+    @Value("${app.monitor.executor.rpc.pool-size:8}")
+    private int rpcPoolSize;
+    
+    @Value("${app.monitor.executor.rpc.queue-capacity:200}")
+    private int rpcQueueCapacity;
+    
+    @Value("${app.monitor.executor.db.pool-size:4}")
+    private int dbPoolSize;
+    
+    @Value("${app.monitor.executor.db.queue-capacity:200}")
+    private int dbQueueCapacity;
+    
+    @Value("${app.monitor.executor.rpc.virtual-concurrency-limit:64}")
+    private int rpcVirtualConcurrencyLimit;
+    
+    @Value("${app.monitor.executor.db.virtual-concurrency-limit:4}")
+    private int dbVirtualConcurrencyLimit;
+    
+    @Value("${app.task-watch.executor.pool-size:2}")
+    private int watchPoolSize;
+    
+    @Value("${app.task-watch.executor.queue-capacity:500}")
+    private int watchQueueCapacity;
+    
+    @Value("${app.task-watch.executor.virtual-concurrency-limit:8}")
+    private int watchVirtualConcurrencyLimit;
+    
+    @Value("${app.export.max-concurrent:2}")
+    private int exportMaxConcurrent;
+    
+    @Value("${app.executor.submit.pool-size:4}")
+    private int submitPoolSize;
+    
+    @Value("${app.executor.submit.queue-capacity:100}")
+    private int submitQueueCapacity;
+    
+    @Value("${app.executor.submit.virtual-concurrency-limit:16}")
+    private int submitVirtualConcurrencyLimit;
+    
+    @Value("${app.preflight.executor.pool-size:8}")
+    private int preflightPoolSize;
+    
+    @Value("${app.preflight.executor.queue-capacity:500}")
+    private int preflightQueueCapacity;
+    
+    @Value("${app.preflight.executor.virtual-concurrency-limit:16}")
+    private int preflightVirtualConcurrencyLimit;
+    
+    /**
+     * 监听RPC线程池
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 线程池
+     */
+    @Bean(name = MONITOR_RPC_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor monitorRpcExecutor(MeterRegistry meterRegistry) {
+        return buildExecutor(MONITOR_RPC_EXECUTOR, "monitor-rpc-", rpcPoolSize, rpcQueueCapacity, meterRegistry);
+    }
+    
+    /**
+     * 监听DB线程池
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 线程池
+     */
+    @Bean(name = MONITOR_DB_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor monitorDbExecutor(MeterRegistry meterRegistry) {
+        return buildExecutor(MONITOR_DB_EXECUTOR, "monitor-db-", dbPoolSize, dbQueueCapacity, meterRegistry);
+    }
+    
+    /**
+     * 任务变更通知线程池
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 线程池
+     */
+    @Bean(name = TASK_WATCH_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor taskWatchExecutor(MeterRegistry meterRegistry) {
+        return buildExecutor(TASK_WATCH_EXECUTOR, "task-watch-", watchPoolSize, watchQueueCapacity, meterRegistry);
+    }
+    
+    /**
+     * 转账项导出线程池
+     * 导出服务按 app.export.max-concurrent 限制同时进行的导出数，线程数与之相同，队列只用于吸收边界情况
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 线程池
+     */
+    @Bean(name = ITEM_EXPORT_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor itemExportExecutor(MeterRegistry meterRegistry) {
+        return buildExecutor(ITEM_EXPORT_EXECUTOR, "item-export-", exportMaxConcurrent, exportMaxConcurrent, meterRegistry);
+    }
+    
+    /**
+     * 服务端执行器提交线程池
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 线程池
+     */
+    @Bean(name = EXECUTOR_SUBMIT_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor executorSubmitExecutor(MeterRegistry meterRegistry) {
+        return buildExecutor(EXECUTOR_SUBMIT_EXECUTOR, "executor-submit-", submitPoolSize, submitQueueCapacity,
+                meterRegistry);
+    }
+    
+    /**
+     * 预执行线程池
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 线程池
+     */
+    @Bean(name = PREFLIGHT_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor preflightExecutor(MeterRegistry meterRegistry) {
+        return buildExecutor(PREFLIGHT_EXECUTOR, "preflight-", preflightPoolSize, preflightQueueCapacity, meterRegistry);
+    }
+    
+    /**
+     * 监听RPC虚拟线程执行器
+     * 每个收据查询独占一个虚拟线程，阻塞在节点调用上不占用平台线程
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 执行器
+     */
+    @Bean(name = MONITOR_RPC_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualMonitorRpcExecutor(MeterRegistry meterRegistry) {
+        return buildVirtualExecutor(MONITOR_RPC_EXECUTOR, "monitor-rpc-vt-", rpcVirtualConcurrencyLimit, meterRegistry);
+    }
+    
+    /**
+     * 监听DB虚拟线程执行器
+     * 并发上限不宜超过后台任务连接池大小
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 执行器
+     */
+    @Bean(name = MONITOR_DB_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualMonitorDbExecutor(MeterRegistry meterRegistry) {
+        return buildVirtualExecutor(MONITOR_DB_EXECUTOR, "monitor-db-vt-", dbVirtualConcurrencyLimit, meterRegistry);
+    }
+    
+    /**
+     * 任务变更通知虚拟线程执行器
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 执行器
+     */
+    @Bean(name = TASK_WATCH_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualTaskWatchExecutor(MeterRegistry meterRegistry) {
+        return buildVirtualExecutor(TASK_WATCH_EXECUTOR, "task-watch-vt-", watchVirtualConcurrencyLimit, meterRegistry);
+    }
+    
+    /**
+     * 转账项导出虚拟线程执行器
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 执行器
+     */
+    @Bean(name = ITEM_EXPORT_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualItemExportExecutor(MeterRegistry meterRegistry) {
+        return buildVirtualExecutor(ITEM_EXPORT_EXECUTOR, "item-export-vt-", exportMaxConcurrent, meterRegistry);
+    }
+    
+    /**
+     * 服务端执行器提交虚拟线程执行器
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 执行器
+     */
+    @Bean(name = EXECUTOR_SUBMIT_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualExecutorSubmitExecutor(MeterRegistry meterRegistry) {
+        return buildVirtualExecutor(EXECUTOR_SUBMIT_EXECUTOR, "executor-submit-vt-", submitVirtualConcurrencyLimit,
+                meterRegistry);
+    }
+    
+    /**
+     * 预执行虚拟线程执行器
+     * 
+     * @param meterRegistry 指标注册表
+     * @return 执行器
+     */
+    @Bean(name = PREFLIGHT_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualPreflightExecutor(MeterRegistry meterRegistry) {
+        return buildVirtualExecutor(PREFLIGHT_EXECUTOR, "preflight-vt-", preflightVirtualConcurrencyLimit, meterRegistry);
+    }
+    
+    /**
+     * 创建固定大小、有界队列的线程池
+     */
+    private ThreadPoolTaskExecutor buildExecutor(String name, String threadNamePrefix, int poolSize,
+                                                 int queueCapacity, MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("线程池拒绝的任务数")
+                .tag("name", name)
+                .register(meterRegistry);
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(countingAbortPolicy(name, rejected));
+        executor.setTaskDecorator(task -> DataSourceContextHolder.wrap(DataSourceType.BATCH, task));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+    
+    /**
+     * 创建有并发上限的虚拟线程执行器
+     * 并发上限由任务在自己的虚拟线程中获取许可实现，而不用SimpleAsyncTaskExecutor自带的限流：
+     * 后者在达到上限时阻塞提交方，CompletableFuture在本执行器的任务中提交后续异步阶段时，
+     * 占满许可的任务会互相等待而死锁。
+     * Spring Boot不会为其自动绑定指标，这里按相同的名称标签注册活跃任务数和等待任务数
+     */
+    private SimpleAsyncTaskExecutor buildVirtualExecutor(String name, String threadNamePrefix, int concurrencyLimit,
+                                                         MeterRegistry meterRegistry) {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger queued = new AtomicInteger();
+        Gauge.builder("executor.active", active, AtomicInteger::get)
+                .description("正在执行的任务数")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", queued, AtomicInteger::get)
+                .description("等待并发许可的任务数")
+                .tag("name", name)
+                .register(meterRegistry);
+        
+        Semaphore permits = new Semaphore(concurrencyLimit, true);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30000);
+        executor.setTaskDecorator(task -> DataSourceContextHolder.wrap(DataSourceType.BATCH, () -> {
+            queued.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // 关闭时中断等待中的任务，不再执行
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                queued.decrementAndGet();
+            }
+            
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                permits.release();
+            }
+        }));
+        return executor;
+    }
+    
+    /**
+     * 记录拒绝次数后抛出异常，由调用方决定跳过或重试
+     */
+    private RejectedExecutionHandler countingAbortPolicy(String name, Counter rejected) {
+        return (task, threadPool) -> {
+            rejected.increment();
+            log.warn("线程池 {} 已满，拒绝任务: active={}, queued={}",
+                    name, threadPool.getActiveCount(), threadPool.getQueue().size());
+            throw new RejectedExecutionException("线程池 " + name + " 已满");
+        };
+    }
+}
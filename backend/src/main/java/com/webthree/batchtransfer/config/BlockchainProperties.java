@@ -0,0 +1,23 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 区块链配置
+ * 服务端执行、预执行和费用预估调用的批量转账合约；节点连接参数由 {@link Web3jConfig} 读取
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.blockchain")
+public class BlockchainProperties {
+    
+    /**
+     * 批量转账合约地址
+     */
+    private String contractAddress;
+}
@@ -0,0 +1,73 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分块规划配置
+ * 按接收者类型（普通账户/合约）和最近完成任务的实际Gas，把转账项装入不超过Gas预算的若干笔交易
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.chunk-planner")
+public class ChunkPlannerProperties {
+    
+    /**
+     * 单笔交易的Gas预算（Gas上限，含 app.executor.gas-limit-margin-percent 余量），应明显低于区块Gas上限
+     */
+    private long gasBudget = 15_000_000L;
+    
+    /**
+     * 单笔交易最多接收者数量（不超过合约 MAX_RECIPIENTS）
+     */
+    private int maxRecipientsPerChunk = 200;
+    
+    /**
+     * 单次批量eth_getCode请求包含的地址数
+     */
+    private int codeBatchSize = 100;
+    
+    /**
+     * 接收者类型缓存时间（毫秒）
+     */
+    private long codeCacheTtl = 3_600_000L;
+    
+    /**
+     * 接收者类型缓存的最大地址数
+     */
+    private int codeCacheMaxEntries = 100_000;
+    
+    /**
+     * Gas模型刷新间隔（毫秒）
+     */
+    private long modelRefreshInterval = 600_000L;
+    
+    /**
+     * 拟合Gas模型使用的最近完成任务数
+     */
+    private int modelSampleTasks = 50;
+    
+    /**
+     * 拟合Gas模型所需的最少任务数，不足时使用默认值
+     */
+    private int minModelSamples = 10;
+    
+    /**
+     * 默认每笔交易的基础Gas
+     */
+    private long defaultBaseGas = 60_000L;
+    
+    /**
+     * 默认每个普通账户接收者的Gas
+     */
+    private long defaultEoaGas = 12_000L;
+    
+    /**
+     * 默认每个合约接收者的Gas
+     */
+    private long defaultContractGas = 40_000L;
+}
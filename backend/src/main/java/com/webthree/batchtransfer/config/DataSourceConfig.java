@@ -0,0 +1,145 @@
+package com.webthree.batchtransfer.config;
+
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.ReplicaSelector;
+import com.webthree.batchtransfer.datasource.RoutingDataSource;
+import com.webthree.batchtransfer.util.AuthUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据源配置
+ * 接口请求与后台任务使用相互隔离的连接池（舱壁），后台扫描变慢或大批量写入不会占满接口请求的连接。
+ * 两个连接池共享spring.datasource的连接信息，池大小等参数分别在app.datasource.api/batch.hikari下配置；
+ * 连接池指标由Spring Boot按池名称自动绑定（hikaricp.*）。
+ * 配置了只读副本（app.datasource.replica.nodes）时，只读事务路由到副本，每个副本一个连接池，
+ * 接口请求和后台任务共用
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Configuration
+public class DataSourceConfig {
+    
+    /**
+     * 接口请求连接池Bean名称
+     */
+    public static final String API_DATA_SOURCE = "apiDataSource";
+    
+    /**
+     * 后台任务连接池Bean名称
+     */
+    public static final String BATCH_DATA_SOURCE = "batchDataSource";
+    
+    /**
+     * 接口请求连接池
+     * 
+     * @param properties 数据源连接信息
+     * @return 连接池
+     */
+    @Bean(name = API_DATA_SOURCE)
+    @ConfigurationProperties("app.datasource.api.hikari")
+    public HikariDataSource apiDataSource(DataSourceProperties properties) {
+        return buildDataSource(properties, "api-pool");
+    }
+    
+    /**
+     * 后台任务连接池
+     * 
+     * @param properties 数据源连接信息
+     * @return 连接池
+     */
+    @Bean(name = BATCH_DATA_SOURCE)
+    @ConfigurationProperties("app.datasource.batch.hikari")
+    public HikariDataSource batchDataSource(DataSourceProperties properties) {
+        return buildDataSource(properties, "batch-pool");
+    }
+    
+    /**
+     * 只读副本选择器，持有各副本的连接池
+     * 
+     * @param properties 主库连接信息
+     * @param replicaProperties 副本配置
+     * @param environment 环境配置，用于绑定副本连接池参数
+     * @param meterRegistry 指标注册表
+     * @return 副本选择器，未配置副本时不含任何副本
+     */
+    @Bean
+    public ReplicaSelector replicaSelector(DataSourceProperties properties, ReplicaProperties replicaProperties,
+                                           Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReplicaSelector.Replica> replicas = new ArrayList<>();
+        for (ReplicaProperties.Node node : replicaProperties.getNodes()) {
+            String key = "replica-" + replicas.size();
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(node.getUrl())
+                    .username(node.getUsername() != null ? node.getUsername() : properties.determineUsername())
+                    .password(node.getPassword() != null ? node.getPassword() : properties.determinePassword())
+                    .build();
+            Binder.get(environment).bind("app.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(key + "-pool");
+            // 副本连接池不是Bean，不会被自动绑定指标
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReplicaSelector.Replica(key, dataSource));
+        }
+        return new ReplicaSelector(replicas, replicaProperties.getReadYourWritesWindow(), replicaProperties.getMaxLag());
+    }
+    
+    /**
+     * 路由数据源，MyBatis和事务管理器均使用该数据源
+     * 外层的 LazyConnectionDataSourceProxy 把获取连接推迟到第一条语句执行时，
+     * 此时事务的只读标记已经设置，路由才能据此选择副本
+     * 
+     * @param apiDataSource 接口请求连接池
+     * @param batchDataSource 后台任务连接池
+     * @param replicaSelector 只读副本选择器
+     * @return 路由数据源
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(API_DATA_SOURCE) DataSource apiDataSource,
+                                 @Qualifier(BATCH_DATA_SOURCE) DataSource batchDataSource,
+                                 ReplicaSelector replicaSelector) {
+        Map<Object, Object> targets = new HashMap<>(replicaSelector.targets());
+        targets.put(DataSourceType.API, apiDataSource);
+        targets.put(DataSourceType.BATCH, batchDataSource);
+        
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(apiDataSource);
+        routingDataSource.setReplicaSelector(replicaSelector);
+        routingDataSource.setWalletAddressResolver(AuthUtils::getCurrentWalletAddress);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+    
+    /**
+     * 按spring.datasource的连接信息创建Hikari连接池
+     */
+    private HikariDataSource buildDataSource(DataSourceProperties properties, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+}
@@ -0,0 +1,134 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 服务端执行器配置
+ * 启用后执行器领取执行方式为SERVER的待执行任务，用配置的热钱包签名并提交 batchTransfer 交易；
+ * 配置多个热钱包时组成发送钱包池，任务按余额、在途交易数和确认耗时分配到各钱包；
+ * 转账金额由热钱包支付，只有 allowedCreators 中的地址可以创建SERVER任务，并受单个任务和每个创建者的额度限制
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.executor")
+public class ExecutorProperties {
+    
+    /**
+     * 是否启用服务端执行
+     */
+    private boolean enabled = false;
+    
+    /**
+     * 热钱包私钥（生产环境请使用环境变量）
+     */
+    private String privateKey;
+    
+    /**
+     * 其他热钱包私钥，与 privateKey 一起组成发送钱包池
+     */
+    private List<String> privateKeys = new ArrayList<>();
+    
+    /**
+     * 允许创建SERVER任务（由热钱包支付转账金额）的创建者地址，为空时任何地址都不能创建
+     */
+    private List<String> allowedCreators = new ArrayList<>();
+    
+    /**
+     * 单个SERVER任务的转账总金额上限（ETH）
+     */
+    private BigDecimal maxTaskAmount = new BigDecimal("10");
+    
+    /**
+     * 每个创建者同时未完成（待执行或执行中）的SERVER任务数上限
+     */
+    private int maxOpenTasksPerCreator = 10;
+    
+    /**
+     * 每个创建者未完成的SERVER任务转账总金额上限（ETH）
+     */
+    private BigDecimal maxOpenAmountPerCreator = new BigDecimal("50");
+    
+    /**
+     * 链ID，未配置时启动后通过eth_chainId查询
+     */
+    private Long chainId;
+    
+    /**
+     * 每个钱包同时在途（已提交未确认）的交易数上限
+     */
+    private int maxInFlight = 4;
+    
+    /**
+     * 领取任务的间隔（毫秒，上一轮结束后开始计时）
+     */
+    private long pollInterval = 2000;
+    
+    /**
+     * Gas上限在eth_estimateGas结果上增加的百分比
+     */
+    private int gasLimitMarginPercent = 20;
+    
+    /**
+     * 优先费（wei）
+     */
+    private long maxPriorityFeePerGas = 1_500_000_000L;
+    
+    /**
+     * 最高费用上限（wei），按 2 * baseFee + 优先费 计算的结果不超过该值
+     */
+    private long maxFeePerGas = 200_000_000_000L;
+    
+    /**
+     * 每个钱包为Gas费用预留的余额（wei），余额扣除预留和已分配任务金额后不足的钱包不再分配任务
+     */
+    private long walletGasReserve = 10_000_000_000_000_000L;
+    
+    /**
+     * nonce对账间隔（毫秒，上一轮结束后开始计时）
+     */
+    private long nonceCheckInterval = 15000;
+    
+    /**
+     * 最近分配或发送过的nonce在该时间（毫秒）内不参与对账，超过后仍未进入交易池的交易重新广播，没有交易的nonce视为空缺
+     */
+    private long nonceGapGrace = 30000;
+    
+    /**
+     * 发送钱包租约时长（毫秒），持有实例停止续期超过该时间后其他实例可以接管
+     */
+    private long walletLeaseTtl = 30000;
+    
+    /**
+     * 发送钱包租约续期间隔（毫秒，上一轮结束后开始计时），须小于租约时长
+     */
+    private long walletLeaseRenewInterval = 10000;
+    
+    /**
+     * 卡住交易检查间隔（毫秒，上一轮结束后开始计时）
+     */
+    private long stuckCheckInterval = 15000;
+    
+    /**
+     * 交易在交易池中挂起超过该区块数仍未打包时，以相同nonce、更高费用发送替换交易
+     */
+    private int stuckBlocks = 3;
+    
+    /**
+     * 每次替换时两项费用提高的百分比（节点要求至少10%）
+     */
+    private int feeBumpPercent = 15;
+    
+    /**
+     * 单个任务最多替换次数
+     */
+    private int maxFeeBumps = 5;
+}
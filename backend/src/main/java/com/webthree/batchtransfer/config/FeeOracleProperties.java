@@ -0,0 +1,56 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 费用预言机配置
+ * 每个新区块通过eth_feeHistory采样一次费用并缓存，按若干接收者数量档位预估Gas，费用和报价接口直接读取缓存
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.fee-oracle")
+public class FeeOracleProperties {
+    
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 检查新区块的间隔（毫秒），区块号未变化时不重新采样
+     */
+    private long pollInterval = 2000;
+    
+    /**
+     * eth_feeHistory采样的区块数
+     */
+    private int historyBlocks = 20;
+    
+    /**
+     * 优先费百分位（对应慢速、标准、快速等档位）
+     */
+    private List<Double> rewardPercentiles = new ArrayList<>(List.of(10.0, 50.0, 90.0));
+    
+    /**
+     * Gas模型的接收者数量档位，其他数量按相邻档位线性插值
+     */
+    private List<Integer> recipientBuckets = new ArrayList<>(List.of(1, 10, 50, 100, 200));
+    
+    /**
+     * Gas模型刷新间隔（毫秒）
+     */
+    private long gasModelRefreshInterval = 600000;
+    
+    /**
+     * 预估Gas时使用的发送地址（需持有少量ETH），不配置时使用服务端执行器的第一个钱包
+     */
+    private String estimateFrom;
+}
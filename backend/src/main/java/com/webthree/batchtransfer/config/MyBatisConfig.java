@@ -1,5 +1,9 @@
 package com.webthree.batchtransfer.config;
 
+import com.webthree.batchtransfer.metrics.StatementMetricsInterceptor;
+import org.apache.ibatis.logging.slf4j.Slf4jImpl;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.SqlSessionTemplate;
@@ -9,6 +13,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import javax.sql.DataSource;
+import java.util.Properties;
 
 /**
  * MyBatis配置类
@@ -22,6 +27,9 @@ public class MyBatisConfig {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private StatementMetricsInterceptor statementMetricsInterceptor;
+
     @Bean
     public SqlSessionFactory sqlSessionFactory() throws Exception {
         SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
@@ -36,9 +44,21 @@ public class MyBatisConfig {
         // 设置MyBatis配置
         org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
         configuration.setMapUnderscoreToCamelCase(true);
-        configuration.setLogImpl(org.apache.ibatis.logging.stdout.StdOutImpl.class);
+        // SQL日志交给SLF4J，按Mapper包名在各环境分别设置级别（DEBUG输出SQL和参数）
+        configuration.setLogImpl(Slf4jImpl.class);
         bean.setConfiguration(configuration);
         
+        // 按数据库区分语句（databaseId），如MySQL的流式导出查询
+        Properties databaseIds = new Properties();
+        databaseIds.setProperty("MySQL", "mysql");
+        databaseIds.setProperty("H2", "h2");
+        VendorDatabaseIdProvider databaseIdProvider = new VendorDatabaseIdProvider();
+        databaseIdProvider.setProperties(databaseIds);
+        bean.setDatabaseIdProvider(databaseIdProvider);
+        
+        // 语句耗时指标和慢查询日志
+        bean.setPlugins(new Interceptor[]{statementMetricsInterceptor});
+        
         return bean.getObject();
     }
 
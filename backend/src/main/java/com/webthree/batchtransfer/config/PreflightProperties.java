@@ -0,0 +1,29 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 预执行配置
+ * 提交前以eth_call在最新区块上模拟 batchTransfer 调用，提前发现会回滚的任务；
+ * 并发数由预执行线程池（app.preflight.executor.*）限制
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.preflight")
+public class PreflightProperties {
+    
+    /**
+     * 服务端执行器提交前是否预执行，会回滚的任务直接标记为失败，不占用nonce
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 单次预执行接口最多模拟的任务数
+     */
+    private int maxTasks = 100;
+}
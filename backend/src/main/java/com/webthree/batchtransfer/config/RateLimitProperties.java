@@ -0,0 +1,96 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 限流配置
+ * 按路由配置基于IP和钱包地址的令牌桶参数
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 是否信任X-Forwarded-For头（仅在可信反向代理之后开启）
+     */
+    private boolean trustForwardedFor = false;
+    
+    /**
+     * 请求经过的可信反向代理层数，每层代理都向X-Forwarded-For末尾追加其上游地址。
+     * 客户端IP取从右数第N个条目，更靠左的条目由客户端自行填写，不可信
+     */
+    private int trustedProxyCount = 1;
+    
+    /**
+     * 令牌桶空闲多久后被回收（毫秒）
+     */
+    private long idleTimeout = 600000;
+    
+    /**
+     * 令牌桶数量上限，达到上限时回收最久未访问的令牌桶
+     */
+    private int maxBuckets = 100000;
+    
+    /**
+     * 路由限流配置，key为路由名称
+     */
+    private Map<String, RouteLimit> routes = new LinkedHashMap<>();
+    
+    /**
+     * 单个路由的限流配置
+     */
+    @Data
+    public static class RouteLimit {
+        
+        /**
+         * HTTP方法，为空时匹配所有方法
+         */
+        private String method;
+        
+        /**
+         * 路径模式（Ant风格）
+         */
+        private String path;
+        
+        /**
+         * 按客户端IP限流
+         */
+        private Bandwidth ip;
+        
+        /**
+         * 按钱包地址限流
+         */
+        private Bandwidth wallet;
+    }
+    
+    /**
+     * 令牌桶参数
+     */
+    @Data
+    public static class Bandwidth {
+        
+        /**
+         * 桶容量（允许的突发请求数）
+         */
+        private long capacity;
+        
+        /**
+         * 每秒补充的令牌数
+         */
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,63 @@
+package com.webthree.batchtransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本配置
+ * 副本连接池的池大小等参数在 app.datasource.replica.hikari 下配置，所有副本共用
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+    
+    /**
+     * 副本节点，为空时所有查询都读主库
+     */
+    private List<Node> nodes = new ArrayList<>();
+    
+    /**
+     * 钱包写入后其查询读主库的最短时间（毫秒），副本复制延迟更大时以延迟为准
+     */
+    private long readYourWritesWindow = 2000;
+    
+    /**
+     * 允许的最大复制延迟（毫秒），超过时该副本不再接收查询
+     */
+    private long maxLag = 10000;
+    
+    /**
+     * 复制延迟检查间隔（毫秒）
+     */
+    private long lagCheckInterval = 5000;
+    
+    /**
+     * 副本节点
+     */
+    @Data
+    public static class Node {
+        
+        /**
+         * JDBC连接地址
+         */
+        private String url;
+        
+        /**
+         * 用户名，未配置时使用spring.datasource.username
+         */
+        private String username;
+        
+        /**
+         * 密码，未配置时使用spring.datasource.password
+         */
+        private String password;
+    }
+}
@@ -0,0 +1,151 @@
+package com.webthree.batchtransfer.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.sql.Driver;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 虚拟线程钉住（pinning）监控
+ * 虚拟线程在synchronized块或本地方法中阻塞时无法从载体线程卸载，会退化为占用平台线程。
+ * 通过JFR事件流订阅jdk.VirtualThreadPinned，超过阈值的钉住事件记录指标并输出阻塞位置，
+ * 便于定位需要改用ReentrantLock的代码或依赖。本监控只上报钉住，不能阻止钉住：
+ * MySQL驱动9.x之前在synchronized块中读写连接，每次JDBC调用都会钉住载体线程，启动时对此输出告警
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    
+    private static final String MYSQL_DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
+    
+    /**
+     * 网络读写不再持有synchronized锁的MySQL驱动主版本
+     */
+    private static final int MYSQL_UNPINNED_MAJOR_VERSION = 9;
+    
+    /**
+     * 日志中输出的栈帧数
+     */
+    private static final int LOGGED_FRAMES = 8;
+    
+    private final Counter pinnedCounter;
+    
+    private final Timer pinnedTimer;
+    
+    /**
+     * 钉住时长阈值（毫秒），短于阈值的事件不上报
+     */
+    @Value("${app.virtual-threads.pinned-threshold:20}")
+    private long pinnedThreshold;
+    
+    private RecordingStream recordingStream;
+    
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("虚拟线程被钉住在载体线程上的次数")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("虚拟线程被钉住的时长")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 启动JFR事件流
+     */
+    @PostConstruct
+    public void start() {
+        warnIfDriverPins();
+        
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(pinnedThreshold))
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("虚拟线程钉住监控已启动，阈值: {}ms", pinnedThreshold);
+    }
+    
+    /**
+     * MySQL驱动8.x下虚拟线程执行的每次JDBC调用都会钉住载体线程，数据库密集的接口可能比平台线程模式更慢
+     */
+    private void warnIfDriverPins() {
+        int majorVersion;
+        try {
+            Driver driver = (Driver) Class.forName(MYSQL_DRIVER_CLASS).getDeclaredConstructor().newInstance();
+            majorVersion = driver.getMajorVersion();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return;
+        }
+        
+        if (majorVersion < MYSQL_UNPINNED_MAJOR_VERSION) {
+            log.warn("已开启虚拟线程模式，但MySQL驱动为 {}.x：每次JDBC调用都会钉住载体线程，"
+                    + "Tomcat请求线程和数据库执行器上的查询可能比平台线程模式更慢。"
+                    + "驱动升级到 {}.x 之前建议关闭虚拟线程（VIRTUAL_THREADS_ENABLED=false）",
+                    majorVersion, MYSQL_UNPINNED_MAJOR_VERSION);
+        }
+    }
+    
+    /**
+     * 关闭JFR事件流
+     */
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+    
+    /**
+     * 处理钉住事件
+     */
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        
+        log.warn("虚拟线程被钉住 {}ms，阻塞位置:\n{}", event.getDuration().toMillis(), formatStackTrace(event));
+    }
+    
+    /**
+     * 格式化事件栈顶若干帧
+     */
+    private String formatStackTrace(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "\t<无栈信息>";
+        }
+        
+        StringBuilder builder = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            builder.append("\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber())
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+}
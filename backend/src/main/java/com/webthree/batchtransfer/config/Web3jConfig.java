@@ -1,5 +1,7 @@
 package com.webthree.batchtransfer.config;
 
+import com.webthree.batchtransfer.metrics.InstrumentedHttpService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -31,23 +33,24 @@ public class Web3jConfig {
     /**
      * 创建Web3j实例
      * 
+     * @param meterRegistry 指标注册表
      * @return Web3j实例
      */
     @Bean
-    public Web3j web3j() {
+    public Web3j web3j(MeterRegistry meterRegistry) {
         log.info("初始化Web3j连接，RPC URL: {}", rpcUrl);
         
         try {
-            // 创建HTTP服务，设置超时时间
-            HttpService httpService = new HttpService(rpcUrl);
-            httpService.addHeader("User-Agent", "BatchTransfer/1.0.0");
-            
             // 设置连接和读取超时
-            okhttp3.OkHttpClient.Builder clientBuilder = httpService.getOkHttpClientBuilder();
+            okhttp3.OkHttpClient.Builder clientBuilder = HttpService.getOkHttpClientBuilder();
             clientBuilder.connectTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
             clientBuilder.readTimeout(readTimeout, TimeUnit.MILLISECONDS);
             clientBuilder.writeTimeout(readTimeout, TimeUnit.MILLISECONDS);
             
+            // 创建带指标的HTTP服务，按RPC方法记录耗时和错误
+            HttpService httpService = new InstrumentedHttpService(rpcUrl, clientBuilder.build(), meterRegistry);
+            httpService.addHeader("User-Agent", "BatchTransfer/1.0.0");
+            
             Web3j web3j = Web3j.build(httpService);
             
             // 测试连接
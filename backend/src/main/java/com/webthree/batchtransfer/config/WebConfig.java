@@ -1,9 +1,14 @@
 package com.webthree.batchtransfer.config;
 
 import com.webthree.batchtransfer.interceptor.JwtAuthenticationInterceptor;
+import com.webthree.batchtransfer.interceptor.RateLimitInterceptor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -19,6 +24,16 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
     
     private final JwtAuthenticationInterceptor jwtAuthenticationInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    
+    @Qualifier(AsyncConfig.ITEM_EXPORT_EXECUTOR)
+    private final AsyncTaskExecutor itemExportExecutor;
+    
+    /**
+     * 异步请求（流式导出）超时时间（毫秒），长轮询使用各自的等待时间
+     */
+    @Value("${app.export.timeout:600000}")
+    private long asyncRequestTimeout;
     
     @Override
     public void addInterceptors(@NonNull InterceptorRegistry registry) {
@@ -32,5 +47,16 @@ public class WebConfig implements WebMvcConfigurer {
                     "/api/v1/debug/**",        // 排除调试接口
                     "/api/v1/batch-transfer/health" // 排除健康检查接口
                 );
+        
+        // 限流拦截器在JWT拦截器之后执行，以便按已认证的钱包地址限流
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/api/v1/**");
+    }
+    
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        // 流式导出（StreamingResponseBody）在导出线程池中写出，不占用请求处理线程
+        configurer.setTaskExecutor(itemExportExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.webthree.batchtransfer.controller;
 
 import com.webthree.batchtransfer.dto.*;
+import com.webthree.batchtransfer.exception.RateLimitExceededException;
+import com.webthree.batchtransfer.service.RateLimitService;
 import com.webthree.batchtransfer.util.EthSignatureUtils;
 import com.webthree.batchtransfer.util.JwtUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +32,7 @@ public class AuthController {
     
     private final EthSignatureUtils ethSignatureUtils;
     private final JwtUtils jwtUtils;
+    private final RateLimitService rateLimitService;
     
     @Value("${app.auth.jwt.expiration}")
     private long jwtExpiration;
@@ -98,6 +101,9 @@ public class AuthController {
                 );
             }
             
+            // 签名验证通过后才按钱包维度限流，未持有私钥的请求无法消耗该钱包的令牌
+            rateLimitService.requireWalletPermit(request.getWalletAddress());
+            
             // 生成JWT Token
             String accessToken = jwtUtils.generateToken(request.getWalletAddress());
             String refreshToken = jwtUtils.generateRefreshToken(request.getWalletAddress());
@@ -114,6 +120,8 @@ public class AuthController {
             
             return ResponseEntity.ok(ApiResponse.success(response));
             
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
             log.error("用户登录失败: walletAddress={}", request.getWalletAddress(), e);
             return ResponseEntity.badRequest().body(
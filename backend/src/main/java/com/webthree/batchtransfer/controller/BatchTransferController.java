@@ -1,23 +1,53 @@
 package com.webthree.batchtransfer.controller;
 
 import com.webthree.batchtransfer.dto.ApiResponse;
+import com.webthree.batchtransfer.dto.BatchTaskStatusRequest;
+import com.webthree.batchtransfer.dto.BatchTaskStatusResponse;
+import com.webthree.batchtransfer.dto.ChunkPlanRequest;
+import com.webthree.batchtransfer.dto.ChunkPlanResponse;
+import com.webthree.batchtransfer.dto.CostQuoteResponse;
 import com.webthree.batchtransfer.dto.CreateTaskRequest;
+import com.webthree.batchtransfer.dto.FeeEstimateResponse;
+import com.webthree.batchtransfer.dto.PreflightResponse;
+import com.webthree.batchtransfer.dto.RecipientTransferPage;
 import com.webthree.batchtransfer.dto.TaskResponse;
 import com.webthree.batchtransfer.dto.UpdateTaskStatusRequest;
 import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.exception.BlockchainException;
+import com.webthree.batchtransfer.exception.BusinessException;
+import com.webthree.batchtransfer.exception.RateLimitExceededException;
 import com.webthree.batchtransfer.service.BatchTransferService;
 import com.webthree.batchtransfer.service.BlockchainMonitorService;
+import com.webthree.batchtransfer.service.ChunkPlannerService;
+import com.webthree.batchtransfer.service.FeeOracleService;
+import com.webthree.batchtransfer.service.ItemExportService;
+import com.webthree.batchtransfer.service.PreflightService;
+import com.webthree.batchtransfer.service.TaskChangeNotifier;
 import com.webthree.batchtransfer.util.AuthUtils;
+import com.webthree.batchtransfer.util.ETagUtils;
+import com.webthree.batchtransfer.util.ItemExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +69,23 @@ public class BatchTransferController {
 
     private final BatchTransferService batchTransferService;
     private final BlockchainMonitorService blockchainMonitorService;
+    private final TaskChangeNotifier taskChangeNotifier;
+    private final ItemExportService itemExportService;
+    private final FeeOracleService feeOracleService;
+    private final ChunkPlannerService chunkPlannerService;
+    private final PreflightService preflightService;
+    
+    /**
+     * 长轮询最长等待时间（毫秒）
+     */
+    @Value("${app.task-watch.max-wait:60000}")
+    private long maxWaitMillis;
+    
+    /**
+     * 按时间范围导出时允许的最大天数
+     */
+    @Value("${app.export.max-range-days:366}")
+    private long maxExportRangeDays;
 
     /**
      * 创建批量转账任务
@@ -71,20 +118,29 @@ public class BatchTransferController {
 
     /**
      * 获取任务详情
+     * 响应带有由任务ID和版本号生成的ETag，If-None-Match匹配时只读取任务头部并返回304，
+     * 不匹配时在已读取的头部上加载转账项
      * 
      * @param taskId 任务ID
+     * @param ifNoneMatch 客户端缓存的ETag
      * @return 任务详情
      */
     @GetMapping("/tasks/{taskId}")
-    @Operation(summary = "获取任务详情", description = "根据任务ID获取批量转账任务的详细信息")
+    @Operation(summary = "获取任务详情", description = "根据任务ID获取批量转账任务的详细信息，支持If-None-Match条件请求")
     public ResponseEntity<ApiResponse<TaskResponse>> getTask(
-            @Parameter(description = "任务ID") @PathVariable Long taskId) {
+            @Parameter(description = "任务ID") @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        log.info("Getting task details for ID: {}", taskId);
+        log.debug("Getting task details for ID: {}", taskId);
         
         try {
-            TaskResponse task = batchTransferService.getTaskById(taskId);
-            return ResponseEntity.ok(ApiResponse.success(task));
+            TaskResponse header = batchTransferService.getTaskById(taskId, false);
+            String etag = ETagUtils.taskETag(header.getId(), header.getVersion());
+            if (ETagUtils.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            
+            return taskDetail(batchTransferService.withTransferItems(header));
         } catch (Exception e) {
             log.error("Failed to get task details for ID: {}", taskId, e);
             return ResponseEntity.badRequest().body(
@@ -93,6 +149,59 @@ public class BatchTransferController {
         }
     }
 
+    /**
+     * 等待任务变更（长轮询）
+     * If-None-Match与当前版本一致时挂起请求（不占用处理线程），直到任务变更或等待超时；
+     * 变更时返回最新详情，超时返回304。版本已不一致时立即返回详情
+     * 
+     * @param taskId 任务ID
+     * @param ifNoneMatch 客户端缓存的ETag
+     * @param wait 最长等待时间，如 30s（不带单位时按秒），不超过 app.task-watch.max-wait
+     * @return 任务详情或304
+     */
+    @GetMapping(value = "/tasks/{taskId}", params = "wait")
+    @Operation(summary = "等待任务变更", description = "长轮询：任务版本与If-None-Match一致时等待变更，超时返回304")
+    public DeferredResult<ResponseEntity<ApiResponse<TaskResponse>>> waitForTaskChange(
+            @Parameter(description = "任务ID") @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "最长等待时间，如 30s") @RequestParam String wait) {
+        
+        try {
+            long waitMillis = Math.min(DurationStyle.detectAndParse(wait, ChronoUnit.SECONDS).toMillis(), maxWaitMillis);
+            
+            TaskResponse header = batchTransferService.getTaskById(taskId, false);
+            String etag = ETagUtils.taskETag(header.getId(), header.getVersion());
+            
+            DeferredResult<ResponseEntity<ApiResponse<TaskResponse>>> result =
+                    new DeferredResult<>(Math.max(waitMillis, 1), () -> notModified(etag));
+            if (!ETagUtils.matches(ifNoneMatch, etag)) {
+                result.setResult(taskDetail(batchTransferService.withTransferItems(header)));
+                return result;
+            }
+            if (waitMillis <= 0) {
+                result.setResult(notModified(etag));
+                return result;
+            }
+            
+            TaskChangeNotifier.Watch watch = taskChangeNotifier.watch(taskId, header.getVersion(),
+                    () -> result.setResult(loadTaskDetail(taskId)));
+            if (watch == null) {
+                // 等待数已满，按普通条件请求处理
+                result.setResult(notModified(etag));
+                return result;
+            }
+            result.onCompletion(watch::cancel);
+            return result;
+        } catch (Exception e) {
+            log.error("Failed to wait for task change for ID: {}", taskId, e);
+            DeferredResult<ResponseEntity<ApiResponse<TaskResponse>>> result = new DeferredResult<>();
+            result.setResult(ResponseEntity.badRequest().body(
+                ApiResponse.businessError("获取任务详情失败: " + e.getMessage())
+            ));
+            return result;
+        }
+    }
+
     /**
      * 获取任务列表
      * 
@@ -132,22 +241,27 @@ public class BatchTransferController {
 
     /**
      * 更新任务状态
+     * 默认只返回任务头部，响应的ETag与任务详情一致，客户端可据此判断缓存的转账项列表是否仍然有效
      * 
      * @param taskId 任务ID
      * @param request 更新请求
+     * @param include 附加内容，items 表示同时返回转账项列表
      * @return 更新结果
      */
     @PutMapping("/tasks/{taskId}/status")
-    @Operation(summary = "更新任务状态", description = "更新批量转账任务的状态信息")
+    @Operation(summary = "更新任务状态", description = "更新批量转账任务的状态信息，默认不返回转账项")
     public ResponseEntity<ApiResponse<TaskResponse>> updateTaskStatus(
             @Parameter(description = "任务ID") @PathVariable Long taskId,
-            @Valid @RequestBody UpdateTaskStatusRequest request) {
+            @Valid @RequestBody UpdateTaskStatusRequest request,
+            @Parameter(description = "附加内容：items") @RequestParam(required = false) String include) {
         
         log.info("Updating task status for ID: {}, new status: {}", taskId, request.getStatus());
         
         try {
-            TaskResponse updatedTask = batchTransferService.updateTaskStatus(taskId, request);
-            return ResponseEntity.ok(ApiResponse.success(updatedTask));
+            TaskResponse updatedTask = batchTransferService.updateTaskStatus(taskId, request, includesItems(include));
+            return ResponseEntity.ok()
+                    .eTag(ETagUtils.taskETag(updatedTask.getId(), updatedTask.getVersion()))
+                    .body(ApiResponse.success(updatedTask));
         } catch (Exception e) {
             log.error("Failed to update task status for ID: {}", taskId, e);
             return ResponseEntity.badRequest().body(
@@ -180,24 +294,322 @@ public class BatchTransferController {
         }
     }
     
+    /**
+     * 批量查询任务状态
+     * 
+     * @param request 任务ID和执行令牌列表
+     * @return 任务状态记录（不含转账项）
+     */
+    @PostMapping("/tasks/status:batch")
+    @Operation(summary = "批量查询任务状态", description = "按任务ID或执行令牌批量查询当前用户任务的状态，只返回状态相关字段，不含转账项")
+    public ResponseEntity<ApiResponse<BatchTaskStatusResponse>> getTaskStatuses(
+            @Valid @RequestBody BatchTaskStatusRequest request) {
+        
+        try {
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            BatchTaskStatusResponse statuses = batchTransferService.getTaskStatuses(request, currentWalletAddress);
+            log.debug("Batch task status query for wallet: {}, found: {}", currentWalletAddress, statuses.getTasks().size());
+            
+            return ResponseEntity.ok(ApiResponse.success(statuses));
+        } catch (Exception e) {
+            log.error("Failed to query task statuses", e);
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("批量查询任务状态失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 按接收地址查询转账记录
+     * 
+     * @param address 接收地址（不区分大小写）
+     * @param cursor 上一页返回的游标
+     * @param limit 每页条数
+     * @return 转账记录分页
+     */
+    @GetMapping("/recipients/{address}/transfers")
+    @Operation(summary = "按接收地址查询转账记录", description = "查询当前用户的任务中向指定地址的转账记录，按时间倒序游标分页")
+    public ResponseEntity<ApiResponse<RecipientTransferPage>> getRecipientTransfers(
+            @Parameter(description = "接收地址") @PathVariable String address,
+            @Parameter(description = "分页游标") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "每页条数，默认50，最大200") @RequestParam(required = false) Integer limit) {
+        
+        try {
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            RecipientTransferPage page = batchTransferService.getRecipientTransfers(address, currentWalletAddress, cursor, limit);
+            log.debug("Recipient transfer query for wallet: {}, recipient: {}, found: {}",
+                    currentWalletAddress, address, page.getRecords().size());
+            
+            return ResponseEntity.ok(ApiResponse.success(page));
+        } catch (Exception e) {
+            log.error("Failed to query transfers of recipient: {}", address, e);
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("查询转账记录失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 获取当前费用
+     * 直接返回费用预言机缓存的采样结果，不查询节点
+     * 
+     * @return 当前费用
+     */
+    @GetMapping("/fees")
+    @Operation(summary = "获取当前费用", description = "返回按最近区块eth_feeHistory计算的基础费用和各百分位建议优先费")
+    public ResponseEntity<ApiResponse<FeeEstimateResponse>> getFees() {
+        return ResponseEntity.ok(ApiResponse.success(feeOracleService.getFees()));
+    }
+    
+    /**
+     * 按接收者数量报价
+     * 
+     * @param recipients 接收者数量
+     * @return 费用报价
+     */
+    @GetMapping("/fees/quote")
+    @Operation(summary = "按接收者数量报价", description = "按缓存的Gas模型和费用采样估算指定接收者数量的批量转账费用")
+    public ResponseEntity<ApiResponse<CostQuoteResponse>> quote(
+            @Parameter(description = "接收者数量，1-200") @RequestParam int recipients) {
+        return ResponseEntity.ok(ApiResponse.success(feeOracleService.quote(recipients, null)));
+    }
+    
+    /**
+     * 任务费用报价
+     * 
+     * @param taskId 任务ID
+     * @return 费用报价
+     */
+    @GetMapping("/tasks/{taskId}/quote")
+    @Operation(summary = "任务费用报价", description = "按当前用户任务的接收者数量和转账总金额估算Gas费用和总花费")
+    public ResponseEntity<ApiResponse<CostQuoteResponse>> quoteTask(
+            @Parameter(description = "任务ID") @PathVariable Long taskId) {
+        
+        try {
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            TaskResponse task = batchTransferService.getTaskById(taskId, false);
+            if (!currentWalletAddress.equalsIgnoreCase(task.getCreatorAddress())) {
+                throw new BusinessException("任务不存在: " + taskId);
+            }
+            
+            CostQuoteResponse quote = feeOracleService.quote(task.getTotalRecipients(), task.getTotalAmount());
+            quote.setTaskId(taskId);
+            return ResponseEntity.ok(ApiResponse.success(quote));
+        } catch (BlockchainException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to quote task: {}", taskId, e);
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("任务费用报价失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 分块规划试算
+     * 只计算分块方案，不创建任务；simulate为true时以当前用户为发送方预执行各分块
+     * 
+     * @param request 转账项列表
+     * @return 分块方案
+     */
+    @PostMapping("/chunk-plans:dry-run")
+    @Operation(summary = "分块规划试算", description = "按接收者类型和Gas模型把转账项装入不超过Gas预算的若干笔交易，返回分块方案和预计费用，不创建任务")
+    public ResponseEntity<ApiResponse<ChunkPlanResponse>> planChunks(@Valid @RequestBody ChunkPlanRequest request) {
+        
+        try {
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            ChunkPlanResponse plan = chunkPlannerService.plan(request.getTransferItems(),
+                    Boolean.TRUE.equals(request.getSimulate()) ? currentWalletAddress : null);
+            log.info("Chunk plan for wallet: {}, recipients: {}, chunks: {}",
+                    currentWalletAddress, plan.getTotalRecipients(), plan.getChunkCount());
+            
+            return ResponseEntity.ok(ApiResponse.success(plan));
+        } catch (BlockchainException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to plan chunks", e);
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("分块规划失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 预执行任务
+     * 
+     * @param taskId 任务ID
+     * @return 预执行结果
+     */
+    @PostMapping("/tasks/{taskId}/preflight")
+    @Operation(summary = "预执行任务", description = "在最新区块上以eth_call模拟当前用户待执行任务的batchTransfer调用，返回是否会回滚及原因")
+    public ResponseEntity<ApiResponse<PreflightResponse>> preflightTask(
+            @Parameter(description = "任务ID") @PathVariable Long taskId) {
+        
+        try {
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            PreflightResponse preflight = preflightService.simulateTask(taskId, currentWalletAddress);
+            log.info("Preflight task: {}, wallet: {}, reverted: {}", taskId, currentWalletAddress, preflight.getReverted());
+            
+            return ResponseEntity.ok(ApiResponse.success(preflight));
+        } catch (BlockchainException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to preflight task: {}", taskId, e);
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("预执行任务失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 预执行全部待执行任务
+     * 
+     * @return 预执行结果
+     */
+    @PostMapping("/tasks/preflight")
+    @Operation(summary = "预执行全部待执行任务", description = "在同一区块上并行模拟当前用户的待执行任务（按创建时间倒序，数量有上限），返回会回滚的任务及原因")
+    public ResponseEntity<ApiResponse<PreflightResponse>> preflightPendingTasks() {
+        
+        try {
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            PreflightResponse preflight = preflightService.simulatePendingTasks(currentWalletAddress);
+            log.info("Preflight pending tasks for wallet: {}, simulated: {}, reverted: {}",
+                    currentWalletAddress, preflight.getSimulated(), preflight.getReverted());
+            
+            return ResponseEntity.ok(ApiResponse.success(preflight));
+        } catch (BlockchainException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to preflight pending tasks", e);
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("预执行任务失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 导出任务的转账项
+     * 从数据库游标逐行写出，不在内存中组装完整列表；响应体为CSV/NDJSON，出错时由全局异常处理器返回JSON
+     * 
+     * @param taskId 任务ID
+     * @param format 导出格式：csv（默认）或 ndjson
+     * @return 流式响应
+     */
+    @GetMapping("/tasks/{taskId}/items/export")
+    @Operation(summary = "导出任务转账项", description = "以CSV或NDJSON流式导出当前用户指定任务的全部转账项")
+    public ResponseEntity<StreamingResponseBody> exportTaskItems(
+            @Parameter(description = "任务ID") @PathVariable Long taskId,
+            @Parameter(description = "导出格式：csv、ndjson") @RequestParam(required = false) String format) {
+        
+        ItemExportService.ExportSlot slot = null;
+        try {
+            ItemExportWriter.Format exportFormat = ItemExportWriter.Format.fromValue(format);
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            TaskResponse task = batchTransferService.getTaskById(taskId, false);
+            if (!currentWalletAddress.equalsIgnoreCase(task.getCreatorAddress())) {
+                throw new BusinessException("任务不存在: " + taskId);
+            }
+            
+            slot = acquireExportSlot();
+            log.info("Exporting items of task {} as {} for wallet: {}", taskId, exportFormat, currentWalletAddress);
+            
+            ItemExportService.ExportSlot exportSlot = slot;
+            return exportResponse("task-" + taskId + "-items", exportFormat, out -> {
+                try (exportSlot) {
+                    itemExportService.exportTaskItems(taskId, exportFormat, out);
+                }
+            });
+        } catch (BusinessException | IllegalArgumentException e) {
+            releaseExportSlot(slot);
+            throw e;
+        } catch (Exception e) {
+            releaseExportSlot(slot);
+            log.error("Failed to export items of task: {}", taskId, e);
+            throw new BusinessException("导出转账项失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 按任务创建日期范围导出当前用户的转账项
+     * 
+     * @param from 起始日期（含）
+     * @param to 结束日期（含）
+     * @param status 任务状态过滤
+     * @param format 导出格式：csv（默认）或 ndjson
+     * @return 流式响应
+     */
+    @GetMapping("/tasks/items/export")
+    @Operation(summary = "按日期导出转账项", description = "以CSV或NDJSON流式导出当前用户在日期范围内创建的任务的转账项")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @Parameter(description = "起始日期（含），如 2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "结束日期（含），如 2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "任务状态过滤")
+            @RequestParam(required = false) BatchTransferTask.TaskStatus status,
+            @Parameter(description = "导出格式：csv、ndjson") @RequestParam(required = false) String format) {
+        
+        ItemExportService.ExportSlot slot = null;
+        try {
+            ItemExportWriter.Format exportFormat = ItemExportWriter.Format.fromValue(format);
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("结束日期不能早于起始日期");
+            }
+            if (ChronoUnit.DAYS.between(from, to) >= maxExportRangeDays) {
+                throw new IllegalArgumentException("导出日期范围不能超过 " + maxExportRangeDays + " 天");
+            }
+            String currentWalletAddress = AuthUtils.requireCurrentWalletAddress();
+            
+            slot = acquireExportSlot();
+            log.info("Exporting items created from {} to {} (status: {}) as {} for wallet: {}",
+                    from, to, status, exportFormat, currentWalletAddress);
+            
+            ItemExportService.ExportSlot exportSlot = slot;
+            return exportResponse("items-" + from + "-" + to, exportFormat, out -> {
+                try (exportSlot) {
+                    itemExportService.exportCreatorItems(currentWalletAddress, from.atStartOfDay(),
+                            to.plusDays(1).atStartOfDay(), status, exportFormat, out);
+                }
+            });
+        } catch (BusinessException | IllegalArgumentException e) {
+            releaseExportSlot(slot);
+            throw e;
+        } catch (Exception e) {
+            releaseExportSlot(slot);
+            log.error("Failed to export items from {} to {}", from, to, e);
+            throw new BusinessException("导出转账项失败: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * 回滚任务状态
      * 
      * @param taskId 任务ID
      * @param errorMessage 错误信息
+     * @param include 附加内容，items 表示同时返回转账项列表
      * @return 回滚后的任务信息
      */
     @PostMapping("/tasks/{taskId}/rollback")
-    @Operation(summary = "回滚任务状态", description = "将执行中的任务回滚为失败状态")
+    @Operation(summary = "回滚任务状态", description = "将执行中的任务回滚为失败状态，默认不返回转账项")
     public ResponseEntity<ApiResponse<TaskResponse>> rollbackTaskStatus(
             @Parameter(description = "任务ID") @PathVariable Long taskId,
-            @Parameter(description = "错误信息") @RequestParam(required = false) String errorMessage) {
+            @Parameter(description = "错误信息") @RequestParam(required = false) String errorMessage,
+            @Parameter(description = "附加内容：items") @RequestParam(required = false) String include) {
         
         log.info("Rolling back task status: {}", taskId);
         
         try {
-            TaskResponse task = batchTransferService.rollbackTaskStatus(taskId, errorMessage);
-            return ResponseEntity.ok(ApiResponse.success(task));
+            TaskResponse task = batchTransferService.rollbackTaskStatus(taskId, errorMessage, includesItems(include));
+            return ResponseEntity.ok()
+                    .eTag(ETagUtils.taskETag(task.getId(), task.getVersion()))
+                    .body(ApiResponse.success(task));
         } catch (Exception e) {
             log.error("Failed to rollback task status: {}", taskId, e);
             return ResponseEntity.badRequest().body(
@@ -245,14 +657,8 @@ public class BatchTransferController {
             
             log.info("Getting task statistics for wallet: {}", currentWalletAddress);
             
-            // 获取当前用户的任务列表
-            List<TaskResponse> userTasks = batchTransferService.getTasksByCreatorAddress(currentWalletAddress);
-            Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalTasks", userTasks.size());
-            statistics.put("pendingTasks", userTasks.stream().filter(t -> t.getStatus() == BatchTransferTask.TaskStatus.PENDING).count());
-            statistics.put("executingTasks", userTasks.stream().filter(t -> t.getStatus() == BatchTransferTask.TaskStatus.EXECUTING).count());
-            statistics.put("completedTasks", userTasks.stream().filter(t -> t.getStatus() == BatchTransferTask.TaskStatus.COMPLETED).count());
-            statistics.put("failedTasks", userTasks.stream().filter(t -> t.getStatus() == BatchTransferTask.TaskStatus.FAILED).count());
+            // 按状态计数，不加载任务列表
+            Map<String, Object> statistics = batchTransferService.getTaskStatistics(currentWalletAddress);
             
             return ResponseEntity.ok(ApiResponse.success(statistics));
         } catch (Exception e) {
@@ -337,6 +743,90 @@ public class BatchTransferController {
         }
     }
 
+    /**
+     * 任务详情响应：带ETag，允许客户端缓存但每次使用前需重新验证
+     */
+    private ResponseEntity<ApiResponse<TaskResponse>> taskDetail(TaskResponse task) {
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.taskETag(task.getId(), task.getVersion()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.success(task));
+    }
+    
+    /**
+     * 304响应
+     */
+    private ResponseEntity<ApiResponse<TaskResponse>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
+    }
+    
+    /**
+     * 任务变更后读取最新详情（在通知线程池中执行）
+     */
+    private ResponseEntity<ApiResponse<TaskResponse>> loadTaskDetail(Long taskId) {
+        try {
+            return taskDetail(batchTransferService.getTaskById(taskId));
+        } catch (Exception e) {
+            log.warn("Failed to load task {} after change: {}", taskId, e.getMessage());
+            return ResponseEntity.badRequest().body(
+                ApiResponse.businessError("获取任务详情失败: " + e.getMessage())
+            );
+        }
+    }
+    
+    /**
+     * 申请导出名额，已达上限时抛出限流异常
+     */
+    private ItemExportService.ExportSlot acquireExportSlot() {
+        ItemExportService.ExportSlot slot = itemExportService.tryAcquireSlot();
+        if (slot == null) {
+            throw new RateLimitExceededException("当前导出任务过多，请稍后再试", 30);
+        }
+        return slot;
+    }
+    
+    /**
+     * 未开始写出时归还导出名额
+     */
+    private void releaseExportSlot(ItemExportService.ExportSlot slot) {
+        if (slot != null) {
+            slot.close();
+        }
+    }
+    
+    /**
+     * 导出响应：以附件形式下载，禁止缓存
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ItemExportWriter.Format format,
+                                                                 StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+    
+    /**
+     * 判断include参数是否要求返回转账项（支持逗号分隔）
+     */
+    private boolean includesItems(String include) {
+        if (include == null) {
+            return false;
+        }
+        for (String part : include.split(",")) {
+            if ("items".equalsIgnoreCase(part.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 健康检查接口
      * 
@@ -0,0 +1,92 @@
+package com.webthree.batchtransfer.datasource;
+
+/**
+ * 数据源上下文
+ * 以线程为单位记录当前应使用的连接池，未设置时使用接口请求连接池。
+ * 必须在事务开始（获取连接）之前设置才会生效。
+ * 另记录当前线程的只读查询是否必须读主库（如任务变更通知后读取最新详情，不能读到尚未同步的副本）
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public final class DataSourceContextHolder {
+    
+    private static final ThreadLocal<DataSourceType> CONTEXT = new ThreadLocal<>();
+    
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+    
+    private DataSourceContextHolder() {
+    }
+    
+    /**
+     * 获取当前数据源类型
+     * 
+     * @return 数据源类型，未设置返回null
+     */
+    public static DataSourceType get() {
+        return CONTEXT.get();
+    }
+    
+    /**
+     * 设置当前数据源类型
+     * 
+     * @param type 数据源类型，为null时清除
+     */
+    public static void set(DataSourceType type) {
+        if (type == null) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(type);
+        }
+    }
+    
+    /**
+     * 包装任务，使其在指定数据源上执行，执行完成后恢复原有设置
+     * 
+     * @param type 数据源类型
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static Runnable wrap(DataSourceType type, Runnable task) {
+        return () -> {
+            DataSourceType previous = get();
+            set(type);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+    
+    /**
+     * 当前线程的只读查询是否必须读主库
+     * 
+     * @return 必须读主库返回true
+     */
+    public static boolean isPrimaryReadRequired() {
+        return Boolean.TRUE.equals(PRIMARY_READ.get());
+    }
+    
+    /**
+     * 包装任务，使其中的只读查询读主库，执行完成后恢复原有设置
+     * 
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static Runnable wrapPrimaryRead(Runnable task) {
+        return () -> {
+            Boolean previous = PRIMARY_READ.get();
+            PRIMARY_READ.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    PRIMARY_READ.remove();
+                } else {
+                    PRIMARY_READ.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.webthree.batchtransfer.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据源路由切面
+ * 处理 {@link UseDataSource} 注解，优先级高于事务切面
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceRoutingAspect {
+    
+    @Around("@within(com.webthree.batchtransfer.datasource.UseDataSource) "
+            + "|| @annotation(com.webthree.batchtransfer.datasource.UseDataSource)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        UseDataSource useDataSource = resolveAnnotation(joinPoint);
+        
+        DataSourceType previous = DataSourceContextHolder.get();
+        DataSourceContextHolder.set(useDataSource.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceContextHolder.set(previous);
+        }
+    }
+    
+    /**
+     * 查找方法或类上的注解，方法上的优先
+     */
+    private UseDataSource resolveAnnotation(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        UseDataSource annotation = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), UseDataSource.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), UseDataSource.class);
+        }
+        return annotation;
+    }
+}
@@ -0,0 +1,20 @@
+package com.webthree.batchtransfer.datasource;
+
+/**
+ * 数据源类型
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public enum DataSourceType {
+    
+    /**
+     * 接口请求连接池，服务用户交互
+     */
+    API,
+    
+    /**
+     * 后台任务连接池，服务定时扫描、区块链监听等批处理
+     */
+    BATCH
+}
@@ -0,0 +1,141 @@
+package com.webthree.batchtransfer.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 只读副本复制延迟监控
+ * 定期在每个副本上查询复制状态（SHOW REPLICA STATUS，旧版本MySQL为SHOW SLAVE STATUS），
+ * 更新副本的可用性和延迟：无法连接或复制已中断的副本标记为不可用，不支持查询复制状态的副本（如测试用H2）延迟记为未知。
+ * 同时清理已过读己之写窗口的写入记录
+ *
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ReplicaLagMonitor {
+
+    private static final String[] LAG_QUERIES = {"SHOW REPLICA STATUS", "SHOW SLAVE STATUS"};
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final ReplicaSelector replicaSelector;
+
+    // 副本路由键 -> 可用的复制状态查询语句，null表示尚未探测，空串表示不支持
+    private final Map<String, String> lagQueries = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaSelector replicaSelector, MeterRegistry meterRegistry) {
+        this.replicaSelector = replicaSelector;
+        for (ReplicaSelector.Replica replica : replicaSelector.getReplicas()) {
+            Gauge.builder("batch.transfer.datasource.replica.lag", replica, ReplicaSelector.Replica::getLagMillis)
+                    .description("只读副本复制延迟（毫秒），-1表示未知")
+                    .tag("replica", replica.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("batch.transfer.datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("只读副本是否可用")
+                    .tag("replica", replica.getKey())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 定期检查各副本的复制延迟
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void checkReplicaLag() {
+        if (!replicaSelector.isEnabled()) {
+            return;
+        }
+
+        for (ReplicaSelector.Replica replica : replicaSelector.getReplicas()) {
+            checkReplica(replica);
+        }
+        replicaSelector.evictExpiredWrites();
+    }
+
+    /**
+     * 检查单个副本
+     */
+    private void checkReplica(ReplicaSelector.Replica replica) {
+        boolean wasAvailable = replica.isAvailable();
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            long lagMillis = queryLag(replica.getKey(), connection);
+            if (lagMillis == Long.MIN_VALUE) {
+                replica.update(false, ReplicaSelector.Replica.LAG_UNKNOWN);
+                log.warn("只读副本 {} 复制已中断，暂停读取", replica.getKey());
+                return;
+            }
+            replica.update(true, lagMillis);
+            if (!wasAvailable) {
+                log.info("只读副本 {} 已恢复，复制延迟: {} ms", replica.getKey(), lagMillis);
+            }
+        } catch (SQLException e) {
+            replica.update(false, ReplicaSelector.Replica.LAG_UNKNOWN);
+            if (wasAvailable) {
+                log.warn("只读副本 {} 连接失败，暂停读取: {}", replica.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 查询复制延迟
+     *
+     * @return 延迟毫秒数；不支持查询时返回 {@link ReplicaSelector.Replica#LAG_UNKNOWN}；复制中断时返回Long.MIN_VALUE
+     */
+    private long queryLag(String key, Connection connection) throws SQLException {
+        String known = lagQueries.get(key);
+        if (known != null) {
+            return known.isEmpty() ? ReplicaSelector.Replica.LAG_UNKNOWN : executeLagQuery(connection, known);
+        }
+
+        for (String query : LAG_QUERIES) {
+            try {
+                long lagMillis = executeLagQuery(connection, query);
+                lagQueries.put(key, query);
+                return lagMillis;
+            } catch (SQLException e) {
+                if (connection.isClosed() || !connection.isValid(1)) {
+                    throw e;
+                }
+                log.debug("只读副本 {} 不支持 {}: {}", key, query, e.getMessage());
+            }
+        }
+        log.info("只读副本 {} 不支持查询复制状态，复制延迟按未知处理", key);
+        lagQueries.put(key, "");
+        return ReplicaSelector.Replica.LAG_UNKNOWN;
+    }
+
+    /**
+     * 执行复制状态查询
+     * 没有复制状态（不是副本）时延迟为0，延迟列为NULL表示复制线程未运行
+     */
+    private long executeLagQuery(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            for (String column : LAG_COLUMNS) {
+                long seconds;
+                try {
+                    seconds = resultSet.getLong(column);
+                } catch (SQLException e) {
+                    continue;
+                }
+                return resultSet.wasNull() ? Long.MIN_VALUE : seconds * 1000;
+            }
+            throw new SQLException("复制状态中没有延迟列: " + query);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.webthree.batchtransfer.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 只读副本选择器
+ * 在可用且复制延迟未超限的副本间轮询选择；钱包刚写入过数据时（读己之写窗口内）返回null，由调用方改读主库。
+ * 读己之写窗口取配置的最短时间与所选副本当前复制延迟中的较大值
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class ReplicaSelector implements AutoCloseable {
+    
+    private final List<Replica> replicas;
+    
+    private final long readYourWritesWindowNanos;
+    
+    private final long maxLagMillis;
+    
+    // 钱包地址（小写） -> 最近一次写事务提交时间（纳秒）
+    private final ConcurrentMap<String, Long> recentWrites = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    
+    /**
+     * 构造函数
+     * 
+     * @param replicas 副本列表，为空表示未启用只读副本
+     * @param readYourWritesWindowMillis 写入后读主库的最短时间（毫秒）
+     * @param maxLagMillis 允许的最大复制延迟（毫秒）
+     */
+    public ReplicaSelector(List<Replica> replicas, long readYourWritesWindowMillis, long maxLagMillis) {
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesWindowNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesWindowMillis);
+        this.maxLagMillis = maxLagMillis;
+    }
+    
+    /**
+     * 是否配置了只读副本
+     * 
+     * @return 配置了副本返回true
+     */
+    public boolean isEnabled() {
+        return !replicas.isEmpty();
+    }
+    
+    /**
+     * 获取全部副本
+     * 
+     * @return 副本列表（不可修改）
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    /**
+     * 获取路由目标（路由键 -> 副本连接池）
+     * 
+     * @return 路由目标
+     */
+    public Map<Object, Object> targets() {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            targets.put(replica.getKey(), replica.getDataSource());
+        }
+        return Collections.unmodifiableMap(targets);
+    }
+    
+    /**
+     * 为只读查询选择副本
+     * 
+     * @param walletAddress 当前钱包地址，可为null
+     * @return 副本路由键，没有可用副本或处于读己之写窗口内时返回null
+     */
+    public String select(String walletAddress) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        
+        int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!isUsable(replica)) {
+                continue;
+            }
+            if (walletAddress != null && wroteRecently(walletAddress, replica)) {
+                return null;
+            }
+            return replica.getKey();
+        }
+        return null;
+    }
+    
+    /**
+     * 记录钱包的写事务已提交
+     * 
+     * @param walletAddress 钱包地址
+     */
+    public void recordWrite(String walletAddress) {
+        if (walletAddress != null && isEnabled()) {
+            recentWrites.put(walletAddress.toLowerCase(), System.nanoTime());
+        }
+    }
+    
+    /**
+     * 清除已过读己之写窗口的写入记录
+     * 
+     * @return 剩余记录数
+     */
+    public int evictExpiredWrites() {
+        long threshold = System.nanoTime() - Math.max(readYourWritesWindowNanos, TimeUnit.MILLISECONDS.toNanos(maxLagMillis));
+        recentWrites.values().removeIf(writtenAt -> writtenAt < threshold);
+        return recentWrites.size();
+    }
+    
+    /**
+     * 关闭全部副本连接池
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.getDataSource().close();
+        }
+    }
+    
+    /**
+     * 副本是否可接收读请求
+     */
+    private boolean isUsable(Replica replica) {
+        return replica.isAvailable() && replica.getLagMillis() <= maxLagMillis;
+    }
+    
+    /**
+     * 钱包最近一次写入是否仍在该副本的读己之写窗口内
+     */
+    private boolean wroteRecently(String walletAddress, Replica replica) {
+        Long writtenAt = recentWrites.get(walletAddress.toLowerCase());
+        if (writtenAt == null) {
+            return false;
+        }
+        long windowNanos = Math.max(readYourWritesWindowNanos, TimeUnit.MILLISECONDS.toNanos(Math.max(replica.getLagMillis(), 0)));
+        return System.nanoTime() - writtenAt < windowNanos;
+    }
+    
+    /**
+     * 只读副本
+     */
+    public static final class Replica {
+        
+        /**
+         * 延迟未知（副本不支持查询复制状态）
+         */
+        public static final long LAG_UNKNOWN = -1;
+        
+        private final String key;
+        
+        private final HikariDataSource dataSource;
+        
+        private volatile boolean available = true;
+        
+        private volatile long lagMillis = LAG_UNKNOWN;
+        
+        public Replica(String key, HikariDataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+        
+        public boolean isAvailable() {
+            return available;
+        }
+        
+        public long getLagMillis() {
+            return lagMillis;
+        }
+        
+        /**
+         * 更新副本状态
+         * 
+         * @param available 是否可用
+         * @param lagMillis 复制延迟（毫秒），未知为 {@link #LAG_UNKNOWN}
+         */
+        public void update(boolean available, long lagMillis) {
+            this.lagMillis = lagMillis;
+            this.available = available;
+        }
+    }
+}
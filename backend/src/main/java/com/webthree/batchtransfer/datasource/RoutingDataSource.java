@@ -0,0 +1,75 @@
+package com.webthree.batchtransfer.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 按线程上下文路由的数据源
+ * 配置了只读副本时，只读事务中的查询路由到副本（须由 LazyConnectionDataSourceProxy 包装，
+ * 在事务的只读标记设置之后才获取连接）；读写事务提交后记录当前钱包的写入时间，供读己之写判断
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+    
+    private ReplicaSelector replicaSelector;
+    
+    private Supplier<String> walletAddressResolver = () -> null;
+    
+    /**
+     * 设置只读副本选择器
+     * 
+     * @param replicaSelector 副本选择器，其中的副本须同时注册为路由目标
+     */
+    public void setReplicaSelector(ReplicaSelector replicaSelector) {
+        this.replicaSelector = replicaSelector;
+    }
+    
+    /**
+     * 设置当前钱包地址的获取方式
+     * 
+     * @param walletAddressResolver 返回当前请求的钱包地址，无法获取时返回null
+     */
+    public void setWalletAddressResolver(Supplier<String> walletAddressResolver) {
+        this.walletAddressResolver = walletAddressResolver;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaSelector != null && replicaSelector.isEnabled()) {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                if (!DataSourceContextHolder.isPrimaryReadRequired()) {
+                    String replicaKey = replicaSelector.select(walletAddressResolver.get());
+                    if (replicaKey != null) {
+                        return replicaKey;
+                    }
+                }
+            } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWriteAfterCommit();
+            }
+        }
+        
+        DataSourceType type = DataSourceContextHolder.get();
+        return type != null ? type : DataSourceType.API;
+    }
+    
+    /**
+     * 读写事务提交后记录当前钱包的写入时间
+     */
+    private void recordWriteAfterCommit() {
+        String walletAddress = walletAddressResolver.get();
+        if (walletAddress == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replicaSelector.recordWrite(walletAddress);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.webthree.batchtransfer.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 指定方法使用的连接池
+ * 可标注在类或方法上，方法上的注解优先；切面先于事务执行，保证事务使用指定连接池
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UseDataSource {
+    
+    /**
+     * 数据源类型
+     */
+    DataSourceType value();
+}
@@ -0,0 +1,38 @@
+package com.webthree.batchtransfer.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量查询任务状态请求DTO
+ * 任务ID和执行令牌可以混合提交，合计不超过 MAX_KEYS 个
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskStatusRequest {
+    
+    /**
+     * 单次请求最多查询的任务数（任务ID与执行令牌合计）
+     */
+    public static final int MAX_KEYS = 500;
+    
+    /**
+     * 任务ID列表
+     */
+    @Size(max = MAX_KEYS, message = "单次最多查询500个任务")
+    private List<Long> taskIds;
+    
+    /**
+     * 执行令牌列表
+     */
+    @Size(max = MAX_KEYS, message = "单次最多查询500个任务")
+    private List<String> executionTokens;
+}
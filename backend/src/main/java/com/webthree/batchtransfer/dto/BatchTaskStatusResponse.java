@@ -0,0 +1,36 @@
+package com.webthree.batchtransfer.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * 批量查询任务状态响应DTO
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTaskStatusResponse {
+    
+    /**
+     * 查询到的任务状态记录（按任务ID升序）
+     */
+    private List<TaskStatusRecord> tasks;
+    
+    /**
+     * 不存在或不属于当前用户的任务ID
+     */
+    private List<Long> missingTaskIds;
+    
+    /**
+     * 不存在或不属于当前用户的执行令牌
+     */
+    private List<String> missingExecutionTokens;
+}
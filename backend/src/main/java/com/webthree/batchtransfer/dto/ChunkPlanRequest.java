@@ -0,0 +1,40 @@
+package com.webthree.batchtransfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 分块规划请求DTO
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkPlanRequest {
+    
+    /**
+     * 单次规划最多转账项数
+     */
+    public static final int MAX_ITEMS = 10000;
+    
+    /**
+     * 转账项列表
+     */
+    @Valid
+    @NotEmpty(message = "转账项列表不能为空")
+    @Size(max = MAX_ITEMS, message = "单次最多规划10000条转账项")
+    private List<CreateTaskRequest.TransferItemDto> transferItems;
+    
+    /**
+     * 是否以当前用户为发送方预执行各分块（eth_call模拟）
+     */
+    private Boolean simulate;
+}
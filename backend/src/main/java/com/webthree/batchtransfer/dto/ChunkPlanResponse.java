@@ -0,0 +1,166 @@
+package com.webthree.batchtransfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分块规划结果DTO
+ * 每个分块对应一笔 batchTransfer 交易（一个任务），金额和费用单位为ETH
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChunkPlanResponse {
+    
+    /**
+     * 接收者总数
+     */
+    private Integer totalRecipients;
+    
+    /**
+     * 其中合约接收者数量
+     */
+    private Integer contractRecipients;
+    
+    /**
+     * 转账总金额
+     */
+    private BigDecimal totalAmount;
+    
+    /**
+     * 分块数（交易数）
+     */
+    private Integer chunkCount;
+    
+    /**
+     * 各分块预估Gas之和
+     */
+    private Long estimatedGas;
+    
+    /**
+     * 单笔交易的Gas预算
+     */
+    private Long gasBudget;
+    
+    /**
+     * 计算预计费用使用的优先费百分位，费用数据未就绪时为空
+     */
+    private Double feePercentile;
+    
+    /**
+     * 预计Gas费用，费用数据未就绪时为空
+     */
+    private BigDecimal estimatedFee;
+    
+    /**
+     * 预计总花费（转账总金额 + 预计Gas费用），费用数据未就绪时为空
+     */
+    private BigDecimal estimatedTotal;
+    
+    /**
+     * 使用的Gas模型
+     */
+    private GasModel gasModel;
+    
+    /**
+     * 分块列表
+     */
+    private List<Chunk> chunks;
+    
+    /**
+     * 各分块的预执行结果，未要求预执行时为空
+     */
+    private PreflightResponse preflight;
+    
+    /**
+     * Gas模型：预估Gas = 基础Gas + 普通账户数 * 每个普通账户的Gas + 合约数 * 每个合约的Gas
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class GasModel {
+        
+        /**
+         * 每笔交易的基础Gas
+         */
+        private Long baseGas;
+        
+        /**
+         * 每个普通账户接收者的Gas
+         */
+        private Long eoaRecipientGas;
+        
+        /**
+         * 每个合约接收者的Gas
+         */
+        private Long contractRecipientGas;
+        
+        /**
+         * 拟合使用的已完成任务数，使用默认值时为0
+         */
+        private Integer sampleSize;
+        
+        /**
+         * 模型更新时间，使用默认值时为空
+         */
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime updatedAt;
+    }
+    
+    /**
+     * 分块
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Chunk {
+        
+        /**
+         * 分块序号（从0开始）
+         */
+        private Integer index;
+        
+        /**
+         * 接收者数量
+         */
+        private Integer recipientCount;
+        
+        /**
+         * 其中合约接收者数量
+         */
+        private Integer contractRecipients;
+        
+        /**
+         * 转账金额
+         */
+        private BigDecimal totalAmount;
+        
+        /**
+         * 预估Gas
+         */
+        private Long estimatedGas;
+        
+        /**
+         * 建议Gas上限
+         */
+        private Long gasLimit;
+        
+        /**
+         * 分入该块的转账项在请求列表中的下标（升序）
+         */
+        private List<Integer> itemIndexes;
+    }
+}
@@ -0,0 +1,117 @@
+package com.webthree.batchtransfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量转账费用报价DTO
+ * Gas按接收者数量从缓存的预估模型插值，费用取费用预言机的最新采样；每Gas费用单位为wei，总费用单位为ETH
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CostQuoteResponse {
+    
+    /**
+     * 任务ID（按接收者数量报价时为空）
+     */
+    private Long taskId;
+    
+    /**
+     * 接收者数量
+     */
+    private Integer recipientCount;
+    
+    /**
+     * 转账总金额（ETH，按接收者数量报价时为空）
+     */
+    private BigDecimal totalAmount;
+    
+    /**
+     * 预估Gas用量
+     */
+    private Long estimatedGas;
+    
+    /**
+     * 建议Gas上限（预估值加上余量）
+     */
+    private Long gasLimit;
+    
+    /**
+     * 费用采样时的最新区块号
+     */
+    private Long blockNumber;
+    
+    /**
+     * 下一区块的基础费用
+     */
+    private Long nextBaseFeePerGas;
+    
+    /**
+     * 各百分位档位的费用
+     */
+    private List<CostLevel> levels;
+    
+    /**
+     * 费用采样时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime feesSampledAt;
+    
+    /**
+     * Gas模型更新时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime gasModelUpdatedAt;
+    
+    /**
+     * 费用档位
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CostLevel {
+        
+        /**
+         * 优先费百分位
+         */
+        private Double percentile;
+        
+        /**
+         * 建议优先费
+         */
+        private Long maxPriorityFeePerGas;
+        
+        /**
+         * 建议最高费用
+         */
+        private Long maxFeePerGas;
+        
+        /**
+         * 预计Gas费用（ETH）：预估Gas * (下一区块基础费用 + 优先费)
+         */
+        private BigDecimal estimatedFee;
+        
+        /**
+         * Gas费用上限（ETH）：Gas上限 * 最高费用
+         */
+        private BigDecimal maxFee;
+        
+        /**
+         * 预计总花费（ETH）：转账总金额 + 预计Gas费用，按接收者数量报价时为空
+         */
+        private BigDecimal estimatedTotal;
+    }
+}
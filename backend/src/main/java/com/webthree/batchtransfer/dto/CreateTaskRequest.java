@@ -1,5 +1,6 @@
 package com.webthree.batchtransfer.dto;
 
+import com.webthree.batchtransfer.entity.BatchTransferTask;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -36,6 +37,11 @@ public class CreateTaskRequest {
     @Size(max = 200, message = "转账项数量不能超过200条")
     private List<TransferItemDto> transferItems;
     
+    /**
+     * 执行方式，为空时默认WALLET（浏览器钱包执行）；SERVER需启用服务端执行器
+     */
+    private BatchTransferTask.ExecutionMode executionMode;
+    
     /**
      * 转账项DTO
      */
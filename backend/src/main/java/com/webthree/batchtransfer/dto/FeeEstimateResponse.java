@@ -0,0 +1,75 @@
+package com.webthree.batchtransfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 当前费用DTO
+ * 由费用预言机按最近若干区块的eth_feeHistory计算，费用单位均为wei
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeEstimateResponse {
+    
+    /**
+     * 采样时的最新区块号
+     */
+    private Long blockNumber;
+    
+    /**
+     * 最新区块的基础费用
+     */
+    private Long baseFeePerGas;
+    
+    /**
+     * 下一区块的基础费用
+     */
+    private Long nextBaseFeePerGas;
+    
+    /**
+     * 各百分位档位的建议费用
+     */
+    private List<FeeLevel> levels;
+    
+    /**
+     * 采样时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime sampledAt;
+    
+    /**
+     * 费用档位
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FeeLevel {
+        
+        /**
+         * 优先费百分位
+         */
+        private Double percentile;
+        
+        /**
+         * 建议优先费（采样区块中该百分位优先费的中位数）
+         */
+        private Long maxPriorityFeePerGas;
+        
+        /**
+         * 建议最高费用：2 * 下一区块基础费用 + 优先费
+         */
+        private Long maxFeePerGas;
+    }
+}
@@ -0,0 +1,114 @@
+package com.webthree.batchtransfer.dto;
+
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 预执行结果DTO
+ * 同一次预执行的所有调用都在同一区块上模拟
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PreflightResponse {
+    
+    /**
+     * 模拟所在的区块号
+     */
+    private Long blockNumber;
+    
+    /**
+     * 模拟的调用数
+     */
+    private Integer simulated;
+    
+    /**
+     * 其中会回滚的调用数
+     */
+    private Integer reverted;
+    
+    /**
+     * 各调用的模拟结果
+     */
+    private List<Result> results;
+    
+    /**
+     * 模拟结果
+     */
+    public enum Outcome {
+        /**
+         * 调用成功
+         */
+        PASSED,
+        
+        /**
+         * 调用会回滚
+         */
+        REVERTED,
+        
+        /**
+         * 模拟失败（节点不可用、限流、发送方余额不足等），无法判断
+         */
+        ERROR
+    }
+    
+    /**
+     * 单个调用的模拟结果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        
+        /**
+         * 任务ID（模拟分块时为空）
+         */
+        private Long taskId;
+        
+        /**
+         * 分块序号（模拟任务时为空）
+         */
+        private Integer chunkIndex;
+        
+        /**
+         * 执行方式（模拟分块时为空）
+         */
+        private BatchTransferTask.ExecutionMode executionMode;
+        
+        /**
+         * 模拟使用的发送地址
+         */
+        private String sender;
+        
+        /**
+         * 接收者数量
+         */
+        private Integer recipientCount;
+        
+        /**
+         * 调用附带的转账总金额（ETH）
+         */
+        private BigDecimal totalAmount;
+        
+        /**
+         * 模拟结果
+         */
+        private Outcome outcome;
+        
+        /**
+         * 回滚原因或模拟失败的原因
+         */
+        private String reason;
+    }
+}
@@ -0,0 +1,42 @@
+package com.webthree.batchtransfer.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * 接收地址转账记录分页响应DTO
+ * 按转账项ID倒序（最新在前），以上一页最后一条的项ID作为下一页游标
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipientTransferPage {
+    
+    /**
+     * 默认每页条数
+     */
+    public static final int DEFAULT_LIMIT = 50;
+    
+    /**
+     * 每页条数上限
+     */
+    public static final int MAX_LIMIT = 200;
+    
+    /**
+     * 本页记录
+     */
+    private List<RecipientTransferRecord> records;
+    
+    /**
+     * 下一页游标，没有更多记录时为空
+     */
+    private Long nextCursor;
+}
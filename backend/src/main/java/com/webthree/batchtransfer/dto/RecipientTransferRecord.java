@@ -0,0 +1,71 @@
+package com.webthree.batchtransfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 接收地址转账记录DTO
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipientTransferRecord {
+    
+    /**
+     * 转账项ID
+     */
+    private Long itemId;
+    
+    /**
+     * 任务ID
+     */
+    private Long taskId;
+    
+    /**
+     * 任务名称
+     */
+    private String taskName;
+    
+    /**
+     * 任务状态
+     */
+    private BatchTransferTask.TaskStatus taskStatus;
+    
+    /**
+     * 接收地址
+     */
+    private String recipientAddress;
+    
+    /**
+     * 转账金额（ETH）
+     */
+    private BigDecimal amount;
+    
+    /**
+     * 转账项状态
+     */
+    private BatchTransferItem.ItemStatus status;
+    
+    /**
+     * 交易哈希
+     */
+    private String txHash;
+    
+    /**
+     * 创建时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
@@ -68,6 +68,11 @@ public class TaskResponse {
      */
     private String executionToken;
     
+    /**
+     * 执行方式
+     */
+    private BatchTransferTask.ExecutionMode executionMode;
+    
     /**
      * 执行开始时间
      */
@@ -86,6 +91,11 @@ public class TaskResponse {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
     
+    /**
+     * 版本号，每次更新自增
+     */
+    private Integer version;
+    
     /**
      * 转账项列表（详情查询时包含）
      */
@@ -0,0 +1,60 @@
+package com.webthree.batchtransfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 任务状态记录DTO
+ * 只包含任务头部的状态字段，不含转账项，用于批量状态查询
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatusRecord {
+    
+    /**
+     * 任务ID
+     */
+    private Long id;
+    
+    /**
+     * 执行令牌
+     */
+    private String executionToken;
+    
+    /**
+     * 任务状态
+     */
+    private BatchTransferTask.TaskStatus status;
+    
+    /**
+     * 链上交易哈希
+     */
+    private String txHash;
+    
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+    
+    /**
+     * 最后更新时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+    
+    /**
+     * 版本号，每次更新自增
+     */
+    private Integer version;
+}
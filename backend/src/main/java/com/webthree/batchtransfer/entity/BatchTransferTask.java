@@ -71,11 +71,23 @@ public class BatchTransferTask {
      */
     private String executionToken;
     
+    /**
+     * 执行方式
+     * WALLET - 用户在浏览器中用钱包签名执行
+     * SERVER - 由服务端执行器使用配置的热钱包签名提交
+     */
+    private ExecutionMode executionMode;
+    
     /**
      * 执行开始时间
      */
     private LocalDateTime executionStartedAt;
     
+    /**
+     * 交易实际消耗的Gas（来自交易收据，未确认时为空）
+     */
+    private Long gasUsed;
+    
     /**
      * 创建时间
      */
@@ -86,6 +98,11 @@ public class BatchTransferTask {
      */
     private LocalDateTime updatedAt;
     
+    /**
+     * 版本号，每次更新自增
+     */
+    private Integer version;
+    
     /**
      * 任务状态枚举
      */
@@ -95,4 +112,12 @@ public class BatchTransferTask {
         COMPLETED,
         FAILED
     }
+    
+    /**
+     * 执行方式枚举
+     */
+    public enum ExecutionMode {
+        WALLET,
+        SERVER
+    }
 }
\ No newline at end of file
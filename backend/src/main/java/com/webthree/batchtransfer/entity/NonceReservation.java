@@ -0,0 +1,81 @@
+package com.webthree.batchtransfer.entity;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 交易nonce预留记录实体类
+ * 服务端执行器签名交易后落库，进程重启或交易被丢弃时据此重新广播或填补nonce空缺
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NonceReservation {
+    
+    /**
+     * 记录ID
+     */
+    private Long id;
+    
+    /**
+     * 发送方钱包地址（小写）
+     */
+    private String senderAddress;
+    
+    /**
+     * nonce
+     */
+    private Long nonce;
+    
+    /**
+     * 关联任务ID，填补空缺的交易为空
+     */
+    private Long taskId;
+    
+    /**
+     * 交易哈希
+     */
+    private String txHash;
+    
+    /**
+     * 已签名交易（十六进制）
+     */
+    private String rawTransaction;
+    
+    /**
+     * 预留状态
+     * SIGNED - 已签名，尚未确认节点已接收
+     * SENT - 节点已接收
+     * RELEASED - 交易未发出且nonce不是最后一个，形成空缺，待填补
+     */
+    private ReservationStatus status;
+    
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+    
+    /**
+     * 最后更新时间
+     */
+    private LocalDateTime updatedAt;
+    
+    /**
+     * 预留状态枚举
+     */
+    public enum ReservationStatus {
+        SIGNED,
+        SENT,
+        RELEASED
+    }
+}
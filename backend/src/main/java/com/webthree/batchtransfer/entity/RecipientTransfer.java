@@ -0,0 +1,61 @@
+package com.webthree.batchtransfer.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 按接收地址查询的转账记录（转账项及所属任务的名称和状态）
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+public class RecipientTransfer {
+    
+    /**
+     * 项ID
+     */
+    private Long itemId;
+    
+    /**
+     * 任务ID
+     */
+    private Long taskId;
+    
+    /**
+     * 任务名称
+     */
+    private String taskName;
+    
+    /**
+     * 任务状态
+     */
+    private BatchTransferTask.TaskStatus taskStatus;
+    
+    /**
+     * 接收地址（创建任务时提交的原始大小写）
+     */
+    private String recipientAddress;
+    
+    /**
+     * 转账金额（ETH）
+     */
+    private BigDecimal amount;
+    
+    /**
+     * 转账项状态
+     */
+    private BatchTransferItem.ItemStatus status;
+    
+    /**
+     * 交易哈希
+     */
+    private String txHash;
+    
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
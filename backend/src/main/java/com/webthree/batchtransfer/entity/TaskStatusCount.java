@@ -0,0 +1,23 @@
+package com.webthree.batchtransfer.entity;
+
+import lombok.Data;
+
+/**
+ * 按状态分组的任务数
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+public class TaskStatusCount {
+    
+    /**
+     * 任务状态
+     */
+    private BatchTransferTask.TaskStatus status;
+    
+    /**
+     * 任务数
+     */
+    private Long count;
+}
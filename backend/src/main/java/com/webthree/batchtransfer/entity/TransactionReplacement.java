@@ -0,0 +1,70 @@
+package com.webthree.batchtransfer.entity;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 替换交易记录实体类
+ * 服务端执行器提交的交易长时间未打包时，以相同nonce、更高费用发送替换交易；
+ * 记录被替换的交易哈希，原交易和替换交易任一被打包都能完成任务
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionReplacement {
+    
+    /**
+     * 记录ID
+     */
+    private Long id;
+    
+    /**
+     * 任务ID
+     */
+    private Long taskId;
+    
+    /**
+     * 发送方钱包地址（小写）
+     */
+    private String senderAddress;
+    
+    /**
+     * nonce
+     */
+    private Long nonce;
+    
+    /**
+     * 替换交易哈希
+     */
+    private String txHash;
+    
+    /**
+     * 被替换的交易哈希
+     */
+    private String replacedTxHash;
+    
+    /**
+     * 替换交易的最高费用（wei）
+     */
+    private Long maxFeePerGas;
+    
+    /**
+     * 替换交易的优先费（wei）
+     */
+    private Long maxPriorityFeePerGas;
+    
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
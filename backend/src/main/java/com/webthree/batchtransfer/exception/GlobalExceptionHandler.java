@@ -2,6 +2,7 @@ package com.webthree.batchtransfer.exception;
 
 import com.webthree.batchtransfer.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -158,6 +159,20 @@ public class GlobalExceptionHandler {
             .body(ApiResponse.notFound(message));
     }
 
+    /**
+     * 处理限流异常
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleRateLimitExceeded(
+            RateLimitExceededException ex) {
+        
+        log.warn("Rate limit exceeded: {}", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(ApiResponse.fail(429, ex.getMessage()));
+    }
+
     /**
      * 处理业务异常
      */
@@ -0,0 +1,38 @@
+package com.webthree.batchtransfer.exception;
+
+/**
+ * 限流异常类
+ * 请求超出限流配置时抛出，携带建议的重试等待时间
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class RateLimitExceededException extends BusinessException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 建议的重试等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+    
+    /**
+     * 构造函数
+     * 
+     * @param message 错误消息
+     * @param retryAfterSeconds 建议的重试等待时间（秒）
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super("RATE_LIMITED", message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    /**
+     * 获取建议的重试等待时间
+     * 
+     * @return 重试等待时间（秒）
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,6 +1,8 @@
 package com.webthree.batchtransfer.interceptor;
 
+import com.webthree.batchtransfer.jfr.AuthenticationEvent;
 import com.webthree.batchtransfer.util.JwtUtils;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +32,35 @@ public class JwtAuthenticationInterceptor implements HandlerInterceptor {
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // 异步请求（长轮询）完成后的再次分派沿用首次分派的认证结果
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        boolean passed = false;
+        try {
+            passed = authenticate(request, response);
+            return passed;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = request.getRequestURI();
+                if (!passed) {
+                    event.outcome = "rejected";
+                } else {
+                    event.outcome = request.getAttribute(WALLET_ADDRESS_ATTRIBUTE) != null ? "authenticated" : "skipped";
+                }
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * 校验请求的Token，通过后将钱包地址写入请求属性
+     */
+    private boolean authenticate(HttpServletRequest request, HttpServletResponse response) throws Exception {
         
         // 对于认证相关的接口，不需要验证Token
         String requestPath = request.getRequestURI();
@@ -0,0 +1,122 @@
+package com.webthree.batchtransfer.interceptor;
+
+import com.webthree.batchtransfer.config.RateLimitProperties;
+import com.webthree.batchtransfer.service.RateLimitService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 限流拦截器
+ * 按路由对客户端IP和已认证的钱包地址进行令牌桶限流
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    
+    /**
+     * HTTP 429 状态码
+     */
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    
+    private final RateLimitService rateLimitService;
+    private final RateLimitProperties properties;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        
+        // 异步请求（长轮询）完成后的再次分派不重复计数
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        
+        String routeName = rateLimitService.matchRoute(request);
+        if (routeName == null) {
+            return true;
+        }
+        
+        // 记录匹配的路由，供请求体中携带钱包地址的接口做钱包维度限流
+        request.setAttribute(RateLimitService.ROUTE_ATTRIBUTE, routeName);
+        
+        String clientIp = resolveClientIp(request);
+        long retryAfterSeconds = rateLimitService.tryAcquireForIp(routeName, clientIp);
+        if (retryAfterSeconds > 0) {
+            log.warn("IP请求过于频繁: route={}, ip={}", routeName, clientIp);
+            sendTooManyRequestsResponse(response, retryAfterSeconds);
+            return false;
+        }
+        
+        // JWT拦截器先于本拦截器执行，已认证请求可直接按钱包地址限流
+        String walletAddress = (String) request.getAttribute(JwtAuthenticationInterceptor.WALLET_ADDRESS_ATTRIBUTE);
+        retryAfterSeconds = rateLimitService.tryAcquireForWallet(routeName, walletAddress);
+        if (retryAfterSeconds > 0) {
+            log.warn("钱包请求过于频繁: route={}, walletAddress={}", routeName, walletAddress);
+            sendTooManyRequestsResponse(response, retryAfterSeconds);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * 解析客户端IP
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String clientIp = clientIpFromForwardedFor(request.getHeader("X-Forwarded-For"),
+                    properties.getTrustedProxyCount());
+            if (clientIp != null) {
+                return clientIp;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+    
+    /**
+     * 从X-Forwarded-For中取最后一层可信代理之前的地址
+     * 代理向头部末尾追加地址，最左侧的条目可由客户端任意伪造，因此从右侧按可信代理层数定位；
+     * 条目数少于代理层数时取最左侧条目
+     * 
+     * @param forwardedFor X-Forwarded-For头
+     * @param trustedProxyCount 可信代理层数
+     * @return 客户端IP，头部为空时返回null
+     */
+    static String clientIpFromForwardedFor(String forwardedFor, int trustedProxyCount) {
+        if (!StringUtils.hasText(forwardedFor)) {
+            return null;
+        }
+        
+        String[] entries = forwardedFor.split(",");
+        int index = Math.max(0, entries.length - Math.max(1, trustedProxyCount));
+        String clientIp = entries[index].trim();
+        return clientIp.isEmpty() ? null : clientIp;
+    }
+    
+    /**
+     * 发送限流响应
+     */
+    private void sendTooManyRequestsResponse(HttpServletResponse response, long retryAfterSeconds) throws Exception {
+        response.setStatus(SC_TOO_MANY_REQUESTS);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json;charset=UTF-8");
+        
+        String jsonResponse = String.format(
+            "{\"success\":false,\"code\":%d,\"message\":\"%s\",\"data\":null}",
+            SC_TOO_MANY_REQUESTS,
+            "请求过于频繁，请稍后再试"
+        );
+        
+        response.getWriter().write(jsonResponse);
+        response.getWriter().flush();
+    }
+}
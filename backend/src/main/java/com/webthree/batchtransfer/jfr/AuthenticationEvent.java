@@ -0,0 +1,33 @@
+package com.webthree.batchtransfer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JWT认证事件
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Name("com.webthree.batchtransfer.Authentication")
+@Label("JWT Authentication")
+@Description("JWT认证拦截器处理请求")
+@Category({"Batch Transfer", "Auth"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class AuthenticationEvent extends Event {
+    
+    @Label("Path")
+    public String path;
+    
+    /**
+     * 结果：skipped（无需认证的路径）、authenticated、rejected
+     */
+    @Label("Outcome")
+    public String outcome;
+}
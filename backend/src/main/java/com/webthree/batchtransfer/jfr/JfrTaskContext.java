@@ -0,0 +1,60 @@
+package com.webthree.batchtransfer.jfr;
+
+/**
+ * JFR事件的任务上下文
+ * 在处理某个任务期间记录当前线程的任务ID，RPC调用和Mapper调用事件据此标记所属任务，
+ * 便于在JMC中按任务归因尾延迟
+ * 
+ * 启用方式（JDK 17）：
+ * -XX:StartFlightRecording=settings=default,maxage=6h,disk=true,filename=/var/log/batch-transfer/
+ * 应用事件带有默认阈值，调整阈值使用 classpath:jfr/batch-transfer.jfc：
+ * jcmd {pid} JFR.start name=batch-transfer settings=default settings=batch-transfer.jfc
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public final class JfrTaskContext {
+    
+    private static final ThreadLocal<Long> CURRENT_TASK_ID = new ThreadLocal<>();
+    
+    private JfrTaskContext() {
+    }
+    
+    /**
+     * 进入任务上下文，返回的作用域关闭时恢复之前的任务ID
+     * 
+     * @param taskId 任务ID
+     * @return 作用域
+     */
+    public static Scope open(Long taskId) {
+        Long previous = CURRENT_TASK_ID.get();
+        CURRENT_TASK_ID.set(taskId);
+        return () -> {
+            if (previous == null) {
+                CURRENT_TASK_ID.remove();
+            } else {
+                CURRENT_TASK_ID.set(previous);
+            }
+        };
+    }
+    
+    /**
+     * 获取当前线程的任务ID
+     * 
+     * @return 任务ID，不在任务上下文中时返回0
+     */
+    public static long currentTaskId() {
+        Long taskId = CURRENT_TASK_ID.get();
+        return taskId == null ? 0 : taskId;
+    }
+    
+    /**
+     * 任务上下文作用域
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.webthree.batchtransfer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Mapper语句执行事件
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Name("com.webthree.batchtransfer.MapperCall")
+@Label("Mapper Call")
+@Description("MyBatis语句执行")
+@Category({"Batch Transfer", "Database"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class MapperCallEvent extends Event {
+    
+    @Label("Task Id")
+    public long taskId;
+    
+    /**
+     * 语句ID，如 BatchTransferTaskMapper.selectById
+     */
+    @Label("Statement")
+    public String statement;
+    
+    @Label("Command Type")
+    public String commandType;
+    
+    @Label("Outcome")
+    public String outcome;
+}
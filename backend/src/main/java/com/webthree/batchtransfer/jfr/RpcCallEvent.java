@@ -0,0 +1,36 @@
+package com.webthree.batchtransfer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 区块链RPC调用事件
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Name("com.webthree.batchtransfer.RpcCall")
+@Label("RPC Call")
+@Description("Web3j JSON-RPC请求")
+@Category({"Batch Transfer", "Blockchain"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class RpcCallEvent extends Event {
+    
+    @Label("Task Id")
+    public long taskId;
+    
+    @Label("Method")
+    public String method;
+    
+    /**
+     * 结果：success、rpc_error、io_error
+     */
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,31 @@
+package com.webthree.batchtransfer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 签名验证事件
+ * 持续时间主要是公钥恢复（最多尝试4个recovery id）
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Name("com.webthree.batchtransfer.SignatureVerification")
+@Label("Signature Verification")
+@Description("以太坊个人签名验证")
+@Category({"Batch Transfer", "Auth"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class SignatureVerificationEvent extends Event {
+    
+    @Label("Wallet Address")
+    public String walletAddress;
+    
+    @Label("Valid")
+    public boolean valid;
+}
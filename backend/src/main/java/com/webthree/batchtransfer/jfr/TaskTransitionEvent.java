@@ -0,0 +1,60 @@
+package com.webthree.batchtransfer.jfr;
+
+import com.webthree.batchtransfer.entity.BatchTransferTask.TaskStatus;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 任务状态转换事件
+ * 持续时间覆盖条件更新、转账项更新及重新读取任务的全过程
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Name("com.webthree.batchtransfer.TaskTransition")
+@Label("Task Transition")
+@Description("批量转账任务状态转换")
+@Category({"Batch Transfer", "Task"})
+@StackTrace(false)
+@Threshold("0 ms")
+public class TaskTransitionEvent extends Event {
+    
+    @Label("Task Id")
+    public long taskId;
+    
+    @Label("Target Status")
+    public String targetStatus;
+    
+    /**
+     * 触发来源：api、rollback、monitor
+     */
+    @Label("Source")
+    public String source;
+    
+    @Label("Success")
+    public boolean success;
+    
+    /**
+     * 结束计时并在满足阈值时提交事件
+     * 
+     * @param taskId 任务ID
+     * @param targetStatus 目标状态，仅更新交易哈希时为null
+     * @param source 触发来源
+     * @param success 是否转换成功
+     */
+    public void complete(Long taskId, TaskStatus targetStatus, String source, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.taskId = taskId == null ? 0 : taskId;
+            this.targetStatus = targetStatus == null ? null : targetStatus.name();
+            this.source = source;
+            this.success = success;
+            commit();
+        }
+    }
+}
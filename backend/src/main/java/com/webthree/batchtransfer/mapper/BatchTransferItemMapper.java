@@ -1,8 +1,13 @@
 package com.webthree.batchtransfer.mapper;
 
 import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.entity.RecipientTransfer;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -29,6 +34,52 @@ public interface BatchTransferItemMapper {
      */
     List<BatchTransferItem> selectByTaskId(@Param("taskId") Long taskId);
     
+    /**
+     * 批量查询任务的接收地址（只查询id、task_id和recipient_address）
+     * 
+     * @param taskIds 任务ID集合，不能为空
+     * @return 转账项列表
+     */
+    List<BatchTransferItem> selectRecipientsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+    
+    /**
+     * 根据任务ID流式读取转账项（按ID升序）
+     * 游标须在事务内遍历并关闭
+     * 
+     * @param taskId 任务ID
+     * @return 转账项游标
+     */
+    Cursor<BatchTransferItem> selectCursorByTaskId(@Param("taskId") Long taskId);
+    
+    /**
+     * 流式读取创建者在时间范围内创建的任务的转账项（按任务ID、项ID升序）
+     * 游标须在事务内遍历并关闭
+     * 
+     * @param creatorAddress 创建者地址
+     * @param createdFrom 任务创建时间下限（含）
+     * @param createdTo 任务创建时间上限（不含）
+     * @param status 任务状态，为null时不过滤
+     * @return 转账项游标
+     */
+    Cursor<BatchTransferItem> selectCursorByCreatorAndCreatedAt(@Param("creatorAddress") String creatorAddress,
+                                                                @Param("createdFrom") LocalDateTime createdFrom,
+                                                                @Param("createdTo") LocalDateTime createdTo,
+                                                                @Param("status") BatchTransferTask.TaskStatus status);
+    
+    /**
+     * 按接收地址查询当前创建者任务中的转账记录（按项ID倒序，游标分页）
+     * 
+     * @param recipientAddressLower 接收地址（小写）
+     * @param creatorAddress 创建者地址
+     * @param beforeId 只返回ID小于该值的记录，为null时从最新一条开始
+     * @param limit 返回条数上限
+     * @return 转账记录列表
+     */
+    List<RecipientTransfer> selectByRecipient(@Param("recipientAddressLower") String recipientAddressLower,
+                                              @Param("creatorAddress") String creatorAddress,
+                                              @Param("beforeId") Long beforeId,
+                                              @Param("limit") int limit);
+    
     /**
      * 根据任务ID删除转账项
      * 
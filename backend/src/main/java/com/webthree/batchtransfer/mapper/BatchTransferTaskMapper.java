@@ -1,13 +1,17 @@
 package com.webthree.batchtransfer.mapper;
 
 import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.entity.TaskStatusCount;
 import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * 批量转账任务Mapper接口
+ * 返回任务列表的查询（selectAll、selectByStatus、selectByCreatorAddress等）不读取error_message，
+ * 错误信息只在按ID或执行令牌查询单个任务时返回
  * 
  * @author WebThree Team
  * @since 1.0.0
@@ -64,22 +68,43 @@ public interface BatchTransferTaskMapper {
                                                            @Param("status") BatchTransferTask.TaskStatus status);
     
     /**
-     * 更新任务状态
+     * 按状态统计任务数
+     * 
+     * @param creatorAddress 创建者地址，为null时统计全部任务
+     * @return 各状态的任务数，没有任务的状态不返回
+     */
+    List<TaskStatusCount> countGroupByStatus(@Param("creatorAddress") String creatorAddress);
+    
+    /**
+     * 按状态前置条件更新任务状态（CAS）
+     * 仅当任务当前状态在预期集合内（且版本号匹配，如指定）时更新，同时版本号自增
      * 
      * @param id 任务ID
+     * @param expectedStatuses 允许的当前状态集合
+     * @param expectedVersion 预期版本号，为null时不校验
      * @param status 新状态
      * @param txHash 交易哈希
      * @param errorMessage 错误信息
-     * @param executionToken 执行令牌
      * @param executionStartedAt 执行开始时间
-     * @return 更新记录数
+     * @return 更新记录数，0表示前置条件不满足或任务不存在
+     */
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expectedStatuses") Collection<BatchTransferTask.TaskStatus> expectedStatuses,
+                            @Param("expectedVersion") Integer expectedVersion,
+                            @Param("status") BatchTransferTask.TaskStatus status,
+                            @Param("txHash") String txHash,
+                            @Param("errorMessage") String errorMessage,
+                            @Param("executionStartedAt") LocalDateTime executionStartedAt);
+    
+    /**
+     * 将执行中的任务退回待执行（CAS）
+     * 同时清空交易哈希和执行开始时间，下次领取时重新写入
+     * 
+     * @param id 任务ID
+     * @param expectedVersion 预期版本号
+     * @return 更新记录数，0表示任务已不在执行中或版本号不匹配
      */
-    int updateStatus(@Param("id") Long id, 
-                    @Param("status") BatchTransferTask.TaskStatus status,
-                    @Param("txHash") String txHash,
-                    @Param("errorMessage") String errorMessage,
-                    @Param("executionToken") String executionToken,
-                    @Param("executionStartedAt") LocalDateTime executionStartedAt);
+    int revertToPending(@Param("id") Long id, @Param("expectedVersion") Integer expectedVersion);
     
     /**
      * 仅更新交易哈希
@@ -90,6 +115,15 @@ public interface BatchTransferTaskMapper {
      */
     int updateTxHashOnly(@Param("id") Long id, @Param("txHash") String txHash);
     
+    /**
+     * 记录交易实际消耗的Gas（不更新版本号，与状态变更在同一事务中执行）
+     * 
+     * @param id 任务ID
+     * @param gasUsed 实际消耗的Gas
+     * @return 更新记录数
+     */
+    int updateGasUsed(@Param("id") Long id, @Param("gasUsed") Long gasUsed);
+    
     /**
      * 根据执行令牌查询任务
      * 
@@ -98,13 +132,60 @@ public interface BatchTransferTaskMapper {
      */
     BatchTransferTask selectByExecutionToken(@Param("executionToken") String executionToken);
     
+    /**
+     * 按任务ID或执行令牌批量查询任务状态（只查询状态相关字段）
+     * 
+     * @param creatorAddress 创建者地址
+     * @param ids 任务ID集合，可为空
+     * @param executionTokens 执行令牌集合，可为空
+     * @return 任务列表（按ID升序）。两个集合不能同时为空，否则会返回该创建者的全部任务
+     */
+    List<BatchTransferTask> selectStatusByIdsOrTokens(@Param("creatorAddress") String creatorAddress,
+                                                      @Param("ids") Collection<Long> ids,
+                                                      @Param("executionTokens") Collection<String> executionTokens);
+    
+    /**
+     * 批量查询任务版本号和状态（只查询id、status和version）
+     * 
+     * @param ids 任务ID集合，不能为空
+     * @return 任务列表，已删除的任务不返回
+     */
+    List<BatchTransferTask> selectVersionsByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 查询最近完成且记录了实际Gas的任务（只查询id、recipient_count和gas_used）
+     * 
+     * @param limit 最大条数
+     * @return 任务列表，按ID降序
+     */
+    List<BatchTransferTask> selectRecentGasUsage(@Param("limit") int limit);
+    
+    /**
+     * 按执行方式查询最早创建的待执行任务
+     * 
+     * @param executionMode 执行方式
+     * @param limit 最多返回条数
+     * @return 待执行任务列表，按ID升序
+     */
+    List<BatchTransferTask> selectPendingByExecutionMode(@Param("executionMode") BatchTransferTask.ExecutionMode executionMode,
+                                                         @Param("limit") int limit);
+    
+    /**
+     * 查询并锁定创建者未完成（待执行或执行中）的服务端执行任务
+     * 
+     * @param creatorAddress 创建者地址（小写）
+     * @return 未完成的服务端执行任务列表
+     */
+    List<BatchTransferTask> selectOpenServerTasksForUpdate(@Param("creatorAddress") String creatorAddress);
+    
     /**
      * 查询超时的执行中任务
+     * 不包括nonce尚未上链的服务端执行任务（原交易或替换交易仍可能被打包）
      * 
-     * @param timeoutMinutes 超时分钟数
+     * @param startedBefore 开始执行时间早于该时间的任务视为超时
      * @return 超时任务列表
      */
-    List<BatchTransferTask> selectTimeoutExecutingTasks(@Param("timeoutMinutes") Integer timeoutMinutes);
+    List<BatchTransferTask> selectTimeoutExecutingTasks(@Param("startedBefore") LocalDateTime startedBefore);
     
     /**
      * 根据ID删除任务
@@ -113,4 +194,13 @@ public interface BatchTransferTaskMapper {
      * @return 删除记录数
      */
     int deleteById(@Param("id") Long id);
+    
+    /**
+     * 根据ID和状态删除任务（状态前置条件）
+     * 
+     * @param id 任务ID
+     * @param status 任务必须处于的状态
+     * @return 删除记录数，0表示状态不满足或任务不存在
+     */
+    int deleteByIdAndStatus(@Param("id") Long id, @Param("status") BatchTransferTask.TaskStatus status);
 }
\ No newline at end of file
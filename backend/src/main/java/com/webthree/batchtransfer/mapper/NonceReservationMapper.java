@@ -0,0 +1,115 @@
+package com.webthree.batchtransfer.mapper;
+
+import com.webthree.batchtransfer.entity.NonceReservation;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 交易nonce预留记录Mapper接口
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public interface NonceReservationMapper {
+    
+    /**
+     * 插入预留记录
+     * 
+     * @param reservation 预留记录
+     * @return 插入记录数
+     */
+    int insert(NonceReservation reservation);
+    
+    /**
+     * 查询发送方的全部预留记录
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @return 预留记录列表，按nonce升序
+     */
+    List<NonceReservation> selectBySender(@Param("senderAddress") String senderAddress);
+    
+    /**
+     * 查询发送方预留记录中的最大nonce
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @return 最大nonce，没有记录时为null
+     */
+    Long selectMaxNonce(@Param("senderAddress") String senderAddress);
+    
+    /**
+     * 统计任务尚未上链的预留记录数（已签名或已发送）
+     * 
+     * @param taskId 任务ID
+     * @return 预留记录数
+     */
+    int countPendingByTaskId(@Param("taskId") Long taskId);
+    
+    /**
+     * 为已释放的预留记录写入新交易
+     * 仅更新状态为RELEASED的记录，已签名或已发送的记录不覆盖
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param nonce nonce
+     * @param taskId 关联任务ID
+     * @param txHash 交易哈希
+     * @param rawTransaction 已签名交易
+     * @param status 预留状态
+     * @return 更新记录数，0表示没有记录或记录未释放
+     */
+    int updateTransaction(@Param("senderAddress") String senderAddress,
+                          @Param("nonce") long nonce,
+                          @Param("taskId") Long taskId,
+                          @Param("txHash") String txHash,
+                          @Param("rawTransaction") String rawTransaction,
+                          @Param("status") NonceReservation.ReservationStatus status);
+    
+    /**
+     * 以替换交易（相同nonce、更高费用）覆盖预留记录
+     * 仅当记录仍是被替换的交易时更新
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param nonce nonce
+     * @param replacedTxHash 被替换的交易哈希
+     * @param txHash 替换交易哈希
+     * @param rawTransaction 已签名的替换交易
+     * @param status 预留状态
+     * @return 更新记录数，0表示记录已不是被替换的交易
+     */
+    int replaceTransaction(@Param("senderAddress") String senderAddress,
+                           @Param("nonce") long nonce,
+                           @Param("replacedTxHash") String replacedTxHash,
+                           @Param("txHash") String txHash,
+                           @Param("rawTransaction") String rawTransaction,
+                           @Param("status") NonceReservation.ReservationStatus status);
+    
+    /**
+     * 更新预留状态
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param nonce nonce
+     * @param status 预留状态
+     * @return 更新记录数
+     */
+    int updateStatus(@Param("senderAddress") String senderAddress,
+                     @Param("nonce") long nonce,
+                     @Param("status") NonceReservation.ReservationStatus status);
+    
+    /**
+     * 删除预留记录
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param nonce nonce
+     * @return 删除记录数
+     */
+    int delete(@Param("senderAddress") String senderAddress, @Param("nonce") long nonce);
+    
+    /**
+     * 删除已上链（nonce小于链上已确认交易数）的预留记录
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param nonce 链上已确认交易数
+     * @return 删除记录数
+     */
+    int deleteBelowNonce(@Param("senderAddress") String senderAddress, @Param("nonce") long nonce);
+}
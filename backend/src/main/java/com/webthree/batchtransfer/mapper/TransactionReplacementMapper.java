@@ -0,0 +1,39 @@
+package com.webthree.batchtransfer.mapper;
+
+import com.webthree.batchtransfer.entity.TransactionReplacement;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 替换交易记录Mapper接口
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public interface TransactionReplacementMapper {
+    
+    /**
+     * 插入替换交易记录
+     * 
+     * @param replacement 替换交易记录
+     * @return 插入记录数
+     */
+    int insert(TransactionReplacement replacement);
+    
+    /**
+     * 查询任务的全部替换交易记录（按创建顺序）
+     * 
+     * @param taskId 任务ID
+     * @return 替换交易记录
+     */
+    List<TransactionReplacement> selectByTaskId(@Param("taskId") Long taskId);
+    
+    /**
+     * 删除替换交易记录（替换交易未被节点接收）
+     * 
+     * @param txHash 替换交易哈希
+     * @return 删除记录数
+     */
+    int deleteByTxHash(@Param("txHash") String txHash);
+}
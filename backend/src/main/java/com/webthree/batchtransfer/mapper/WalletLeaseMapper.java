@@ -0,0 +1,59 @@
+package com.webthree.batchtransfer.mapper;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发送钱包租约Mapper接口
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public interface WalletLeaseMapper {
+    
+    /**
+     * 续期或接管租约
+     * 租约由本实例持有或已过期时更新持有者和到期时间
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param ownerId 执行器实例ID
+     * @param expiresAt 新的到期时间
+     * @param now 当前时间，到期时间早于该时间的租约可被接管
+     * @return 更新记录数，0表示没有租约或由其他实例持有
+     */
+    int renew(@Param("senderAddress") String senderAddress,
+              @Param("ownerId") String ownerId,
+              @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("now") LocalDateTime now);
+    
+    /**
+     * 插入租约
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param ownerId 执行器实例ID
+     * @param expiresAt 到期时间
+     * @return 插入记录数
+     * @throws org.springframework.dao.DuplicateKeyException 钱包已有租约
+     */
+    int insert(@Param("senderAddress") String senderAddress,
+               @Param("ownerId") String ownerId,
+               @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * 查询租约持有者
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @return 执行器实例ID，没有租约时为null
+     */
+    String selectOwner(@Param("senderAddress") String senderAddress);
+    
+    /**
+     * 释放本实例持有的租约
+     * 
+     * @param senderAddress 发送方地址（小写）
+     * @param ownerId 执行器实例ID
+     * @return 删除记录数
+     */
+    int delete(@Param("senderAddress") String senderAddress, @Param("ownerId") String ownerId);
+}
@@ -0,0 +1,126 @@
+package com.webthree.batchtransfer.metrics;
+
+import com.webthree.batchtransfer.jfr.JfrTaskContext;
+import com.webthree.batchtransfer.jfr.RpcCallEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.OkHttpClient;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+
+/**
+ * 带指标的Web3j HTTP服务
+ * 按RPC方法记录调用耗时（web3j.rpc.requests，按outcome区分成功、节点返回错误和IO异常）
+ * 以及错误次数（web3j.rpc.errors，按错误码或异常类型区分），并发出JFR事件（RpcCall）。
+ * sendAsync最终也经过send，同样会被记录
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class InstrumentedHttpService extends HttpService {
+    
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_RPC_ERROR = "rpc_error";
+    private static final String OUTCOME_IO_ERROR = "io_error";
+    
+    private static final String BATCH_METHOD = "batch";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public InstrumentedHttpService(String url, OkHttpClient httpClient, MeterRegistry meterRegistry) {
+        super(url, httpClient);
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        RpcCallEvent event = new RpcCallEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_IO_ERROR;
+        try {
+            T response = super.send(request, responseType);
+            if (response.hasError()) {
+                outcome = OUTCOME_RPC_ERROR;
+                recordError(request.getMethod(), String.valueOf(response.getError().getCode()));
+            } else {
+                outcome = OUTCOME_SUCCESS;
+            }
+            return response;
+        } catch (IOException e) {
+            recordError(request.getMethod(), e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            sample.stop(requestTimer(request.getMethod(), outcome));
+            commitEvent(event, request.getMethod(), outcome);
+        }
+    }
+    
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        RpcCallEvent event = new RpcCallEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_IO_ERROR;
+        try {
+            BatchResponse response = super.sendBatch(batchRequest);
+            outcome = OUTCOME_SUCCESS;
+            for (Response<?> item : response.getResponses()) {
+                if (item.hasError()) {
+                    outcome = OUTCOME_RPC_ERROR;
+                    recordError(BATCH_METHOD, String.valueOf(item.getError().getCode()));
+                }
+            }
+            return response;
+        } catch (IOException e) {
+            recordError(BATCH_METHOD, e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            sample.stop(requestTimer(BATCH_METHOD, outcome));
+            commitEvent(event, BATCH_METHOD, outcome);
+        }
+    }
+    
+    /**
+     * 获取RPC调用计时器
+     */
+    private Timer requestTimer(String method, String outcome) {
+        return Timer.builder("web3j.rpc.requests")
+                .description("RPC调用耗时")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 提交JFR事件（未达到阈值或未启用时跳过）
+     */
+    private void commitEvent(RpcCallEvent event, String method, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.taskId = JfrTaskContext.currentTaskId();
+            event.method = method;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+    
+    /**
+     * 记录RPC错误
+     */
+    private void recordError(String method, String code) {
+        Counter.builder("web3j.rpc.errors")
+                .description("RPC调用错误次数")
+                .tag("method", method)
+                .tag("code", code)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,170 @@
+package com.webthree.batchtransfer.metrics;
+
+import com.webthree.batchtransfer.jfr.JfrTaskContext;
+import com.webthree.batchtransfer.jfr.MapperCallEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis语句耗时拦截器
+ * 按语句ID（如 BatchTransferTaskMapper.selectByStatus）记录执行耗时（mybatis.statement，按type和outcome区分），
+ * 超过阈值的语句输出到慢查询日志（logger: mybatis.slow-query），便于单独设置级别或输出到独立文件，
+ * 同时发出JFR事件（MapperCall）供事后按任务归因
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+    
+    private static final Logger SLOW_QUERY_LOG = LoggerFactory.getLogger("mybatis.slow-query");
+    
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_ERROR = "error";
+    
+    /**
+     * 慢查询日志中SQL的最大长度
+     */
+    private static final int MAX_SQL_LENGTH = 1000;
+    
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * 慢查询阈值（毫秒），小于等于0时不输出慢查询日志
+     */
+    @Value("${app.mybatis.slow-query-threshold:500}")
+    private long slowQueryThreshold;
+    
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        MapperCallEvent event = new MapperCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            String statementId = shortStatementId(statement.getId());
+            statementTimer(statementId, statement, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+            
+            event.end();
+            if (event.shouldCommit()) {
+                event.taskId = JfrTaskContext.currentTaskId();
+                event.statement = statementId;
+                event.commandType = statement.getSqlCommandType().name();
+                event.outcome = outcome;
+                event.commit();
+            }
+            
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (slowQueryThreshold > 0 && elapsedMillis >= slowQueryThreshold) {
+                logSlowQuery(statementId, statement, invocation.getArgs(), outcome, elapsedMillis, result);
+            }
+        }
+    }
+    
+    /**
+     * 获取语句计时器，Micrometer按名称和标签缓存，重复获取开销很小
+     */
+    private Timer statementTimer(String statementId, MappedStatement statement, String outcome) {
+        return Timer.builder("mybatis.statement")
+                .description("MyBatis语句执行耗时")
+                .tag("statement", statementId)
+                .tag("type", statement.getSqlCommandType().name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 输出慢查询日志（只输出SQL模板和影响行数，不输出参数值）
+     */
+    private void logSlowQuery(String statementId, MappedStatement statement, Object[] args,
+                              String outcome, long elapsedMillis, Object result) {
+        if (!SLOW_QUERY_LOG.isWarnEnabled()) {
+            return;
+        }
+        
+        String sql;
+        try {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(args[1]);
+            sql = compactSql(boundSql.getSql());
+        } catch (RuntimeException e) {
+            sql = "<unavailable>";
+        }
+        
+        SLOW_QUERY_LOG.warn("slow_query statement={} type={} outcome={} elapsed_ms={} rows={} threshold_ms={} sql=\"{}\"",
+                statementId, statement.getSqlCommandType(), outcome, elapsedMillis, rowCount(result),
+                slowQueryThreshold, sql);
+    }
+    
+    /**
+     * 去掉Mapper接口的包名，保留 Mapper.method
+     */
+    private static String shortStatementId(String id) {
+        int methodIndex = id.lastIndexOf('.');
+        if (methodIndex <= 0) {
+            return id;
+        }
+        int classIndex = id.lastIndexOf('.', methodIndex - 1);
+        return classIndex < 0 ? id : id.substring(classIndex + 1);
+    }
+    
+    /**
+     * 查询返回结果行数，更新返回影响行数，无法确定时返回-1
+     */
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return -1;
+    }
+    
+    /**
+     * 合并SQL中的空白字符并截断
+     */
+    private static String compactSql(String sql) {
+        String compacted = sql.replaceAll("\\s+", " ").trim();
+        return compacted.length() > MAX_SQL_LENGTH ? compacted.substring(0, MAX_SQL_LENGTH) + "..." : compacted;
+    }
+}
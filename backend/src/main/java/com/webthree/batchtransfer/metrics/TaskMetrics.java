@@ -0,0 +1,170 @@
+package com.webthree.batchtransfer.metrics;
+
+import com.webthree.batchtransfer.entity.BatchTransferTask.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务生命周期指标
+ * 阶段耗时（batch.transfer.task.stage）按stage标签区分流水线各段：
+ * pending_to_executing 为创建到开始执行，executing_to_completed/executing_to_failed 为执行到链上确认，
+ * source标签区分状态变更来自接口、回滚还是区块链监听
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Component
+public class TaskMetrics {
+    
+    /**
+     * 状态变更来源：前端调用接口
+     */
+    public static final String SOURCE_API = "api";
+    
+    /**
+     * 状态变更来源：回滚（手动或超时扫描）
+     */
+    public static final String SOURCE_ROLLBACK = "rollback";
+    
+    /**
+     * 状态变更来源：区块链监听
+     */
+    public static final String SOURCE_MONITOR = "monitor";
+    
+    /**
+     * 状态变更来源：服务端执行器
+     */
+    public static final String SOURCE_EXECUTOR = "executor";
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final Counter tasksCreated;
+    
+    private final Counter itemsCreated;
+    
+    private final DistributionSummary taskSize;
+    
+    private final Map<TaskStatus, AtomicLong> tasksByStatus = new EnumMap<>(TaskStatus.class);
+    
+    public TaskMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.tasksCreated = Counter.builder("batch.transfer.tasks.created")
+                .description("创建的任务数")
+                .register(meterRegistry);
+        this.itemsCreated = Counter.builder("batch.transfer.items.created")
+                .description("创建的转账项数，按速率查看即每秒写入的转账项")
+                .baseUnit("items")
+                .register(meterRegistry);
+        this.taskSize = DistributionSummary.builder("batch.transfer.task.size")
+                .description("单个任务的转账项数")
+                .baseUnit("items")
+                .register(meterRegistry);
+        
+        for (TaskStatus status : TaskStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            tasksByStatus.put(status, count);
+            Gauge.builder("batch.transfer.tasks", count, AtomicLong::get)
+                    .description("各状态的任务数")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * 记录任务创建
+     * 
+     * @param itemCount 转账项数
+     */
+    public void recordTaskCreated(int itemCount) {
+        tasksCreated.increment();
+        itemsCreated.increment(itemCount);
+        taskSize.record(itemCount);
+    }
+    
+    /**
+     * 记录任务进入新状态时所在阶段的耗时
+     * 进入执行中时从创建时间开始计时；进入终态时，执行过的任务从执行开始时间计时，未执行过的从创建时间计时
+     * 
+     * @param status 新状态
+     * @param createdAt 创建时间
+     * @param executionStartedAt 执行开始时间
+     * @param source 状态变更来源
+     */
+    public void recordStatusReached(TaskStatus status, LocalDateTime createdAt, LocalDateTime executionStartedAt,
+                                    String source) {
+        TaskStatus from;
+        LocalDateTime since;
+        if (status == TaskStatus.EXECUTING || executionStartedAt == null) {
+            from = TaskStatus.PENDING;
+            since = createdAt;
+        } else {
+            from = TaskStatus.EXECUTING;
+            since = executionStartedAt;
+        }
+        
+        if (since == null || status == TaskStatus.PENDING) {
+            return;
+        }
+        
+        Duration elapsed = Duration.between(since, LocalDateTime.now());
+        if (elapsed.isNegative()) {
+            return;
+        }
+        
+        Timer.builder("batch.transfer.task.stage")
+                .description("任务在各阶段停留的时长")
+                .tag("stage", from.name().toLowerCase() + "_to_" + status.name().toLowerCase())
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+    
+    /**
+     * 更新各状态任务数
+     * 
+     * @param counts 状态 -> 任务数，未出现的状态记为0
+     */
+    public void updateTaskCounts(Map<TaskStatus, Long> counts) {
+        tasksByStatus.forEach((status, count) -> count.set(counts.getOrDefault(status, 0L)));
+    }
+    
+    /**
+     * 开始计时一轮监听检查
+     * 
+     * @return 计时样本
+     */
+    public Timer.Sample startSweep() {
+        return Timer.start(meterRegistry);
+    }
+    
+    /**
+     * 结束计时一轮监听检查
+     * 
+     * @param sample 计时样本
+     * @param outcome 结果：completed、timeout、error、idle
+     * @param taskCount 本轮检查的任务数
+     */
+    public void stopSweep(Timer.Sample sample, String outcome, int taskCount) {
+        sample.stop(Timer.builder("batch.transfer.monitor.sweep")
+                .description("单轮执行中任务检查的耗时")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        
+        DistributionSummary.builder("batch.transfer.monitor.sweep.tasks")
+                .description("单轮检查的任务数")
+                .register(meterRegistry)
+                .record(taskCount);
+    }
+}
@@ -0,0 +1,50 @@
+package com.webthree.batchtransfer.metrics;
+
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.entity.BatchTransferTask.TaskStatus;
+import com.webthree.batchtransfer.entity.TaskStatusCount;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 定期刷新各状态任务数指标
+ * 一次GROUP BY查询代替按状态逐个计数，使用后台任务连接池
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class TaskStatusGaugeUpdater {
+    
+    private final BatchTransferTaskMapper taskMapper;
+    private final TaskMetrics taskMetrics;
+    
+    /**
+     * 刷新各状态任务数
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.task-status-refresh-interval:30000}")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public void refreshTaskCounts() {
+        try {
+            Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatusCount statusCount : taskMapper.countGroupByStatus(null)) {
+                counts.put(statusCount.getStatus(), statusCount.getCount());
+            }
+            taskMetrics.updateTaskCounts(counts);
+        } catch (Exception e) {
+            log.warn("刷新任务状态指标失败: {}", e.getMessage());
+        }
+    }
+}
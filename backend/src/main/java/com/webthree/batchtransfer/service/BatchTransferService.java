@@ -1,27 +1,48 @@
 package com.webthree.batchtransfer.service;
 
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.dto.BatchTaskStatusRequest;
+import com.webthree.batchtransfer.dto.BatchTaskStatusResponse;
 import com.webthree.batchtransfer.dto.CreateTaskRequest;
+import com.webthree.batchtransfer.dto.RecipientTransferPage;
+import com.webthree.batchtransfer.dto.RecipientTransferRecord;
 import com.webthree.batchtransfer.dto.TaskResponse;
+import com.webthree.batchtransfer.dto.TaskStatusRecord;
 import com.webthree.batchtransfer.dto.TransferItemResponse;
 import com.webthree.batchtransfer.dto.UpdateTaskStatusRequest;
 import com.webthree.batchtransfer.entity.BatchTransferTask;
 import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.RecipientTransfer;
+import com.webthree.batchtransfer.entity.TaskStatusCount;
+import com.webthree.batchtransfer.jfr.JfrTaskContext;
+import com.webthree.batchtransfer.jfr.TaskTransitionEvent;
 import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
 import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.metrics.TaskMetrics;
 import com.webthree.batchtransfer.util.EthUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * 批量转账业务服务
+ * 查询方法标记为只读（SUPPORTS：单独调用时不开启数据库事务），配置了只读副本时路由到副本
  * 
  * @author WebThree Team
  * @since 1.0.0
@@ -33,6 +54,9 @@ public class BatchTransferService {
     
     private final BatchTransferTaskMapper taskMapper;
     private final BatchTransferItemMapper itemMapper;
+    private final TaskMetrics taskMetrics;
+    private final TaskChangeNotifier taskChangeNotifier;
+    private final ExecutorProperties executorProperties;
     
 
     
@@ -55,6 +79,12 @@ public class BatchTransferService {
                 .map(CreateTaskRequest.TransferItemDto::getAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
+        BatchTransferTask.ExecutionMode executionMode = request.getExecutionMode() != null
+                ? request.getExecutionMode() : BatchTransferTask.ExecutionMode.WALLET;
+        if (executionMode == BatchTransferTask.ExecutionMode.SERVER) {
+            validateServerExecution(creatorAddress.toLowerCase(), totalAmount);
+        }
+        
         // 生成执行令牌
         String executionToken = generateExecutionToken();
         
@@ -66,6 +96,7 @@ public class BatchTransferService {
                 .totalAmount(totalAmount)
                 .status(BatchTransferTask.TaskStatus.PENDING)
                 .executionToken(executionToken)
+                .executionMode(executionMode)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -96,14 +127,51 @@ public class BatchTransferService {
         log.info("成功创建批量转账任务: ID={}, 名称={}, 创建者={}, 转账项数量={}", 
                 task.getId(), task.getTaskName(), creatorAddress, items.size());
         
+        taskMetrics.recordTaskCreated(items.size());
+        
         return convertToTaskResponse(task);
     }
     
+    /**
+     * 校验创建者能否创建服务端执行的任务
+     * SERVER任务的转账金额由热钱包支付，只有配置的创建者可以创建，且受单个任务金额、
+     * 未完成任务数和未完成金额上限约束。锁定创建者未完成的SERVER任务后再校验，
+     * 同一创建者的并发创建在可重复读隔离级别下串行执行，不会合计超出上限
+     * 
+     * @param creatorAddress 创建者地址（小写）
+     * @param totalAmount 新任务的转账总金额
+     */
+    private void validateServerExecution(String creatorAddress, BigDecimal totalAmount) {
+        if (!executorProperties.isEnabled()) {
+            throw new IllegalArgumentException("服务端执行未启用");
+        }
+        if (executorProperties.getAllowedCreators().stream().noneMatch(creatorAddress::equalsIgnoreCase)) {
+            throw new IllegalArgumentException("该地址无权创建服务端执行的任务");
+        }
+        if (totalAmount.compareTo(executorProperties.getMaxTaskAmount()) > 0) {
+            throw new IllegalArgumentException("任务金额超过服务端执行上限: " + executorProperties.getMaxTaskAmount() + " ETH");
+        }
+        
+        List<BatchTransferTask> openTasks = taskMapper.selectOpenServerTasksForUpdate(creatorAddress);
+        if (openTasks.size() >= executorProperties.getMaxOpenTasksPerCreator()) {
+            throw new IllegalArgumentException("未完成的服务端执行任务数已达上限: " 
+                    + executorProperties.getMaxOpenTasksPerCreator());
+        }
+        BigDecimal openAmount = openTasks.stream()
+                .map(BatchTransferTask::getTotalAmount)
+                .reduce(totalAmount, BigDecimal::add);
+        if (openAmount.compareTo(executorProperties.getMaxOpenAmountPerCreator()) > 0) {
+            throw new IllegalArgumentException("未完成的服务端执行任务金额超过上限: " 
+                    + executorProperties.getMaxOpenAmountPerCreator() + " ETH");
+        }
+    }
+    
     /**
      * 获取所有任务列表
      * 
      * @return 任务列表
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<TaskResponse> getAllTasks() {
         List<BatchTransferTask> tasks = taskMapper.selectAll();
         return tasks.stream()
@@ -117,22 +185,44 @@ public class BatchTransferService {
      * @param taskId 任务ID
      * @return 任务详情
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public TaskResponse getTaskById(Long taskId) {
+        return getTaskById(taskId, true);
+    }
+    
+    /**
+     * 根据ID获取任务
+     * 
+     * @param taskId 任务ID
+     * @param includeItems 是否包含转账项列表
+     * @return 任务信息
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public TaskResponse getTaskById(Long taskId, boolean includeItems) {
         BatchTransferTask task = taskMapper.selectById(taskId);
         if (task == null) {
             throw new RuntimeException("任务不存在: " + taskId);
         }
         
         TaskResponse response = convertToTaskResponse(task);
-        
-        // 获取转账项列表
-        List<BatchTransferItem> items = itemMapper.selectByTaskId(taskId);
+        return includeItems ? withTransferItems(response) : response;
+    }
+    
+    /**
+     * 为已读取的任务头部加载转账项列表，避免再次读取任务
+     * 
+     * @param task 不含转账项的任务信息
+     * @return 同一对象，已填充转账项列表
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public TaskResponse withTransferItems(TaskResponse task) {
+        List<BatchTransferItem> items = itemMapper.selectByTaskId(task.getId());
         List<TransferItemResponse> itemResponses = items.stream()
                 .map(this::convertToTransferItemResponse)
                 .collect(Collectors.toList());
-        response.setTransferItems(itemResponses);
+        task.setTransferItems(itemResponses);
         
-        return response;
+        return task;
     }
     
     /**
@@ -141,6 +231,7 @@ public class BatchTransferService {
      * @param status 任务状态
      * @return 任务列表
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<TaskResponse> getTasksByStatus(BatchTransferTask.TaskStatus status) {
         List<BatchTransferTask> tasks = taskMapper.selectByStatus(status);
         return tasks.stream()
@@ -154,6 +245,7 @@ public class BatchTransferService {
      * @param creatorAddress 创建者地址
      * @return 任务列表
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<TaskResponse> getTasksByCreatorAddress(String creatorAddress) {
         List<BatchTransferTask> tasks = taskMapper.selectByCreatorAddress(creatorAddress);
         return tasks.stream()
@@ -168,6 +260,7 @@ public class BatchTransferService {
      * @param status 任务状态
      * @return 任务列表
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<TaskResponse> getTasksByCreatorAddressAndStatus(String creatorAddress, BatchTransferTask.TaskStatus status) {
         List<BatchTransferTask> tasks = taskMapper.selectByCreatorAddressAndStatus(creatorAddress, status);
         return tasks.stream()
@@ -177,15 +270,32 @@ public class BatchTransferService {
     
     /**
      * 更新任务状态
+     * 
+     * @param taskId 任务ID
+     * @param request 更新请求
+     * @param includeItems 返回结果是否包含转账项列表（默认只返回任务头部，避免重新读取全部转账项）
+     * @return 更新后的任务
      */
     @Transactional(rollbackFor = Exception.class)
-    public TaskResponse updateTaskStatus(Long taskId, UpdateTaskStatusRequest request) {
-        log.info("更新任务状态: ID={}, 状态={}", taskId, request.getStatus());
-        
-        BatchTransferTask existingTask = taskMapper.selectById(taskId);
-        if (existingTask == null) {
-            throw new RuntimeException("任务不存在: " + taskId);
+    public TaskResponse updateTaskStatus(Long taskId, UpdateTaskStatusRequest request, boolean includeItems) {
+        TaskTransitionEvent event = new TaskTransitionEvent();
+        event.begin();
+        boolean success = false;
+        try (JfrTaskContext.Scope ignored = JfrTaskContext.open(taskId)) {
+            TaskResponse response = applyStatusUpdate(taskId, request, includeItems);
+            success = true;
+            taskChangeNotifier.notifyChanged(taskId);
+            return response;
+        } finally {
+            event.complete(taskId, request.getStatus(), TaskMetrics.SOURCE_API, success);
         }
+    }
+    
+    /**
+     * 执行状态更新（在updateTaskStatus的事务中）
+     */
+    private TaskResponse applyStatusUpdate(Long taskId, UpdateTaskStatusRequest request, boolean includeItems) {
+        log.info("更新任务状态: ID={}, 状态={}", taskId, request.getStatus());
         
         // 如果只是更新txHash而不更新状态
         if (request.getStatus() == null) {
@@ -193,33 +303,35 @@ public class BatchTransferService {
             // 只更新txHash，不更新状态
             int updated = taskMapper.updateTxHashOnly(taskId, request.getTxHash());
             if (updated != 1) {
-                throw new RuntimeException("更新交易哈希失败");
+                throw new RuntimeException("任务不存在: " + taskId);
             }
-            return getTaskById(taskId);
+            return getTaskById(taskId, includeItems);
         }
         
-        // 检查状态转换的合法性
-        validateStatusTransition(existingTask.getStatus(), request.getStatus());
+        Set<BatchTransferTask.TaskStatus> expectedStatuses = TaskStatusTransitions.sourcesOf(request.getStatus());
+        if (expectedStatuses.isEmpty()) {
+            throw new IllegalArgumentException("不允许转换到状态: " + request.getStatus());
+        }
         
-        // 如果是开始执行，设置执行开始时间
+        // 开始执行时设置执行开始时间（EXECUTING 只能由 PENDING 转换而来）
         LocalDateTime executionStartedAt = null;
-        if (request.getStatus() == BatchTransferTask.TaskStatus.EXECUTING && 
-            existingTask.getStatus() == BatchTransferTask.TaskStatus.PENDING) {
+        if (request.getStatus() == BatchTransferTask.TaskStatus.EXECUTING) {
             executionStartedAt = LocalDateTime.now();
         }
         
-        // 更新任务状态
-        int updated = taskMapper.updateStatus(
+        // 以状态前置条件做条件更新，一次往返完成校验和写入
+        int updated = taskMapper.compareAndSetStatus(
                 taskId, 
+                expectedStatuses,
+                null,
                 request.getStatus(), 
                 request.getTxHash(), 
                 request.getErrorMessage(),
-                null, // executionToken 在此处不更新
                 executionStartedAt
         );
         
         if (updated != 1) {
-            throw new RuntimeException("更新任务状态失败");
+            throw transitionRejected(taskId, request.getStatus());
         }
         
         // 如果有交易哈希，同时更新所有转账项的交易哈希
@@ -241,7 +353,10 @@ public class BatchTransferService {
         
         log.info("成功更新任务状态: ID={}, 新状态={}", taskId, request.getStatus());
         
-        return getTaskById(taskId);
+        TaskResponse response = getTaskById(taskId, includeItems);
+        taskMetrics.recordStatusReached(request.getStatus(), response.getCreatedAt(),
+                response.getExecutionStartedAt(), TaskMetrics.SOURCE_API);
+        return response;
     }
     
     /**
@@ -250,6 +365,7 @@ public class BatchTransferService {
      * @param executionToken 执行令牌
      * @return 任务响应
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public TaskResponse getTaskByExecutionToken(String executionToken) {
         log.info("根据执行令牌查询任务: {}", executionToken);
         
@@ -261,16 +377,150 @@ public class BatchTransferService {
         return convertToTaskResponse(task);
     }
     
+    /**
+     * 获取创建者的任务统计
+     * 一次GROUP BY计数，不读取任务行
+     * 
+     * @param creatorAddress 创建者地址
+     * @return 总数及各状态任务数
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getTaskStatistics(String creatorAddress) {
+        Map<BatchTransferTask.TaskStatus, Long> counts = new EnumMap<>(BatchTransferTask.TaskStatus.class);
+        for (TaskStatusCount statusCount : taskMapper.countGroupByStatus(creatorAddress)) {
+            counts.put(statusCount.getStatus(), statusCount.getCount());
+        }
+        
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalTasks", counts.values().stream().mapToLong(Long::longValue).sum());
+        statistics.put("pendingTasks", counts.getOrDefault(BatchTransferTask.TaskStatus.PENDING, 0L));
+        statistics.put("executingTasks", counts.getOrDefault(BatchTransferTask.TaskStatus.EXECUTING, 0L));
+        statistics.put("completedTasks", counts.getOrDefault(BatchTransferTask.TaskStatus.COMPLETED, 0L));
+        statistics.put("failedTasks", counts.getOrDefault(BatchTransferTask.TaskStatus.FAILED, 0L));
+        return statistics;
+    }
+    
+    /**
+     * 批量查询当前用户任务的状态
+     * 按任务ID和执行令牌一次查询，只返回状态相关字段，不含转账项
+     * 
+     * @param request 查询请求
+     * @param creatorAddress 当前用户钱包地址
+     * @return 状态记录及未找到的ID和令牌
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public BatchTaskStatusResponse getTaskStatuses(BatchTaskStatusRequest request, String creatorAddress) {
+        Set<Long> taskIds = new LinkedHashSet<>();
+        if (request.getTaskIds() != null) {
+            request.getTaskIds().stream().filter(id -> id != null).forEach(taskIds::add);
+        }
+        Set<String> executionTokens = new LinkedHashSet<>();
+        if (request.getExecutionTokens() != null) {
+            request.getExecutionTokens().stream()
+                    .filter(token -> token != null && !token.trim().isEmpty())
+                    .forEach(executionTokens::add);
+        }
+        
+        if (taskIds.isEmpty() && executionTokens.isEmpty()) {
+            throw new IllegalArgumentException("任务ID和执行令牌不能同时为空");
+        }
+        if (taskIds.size() + executionTokens.size() > BatchTaskStatusRequest.MAX_KEYS) {
+            throw new IllegalArgumentException("单次最多查询" + BatchTaskStatusRequest.MAX_KEYS + "个任务");
+        }
+        
+        List<BatchTransferTask> tasks = taskMapper.selectStatusByIdsOrTokens(creatorAddress, taskIds, executionTokens);
+        
+        List<TaskStatusRecord> records = new ArrayList<>(tasks.size());
+        Set<Long> foundIds = new HashSet<>();
+        Set<String> foundTokens = new HashSet<>();
+        for (BatchTransferTask task : tasks) {
+            foundIds.add(task.getId());
+            foundTokens.add(task.getExecutionToken());
+            records.add(TaskStatusRecord.builder()
+                    .id(task.getId())
+                    .executionToken(task.getExecutionToken())
+                    .status(task.getStatus())
+                    .txHash(task.getTxHash())
+                    .errorMessage(task.getErrorMessage())
+                    .updatedAt(task.getUpdatedAt())
+                    .version(task.getVersion())
+                    .build());
+        }
+        
+        return BatchTaskStatusResponse.builder()
+                .tasks(records)
+                .missingTaskIds(taskIds.stream()
+                        .filter(id -> !foundIds.contains(id))
+                        .collect(Collectors.toList()))
+                .missingExecutionTokens(executionTokens.stream()
+                        .filter(token -> !foundTokens.contains(token))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+    
+    /**
+     * 按接收地址查询当前用户任务中的转账记录
+     * 地址不区分大小写，走小写地址索引倒序读取，不扫描任务表
+     * 
+     * @param recipientAddress 接收地址
+     * @param creatorAddress 当前用户钱包地址
+     * @param cursor 上一页返回的游标，为null时查询第一页
+     * @param limit 每页条数，为null时使用默认值
+     * @return 转账记录分页
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public RecipientTransferPage getRecipientTransfers(String recipientAddress, String creatorAddress,
+                                                       Long cursor, Integer limit) {
+        // 按小写比较，不校验checksum
+        String normalizedAddress = recipientAddress == null ? null : recipientAddress.trim().toLowerCase();
+        if (!EthUtils.isValidAddress(normalizedAddress)) {
+            throw new IllegalArgumentException("无效的以太坊地址: " + recipientAddress);
+        }
+        int pageSize = limit == null ? RecipientTransferPage.DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > RecipientTransferPage.MAX_LIMIT) {
+            throw new IllegalArgumentException("每页条数须在1到" + RecipientTransferPage.MAX_LIMIT + "之间");
+        }
+        
+        // 多查一条判断是否还有下一页
+        List<RecipientTransfer> transfers = itemMapper.selectByRecipient(
+                normalizedAddress, creatorAddress.toLowerCase(), cursor, pageSize + 1);
+        boolean hasMore = transfers.size() > pageSize;
+        if (hasMore) {
+            transfers = transfers.subList(0, pageSize);
+        }
+        
+        List<RecipientTransferRecord> records = transfers.stream()
+                .map(transfer -> RecipientTransferRecord.builder()
+                        .itemId(transfer.getItemId())
+                        .taskId(transfer.getTaskId())
+                        .taskName(transfer.getTaskName())
+                        .taskStatus(transfer.getTaskStatus())
+                        .recipientAddress(transfer.getRecipientAddress())
+                        .amount(transfer.getAmount())
+                        .status(transfer.getStatus())
+                        .txHash(transfer.getTxHash())
+                        .createdAt(transfer.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+        
+        return RecipientTransferPage.builder()
+                .records(records)
+                .nextCursor(hasMore ? records.get(records.size() - 1).getItemId() : null)
+                .build();
+    }
+    
     /**
      * 查询超时的执行中任务
      * 
      * @param timeoutMinutes 超时分钟数
      * @return 超时任务列表
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<TaskResponse> getTimeoutExecutingTasks(Integer timeoutMinutes) {
         log.info("查询超时的执行中任务，超时时间: {} 分钟", timeoutMinutes);
         
-        List<BatchTransferTask> tasks = taskMapper.selectTimeoutExecutingTasks(timeoutMinutes);
+        List<BatchTransferTask> tasks = taskMapper.selectTimeoutExecutingTasks(
+                LocalDateTime.now().minusMinutes(timeoutMinutes));
         return tasks.stream()
                 .map(this::convertToTaskResponse)
                 .collect(Collectors.toList());
@@ -281,40 +531,56 @@ public class BatchTransferService {
      * 
      * @param taskId 任务ID
      * @param errorMessage 错误信息
+     * @param includeItems 返回结果是否包含转账项列表
      * @return 任务响应
      */
     @Transactional(rollbackFor = Exception.class)
-    public TaskResponse rollbackTaskStatus(Long taskId, String errorMessage) {
-        log.info("回滚任务状态: ID={}, 错误信息={}", taskId, errorMessage);
-        
-        BatchTransferTask existingTask = taskMapper.selectById(taskId);
-        if (existingTask == null) {
-            throw new RuntimeException("任务不存在: " + taskId);
-        }
-        
-        if (existingTask.getStatus() != BatchTransferTask.TaskStatus.EXECUTING) {
-            throw new RuntimeException("只能回滚执行中的任务");
+    public TaskResponse rollbackTaskStatus(Long taskId, String errorMessage, boolean includeItems) {
+        TaskTransitionEvent event = new TaskTransitionEvent();
+        event.begin();
+        boolean success = false;
+        try (JfrTaskContext.Scope ignored = JfrTaskContext.open(taskId)) {
+            TaskResponse response = applyRollback(taskId, errorMessage, includeItems);
+            success = true;
+            taskChangeNotifier.notifyChanged(taskId);
+            return response;
+        } finally {
+            event.complete(taskId, BatchTransferTask.TaskStatus.FAILED, TaskMetrics.SOURCE_ROLLBACK, success);
         }
+    }
+    
+    /**
+     * 执行状态回滚（在rollbackTaskStatus的事务中）
+     */
+    private TaskResponse applyRollback(Long taskId, String errorMessage, boolean includeItems) {
+        log.info("回滚任务状态: ID={}, 错误信息={}", taskId, errorMessage);
         
-        // 更新任务状态为失败，清除执行开始时间
-        int updated = taskMapper.updateStatus(
+        // 仅回滚执行中的任务，执行开始时间保持不变
+        int updated = taskMapper.compareAndSetStatus(
                 taskId,
+                EnumSet.of(BatchTransferTask.TaskStatus.EXECUTING),
+                null,
                 BatchTransferTask.TaskStatus.FAILED,
                 null,
                 errorMessage,
-                null,
-                null // 清除执行开始时间
+                null
         );
         
         if (updated != 1) {
-            throw new RuntimeException("回滚任务状态失败");
+            if (taskMapper.selectById(taskId) == null) {
+                throw new RuntimeException("任务不存在: " + taskId);
+            }
+            throw new RuntimeException("只能回滚执行中的任务");
         }
         
         // 更新所有转账项状态为失败
         itemMapper.batchUpdateStatusAndTxHash(taskId, BatchTransferItem.ItemStatus.FAILED, null);
         
         log.info("成功回滚任务状态: ID={}", taskId);
-        return getTaskById(taskId);
+        TaskResponse response = getTaskById(taskId, includeItems);
+        taskMetrics.recordStatusReached(BatchTransferTask.TaskStatus.FAILED, response.getCreatedAt(),
+                response.getExecutionStartedAt(), TaskMetrics.SOURCE_ROLLBACK);
+        return response;
     }
     
     /**
@@ -326,21 +592,18 @@ public class BatchTransferService {
     public void deleteTask(Long taskId) {
         log.info("删除任务: ID={}", taskId);
         
-        BatchTransferTask task = taskMapper.selectById(taskId);
-        if (task == null) {
-            throw new RuntimeException("任务不存在: " + taskId);
-        }
-        
-        // 只能删除待执行状态的任务
-        if (task.getStatus() != BatchTransferTask.TaskStatus.PENDING) {
+        // 只能删除待执行状态的任务，先按状态条件删除任务再删除转账项
+        int deleted = taskMapper.deleteByIdAndStatus(taskId, BatchTransferTask.TaskStatus.PENDING);
+        if (deleted != 1) {
+            if (taskMapper.selectById(taskId) == null) {
+                throw new RuntimeException("任务不存在: " + taskId);
+            }
             throw new RuntimeException("只能删除待执行状态的任务");
         }
         
         // 删除转账项
         itemMapper.deleteByTaskId(taskId);
-        
-        // 删除任务
-        taskMapper.deleteById(taskId);
+        taskChangeNotifier.notifyChanged(taskId);
         
         log.info("成功删除任务: ID={}", taskId);
     }
@@ -370,7 +633,7 @@ public class BatchTransferService {
      * @param task 任务实体
      * @return 任务响应DTO
      */
-    private TaskResponse convertToTaskResponse(BatchTransferTask task) {
+    TaskResponse convertToTaskResponse(BatchTransferTask task) {
         return TaskResponse.builder()
                 .id(task.getId())
                 .taskName(task.getTaskName())
@@ -381,9 +644,11 @@ public class BatchTransferService {
                 .txHash(task.getTxHash())
                 .errorMessage(task.getErrorMessage())
                 .executionToken(task.getExecutionToken())
+                .executionMode(task.getExecutionMode())
                 .executionStartedAt(task.getExecutionStartedAt())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
     
@@ -413,37 +678,20 @@ public class BatchTransferService {
     }
     
     /**
-     * 验证状态转换的合法性
+     * 条件更新未生效时确定原因
+     * 仅在失败路径上额外查询一次，区分任务不存在和状态转换非法
      * 
-     * @param currentStatus 当前状态
-     * @param newStatus 新状态
+     * @param taskId 任务ID
+     * @param newStatus 目标状态
+     * @return 对应的异常
      */
-    private void validateStatusTransition(BatchTransferTask.TaskStatus currentStatus, BatchTransferTask.TaskStatus newStatus) {
-        // 定义合法的状态转换
-        boolean isValidTransition = false;
-        
-        switch (currentStatus) {
-            case PENDING:
-                // PENDING 可以转换为 EXECUTING 或 FAILED
-                isValidTransition = newStatus == BatchTransferTask.TaskStatus.EXECUTING || 
-                                  newStatus == BatchTransferTask.TaskStatus.FAILED;
-                break;
-            case EXECUTING:
-                // EXECUTING 可以转换为 COMPLETED 或 FAILED
-                isValidTransition = newStatus == BatchTransferTask.TaskStatus.COMPLETED || 
-                                  newStatus == BatchTransferTask.TaskStatus.FAILED;
-                break;
-            case COMPLETED:
-            case FAILED:
-                // COMPLETED 和 FAILED 是终态，不能再转换
-                isValidTransition = false;
-                break;
-        }
-        
-        if (!isValidTransition) {
-            throw new IllegalArgumentException(
-                String.format("非法的状态转换: %s -> %s", currentStatus, newStatus)
-            );
+    private RuntimeException transitionRejected(Long taskId, BatchTransferTask.TaskStatus newStatus) {
+        BatchTransferTask task = taskMapper.selectById(taskId);
+        if (task == null) {
+            return new RuntimeException("任务不存在: " + taskId);
         }
+        return new IllegalArgumentException(
+            String.format("非法的状态转换: %s -> %s", task.getStatus(), newStatus)
+        );
     }
 }
\ No newline at end of file
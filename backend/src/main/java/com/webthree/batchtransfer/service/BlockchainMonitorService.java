@@ -1,25 +1,50 @@
 package com.webthree.batchtransfer.service;
 
+import com.webthree.batchtransfer.config.AsyncConfig;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
 import com.webthree.batchtransfer.entity.BatchTransferTask;
 import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.TransactionReplacement;
+import com.webthree.batchtransfer.jfr.JfrTaskContext;
+import com.webthree.batchtransfer.jfr.TaskTransitionEvent;
 import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
 import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.mapper.NonceReservationMapper;
+import com.webthree.batchtransfer.mapper.TransactionReplacementMapper;
+import com.webthree.batchtransfer.metrics.TaskMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 区块链监听服务
- * 负责监听交易状态变化并更新任务状态
+ * 负责监听交易状态变化并更新任务状态，使用后台任务连接池
  * 
  * @author WebThree Team
  * @since 1.0.0
@@ -27,64 +52,191 @@ import java.util.Optional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
 public class BlockchainMonitorService {
     
     private final Web3j web3j;
     private final BatchTransferTaskMapper taskMapper;
     private final BatchTransferItemMapper itemMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskMetrics taskMetrics;
+    private final TaskChangeNotifier taskChangeNotifier;
+    private final TransactionReplacementMapper replacementMapper;
+    private final NonceReservationMapper reservationMapper;
+    
+    @Qualifier(AsyncConfig.MONITOR_RPC_EXECUTOR)
+    private final Executor rpcExecutor;
+    
+    @Qualifier(AsyncConfig.MONITOR_DB_EXECUTOR)
+    private final Executor dbExecutor;
+    
+    /**
+     * 单轮检查的最长等待时间（毫秒）
+     */
+    @Value("${app.monitor.sweep-timeout:25000}")
+    private long sweepTimeout;
+    
+    /**
+     * 标记是否有一轮检查正在进行，防止检查重叠
+     */
+    private final AtomicBoolean sweepInProgress = new AtomicBoolean(false);
     
     /**
      * 定时检查执行中的任务状态
-     * 每30秒执行一次
+     * 默认每30秒执行一次；本轮所有任务检查完成（或超时）后才开始计算下一轮间隔。
+     * 等待期间占用一个定时任务线程，定时任务线程池（spring.task.scheduling.pool.size）须为其他定时任务留出线程
      */
-    @Scheduled(fixedDelay = 30000, initialDelay = 10000)
-    @Async
+    @Scheduled(fixedDelayString = "${app.monitor.sweep-interval:30000}", 
+               initialDelayString = "${app.monitor.initial-delay:10000}")
     public void monitorExecutingTasks() {
+        if (!sweepInProgress.compareAndSet(false, true)) {
+            log.warn("上一轮任务状态检查尚未结束，跳过本轮");
+            return;
+        }
+        
         log.debug("开始监听执行中的任务状态");
         
+        Timer.Sample sweepSample = taskMetrics.startSweep();
+        String outcome = "error";
+        int taskCount = 0;
         try {
-            // 获取所有执行中的任务
-            List<BatchTransferTask> executingTasks = taskMapper.selectByStatus(BatchTransferTask.TaskStatus.EXECUTING);
+            // 获取所有执行中的任务（只读，配置了只读副本时读副本；状态更新带前置条件，读到稍旧的数据不影响正确性）
+            List<BatchTransferTask> executingTasks = readOnlyTransactionTemplate().execute(
+                    status -> taskMapper.selectByStatus(BatchTransferTask.TaskStatus.EXECUTING));
+            taskCount = executingTasks.size();
             
             if (executingTasks.isEmpty()) {
                 log.debug("没有执行中的任务");
+                outcome = "idle";
                 return;
             }
             
             log.info("发现 {} 个执行中的任务，开始检查状态", executingTasks.size());
             
+            // 并行检查所有任务，等待全部完成后再结束本轮
+            List<CompletableFuture<Void>> checks = new ArrayList<>(executingTasks.size());
             for (BatchTransferTask task : executingTasks) {
-                checkTaskTransactionStatus(task);
+                try {
+                    checks.add(checkTaskTransactionStatusAsync(task));
+                } catch (RejectedExecutionException e) {
+                    log.warn("监听线程池已满，任务 {} 留待下一轮检查", task.getId());
+                }
             }
             
+            CompletableFuture.allOf(checks.toArray(new CompletableFuture[0]))
+                    .get(sweepTimeout, TimeUnit.MILLISECONDS);
+            outcome = "completed";
+            
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            log.warn("本轮任务状态检查超过 {} 毫秒仍未完成", sweepTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("监听任务状态时发生错误", e);
+        } finally {
+            taskMetrics.stopSweep(sweepSample, outcome, taskCount);
+            sweepInProgress.set(false);
         }
     }
     
     /**
-     * 检查单个任务的交易状态
+     * 只读事务模板（SUPPORTS：不开启数据库事务，只标记只读以便路由）
+     */
+    private TransactionTemplate readOnlyTransactionTemplate() {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+        template.setReadOnly(true);
+        return template;
+    }
+    
+    /**
+     * 异步检查单个任务的交易状态
+     * 在RPC线程池中查询交易收据，再切换到DB线程池更新任务状态
      * 
      * @param task 任务对象
+     * @return 检查完成的Future
+     * @throws RejectedExecutionException RPC线程池已满
      */
-    @Async
-    public void checkTaskTransactionStatus(BatchTransferTask task) {
+    public CompletableFuture<Void> checkTaskTransactionStatusAsync(BatchTransferTask task) {
         if (task.getTxHash() == null || task.getTxHash().trim().isEmpty()) {
             log.warn("任务 {} 没有交易哈希，跳过状态检查", task.getId());
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
-        try {
-            log.debug("检查任务 {} 的交易状态，txHash: {}", task.getId(), task.getTxHash());
-            
-            // 查询交易收据
-            Optional<TransactionReceipt> receiptOptional = web3j.ethGetTransactionReceipt(task.getTxHash())
+        return CompletableFuture
+                .supplyAsync(() -> fetchTransactionReceipt(task), rpcExecutor)
+                .thenAcceptAsync(receiptOptional -> applyTransactionReceipt(task, receiptOptional), dbExecutor)
+                .exceptionallyAsync(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    log.error("检查任务 {} 交易状态时发生错误，txHash: {}", task.getId(), task.getTxHash(), cause);
+                    
+                    // 查询失败不代表交易失败（交易可能已上链），保持执行中状态留待下一轮重试，
+                    // 只按未确认交易的超时规则处理（服务端任务仍有已签名/已发送的nonce时不会标记失败）
+                    if (!(cause instanceof RejectedExecutionException)) {
+                        try (JfrTaskContext.Scope ignored = JfrTaskContext.open(task.getId())) {
+                            checkTransactionTimeout(task);
+                        } catch (Exception timeoutCheckError) {
+                            log.warn("任务 {} 超时检查失败，留待下一轮", task.getId(), timeoutCheckError);
+                        }
+                    }
+                    return null;
+                }, dbExecutor);
+    }
+    
+    /**
+     * 查询交易收据
+     * 服务端执行的任务可能发送过提高费用的替换交易，当前哈希未确认时再查询同一nonce的其他交易哈希
+     * 
+     * @param task 任务对象
+     * @return 交易收据，未确认时为空
+     */
+    private Optional<TransactionReceipt> fetchTransactionReceipt(BatchTransferTask task) {
+        log.debug("检查任务 {} 的交易状态，txHash: {}", task.getId(), task.getTxHash());
+        
+        try (JfrTaskContext.Scope ignored = JfrTaskContext.open(task.getId())) {
+            Optional<TransactionReceipt> receipt = web3j.ethGetTransactionReceipt(task.getTxHash())
                     .send()
                     .getTransactionReceipt();
+            if (receipt.isPresent() || task.getExecutionMode() != BatchTransferTask.ExecutionMode.SERVER) {
+                return receipt;
+            }
             
+            for (String txHash : replacedTxHashes(task)) {
+                receipt = web3j.ethGetTransactionReceipt(txHash).send().getTransactionReceipt();
+                if (receipt.isPresent()) {
+                    return receipt;
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+    
+    /**
+     * 任务发送过的其他交易哈希（被替换的原交易及其他替换交易）
+     */
+    private Set<String> replacedTxHashes(BatchTransferTask task) {
+        Set<String> txHashes = new LinkedHashSet<>();
+        for (TransactionReplacement replacement : replacementMapper.selectByTaskId(task.getId())) {
+            txHashes.add(replacement.getReplacedTxHash());
+            txHashes.add(replacement.getTxHash());
+        }
+        txHashes.remove(task.getTxHash());
+        return txHashes;
+    }
+    
+    /**
+     * 根据查询结果更新任务状态
+     * 
+     * @param task 任务对象
+     * @param receiptOptional 交易收据
+     */
+    private void applyTransactionReceipt(BatchTransferTask task, Optional<TransactionReceipt> receiptOptional) {
+        try (JfrTaskContext.Scope ignored = JfrTaskContext.open(task.getId())) {
             if (receiptOptional.isPresent()) {
-                TransactionReceipt receipt = receiptOptional.get();
-                updateTaskStatusBasedOnReceipt(task, receipt);
+                updateTaskStatusBasedOnReceipt(task, receiptOptional.get());
             } else {
                 // 交易还未被确认，保持执行中状态
                 log.debug("任务 {} 的交易尚未被确认，txHash: {}", task.getId(), task.getTxHash());
@@ -92,22 +244,23 @@ public class BlockchainMonitorService {
                 // 检查是否超时（可选：如果交易超过一定时间未确认，可以标记为失败）
                 checkTransactionTimeout(task);
             }
-            
-        } catch (Exception e) {
-            log.error("检查任务 {} 交易状态时发生错误，txHash: {}", task.getId(), task.getTxHash(), e);
-            
-            // 如果查询失败，可以考虑重试或标记为失败
-            updateTaskStatusToFailed(task.getId(), "查询交易状态失败: " + e.getMessage());
         }
     }
     
     /**
      * 根据交易收据更新任务状态
      */
-    @Transactional(rollbackFor = Exception.class)
     private void updateTaskStatusBasedOnReceipt(BatchTransferTask task, TransactionReceipt receipt) {
-        String txHash = task.getTxHash();
         Long taskId = task.getId();
+        if (receipt.getTransactionHash() != null && !receipt.getTransactionHash().equalsIgnoreCase(task.getTxHash())) {
+            // 打包的是同一nonce的另一笔交易（原交易或其他替换交易），以实际上链的哈希为准
+            log.info("任务 {} 打包的是交易 {}，而非当前记录的 {}", taskId, receipt.getTransactionHash(), task.getTxHash());
+            task.setTxHash(receipt.getTransactionHash());
+        }
+        String txHash = task.getTxHash();
+        if (receipt.getGasUsedRaw() != null) {
+            task.setGasUsed(receipt.getGasUsed().longValueExact());
+        }
         
         // 检查交易是否成功
         if (receipt.isStatusOK()) {
@@ -115,26 +268,10 @@ public class BlockchainMonitorService {
             log.info("任务 {} 执行成功，txHash: {}, gasUsed: {}", 
                     taskId, txHash, receipt.getGasUsed());
             
-            // 更新任务状态
-            int updated = taskMapper.updateStatus(
-                    taskId, 
-                    BatchTransferTask.TaskStatus.COMPLETED, 
-                    txHash, 
-                    null, // executionToken
-                    null, // errorMessage
-                    null  // executionStartedAt
-            );
-            
-            if (updated > 0) {
-                // 同时更新所有转账项状态为成功
-                itemMapper.batchUpdateStatusAndTxHash(
-                    taskId, 
-                    BatchTransferItem.ItemStatus.SUCCESS, 
-                    txHash
-                );
+            boolean updated = completeExecutingTask(task, BatchTransferTask.TaskStatus.COMPLETED, 
+                    BatchTransferItem.ItemStatus.SUCCESS, null);
+            if (updated) {
                 log.info("成功更新任务 {} 及其所有转账项状态为已完成", taskId);
-            } else {
-                log.error("更新任务 {} 状态失败", taskId);
             }
             
         } else {
@@ -143,47 +280,86 @@ public class BlockchainMonitorService {
             log.warn("任务 {} 执行失败，txHash: {}, 错误信息: {}", 
                     taskId, txHash, errorMessage);
             
-            updateTaskStatusToFailed(taskId, errorMessage);
-            
-            // 同时更新所有转账项状态为失败
-            itemMapper.batchUpdateStatusAndTxHash(
-                taskId, 
-                BatchTransferItem.ItemStatus.FAILED, 
-                txHash
+            completeExecutingTask(task, BatchTransferTask.TaskStatus.FAILED, 
+                    BatchTransferItem.ItemStatus.FAILED, errorMessage);
+        }
+    }
+    
+    /**
+     * 结束执行中的任务，并同步更新所有转账项状态
+     * 以 EXECUTING 状态和读取时的版本号作为前置条件，避免覆盖并发的状态变更
+     * （如用户回滚或更新了交易哈希）；快照带有收据中的实际Gas时一并记录
+     * 
+     * @param task 读取时的任务快照
+     * @param status 任务终态
+     * @param itemStatus 转账项状态
+     * @param errorMessage 错误信息
+     * @return 是否更新成功
+     */
+    private boolean completeExecutingTask(BatchTransferTask task, BatchTransferTask.TaskStatus status,
+                                          BatchTransferItem.ItemStatus itemStatus, String errorMessage) {
+        TaskTransitionEvent event = new TaskTransitionEvent();
+        event.begin();
+        Boolean updated = transactionTemplate.execute(txStatus -> {
+            int rows = taskMapper.compareAndSetStatus(
+                    task.getId(),
+                    EnumSet.of(BatchTransferTask.TaskStatus.EXECUTING),
+                    task.getVersion(),
+                    status,
+                    task.getTxHash(),
+                    errorMessage,
+                    null
             );
+            if (rows == 0) {
+                return false;
+            }
+            itemMapper.batchUpdateStatusAndTxHash(task.getId(), itemStatus, task.getTxHash());
+            if (task.getGasUsed() != null) {
+                taskMapper.updateGasUsed(task.getId(), task.getGasUsed());
+            }
+            return true;
+        });
+        event.complete(task.getId(), status, TaskMetrics.SOURCE_MONITOR, Boolean.TRUE.equals(updated));
+        
+        if (!Boolean.TRUE.equals(updated)) {
+            log.info("任务 {} 已被并发修改，跳过本次状态更新: 目标状态={}", task.getId(), status);
+            return false;
         }
+        
+        taskMetrics.recordStatusReached(status, task.getCreatedAt(), task.getExecutionStartedAt(),
+                TaskMetrics.SOURCE_MONITOR);
+        taskChangeNotifier.notifyChanged(task.getId());
+        return true;
     }
     
     /**
      * 更新任务状态为失败
      * 
-     * @param taskId 任务ID
+     * @param task 读取时的任务快照
      * @param errorMessage 错误信息
      */
-    @Transactional(rollbackFor = Exception.class)
-    private void updateTaskStatusToFailed(Long taskId, String errorMessage) {
-        int updated = taskMapper.updateStatus(
-                taskId, 
-                BatchTransferTask.TaskStatus.FAILED, 
-                null, // txHash
-                null, // executionToken
-                errorMessage, 
-                null  // executionStartedAt
-        );
+    private void updateTaskStatusToFailed(BatchTransferTask task, String errorMessage) {
+        boolean updated = completeExecutingTask(task, BatchTransferTask.TaskStatus.FAILED, 
+                BatchTransferItem.ItemStatus.FAILED, errorMessage);
         
-        if (updated > 0) {
-            log.info("成功更新任务 {} 状态为失败，错误信息: {}", taskId, errorMessage);
-        } else {
-            log.error("更新任务 {} 状态为失败时出错", taskId);
+        if (updated) {
+            log.info("成功更新任务 {} 状态为失败，错误信息: {}", task.getId(), errorMessage);
         }
     }
     
     /**
      * 检查交易是否超时
+     * 服务端执行的任务nonce尚未上链时不判超时：卡住的交易会被提高费用替换，
+     * 原交易和各替换交易仍可能被打包，继续按全部哈希查询收据直到该nonce被占用
      * 
      * @param task 任务对象
      */
     private void checkTransactionTimeout(BatchTransferTask task) {
+        if (task.getExecutionMode() == BatchTransferTask.ExecutionMode.SERVER
+                && reservationMapper.countPendingByTaskId(task.getId()) > 0) {
+            return;
+        }
+        
         // 如果任务执行时间超过30分钟，标记为超时失败
         if (task.getUpdatedAt() != null) {
             long minutesSinceUpdate = java.time.Duration.between(
@@ -193,7 +369,7 @@ public class BlockchainMonitorService {
             
             if (minutesSinceUpdate > 30) {
                 log.warn("任务 {} 执行超时（{}分钟），标记为失败", task.getId(), minutesSinceUpdate);
-                updateTaskStatusToFailed(task.getId(), "交易执行超时");
+                updateTaskStatusToFailed(task, "交易执行超时");
             }
         }
     }
@@ -224,7 +400,7 @@ public class BlockchainMonitorService {
      * 
      * @param taskId 任务ID
      */
-    @Async
+    @Async(AsyncConfig.MONITOR_DB_EXECUTOR)
     public void checkTaskStatus(Long taskId) {
         log.info("手动检查任务 {} 的状态", taskId);
         
@@ -239,7 +415,7 @@ public class BlockchainMonitorService {
             return;
         }
         
-        checkTaskTransactionStatus(task);
+        checkTaskTransactionStatusAsync(task);
     }
     
     /**
@@ -0,0 +1,401 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ChunkPlannerProperties;
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.dto.ChunkPlanResponse;
+import com.webthree.batchtransfer.dto.CreateTaskRequest;
+import com.webthree.batchtransfer.dto.FeeEstimateResponse;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.exception.BlockchainException;
+import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import com.webthree.batchtransfer.util.BatchTransferCalls;
+import com.webthree.batchtransfer.util.EthUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 分块规划服务
+ * 把任意数量的转账项分成若干笔 batchTransfer 交易：通过 {@link RecipientTypeResolver} 区分普通账户和合约接收者，
+ * 按Gas模型（基础Gas + 每类接收者的Gas）以首次适应递减法装箱（合约接收者优先），
+ * 在接收者数量上限和Gas预算内使每笔交易容纳尽可能多的接收者，减少交易数和基础Gas开销。
+ * Gas模型定期按最近完成任务收据中的实际Gas以最小二乘拟合，样本不足时使用配置的默认值
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class ChunkPlannerService {
+    
+    /**
+     * 交易固有Gas，拟合出的基础Gas低于该值时视为无效
+     */
+    private static final long INTRINSIC_GAS = 21_000L;
+    
+    private final RecipientTypeResolver recipientTypeResolver;
+    private final BatchTransferTaskMapper taskMapper;
+    private final BatchTransferItemMapper itemMapper;
+    private final FeeOracleService feeOracleService;
+    private final PreflightService preflightService;
+    private final ChunkPlannerProperties properties;
+    private final ExecutorProperties executorProperties;
+    
+    /**
+     * 当前Gas模型
+     */
+    private volatile GasModel gasModel;
+    
+    /**
+     * 首次拟合前使用配置的默认Gas模型
+     */
+    @PostConstruct
+    public void init() {
+        gasModel = defaultModel();
+    }
+    
+    /**
+     * 定时按最近完成任务的实际Gas拟合模型
+     * 拟合结果不合理（基础Gas低于21000或每个接收者的Gas不为正）时保留当前模型
+     */
+    @Scheduled(fixedDelayString = "${app.chunk-planner.model-refresh-interval:600000}")
+    public void refreshGasModel() {
+        try {
+            List<BatchTransferTask> tasks = taskMapper.selectRecentGasUsage(properties.getModelSampleTasks());
+            if (tasks.size() < properties.getMinModelSamples()) {
+                log.debug("已记录实际Gas的完成任务数 {} 不足 {}，使用默认Gas模型", tasks.size(),
+                        properties.getMinModelSamples());
+                return;
+            }
+            
+            Map<Long, List<String>> recipientsByTask = new HashMap<>();
+            List<Long> taskIds = new ArrayList<>(tasks.size());
+            for (BatchTransferTask task : tasks) {
+                taskIds.add(task.getId());
+            }
+            List<String> addresses = new ArrayList<>();
+            for (BatchTransferItem item : itemMapper.selectRecipientsByTaskIds(taskIds)) {
+                recipientsByTask.computeIfAbsent(item.getTaskId(), id -> new ArrayList<>()).add(item.getRecipientAddress());
+                addresses.add(item.getRecipientAddress());
+            }
+            Map<String, RecipientTypeResolver.RecipientType> types = recipientTypeResolver.resolve(addresses);
+            
+            List<double[]> samples = new ArrayList<>(tasks.size());
+            for (BatchTransferTask task : tasks) {
+                int contracts = 0;
+                int eoas = 0;
+                for (String address : recipientsByTask.getOrDefault(task.getId(), List.of())) {
+                    if (types.get(address.toLowerCase(Locale.ROOT)) == RecipientTypeResolver.RecipientType.CONTRACT) {
+                        contracts++;
+                    } else {
+                        eoas++;
+                    }
+                }
+                if (eoas + contracts > 0) {
+                    samples.add(new double[]{eoas, contracts, task.getGasUsed()});
+                }
+            }
+            
+            GasModel fitted = fit(samples, properties.getDefaultContractGas());
+            if (fitted == null) {
+                log.warn("按 {} 个完成任务拟合Gas模型失败，保留当前模型", samples.size());
+                return;
+            }
+            gasModel = fitted;
+            log.info("Gas模型已更新: 基础Gas={}, 普通账户={}, 合约={}, 样本数={}",
+                    fitted.baseGas, fitted.eoaGas, fitted.contractGas, fitted.sampleSize);
+        } catch (IOException e) {
+            log.warn("刷新Gas模型时查询接收者类型失败，保留当前模型: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("刷新Gas模型时发生错误", e);
+        }
+    }
+    
+    /**
+     * 规划分块（不创建任务）
+     * 
+     * @param items 转账项
+     * @param simulateFrom 预执行各分块使用的发送地址，为null时不预执行
+     * @return 规划结果
+     * @throws IllegalArgumentException 转账项无效
+     * @throws BlockchainException 查询接收者类型或预执行失败
+     */
+    public ChunkPlanResponse plan(List<CreateTaskRequest.TransferItemDto> items, String simulateFrom) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<String> addresses = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CreateTaskRequest.TransferItemDto item = items.get(i);
+            if (!EthUtils.isValidAddress(item.getAddress())) {
+                throw new IllegalArgumentException("第 " + (i + 1) + " 条转账项的接收地址无效: " + item.getAddress());
+            }
+            if (item.getAmount() == null || item.getAmount().signum() <= 0) {
+                throw new IllegalArgumentException("第 " + (i + 1) + " 条转账项的金额必须大于0");
+            }
+            addresses.add(item.getAddress());
+            totalAmount = totalAmount.add(item.getAmount());
+        }
+        
+        Map<String, RecipientTypeResolver.RecipientType> types;
+        try {
+            types = recipientTypeResolver.resolve(addresses);
+        } catch (IOException e) {
+            throw new BlockchainException("CODE_LOOKUP_FAILED", "查询接收者类型失败: " + e.getMessage());
+        }
+        boolean[] contract = new boolean[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            contract[i] = types.get(addresses.get(i).toLowerCase(Locale.ROOT))
+                    == RecipientTypeResolver.RecipientType.CONTRACT;
+        }
+        
+        GasModel model = gasModel;
+        int marginPercent = executorProperties.getGasLimitMarginPercent();
+        long maxEstimate = properties.getGasBudget() * 100 / (100 + marginPercent);
+        long capacity = maxEstimate - model.baseGas;
+        if (capacity < Math.max(model.eoaGas, model.contractGas)) {
+            throw new IllegalStateException("Gas预算 " + properties.getGasBudget() + " 不足以容纳单个接收者");
+        }
+        int maxRecipients = Math.min(properties.getMaxRecipientsPerChunk(), BatchTransferCalls.MAX_RECIPIENTS);
+        
+        List<Bin> bins = pack(contract, model, capacity, maxRecipients);
+        
+        List<ChunkPlanResponse.Chunk> chunks = new ArrayList<>(bins.size());
+        long totalGas = 0;
+        int contractCount = 0;
+        for (int index = 0; index < bins.size(); index++) {
+            Bin bin = bins.get(index);
+            bin.itemIndexes.sort(null);
+            BigDecimal chunkAmount = BigDecimal.ZERO;
+            for (Integer itemIndex : bin.itemIndexes) {
+                chunkAmount = chunkAmount.add(items.get(itemIndex).getAmount());
+            }
+            long estimatedGas = model.baseGas + bin.gas;
+            totalGas += estimatedGas;
+            contractCount += bin.contracts;
+            chunks.add(ChunkPlanResponse.Chunk.builder()
+                    .index(index)
+                    .recipientCount(bin.itemIndexes.size())
+                    .contractRecipients(bin.contracts)
+                    .totalAmount(chunkAmount)
+                    .estimatedGas(estimatedGas)
+                    .gasLimit(estimatedGas * (100 + marginPercent) / 100)
+                    .itemIndexes(bin.itemIndexes)
+                    .build());
+        }
+        
+        ChunkPlanResponse response = ChunkPlanResponse.builder()
+                .totalRecipients(items.size())
+                .contractRecipients(contractCount)
+                .totalAmount(totalAmount)
+                .chunkCount(chunks.size())
+                .estimatedGas(totalGas)
+                .gasBudget(properties.getGasBudget())
+                .gasModel(ChunkPlanResponse.GasModel.builder()
+                        .baseGas(model.baseGas)
+                        .eoaRecipientGas(model.eoaGas)
+                        .contractRecipientGas(model.contractGas)
+                        .sampleSize(model.sampleSize)
+                        .updatedAt(model.updatedAt)
+                        .build())
+                .chunks(chunks)
+                .build();
+        applyFees(response, totalGas, totalAmount);
+        if (simulateFrom != null) {
+            try {
+                response.setPreflight(preflightService.simulateChunks(simulateFrom, items, chunks));
+            } catch (IOException e) {
+                throw new BlockchainException("PREFLIGHT_FAILED", "预执行分块失败: " + e.getMessage());
+            }
+        }
+        return response;
+    }
+    
+    /**
+     * 首次适应递减装箱：合约接收者（Gas较高）先装，每项放入第一个接收者数量和Gas都未超限的分块
+     */
+    static List<Bin> pack(boolean[] contract, GasModel model, long capacity, int maxRecipients) {
+        List<Bin> bins = new ArrayList<>();
+        for (boolean contractPass : new boolean[]{true, false}) {
+            long weight = contractPass ? model.contractGas : model.eoaGas;
+            // 同一轮内各项Gas相同，之前装不下的分块之后也装不下，从第一个可能有空间的分块开始查找
+            int firstOpen = 0;
+            for (int i = 0; i < contract.length; i++) {
+                if (contract[i] != contractPass) {
+                    continue;
+                }
+                while (firstOpen < bins.size() && !bins.get(firstOpen).fits(weight, capacity, maxRecipients)) {
+                    firstOpen++;
+                }
+                if (firstOpen == bins.size()) {
+                    bins.add(new Bin());
+                }
+                bins.get(firstOpen).add(i, weight, contractPass);
+            }
+        }
+        return bins;
+    }
+    
+    /**
+     * 按费用预言机中间档位的费用计算预计费用，费用数据未就绪时不填
+     */
+    private void applyFees(ChunkPlanResponse response, long totalGas, BigDecimal totalAmount) {
+        FeeEstimateResponse fees;
+        try {
+            fees = feeOracleService.getFees();
+        } catch (BlockchainException e) {
+            return;
+        }
+        if (fees.getLevels().isEmpty()) {
+            return;
+        }
+        FeeEstimateResponse.FeeLevel level = fees.getLevels().get(fees.getLevels().size() / 2);
+        BigInteger feePerGas = BigInteger.valueOf(fees.getNextBaseFeePerGas())
+                .add(BigInteger.valueOf(level.getMaxPriorityFeePerGas()));
+        BigDecimal estimatedFee = EthUtils.weiToEth(BigInteger.valueOf(totalGas).multiply(feePerGas));
+        response.setFeePercentile(level.getPercentile());
+        response.setEstimatedFee(estimatedFee);
+        response.setEstimatedTotal(totalAmount.add(estimatedFee));
+    }
+    
+    private GasModel defaultModel() {
+        return new GasModel(properties.getDefaultBaseGas(), properties.getDefaultEoaGas(),
+                properties.getDefaultContractGas(), 0, null);
+    }
+    
+    /**
+     * 最小二乘拟合 gasUsed = 基础Gas + 普通账户数 * a + 合约数 * b
+     * 样本中没有合约接收者时只拟合基础Gas和a，b取默认值（不低于a）
+     * 
+     * @param samples 每项为 {普通账户数, 合约数, gasUsed}
+     * @param defaultContractGas 样本中没有合约接收者时使用的每个合约接收者Gas
+     * @return 拟合结果，无法拟合或结果不合理时为null
+     */
+    static GasModel fit(List<double[]> samples, long defaultContractGas) {
+        boolean hasContracts = samples.stream().anyMatch(sample -> sample[1] > 0);
+        int size = hasContracts ? 3 : 2;
+        double[][] normal = new double[size][size];
+        double[] rhs = new double[size];
+        for (double[] sample : samples) {
+            double[] row = hasContracts ? new double[]{1, sample[0], sample[1]} : new double[]{1, sample[0]};
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    normal[i][j] += row[i] * row[j];
+                }
+                rhs[i] += row[i] * sample[2];
+            }
+        }
+        
+        double[] coefficients = solve(normal, rhs);
+        if (coefficients == null) {
+            return null;
+        }
+        long baseGas = (long) Math.ceil(coefficients[0]);
+        long eoaGas = (long) Math.ceil(coefficients[1]);
+        long contractGas = hasContracts ? (long) Math.ceil(coefficients[2]) : defaultContractGas;
+        if (baseGas < INTRINSIC_GAS || eoaGas <= 0) {
+            return null;
+        }
+        return new GasModel(baseGas, eoaGas, Math.max(contractGas, eoaGas), samples.size(), LocalDateTime.now());
+    }
+    
+    /**
+     * 高斯消元（列主元）求解线性方程组，奇异时返回null
+     */
+    private static double[] solve(double[][] a, double[] b) {
+        int n = b.length;
+        for (int column = 0; column < n; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < n; row++) {
+                if (Math.abs(a[row][column]) > Math.abs(a[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(a[pivot][column]) < 1e-9) {
+                return null;
+            }
+            double[] rowSwap = a[column];
+            a[column] = a[pivot];
+            a[pivot] = rowSwap;
+            double valueSwap = b[column];
+            b[column] = b[pivot];
+            b[pivot] = valueSwap;
+            
+            for (int row = column + 1; row < n; row++) {
+                double factor = a[row][column] / a[column][column];
+                for (int k = column; k < n; k++) {
+                    a[row][k] -= factor * a[column][k];
+                }
+                b[row] -= factor * b[column];
+            }
+        }
+        
+        double[] x = new double[n];
+        for (int row = n - 1; row >= 0; row--) {
+            double sum = b[row];
+            for (int k = row + 1; k < n; k++) {
+                sum -= a[row][k] * x[k];
+            }
+            x[row] = sum / a[row][row];
+        }
+        return x;
+    }
+    
+    /**
+     * Gas模型
+     */
+    static final class GasModel {
+        
+        final long baseGas;
+        final long eoaGas;
+        final long contractGas;
+        final int sampleSize;
+        final LocalDateTime updatedAt;
+        
+        GasModel(long baseGas, long eoaGas, long contractGas, int sampleSize, LocalDateTime updatedAt) {
+            this.baseGas = baseGas;
+            this.eoaGas = eoaGas;
+            this.contractGas = contractGas;
+            this.sampleSize = sampleSize;
+            this.updatedAt = updatedAt;
+        }
+    }
+    
+    /**
+     * 装箱中的分块
+     */
+    static final class Bin {
+        
+        final List<Integer> itemIndexes = new ArrayList<>();
+        long gas;
+        int contracts;
+        
+        private boolean fits(long weight, long capacity, int maxRecipients) {
+            return itemIndexes.size() < maxRecipients && gas + weight <= capacity;
+        }
+        
+        private void add(int itemIndex, long weight, boolean contract) {
+            itemIndexes.add(itemIndex);
+            gas += weight;
+            if (contract) {
+                contracts++;
+            }
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.BlockchainProperties;
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.config.FeeOracleProperties;
+import com.webthree.batchtransfer.dto.CostQuoteResponse;
+import com.webthree.batchtransfer.dto.FeeEstimateResponse;
+import com.webthree.batchtransfer.exception.BlockchainException;
+import com.webthree.batchtransfer.util.BatchTransferCalls;
+import com.webthree.batchtransfer.util.EthUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * 费用预言机
+ * 每个新区块调用一次eth_feeHistory，取最近若干区块各百分位优先费的中位数和下一区块基础费用缓存为快照；
+ * 按配置的接收者数量档位调用eth_estimateGas预估batchTransfer的Gas并定期刷新，其他数量按相邻档位线性插值。
+ * 费用和报价接口只读取缓存，不发起RPC调用，前端无需各自查询节点。
+ * 预估使用随机生成的新地址作为接收者，包含向新账户转账的额外开销，对已有账户的转账结果偏保守
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeeOracleService {
+    
+    private static final BigInteger ONE_HUNDRED = BigInteger.valueOf(100);
+    
+    private final Web3j web3j;
+    private final FeeOracleProperties properties;
+    private final ExecutorProperties executorProperties;
+    private final SenderWalletPool walletPool;
+    private final BlockchainProperties blockchainProperties;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * 最近一次费用采样，未采样时为null
+     */
+    private volatile FeeSnapshot fees;
+    
+    /**
+     * 接收者数量 -> 预估Gas，未预估时为null
+     */
+    private volatile GasModel gasModel;
+    
+    /**
+     * 注册费用采样指标
+     */
+    @PostConstruct
+    public void init() {
+        Gauge.builder("batch.transfer.fee_oracle.next_base_fee", this, FeeOracleService::nextBaseFeeValue)
+                .description("费用预言机采样的下一区块基础费用（wei）")
+                .register(meterRegistry);
+        Gauge.builder("batch.transfer.fee_oracle.block_number", this, FeeOracleService::sampledBlockValue)
+                .description("费用预言机最近一次采样的区块号")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 定时检查新区块，区块号变化时重新采样费用
+     */
+    @Scheduled(fixedDelayString = "${app.fee-oracle.poll-interval:2000}")
+    public void refreshFees() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        try {
+            EthBlockNumber blockNumberResponse = web3j.ethBlockNumber().send();
+            if (blockNumberResponse.hasError()) {
+                log.warn("费用采样时查询区块号失败: {}", blockNumberResponse.getError().getMessage());
+                return;
+            }
+            long blockNumber = blockNumberResponse.getBlockNumber().longValueExact();
+            FeeSnapshot current = fees;
+            if (current != null && current.blockNumber == blockNumber) {
+                return;
+            }
+            
+            EthFeeHistory response = web3j.ethFeeHistory(properties.getHistoryBlocks(),
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber)),
+                    properties.getRewardPercentiles()).send();
+            if (response.hasError() || response.getFeeHistory() == null) {
+                log.warn("查询eth_feeHistory失败: {}",
+                        response.hasError() ? response.getError().getMessage() : "结果为空");
+                return;
+            }
+            fees = sample(blockNumber, response.getFeeHistory());
+            log.debug("费用采样完成: block={}, nextBaseFee={}, priorityFees={}",
+                    blockNumber, fees.nextBaseFee, fees.priorityFees);
+        } catch (IOException e) {
+            log.warn("费用采样时RPC调用失败: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("费用采样时发生错误", e);
+        }
+    }
+    
+    /**
+     * 定时按各接收者数量档位预估Gas
+     * 某个档位预估失败时跳过该档位，全部失败时保留上一次的模型
+     */
+    @Scheduled(fixedDelayString = "${app.fee-oracle.gas-model-refresh-interval:600000}")
+    public void refreshGasModel() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        String from = estimateFrom();
+        TreeMap<Integer, Long> samples = new TreeMap<>();
+        try {
+            for (Integer recipientCount : new TreeSet<>(properties.getRecipientBuckets())) {
+                if (recipientCount < 1 || recipientCount > BatchTransferCalls.MAX_RECIPIENTS) {
+                    continue;
+                }
+                EthEstimateGas estimate = web3j.ethEstimateGas(syntheticCall(from, recipientCount)).send();
+                if (estimate.hasError()) {
+                    log.warn("预估 {} 个接收者的Gas失败: {}", recipientCount, estimate.getError().getMessage());
+                    continue;
+                }
+                samples.put(recipientCount, estimate.getAmountUsed().longValueExact());
+            }
+        } catch (IOException e) {
+            log.warn("刷新Gas模型时RPC调用失败，保留上一次的模型: {}", e.getMessage());
+            return;
+        } catch (Exception e) {
+            log.error("刷新Gas模型时发生错误", e);
+            return;
+        }
+        
+        if (samples.isEmpty()) {
+            return;
+        }
+        gasModel = new GasModel(Collections.unmodifiableNavigableMap(samples), LocalDateTime.now());
+        log.info("Gas模型已更新: {}", samples);
+    }
+    
+    /**
+     * 获取当前费用
+     * 
+     * @return 当前费用
+     * @throws BlockchainException 尚未完成采样
+     */
+    public FeeEstimateResponse getFees() {
+        FeeSnapshot snapshot = requireFees();
+        List<FeeEstimateResponse.FeeLevel> levels = new ArrayList<>(snapshot.priorityFees.size());
+        for (Map.Entry<Double, BigInteger> entry : snapshot.priorityFees.entrySet()) {
+            levels.add(FeeEstimateResponse.FeeLevel.builder()
+                    .percentile(entry.getKey())
+                    .maxPriorityFeePerGas(entry.getValue().longValueExact())
+                    .maxFeePerGas(snapshot.maxFee(entry.getValue()).longValueExact())
+                    .build());
+        }
+        return FeeEstimateResponse.builder()
+                .blockNumber(snapshot.blockNumber)
+                .baseFeePerGas(snapshot.baseFee.longValueExact())
+                .nextBaseFeePerGas(snapshot.nextBaseFee.longValueExact())
+                .levels(levels)
+                .sampledAt(snapshot.sampledAt)
+                .build();
+    }
+    
+    /**
+     * 按接收者数量报价
+     * 
+     * @param recipientCount 接收者数量
+     * @param totalAmount 转账总金额（ETH），为空时不计算总花费
+     * @return 费用报价
+     * @throws IllegalArgumentException 接收者数量超出范围
+     * @throws BlockchainException 尚未完成费用采样或Gas预估
+     */
+    public CostQuoteResponse quote(int recipientCount, BigDecimal totalAmount) {
+        if (recipientCount < 1 || recipientCount > BatchTransferCalls.MAX_RECIPIENTS) {
+            throw new IllegalArgumentException("接收者数量须在 1 到 " + BatchTransferCalls.MAX_RECIPIENTS + " 之间");
+        }
+        FeeSnapshot snapshot = requireFees();
+        GasModel model = gasModel;
+        if (model == null) {
+            throw new BlockchainException("FEE_ORACLE_UNAVAILABLE", "Gas预估尚未完成，请稍后重试");
+        }
+        
+        long estimatedGas = model.estimate(recipientCount);
+        long gasLimit = BigInteger.valueOf(estimatedGas)
+                .multiply(BigInteger.valueOf(100L + executorProperties.getGasLimitMarginPercent()))
+                .divide(ONE_HUNDRED)
+                .longValueExact();
+        
+        List<CostQuoteResponse.CostLevel> levels = new ArrayList<>(snapshot.priorityFees.size());
+        for (Map.Entry<Double, BigInteger> entry : snapshot.priorityFees.entrySet()) {
+            BigInteger priorityFee = entry.getValue();
+            BigInteger maxFee = snapshot.maxFee(priorityFee);
+            BigDecimal estimatedFee = EthUtils.weiToEth(BigInteger.valueOf(estimatedGas)
+                    .multiply(snapshot.nextBaseFee.add(priorityFee)));
+            levels.add(CostQuoteResponse.CostLevel.builder()
+                    .percentile(entry.getKey())
+                    .maxPriorityFeePerGas(priorityFee.longValueExact())
+                    .maxFeePerGas(maxFee.longValueExact())
+                    .estimatedFee(estimatedFee)
+                    .maxFee(EthUtils.weiToEth(BigInteger.valueOf(gasLimit).multiply(maxFee)))
+                    .estimatedTotal(totalAmount == null ? null : totalAmount.add(estimatedFee))
+                    .build());
+        }
+        
+        return CostQuoteResponse.builder()
+                .recipientCount(recipientCount)
+                .totalAmount(totalAmount)
+                .estimatedGas(estimatedGas)
+                .gasLimit(gasLimit)
+                .blockNumber(snapshot.blockNumber)
+                .nextBaseFeePerGas(snapshot.nextBaseFee.longValueExact())
+                .levels(levels)
+                .feesSampledAt(snapshot.sampledAt)
+                .gasModelUpdatedAt(model.updatedAt)
+                .build();
+    }
+    
+    private double nextBaseFeeValue() {
+        FeeSnapshot snapshot = fees;
+        return snapshot == null ? Double.NaN : snapshot.nextBaseFee.doubleValue();
+    }
+    
+    private double sampledBlockValue() {
+        FeeSnapshot snapshot = fees;
+        return snapshot == null ? Double.NaN : snapshot.blockNumber;
+    }
+    
+    private FeeSnapshot requireFees() {
+        FeeSnapshot snapshot = fees;
+        if (snapshot == null) {
+            throw new BlockchainException("FEE_ORACLE_UNAVAILABLE", "费用数据尚未就绪，请稍后重试");
+        }
+        return snapshot;
+    }
+    
+    /**
+     * 由eth_feeHistory结果计算快照
+     * 各百分位取采样区块中该百分位优先费的中位数（忽略空区块），全部为空区块时使用执行器配置的优先费
+     */
+    private FeeSnapshot sample(long blockNumber, EthFeeHistory.FeeHistory history) {
+        List<BigInteger> baseFees = history.getBaseFeePerGas();
+        List<Double> gasUsedRatios = history.getGasUsedRatio();
+        List<List<BigInteger>> rewards = history.getReward() == null ? List.of() : history.getReward();
+        List<Double> percentiles = properties.getRewardPercentiles();
+        
+        Map<Double, BigInteger> priorityFees = new TreeMap<>();
+        for (int i = 0; i < percentiles.size(); i++) {
+            List<BigInteger> values = new ArrayList<>(rewards.size());
+            for (int block = 0; block < rewards.size(); block++) {
+                boolean empty = gasUsedRatios != null && block < gasUsedRatios.size() && gasUsedRatios.get(block) == 0;
+                if (!empty && i < rewards.get(block).size()) {
+                    values.add(rewards.get(block).get(i));
+                }
+            }
+            priorityFees.put(percentiles.get(i), values.isEmpty()
+                    ? BigInteger.valueOf(executorProperties.getMaxPriorityFeePerGas())
+                    : median(values));
+        }
+        
+        // baseFeePerGas 比采样区块数多一项，最后一项为下一区块的基础费用
+        BigInteger nextBaseFee = baseFees.isEmpty() ? BigInteger.ZERO : baseFees.get(baseFees.size() - 1);
+        BigInteger baseFee = baseFees.size() < 2 ? nextBaseFee : baseFees.get(baseFees.size() - 2);
+        return new FeeSnapshot(blockNumber, baseFee, nextBaseFee, Collections.unmodifiableMap(priorityFees),
+                LocalDateTime.now());
+    }
+    
+    private static BigInteger median(List<BigInteger> values) {
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+    
+    /**
+     * 预估Gas用的 batchTransfer 调用：每个接收者转1 wei，执行令牌随机生成（与真实令牌长度相同，未被使用）
+     */
+    private Transaction syntheticCall(String from, int recipientCount) {
+        List<String> recipients = new ArrayList<>(recipientCount);
+        List<BigInteger> amounts = new ArrayList<>(recipientCount);
+        for (int i = 0; i < recipientCount; i++) {
+            byte[] seed = ("fee-oracle-recipient-" + i).getBytes(StandardCharsets.UTF_8);
+            recipients.add("0x" + Numeric.toHexStringNoPrefix(Hash.sha3(seed)).substring(24));
+            amounts.add(BigInteger.ONE);
+        }
+        String data = BatchTransferCalls.encode(recipients, amounts,
+                UUID.randomUUID().toString().replace("-", ""));
+        return Transaction.createFunctionCallTransaction(from, null, null, null,
+                blockchainProperties.getContractAddress(), BigInteger.valueOf(recipientCount), data);
+    }
+    
+    private String estimateFrom() {
+        if (StringUtils.hasText(properties.getEstimateFrom())) {
+            return properties.getEstimateFrom();
+        }
+        if (walletPool.isEnabled()) {
+            return walletPool.getWallets().get(0).getAddress();
+        }
+        return null;
+    }
+    
+    /**
+     * 费用快照
+     */
+    private static final class FeeSnapshot {
+        
+        private final long blockNumber;
+        private final BigInteger baseFee;
+        private final BigInteger nextBaseFee;
+        
+        /**
+         * 百分位 -> 优先费
+         */
+        private final Map<Double, BigInteger> priorityFees;
+        
+        private final LocalDateTime sampledAt;
+        
+        private FeeSnapshot(long blockNumber, BigInteger baseFee, BigInteger nextBaseFee,
+                            Map<Double, BigInteger> priorityFees, LocalDateTime sampledAt) {
+            this.blockNumber = blockNumber;
+            this.baseFee = baseFee;
+            this.nextBaseFee = nextBaseFee;
+            this.priorityFees = priorityFees;
+            this.sampledAt = sampledAt;
+        }
+        
+        /**
+         * 最高费用：2 * 下一区块基础费用 + 优先费，可承受连续数个区块的基础费用上涨
+         */
+        private BigInteger maxFee(BigInteger priorityFee) {
+            return nextBaseFee.shiftLeft(1).add(priorityFee);
+        }
+    }
+    
+    /**
+     * Gas预估模型
+     */
+    static final class GasModel {
+        
+        /**
+         * 接收者数量 -> 预估Gas
+         */
+        private final NavigableMap<Integer, Long> samples;
+        
+        private final LocalDateTime updatedAt;
+        
+        GasModel(NavigableMap<Integer, Long> samples, LocalDateTime updatedAt) {
+            this.samples = samples;
+            this.updatedAt = updatedAt;
+        }
+        
+        /**
+         * 按相邻档位线性插值，超出档位范围时按最近两个档位外推（只有一个档位时按比例估算）
+         */
+        long estimate(int recipientCount) {
+            Long exact = samples.get(recipientCount);
+            if (exact != null) {
+                return exact;
+            }
+            Map.Entry<Integer, Long> lower = samples.lowerEntry(recipientCount);
+            Map.Entry<Integer, Long> upper = samples.higherEntry(recipientCount);
+            if (lower == null) {
+                lower = upper;
+                upper = samples.higherEntry(upper.getKey());
+            } else if (upper == null) {
+                upper = lower;
+                lower = samples.lowerEntry(lower.getKey());
+            }
+            if (lower == null || upper == null) {
+                Map.Entry<Integer, Long> only = lower == null ? upper : lower;
+                return ceilDiv(only.getValue() * recipientCount, only.getKey());
+            }
+            
+            long gasDelta = upper.getValue() - lower.getValue();
+            long countDelta = upper.getKey() - lower.getKey();
+            long estimate = lower.getValue() + ceilDiv(gasDelta * (recipientCount - lower.getKey()), countDelta);
+            return Math.max(estimate, 0);
+        }
+        
+        private static long ceilDiv(long dividend, long divisor) {
+            return -Math.floorDiv(-dividend, divisor);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.util.ItemExportWriter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 转账项导出服务
+ * 通过MyBatis游标逐行读取转账项并直接写出到响应流，内存占用与导出行数无关。
+ * 导出在后台任务连接池的只读事务中进行（游标须在事务内遍历），同时进行的导出数受上限约束，
+ * 避免长时间占用连接影响区块链监听
+ *
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class ItemExportService {
+
+    private final BatchTransferItemMapper itemMapper;
+
+    private final AtomicInteger activeExports = new AtomicInteger();
+
+    /**
+     * 同时进行的导出数上限
+     */
+    @Value("${app.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    public ItemExportService(BatchTransferItemMapper itemMapper, MeterRegistry meterRegistry) {
+        this.itemMapper = itemMapper;
+        Gauge.builder("batch.transfer.export.active", activeExports, AtomicInteger::get)
+                .description("正在进行的转账项导出数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 申请导出名额
+     *
+     * @return 导出名额，导出结束后关闭；已达上限时返回null
+     */
+    public ExportSlot tryAcquireSlot() {
+        if (activeExports.incrementAndGet() > maxConcurrent) {
+            activeExports.decrementAndGet();
+            log.warn("同时进行的导出数已达上限: {}", maxConcurrent);
+            return null;
+        }
+        return new ExportSlot();
+    }
+
+    /**
+     * 导出单个任务的转账项
+     *
+     * @param taskId 任务ID
+     * @param format 导出格式
+     * @param out 输出流
+     * @return 导出行数
+     * @throws IOException 写出失败
+     */
+    @Transactional(readOnly = true)
+    @UseDataSource(DataSourceType.BATCH)
+    public long exportTaskItems(Long taskId, ItemExportWriter.Format format, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        long rows = writeAll(itemMapper.selectCursorByTaskId(taskId), format, out);
+        log.info("导出任务转账项完成: taskId={}, format={}, rows={}, elapsedMs={}",
+                taskId, format, rows, (System.nanoTime() - startNanos) / 1_000_000);
+        return rows;
+    }
+
+    /**
+     * 导出创建者在时间范围内创建的任务的转账项
+     *
+     * @param creatorAddress 创建者地址
+     * @param createdFrom 任务创建时间下限（含）
+     * @param createdTo 任务创建时间上限（不含）
+     * @param status 任务状态，为null时不过滤
+     * @param format 导出格式
+     * @param out 输出流
+     * @return 导出行数
+     * @throws IOException 写出失败
+     */
+    @Transactional(readOnly = true)
+    @UseDataSource(DataSourceType.BATCH)
+    public long exportCreatorItems(String creatorAddress, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                   BatchTransferTask.TaskStatus status, ItemExportWriter.Format format,
+                                   OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        Cursor<BatchTransferItem> cursor = itemMapper.selectCursorByCreatorAndCreatedAt(
+                creatorAddress.toLowerCase(), createdFrom, createdTo, status);
+        long rows = writeAll(cursor, format, out);
+        log.info("导出转账项完成: creator={}, from={}, to={}, status={}, format={}, rows={}, elapsedMs={}",
+                creatorAddress, createdFrom, createdTo, status, format, rows,
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return rows;
+    }
+
+    /**
+     * 遍历游标逐行写出，结束或失败时关闭游标
+     */
+    private long writeAll(Cursor<BatchTransferItem> cursor, ItemExportWriter.Format format,
+                          OutputStream out) throws IOException {
+        try (cursor; ItemExportWriter writer = new ItemExportWriter(out, format)) {
+            for (BatchTransferItem item : cursor) {
+                writer.write(item);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 导出名额，关闭时归还（可重复关闭）
+     */
+    public final class ExportSlot implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ExportSlot() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                activeExports.decrementAndGet();
+            }
+        }
+    }
+}
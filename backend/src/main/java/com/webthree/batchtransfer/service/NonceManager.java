@@ -0,0 +1,445 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.entity.NonceReservation;
+import com.webthree.batchtransfer.mapper.NonceReservationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 交易nonce管理器
+ * 按发送方地址在内存中原子分配nonce，避免并发提交时逐笔查询eth_getTransactionCount。
+ * 交易签名后连同已签名交易落库（tx_nonce_reservation），用于进程重启后的恢复；
+ * 首次使用时按链上待处理交易数和已落库的最大nonce同步。
+ * 定期对账：链上待处理交易数之后、已分配范围之内的nonce若有已签名交易则重新广播（交易被丢弃或未发出），
+ * 否则视为空缺，由调用方发送替代交易填补，保证后续交易不会一直排队
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class NonceManager {
+    
+    private final Web3j web3j;
+    
+    private final NonceReservationMapper reservationMapper;
+    
+    private final ExecutorProperties properties;
+    
+    private final ConcurrentMap<String, SenderNonces> senders = new ConcurrentHashMap<>();
+    
+    /**
+     * 分配nonce
+     * 分配后须调用 {@link #recordSigned} 记录签名交易，或调用 {@link #release} 归还
+     * 
+     * @param senderAddress 发送方地址
+     * @return nonce
+     * @throws IOException 首次使用时同步链上交易数失败
+     */
+    public long reserve(String senderAddress) throws IOException {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            if (state.nextNonce < 0) {
+                resync(state, chainTransactionCount(state.address, DefaultBlockParameterName.PENDING));
+            }
+            long nonce = state.nextNonce++;
+            state.outstanding.add(nonce);
+            state.touch(nonce);
+            return nonce;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 记录已签名的交易
+     * 只写入没有记录或已释放的nonce；记录已被其他交易占用（如其他执行器实例在使用同一钱包）时
+     * 不覆盖，标记重新同步后抛出 {@link NonceConflictException}，nonce不再由调用方释放
+     * 
+     * @param senderAddress 发送方地址
+     * @param nonce 分配的nonce
+     * @param taskId 关联任务ID，填补空缺的交易为null
+     * @param txHash 交易哈希
+     * @param rawTransaction 已签名交易
+     * @throws NonceConflictException nonce已被其他交易占用
+     */
+    public void recordSigned(String senderAddress, long nonce, Long taskId, String txHash, String rawTransaction) {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            int updated = reservationMapper.updateTransaction(state.address, nonce, taskId, txHash, rawTransaction,
+                    NonceReservation.ReservationStatus.SIGNED);
+            if (updated == 0) {
+                try {
+                    reservationMapper.insert(NonceReservation.builder()
+                            .senderAddress(state.address)
+                            .nonce(nonce)
+                            .taskId(taskId)
+                            .txHash(txHash)
+                            .rawTransaction(rawTransaction)
+                            .status(NonceReservation.ReservationStatus.SIGNED)
+                            .build());
+                } catch (DuplicateKeyException e) {
+                    throw conflict(state, nonce);
+                }
+            }
+            state.outstanding.remove(nonce);
+            state.released.remove(nonce);
+            state.touch(nonce);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 记录替换交易（相同nonce、更高费用）
+     * 
+     * @param senderAddress 发送方地址
+     * @param nonce 被替换交易的nonce
+     * @param replacedTxHash 被替换的交易哈希
+     * @param txHash 替换交易哈希
+     * @param rawTransaction 已签名的替换交易
+     * @throws NonceConflictException 预留记录已不是被替换的交易
+     */
+    public void recordReplacement(String senderAddress, long nonce, String replacedTxHash, String txHash,
+                                  String rawTransaction) {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            int updated = reservationMapper.replaceTransaction(state.address, nonce, replacedTxHash, txHash,
+                    rawTransaction, NonceReservation.ReservationStatus.SENT);
+            if (updated == 0) {
+                throw conflict(state, nonce);
+            }
+            state.touch(nonce);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 标记交易已被节点接收
+     * 
+     * @param senderAddress 发送方地址
+     * @param nonce nonce
+     */
+    public void markSent(String senderAddress, long nonce) {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            reservationMapper.updateStatus(state.address, nonce, NonceReservation.ReservationStatus.SENT);
+            state.touch(nonce);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 归还未发出交易的nonce
+     * 是最后分配的nonce时直接回退；否则记为空缺，由对账时填补
+     * 
+     * @param senderAddress 发送方地址
+     * @param nonce nonce
+     */
+    public void release(String senderAddress, long nonce) {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            state.outstanding.remove(nonce);
+            if (nonce == state.nextNonce - 1) {
+                reservationMapper.delete(state.address, nonce);
+                state.nextNonce--;
+                // 连续释放的空缺一并回退
+                while (state.released.remove(state.nextNonce - 1)) {
+                    reservationMapper.delete(state.address, state.nextNonce - 1);
+                    state.nextNonce--;
+                }
+                return;
+            }
+            
+            int updated = reservationMapper.updateStatus(state.address, nonce,
+                    NonceReservation.ReservationStatus.RELEASED);
+            if (updated == 0) {
+                reservationMapper.insert(NonceReservation.builder()
+                        .senderAddress(state.address)
+                        .nonce(nonce)
+                        .status(NonceReservation.ReservationStatus.RELEASED)
+                        .build());
+            }
+            state.released.add(nonce);
+            log.info("发送方 {} 的nonce {} 已释放，形成空缺，等待填补", state.address, nonce);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 占用对账发现的空缺nonce，用于发送填补交易
+     * 
+     * @param senderAddress 发送方地址
+     * @param nonce 空缺的nonce
+     * @return 仍是空缺时返回true；已被回退或重新分配时返回false
+     */
+    public boolean claimGap(String senderAddress, long nonce) {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            if (nonce >= state.nextNonce || state.isRecent(nonce, System.nanoTime(), gapGraceNanos())) {
+                return false;
+            }
+            state.outstanding.add(nonce);
+            state.touch(nonce);
+            return true;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 标记需要重新同步（如节点返回nonce过低），下次分配前按链上交易数同步
+     * 
+     * @param senderAddress 发送方地址
+     */
+    public void invalidate(String senderAddress) {
+        SenderNonces state = state(senderAddress);
+        state.lock.lock();
+        try {
+            state.nextNonce = -1;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 与链上交易数对账
+     * 清除已上链的预留记录；链上待处理交易数之后的nonce中，有已签名交易的需要重新广播，其余为待填补的空缺
+     * 
+     * @param senderAddress 发送方地址
+     * @return 对账结果
+     * @throws IOException 查询链上交易数失败
+     */
+    public Reconciliation reconcile(String senderAddress) throws IOException {
+        SenderNonces state = state(senderAddress);
+        long confirmed = chainTransactionCount(state.address, DefaultBlockParameterName.LATEST);
+        long pending = chainTransactionCount(state.address, DefaultBlockParameterName.PENDING);
+        
+        state.lock.lock();
+        try {
+            reservationMapper.deleteBelowNonce(state.address, confirmed);
+            state.released.removeIf(nonce -> nonce < confirmed);
+            state.outstanding.removeIf(nonce -> nonce < confirmed);
+            
+            if (state.nextNonce < 0) {
+                resync(state, pending);
+            } else if (pending > state.nextNonce) {
+                log.warn("发送方 {} 链上待处理交易数 {} 超过本地nonce {}，钱包可能被其他程序使用，已同步",
+                        state.address, pending, state.nextNonce);
+                state.nextNonce = pending;
+            }
+            
+            Map<Long, NonceReservation> reservations = new HashMap<>();
+            for (NonceReservation reservation : reservationMapper.selectBySender(state.address)) {
+                reservations.put(reservation.getNonce(), reservation);
+            }
+            
+            List<NonceReservation> rebroadcasts = new ArrayList<>();
+            List<Long> gaps = new ArrayList<>();
+            long now = System.nanoTime();
+            for (long nonce = Math.max(pending, confirmed); nonce < state.nextNonce; nonce++) {
+                // 已分配未记录的nonce超过宽限期仍未记录，说明签名后提交异常中断，同样按空缺处理
+                if (state.isRecent(nonce, now, gapGraceNanos())) {
+                    continue;
+                }
+                NonceReservation reservation = reservations.get(nonce);
+                if (reservation != null && reservation.getStatus() != NonceReservation.ReservationStatus.RELEASED
+                        && reservation.getRawTransaction() != null) {
+                    rebroadcasts.add(reservation);
+                } else {
+                    gaps.add(nonce);
+                }
+            }
+            state.lastActivity.keySet().removeIf(nonce -> nonce < confirmed);
+            
+            if (!rebroadcasts.isEmpty() || !gaps.isEmpty()) {
+                log.warn("发送方 {} nonce对账: 已确认={}, 待处理={}, 本地={}, 需重新广播={}, 空缺={}",
+                        state.address, confirmed, pending, state.nextNonce, rebroadcasts.size(), gaps);
+            }
+            return new Reconciliation(confirmed, pending, rebroadcasts, gaps);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    /**
+     * 按链上待处理交易数和已落库的预留记录同步下一个nonce（持锁调用）
+     */
+    private void resync(SenderNonces state, long pending) {
+        long next = pending;
+        Long maxReserved = reservationMapper.selectMaxNonce(state.address);
+        if (maxReserved != null) {
+            next = Math.max(next, maxReserved + 1);
+        }
+        for (Long nonce : state.outstanding) {
+            next = Math.max(next, nonce + 1);
+        }
+        
+        state.released.clear();
+        for (NonceReservation reservation : reservationMapper.selectBySender(state.address)) {
+            if (reservation.getStatus() == NonceReservation.ReservationStatus.RELEASED) {
+                state.released.add(reservation.getNonce());
+            }
+        }
+        state.nextNonce = next;
+        log.info("发送方 {} nonce已同步: 链上待处理交易数={}, 已落库最大nonce={}, 下一个nonce={}",
+                state.address, pending, maxReserved, next);
+    }
+    
+    /**
+     * 预留记录已被其他交易占用：标记重新同步（持锁调用）
+     */
+    private NonceConflictException conflict(SenderNonces state, long nonce) {
+        state.outstanding.remove(nonce);
+        state.nextNonce = -1;
+        log.error("发送方 {} 的nonce {} 已被其他交易占用，钱包可能被其他执行器同时使用，下次分配前重新同步",
+                state.address, nonce);
+        return new NonceConflictException(state.address, nonce);
+    }
+    
+    private long chainTransactionCount(String address, DefaultBlockParameterName block) throws IOException {
+        EthGetTransactionCount response = web3j.ethGetTransactionCount(address, block).send();
+        if (response.hasError()) {
+            throw new IOException("查询交易数失败: " + response.getError().getMessage());
+        }
+        return response.getTransactionCount().longValueExact();
+    }
+    
+    private SenderNonces state(String senderAddress) {
+        return senders.computeIfAbsent(senderAddress.toLowerCase(), SenderNonces::new);
+    }
+    
+    /**
+     * 最近分配、签名或发送过的nonce在该时间内不参与对账，避免把正在提交的交易当成空缺
+     */
+    private long gapGraceNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(properties.getNonceGapGrace());
+    }
+    
+    /**
+     * nonce已被其他交易占用
+     */
+    public static final class NonceConflictException extends IllegalStateException {
+        
+        NonceConflictException(String senderAddress, long nonce) {
+            super("发送方 " + senderAddress + " 的nonce " + nonce + " 已被其他交易占用");
+        }
+    }
+    
+    /**
+     * 对账结果
+     */
+    public static final class Reconciliation {
+        
+        private final long confirmedCount;
+        
+        private final long pendingCount;
+        
+        private final List<NonceReservation> rebroadcasts;
+        
+        private final List<Long> gaps;
+        
+        Reconciliation(long confirmedCount, long pendingCount, List<NonceReservation> rebroadcasts, List<Long> gaps) {
+            this.confirmedCount = confirmedCount;
+            this.pendingCount = pendingCount;
+            this.rebroadcasts = Collections.unmodifiableList(rebroadcasts);
+            this.gaps = Collections.unmodifiableList(gaps);
+        }
+        
+        /**
+         * 链上已确认的交易数
+         */
+        public long getConfirmedCount() {
+            return confirmedCount;
+        }
+        
+        /**
+         * 链上待处理交易数（含挂起交易）
+         */
+        public long getPendingCount() {
+            return pendingCount;
+        }
+        
+        /**
+         * 需要重新广播的已签名交易
+         */
+        public List<NonceReservation> getRebroadcasts() {
+            return rebroadcasts;
+        }
+        
+        /**
+         * 没有可用交易、需要填补的nonce
+         */
+        public List<Long> getGaps() {
+            return gaps;
+        }
+    }
+    
+    /**
+     * 单个发送方的nonce状态，只在持锁时访问
+     */
+    private static final class SenderNonces {
+        
+        final String address;
+        
+        // 用ReentrantLock而非synchronized，避免同步链上交易数时在虚拟线程上钉住载体线程
+        final ReentrantLock lock = new ReentrantLock();
+        
+        // 下一个nonce，-1表示需要同步
+        long nextNonce = -1;
+        
+        // 已分配、尚未记录签名交易的nonce
+        final Set<Long> outstanding = new HashSet<>();
+        
+        // 已释放形成空缺的nonce
+        final Set<Long> released = new HashSet<>();
+        
+        // nonce -> 最近一次分配、签名或发送的时间（纳秒）
+        final Map<Long, Long> lastActivity = new HashMap<>();
+        
+        SenderNonces(String address) {
+            this.address = address;
+        }
+        
+        void touch(long nonce) {
+            lastActivity.put(nonce, System.nanoTime());
+        }
+        
+        boolean isRecent(long nonce, long now, long graceNanos) {
+            Long touchedAt = lastActivity.get(nonce);
+            return touchedAt != null && now - touchedAt < graceNanos;
+        }
+    }
+}
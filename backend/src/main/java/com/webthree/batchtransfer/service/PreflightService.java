@@ -0,0 +1,275 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.AsyncConfig;
+import com.webthree.batchtransfer.config.BlockchainProperties;
+import com.webthree.batchtransfer.config.PreflightProperties;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.dto.ChunkPlanResponse;
+import com.webthree.batchtransfer.dto.CreateTaskRequest;
+import com.webthree.batchtransfer.dto.PreflightResponse;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.exception.BlockchainException;
+import com.webthree.batchtransfer.exception.BusinessException;
+import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import com.webthree.batchtransfer.util.BatchTransferCalls;
+import com.webthree.batchtransfer.util.EthUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthCall;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 预执行服务
+ * 提交前以eth_call模拟 batchTransfer 调用（附带与交易相同的ETH和执行令牌），提前发现金额之和不符、
+ * 执行令牌已使用、接收者过多等会导致交易回滚的问题，避免失败交易上链消耗Gas。
+ * 发送方余额不足与任务本身无关（充值或换用其他钱包后可以执行），结果为模拟失败而不是回滚。
+ * 同一批调用固定在同一区块上模拟，在预执行线程池中并行执行，并发数受线程池限制
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class PreflightService {
+    
+    private final Web3j web3j;
+    private final BatchTransferTaskMapper taskMapper;
+    private final BatchTransferItemMapper itemMapper;
+    private final SenderWalletPool walletPool;
+    private final PreflightProperties properties;
+    private final BlockchainProperties blockchainProperties;
+    private final MeterRegistry meterRegistry;
+    
+    @Qualifier(AsyncConfig.PREFLIGHT_EXECUTOR)
+    private final Executor preflightExecutor;
+    
+    /**
+     * 预执行用户的单个待执行任务
+     * 
+     * @param taskId 任务ID
+     * @param creatorAddress 当前用户地址
+     * @return 预执行结果
+     * @throws BlockchainException 查询最新区块失败
+     */
+    public PreflightResponse simulateTask(Long taskId, String creatorAddress) {
+        BatchTransferTask task = taskMapper.selectById(taskId);
+        if (task == null || !creatorAddress.equalsIgnoreCase(task.getCreatorAddress())) {
+            throw new BusinessException("任务不存在: " + taskId);
+        }
+        if (task.getStatus() != BatchTransferTask.TaskStatus.PENDING) {
+            throw new IllegalStateException("只能预执行待执行的任务，当前状态: " + task.getStatus());
+        }
+        return simulateForUser(List.of(task));
+    }
+    
+    /**
+     * 预执行用户的全部待执行任务（最多 app.preflight.max-tasks 个，按创建时间倒序）
+     * 
+     * @param creatorAddress 当前用户地址
+     * @return 预执行结果
+     * @throws BlockchainException 查询最新区块失败
+     */
+    public PreflightResponse simulatePendingTasks(String creatorAddress) {
+        List<BatchTransferTask> tasks = taskMapper.selectByCreatorAddressAndStatus(creatorAddress,
+                BatchTransferTask.TaskStatus.PENDING);
+        if (tasks.size() > properties.getMaxTasks()) {
+            tasks = tasks.subList(0, properties.getMaxTasks());
+        }
+        return simulateForUser(tasks);
+    }
+    
+    /**
+     * 并行预执行任务
+     * 
+     * @param tasks 任务
+     * @param senderOf 任务 -> 模拟使用的发送地址
+     * @return 预执行结果，顺序与任务相同
+     * @throws IOException 查询最新区块失败
+     */
+    public PreflightResponse simulateTasks(List<BatchTransferTask> tasks, Function<BatchTransferTask, String> senderOf)
+            throws IOException {
+        List<Simulation> simulations = new ArrayList<>(tasks.size());
+        for (BatchTransferTask task : tasks) {
+            PreflightResponse.Result result = PreflightResponse.Result.builder()
+                    .taskId(task.getId())
+                    .executionMode(task.getExecutionMode())
+                    .sender(senderOf.apply(task))
+                    .build();
+            simulations.add(new Simulation(result, task.getExecutionToken(),
+                    () -> itemMapper.selectByTaskId(task.getId())));
+        }
+        return run(simulations);
+    }
+    
+    /**
+     * 并行预执行分块规划的各分块
+     * 分块尚未创建任务，使用随机执行令牌
+     * 
+     * @param sender 发送地址
+     * @param items 规划的转账项
+     * @param chunks 分块
+     * @return 预执行结果，顺序与分块相同
+     * @throws IOException 查询最新区块失败
+     */
+    public PreflightResponse simulateChunks(String sender, List<CreateTaskRequest.TransferItemDto> items,
+                                            List<ChunkPlanResponse.Chunk> chunks) throws IOException {
+        List<Simulation> simulations = new ArrayList<>(chunks.size());
+        for (ChunkPlanResponse.Chunk chunk : chunks) {
+            List<BatchTransferItem> chunkItems = new ArrayList<>(chunk.getItemIndexes().size());
+            for (Integer index : chunk.getItemIndexes()) {
+                CreateTaskRequest.TransferItemDto item = items.get(index);
+                chunkItems.add(BatchTransferItem.builder()
+                        .recipientAddress(item.getAddress())
+                        .amount(item.getAmount())
+                        .build());
+            }
+            PreflightResponse.Result result = PreflightResponse.Result.builder()
+                    .chunkIndex(chunk.getIndex())
+                    .sender(sender)
+                    .build();
+            simulations.add(new Simulation(result, "preflight-" + UUID.randomUUID(), () -> chunkItems));
+        }
+        return run(simulations);
+    }
+    
+    private PreflightResponse simulateForUser(List<BatchTransferTask> tasks) {
+        try {
+            return simulateTasks(tasks, this::defaultSender);
+        } catch (IOException e) {
+            throw new BlockchainException("PREFLIGHT_FAILED", "预执行失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 在最新区块上并行执行模拟，等待全部完成
+     */
+    private PreflightResponse run(List<Simulation> simulations) throws IOException {
+        EthBlockNumber latest = web3j.ethBlockNumber().send();
+        if (latest.hasError()) {
+            throw new IOException("查询最新区块失败: " + latest.getError().getMessage());
+        }
+        DefaultBlockParameter block = DefaultBlockParameter.valueOf(latest.getBlockNumber());
+        
+        List<CompletableFuture<PreflightResponse.Result>> futures = new ArrayList<>(simulations.size());
+        for (Simulation simulation : simulations) {
+            try {
+                futures.add(CompletableFuture.supplyAsync(() -> simulate(simulation, block), preflightExecutor));
+            } catch (RejectedExecutionException e) {
+                futures.add(CompletableFuture.completedFuture(
+                        outcome(simulation.result, PreflightResponse.Outcome.ERROR, "预执行线程池已满")));
+            }
+        }
+        
+        List<PreflightResponse.Result> results = new ArrayList<>(futures.size());
+        int reverted = 0;
+        for (CompletableFuture<PreflightResponse.Result> future : futures) {
+            PreflightResponse.Result result = future.join();
+            if (result.getOutcome() == PreflightResponse.Outcome.REVERTED) {
+                reverted++;
+            }
+            results.add(result);
+        }
+        return PreflightResponse.builder()
+                .blockNumber(latest.getBlockNumber().longValueExact())
+                .simulated(results.size())
+                .reverted(reverted)
+                .results(results)
+                .build();
+    }
+    
+    /**
+     * 模拟单个调用
+     */
+    private PreflightResponse.Result simulate(Simulation simulation, DefaultBlockParameter block) {
+        PreflightResponse.Result result = simulation.result;
+        try {
+            List<BatchTransferItem> items = simulation.items.get();
+            BigInteger value = BatchTransferCalls.totalValue(items);
+            result.setRecipientCount(items.size());
+            result.setTotalAmount(EthUtils.weiToEth(value));
+            
+            String data = BatchTransferCalls.encode(items, simulation.executionToken);
+            Transaction call = Transaction.createFunctionCallTransaction(result.getSender(), null, null, null,
+                    blockchainProperties.getContractAddress(), value, data);
+            EthCall response = web3j.ethCall(call, block).send();
+            if (response.hasError()) {
+                Response.Error error = response.getError();
+                if (!BatchTransferCalls.isExecutionReverted(error)) {
+                    return outcome(result, PreflightResponse.Outcome.ERROR, error.getMessage());
+                }
+                String reason = BatchTransferCalls.decodeRevertReason(error.getData());
+                return outcome(result, PreflightResponse.Outcome.REVERTED, reason != null ? reason : error.getMessage());
+            }
+            if (response.isReverted()) {
+                return outcome(result, PreflightResponse.Outcome.REVERTED, response.getRevertReason());
+            }
+            return outcome(result, PreflightResponse.Outcome.PASSED, null);
+        } catch (IOException e) {
+            return outcome(result, PreflightResponse.Outcome.ERROR, "RPC调用失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("预执行时发生错误: taskId={}, chunkIndex={}", result.getTaskId(), result.getChunkIndex(), e);
+            return outcome(result, PreflightResponse.Outcome.ERROR, e.getMessage());
+        }
+    }
+    
+    private PreflightResponse.Result outcome(PreflightResponse.Result result, PreflightResponse.Outcome outcome,
+                                             String reason) {
+        result.setOutcome(outcome);
+        result.setReason(reason);
+        Counter.builder("batch.transfer.preflight.simulations")
+                .description("预执行模拟的调用数")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+        return result;
+    }
+    
+    /**
+     * 接口预执行使用的发送地址：服务端执行的任务使用发送钱包池的第一个钱包，其他任务使用创建者地址
+     */
+    private String defaultSender(BatchTransferTask task) {
+        if (task.getExecutionMode() == BatchTransferTask.ExecutionMode.SERVER && walletPool.isEnabled()) {
+            return walletPool.getWallets().get(0).getAddress();
+        }
+        return task.getCreatorAddress();
+    }
+    
+    private static final class Simulation {
+        
+        private final PreflightResponse.Result result;
+        private final String executionToken;
+        private final Supplier<List<BatchTransferItem>> items;
+        
+        private Simulation(PreflightResponse.Result result, String executionToken,
+                           Supplier<List<BatchTransferItem>> items) {
+            this.result = result;
+            this.executionToken = executionToken;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.RateLimitProperties;
+import com.webthree.batchtransfer.exception.RateLimitExceededException;
+import com.webthree.batchtransfer.util.TokenBucket;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 限流服务
+ * 按路由维护基于IP和钱包地址的令牌桶，并定期回收空闲的令牌桶
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+    
+    /**
+     * 当前请求匹配的限流路由名称的请求属性名
+     */
+    public static final String ROUTE_ATTRIBUTE = "rateLimitRoute";
+    
+    /**
+     * 达到上限时额外回收的令牌桶比例（上限的1/10），避免每个新客户端都触发一次回收
+     */
+    private static final int EVICTION_BATCH_DIVISOR = 10;
+    
+    private static final String DIMENSION_IP = "ip";
+    
+    private static final String DIMENSION_WALLET = "wallet";
+    
+    private final RateLimitProperties properties;
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    // ConcurrentHashMap按桶分段加锁，令牌桶自身无锁
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    
+    /**
+     * 查找请求匹配的限流路由
+     * 
+     * @param request HTTP请求
+     * @return 路由名称，未匹配返回null
+     */
+    public String matchRoute(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        
+        String path = request.getRequestURI();
+        for (Map.Entry<String, RateLimitProperties.RouteLimit> entry : properties.getRoutes().entrySet()) {
+            RateLimitProperties.RouteLimit route = entry.getValue();
+            if (route.getMethod() != null && !route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (route.getPath() != null && pathMatcher.match(route.getPath(), path)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 按客户端IP获取令牌
+     * 
+     * @param routeName 路由名称
+     * @param clientIp 客户端IP
+     * @return 获取成功返回0，否则返回建议的重试秒数
+     */
+    public long tryAcquireForIp(String routeName, String clientIp) {
+        RateLimitProperties.RouteLimit route = properties.getRoutes().get(routeName);
+        if (route == null || route.getIp() == null) {
+            return 0;
+        }
+        return tryAcquire(routeName, DIMENSION_IP, clientIp, route.getIp());
+    }
+    
+    /**
+     * 按钱包地址获取令牌
+     * 
+     * @param routeName 路由名称
+     * @param walletAddress 钱包地址
+     * @return 获取成功返回0，否则返回建议的重试秒数
+     */
+    public long tryAcquireForWallet(String routeName, String walletAddress) {
+        RateLimitProperties.RouteLimit route = properties.getRoutes().get(routeName);
+        if (route == null || route.getWallet() == null || walletAddress == null) {
+            return 0;
+        }
+        return tryAcquire(routeName, DIMENSION_WALLET, walletAddress.toLowerCase(), route.getWallet());
+    }
+    
+    /**
+     * 对当前请求按钱包地址限流
+     * 用于钱包地址只在请求体中出现的接口，超限时抛出异常。
+     * 请求体中的地址未经认证，须在验证钱包签名之后调用，否则任何人都能耗尽他人钱包的令牌
+     * 
+     * @param walletAddress 钱包地址
+     * @throws RateLimitExceededException 超出限流
+     */
+    public void requireWalletPermit(String walletAddress) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        
+        String routeName = (String) attributes.getRequest().getAttribute(ROUTE_ATTRIBUTE);
+        if (routeName == null) {
+            return;
+        }
+        
+        long retryAfterSeconds = tryAcquireForWallet(routeName, walletAddress);
+        if (retryAfterSeconds > 0) {
+            log.warn("钱包请求过于频繁: route={}, walletAddress={}", routeName, walletAddress);
+            throw new RateLimitExceededException("请求过于频繁，请稍后再试", retryAfterSeconds);
+        }
+    }
+    
+    /**
+     * 定期回收空闲的令牌桶
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(properties.getIdleTimeout());
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.getLastAccessNanos() < threshold);
+        
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.debug("回收空闲令牌桶: {} 个，剩余: {} 个", evicted, buckets.size());
+        }
+    }
+    
+    /**
+     * 获取当前令牌桶数量
+     * 
+     * @return 令牌桶数量
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+    
+    /**
+     * 从指定令牌桶获取令牌
+     * 
+     * @param routeName 路由名称
+     * @param dimension 限流维度（ip/wallet）
+     * @param id 客户端标识（IP或钱包地址，IPv6地址中含有冒号）
+     */
+    private long tryAcquire(String routeName, String dimension, String id, RateLimitProperties.Bandwidth bandwidth) {
+        long now = System.nanoTime();
+        String key = routeName + ":" + dimension + ":" + id;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                evictLeastRecentlyUsed();
+            }
+            bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(bandwidth.getCapacity(), bandwidth.getRefillPerSecond(), now));
+        }
+        
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+    
+    /**
+     * 令牌桶数量达到上限（可能是伪造来源的攻击）时回收最久未访问的一批令牌桶
+     * 新客户端仍各自获得令牌桶，攻击者轮换来源只会挤掉最久未活动的客户端，不会把正常客户端挤进同一个桶。
+     * 同一时间只有一个线程执行回收，其余线程直接创建令牌桶，数量可能短暂略超上限
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int maxBuckets = properties.getMaxBuckets();
+            int excess = buckets.size() - maxBuckets;
+            if (excess < 0) {
+                return;
+            }
+            
+            // 先取访问时间快照再排序，避免排序期间访问时间变化
+            List<String> evictKeys = buckets.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().getLastAccessNanos()))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(excess + Math.max(1, maxBuckets / EVICTION_BATCH_DIVISOR))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            evictKeys.forEach(buckets::remove);
+            log.warn("令牌桶数量达到上限 {}，回收最久未访问的令牌桶: {} 个", maxBuckets, evictKeys.size());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ChunkPlannerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetCode;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接收者类型识别
+ * 通过批量eth_getCode判断接收地址是普通账户还是合约（含EIP-7702委托代码的账户），
+ * 结果按地址缓存（LRU，超过 app.chunk-planner.code-cache-ttl 后重新查询），未命中的地址每批一次RPC请求
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RecipientTypeResolver {
+    
+    /**
+     * 接收者类型
+     */
+    public enum RecipientType {
+        EOA,
+        CONTRACT
+    }
+    
+    private final Web3j web3j;
+    private final ChunkPlannerProperties properties;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    
+    /**
+     * 小写地址 -> 类型，按访问顺序淘汰
+     */
+    private final Map<String, CachedType> cache;
+    
+    public RecipientTypeResolver(Web3j web3j, ChunkPlannerProperties properties, MeterRegistry meterRegistry) {
+        this.web3j = web3j;
+        this.properties = properties;
+        int maxEntries = properties.getCodeCacheMaxEntries();
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedType> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.cacheHits = Counter.builder("batch.transfer.recipient_type.lookups")
+                .description("接收者类型查询次数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("batch.transfer.recipient_type.lookups")
+                .description("接收者类型查询次数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 识别接收地址类型
+     * 
+     * @param addresses 接收地址（可重复，不区分大小写）
+     * @return 小写地址 -> 类型
+     * @throws IOException RPC调用失败
+     */
+    public Map<String, RecipientType> resolve(Collection<String> addresses) throws IOException {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String address : addresses) {
+            distinct.add(address.toLowerCase(Locale.ROOT));
+        }
+        
+        Map<String, RecipientType> types = new HashMap<>(distinct.size() * 2);
+        List<String> misses = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (String address : distinct) {
+            CachedType cached = cache.get(address);
+            if (cached != null && cached.expiresAt > now) {
+                types.put(address, cached.type);
+            } else {
+                misses.add(address);
+            }
+        }
+        cacheHits.increment(distinct.size() - misses.size());
+        cacheMisses.increment(misses.size());
+        
+        int batchSize = Math.max(1, properties.getCodeBatchSize());
+        for (int from = 0; from < misses.size(); from += batchSize) {
+            lookup(misses.subList(from, Math.min(from + batchSize, misses.size())), types);
+        }
+        return types;
+    }
+    
+    /**
+     * 一次批量请求查询一组地址的代码
+     */
+    private void lookup(List<String> addresses, Map<String, RecipientType> types) throws IOException {
+        BatchRequest batch = web3j.newBatch();
+        Map<Long, String> addressById = new HashMap<>(addresses.size() * 2);
+        for (String address : addresses) {
+            Request<?, EthGetCode> request = web3j.ethGetCode(address, DefaultBlockParameterName.LATEST);
+            addressById.put(request.getId(), address);
+            batch.add(request);
+        }
+        
+        BatchResponse response = batch.send();
+        long expiresAt = System.currentTimeMillis() + properties.getCodeCacheTtl();
+        for (Response<?> item : response.getResponses()) {
+            if (item.hasError()) {
+                throw new IOException("查询合约代码失败: " + item.getError().getMessage());
+            }
+            String address = addressById.get(item.getId());
+            if (address == null) {
+                continue;
+            }
+            String code = ((EthGetCode) item).getCode();
+            RecipientType type = code == null || Numeric.cleanHexPrefix(code).isEmpty()
+                    ? RecipientType.EOA : RecipientType.CONTRACT;
+            types.put(address, type);
+            cache.put(address, new CachedType(type, expiresAt));
+        }
+        for (String address : addresses) {
+            if (!types.containsKey(address)) {
+                throw new IOException("节点未返回地址 " + address + " 的代码");
+            }
+        }
+    }
+    
+    private static final class CachedType {
+        
+        private final RecipientType type;
+        private final long expiresAt;
+        
+        private CachedType(RecipientType type, long expiresAt) {
+            this.type = type;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+import org.web3j.utils.Convert;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务端执行器的发送钱包池
+ * 由 app.executor.private-key 和 app.executor.private-keys 配置的热钱包组成。
+ * 每轮按各钱包的在途交易数、最近确认耗时和可用余额把待执行任务分配到钱包队列：
+ * 在途交易数少的优先，相同时确认快的优先，再相同时余额多的优先；余额扣除Gas预留和已分配金额后不足的钱包不参与分配。
+ * 同一钱包的任务按顺序提交以保证nonce连续，不同钱包之间并行；
+ * 只使用本实例持有租约的钱包（见 {@link WalletLeaseService}），其他实例在用的钱包不分配任务
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SenderWalletPool {
+    
+    /**
+     * 确认耗时滑动平均的权重
+     */
+    private static final double LATENCY_SMOOTHING = 0.3;
+    
+    private final Web3j web3j;
+    
+    private final ExecutorProperties properties;
+    
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * 发送钱包，未启用服务端执行时为空
+     */
+    private List<Wallet> wallets = Collections.emptyList();
+    
+    /**
+     * 按配置的私钥创建发送钱包
+     */
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        List<String> privateKeys = new ArrayList<>();
+        if (properties.getPrivateKey() != null && !properties.getPrivateKey().trim().isEmpty()) {
+            privateKeys.add(properties.getPrivateKey().trim());
+        }
+        for (String privateKey : properties.getPrivateKeys()) {
+            if (privateKey != null && !privateKey.trim().isEmpty()) {
+                privateKeys.add(privateKey.trim());
+            }
+        }
+        if (privateKeys.isEmpty()) {
+            throw new IllegalStateException(
+                    "已启用服务端执行，但未配置热钱包私钥 app.executor.private-key 或 app.executor.private-keys");
+        }
+        
+        Map<String, Wallet> byAddress = new LinkedHashMap<>();
+        for (String privateKey : privateKeys) {
+            Credentials credentials = Credentials.create(privateKey);
+            byAddress.putIfAbsent(credentials.getAddress(), new Wallet(credentials, meterRegistry));
+        }
+        wallets = List.copyOf(byAddress.values());
+        log.info("发送钱包池: {} 个钱包 {}, 每个钱包在途交易上限: {}",
+                wallets.size(), byAddress.keySet(), properties.getMaxInFlight());
+    }
+    
+    /**
+     * 是否有可用的发送钱包（已启用服务端执行）
+     * 
+     * @return 有发送钱包返回true
+     */
+    public boolean isEnabled() {
+        return !wallets.isEmpty();
+    }
+    
+    /**
+     * 获取全部钱包
+     * 
+     * @return 钱包列表（不可修改）
+     */
+    public List<Wallet> getWallets() {
+        return wallets;
+    }
+    
+    /**
+     * 获取全部钱包的在途交易数
+     * 
+     * @return 在途交易数
+     */
+    public int getInFlightCount() {
+        int count = 0;
+        for (Wallet wallet : wallets) {
+            count += wallet.inFlight.size();
+        }
+        return count;
+    }
+    
+    /**
+     * 获取全部钱包的在途任务ID
+     * 
+     * @return 任务ID
+     */
+    public List<Long> getInFlightTaskIds() {
+        List<Long> taskIds = new ArrayList<>();
+        for (Wallet wallet : wallets) {
+            taskIds.addAll(wallet.inFlight.keySet());
+        }
+        return taskIds;
+    }
+    
+    /**
+     * 获取全部钱包剩余的在途交易名额
+     * 
+     * @return 剩余名额
+     */
+    public int getAvailableSlots() {
+        int slots = 0;
+        for (Wallet wallet : wallets) {
+            if (!wallet.isLeased()) {
+                continue;
+            }
+            slots += Math.max(0, properties.getMaxInFlight() - wallet.inFlight.size());
+        }
+        return slots;
+    }
+    
+    /**
+     * 移除已离开执行中状态的在途任务，记录从提交到离开执行中状态的耗时
+     * 
+     * @param executingTaskIds 仍处于执行中的任务ID
+     */
+    public void releaseSettled(Set<Long> executingTaskIds) {
+        long now = System.nanoTime();
+        for (Wallet wallet : wallets) {
+            wallet.inFlight.entrySet().removeIf(entry -> {
+                if (executingTaskIds.contains(entry.getKey())) {
+                    return false;
+                }
+                wallet.recordConfirmation(now - entry.getValue());
+                return true;
+            });
+        }
+    }
+    
+    /**
+     * 查询各钱包余额（待处理状态，已扣除交易池中交易的转出金额）
+     * 查询失败的钱包沿用上次的余额
+     */
+    public void refreshBalances() {
+        for (Wallet wallet : wallets) {
+            try {
+                EthGetBalance response = web3j.ethGetBalance(wallet.getAddress(), DefaultBlockParameterName.PENDING).send();
+                if (response.hasError()) {
+                    log.warn("查询钱包 {} 余额失败: {}", wallet.getAddress(), response.getError().getMessage());
+                    continue;
+                }
+                wallet.balance = response.getBalance();
+            } catch (IOException e) {
+                log.warn("查询钱包 {} 余额失败: {}", wallet.getAddress(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 把待执行任务分配到钱包队列
+     * 按创建顺序逐个分配；没有钱包有空余名额和足够余额的任务不分配，保持待执行
+     * 
+     * @param tasks 待执行任务
+     * @return 钱包 -> 按顺序提交的任务
+     */
+    public Map<Wallet, List<BatchTransferTask>> assign(List<BatchTransferTask> tasks) {
+        Map<Wallet, List<BatchTransferTask>> queues = new LinkedHashMap<>();
+        Map<Wallet, BigInteger> committed = new HashMap<>();
+        int maxInFlightPerWallet = properties.getMaxInFlight();
+        BigInteger gasReserve = BigInteger.valueOf(properties.getWalletGasReserve());
+        for (BatchTransferTask task : tasks) {
+            BigInteger value = task.getTotalAmount() == null ? BigInteger.ZERO
+                    : Convert.toWei(task.getTotalAmount(), Convert.Unit.ETHER).toBigInteger();
+            
+            Wallet best = null;
+            BigInteger bestAvailable = null;
+            for (Wallet wallet : wallets) {
+                if (!wallet.isLeased()) {
+                    continue;
+                }
+                List<BatchTransferTask> queue = queues.get(wallet);
+                int load = wallet.inFlight.size() + (queue == null ? 0 : queue.size());
+                if (load >= maxInFlightPerWallet) {
+                    continue;
+                }
+                BigInteger available = wallet.availableBalance(gasReserve, committed.get(wallet));
+                if (available != null && available.compareTo(value) < 0) {
+                    continue;
+                }
+                if (best == null || isPreferred(wallet, load, available, best,
+                        best.inFlight.size() + queues.getOrDefault(best, List.of()).size(), bestAvailable)) {
+                    best = wallet;
+                    bestAvailable = available;
+                }
+            }
+            
+            if (best == null) {
+                log.debug("没有可分配的钱包（在途交易已满或余额不足），任务 {} 保持待执行", task.getId());
+                continue;
+            }
+            queues.computeIfAbsent(best, key -> new ArrayList<>()).add(task);
+            committed.merge(best, value, BigInteger::add);
+        }
+        
+        for (Map.Entry<Wallet, List<BatchTransferTask>> entry : queues.entrySet()) {
+            entry.getKey().queued.addAndGet(entry.getValue().size());
+        }
+        return queues;
+    }
+    
+    /**
+     * 候选钱包是否优于当前选中的钱包：在途交易数少、确认耗时短、可用余额多依次比较
+     */
+    private static boolean isPreferred(Wallet candidate, int candidateLoad, BigInteger candidateAvailable,
+                                       Wallet current, int currentLoad, BigInteger currentAvailable) {
+        if (candidateLoad != currentLoad) {
+            return candidateLoad < currentLoad;
+        }
+        double candidateLatency = candidate.latencyMillis < 0 ? 0 : candidate.latencyMillis;
+        double currentLatency = current.latencyMillis < 0 ? 0 : current.latencyMillis;
+        if (candidateLatency != currentLatency) {
+            return candidateLatency < currentLatency;
+        }
+        if (candidateAvailable == null || currentAvailable == null) {
+            return false;
+        }
+        return candidateAvailable.compareTo(currentAvailable) > 0;
+    }
+    
+    /**
+     * 发送钱包
+     */
+    public static final class Wallet {
+        
+        private final Credentials credentials;
+        
+        // 任务ID -> 提交时间（纳秒）
+        private final ConcurrentMap<Long, Long> inFlight = new ConcurrentHashMap<>();
+        
+        // 已分配、尚未提交的任务数
+        private final AtomicInteger queued = new AtomicInteger();
+        
+        private final Timer confirmationTimer;
+        
+        // 余额（wei），null表示尚未查询成功
+        private volatile BigInteger balance;
+        
+        // 确认耗时滑动平均（毫秒），-1表示尚无数据
+        private volatile double latencyMillis = -1;
+        
+        // 本实例持有的租约在本地的到期时间（纳秒），未持有时为null
+        private volatile Long leaseDeadline;
+        
+        Wallet(Credentials credentials, MeterRegistry meterRegistry) {
+            this.credentials = credentials;
+            String address = credentials.getAddress();
+            Gauge.builder("batch.transfer.executor.wallet.in_flight", inFlight, Map::size)
+                    .description("发送钱包已提交、尚未确认的交易数")
+                    .tag("wallet", address)
+                    .register(meterRegistry);
+            Gauge.builder("batch.transfer.executor.wallet.queued", queued, AtomicInteger::get)
+                    .description("已分配到发送钱包、尚未提交的任务数")
+                    .tag("wallet", address)
+                    .register(meterRegistry);
+            Gauge.builder("batch.transfer.executor.wallet.balance", this,
+                            wallet -> wallet.balance == null ? Double.NaN
+                                    : Convert.fromWei(new BigDecimal(wallet.balance), Convert.Unit.ETHER).doubleValue())
+                    .description("发送钱包余额（ETH）")
+                    .tag("wallet", address)
+                    .register(meterRegistry);
+            this.confirmationTimer = Timer.builder("batch.transfer.executor.wallet.confirmation")
+                    .description("发送钱包的交易从提交到确认（任务离开执行中状态）的耗时")
+                    .tag("wallet", address)
+                    .register(meterRegistry);
+        }
+        
+        public Credentials getCredentials() {
+            return credentials;
+        }
+        
+        public String getAddress() {
+            return credentials.getAddress();
+        }
+        
+        /**
+         * 记录任务已提交
+         * 
+         * @param taskId 任务ID
+         */
+        public void markSubmitted(Long taskId) {
+            inFlight.put(taskId, System.nanoTime());
+        }
+        
+        /**
+         * 移除在途任务（交易被拒绝）
+         * 
+         * @param taskId 任务ID
+         */
+        public void removeInFlight(Long taskId) {
+            inFlight.remove(taskId);
+        }
+        
+        /**
+         * 分配的任务已处理（提交、失败或留待下一轮）
+         * 
+         * @param count 任务数
+         */
+        public void dequeue(int count) {
+            queued.addAndGet(-count);
+        }
+        
+        /**
+         * 获取在途交易数
+         * 
+         * @return 在途交易数
+         */
+        public int getInFlightCount() {
+            return inFlight.size();
+        }
+        
+        /**
+         * 本实例是否持有该钱包的租约且未到期
+         * 
+         * @return 持有租约返回true
+         */
+        public boolean isLeased() {
+            Long deadline = leaseDeadline;
+            return deadline != null && System.nanoTime() - deadline < 0;
+        }
+        
+        void leaseUntil(long deadlineNanos) {
+            leaseDeadline = deadlineNanos;
+        }
+        
+        void dropLease() {
+            leaseDeadline = null;
+        }
+        
+        private void recordConfirmation(long elapsedNanos) {
+            confirmationTimer.record(Duration.ofNanos(elapsedNanos));
+            double millis = elapsedNanos / 1_000_000.0;
+            double previous = latencyMillis;
+            latencyMillis = previous < 0 ? millis : previous + LATENCY_SMOOTHING * (millis - previous);
+        }
+        
+        /**
+         * 扣除Gas预留和本轮已分配金额后的可用余额，余额未知时返回null
+         */
+        private BigInteger availableBalance(BigInteger gasReserve, BigInteger committed) {
+            BigInteger current = balance;
+            if (current == null) {
+                return null;
+            }
+            BigInteger available = current.subtract(gasReserve);
+            return committed == null ? available : available.subtract(committed);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.entity.NonceReservation;
+import com.webthree.batchtransfer.entity.TransactionReplacement;
+import com.webthree.batchtransfer.jfr.JfrTaskContext;
+import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import com.webthree.batchtransfer.mapper.NonceReservationMapper;
+import com.webthree.batchtransfer.mapper.TransactionReplacementMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 卡住交易检测与费用提升
+ * Gas飙升时服务端执行器提交的交易可能因费用不足长时间挂起，任务一直处于执行中直到监听按超时标记为失败。
+ * 定期通过eth_getTransactionByHash检查各发送钱包已发出、尚未确认的交易，挂起超过 app.executor.stuck-blocks 个区块的，
+ * 按当前基础费用以相同nonce、更高费用（两项费用均至少提高 fee-bump-percent，不超过 max-fee-per-gas）发送替换交易。
+ * 替换前记录原交易和替换交易的哈希（tx_replacement），监听查询收据时两者任一被打包都能完成任务；
+ * 替换交易被节点接收后更新任务和转账项的交易哈希及nonce预留记录
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class StuckTransactionService {
+    
+    private static final BigInteger ONE_HUNDRED = BigInteger.valueOf(100);
+    
+    /**
+     * 节点接受替换交易要求的最低费用提升（百分比）
+     */
+    private static final BigInteger MIN_REPLACEMENT_PERCENT = BigInteger.valueOf(110);
+    
+    private final Web3j web3j;
+    private final SenderWalletPool walletPool;
+    private final NonceManager nonceManager;
+    private final NonceReservationMapper reservationMapper;
+    private final TransactionReplacementMapper replacementMapper;
+    private final BatchTransferTaskMapper taskMapper;
+    private final BatchTransferItemMapper itemMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskChangeNotifier taskChangeNotifier;
+    private final ExecutorProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * 交易哈希 -> 首次发现挂起时的区块高度
+     */
+    private final Map<String, Long> pendingSince = new ConcurrentHashMap<>();
+    
+    /**
+     * 已达替换次数或费用上限、不再替换的交易哈希，避免重复告警
+     */
+    private final Set<String> exhausted = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * 定时检查卡住的交易
+     */
+    @Scheduled(fixedDelayString = "${app.executor.stuck-check-interval:15000}")
+    public void bumpStuckTransactions() {
+        if (!walletPool.isEnabled()) {
+            return;
+        }
+        
+        EthBlock.Block latest;
+        try {
+            EthBlock response = web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+            if (response.hasError() || response.getBlock() == null) {
+                log.warn("检查卡住交易时查询最新区块失败: {}",
+                        response.hasError() ? response.getError().getMessage() : "区块为空");
+                return;
+            }
+            latest = response.getBlock();
+        } catch (IOException e) {
+            log.warn("检查卡住交易时查询最新区块失败: {}", e.getMessage());
+            return;
+        }
+        long blockNumber = latest.getNumber().longValueExact();
+        BigInteger baseFee = latest.getBaseFeePerGasRaw() == null ? BigInteger.ZERO : latest.getBaseFeePerGas();
+        
+        Set<String> tracked = new HashSet<>();
+        for (SenderWalletPool.Wallet wallet : walletPool.getWallets()) {
+            if (!wallet.isLeased()) {
+                continue;
+            }
+            try {
+                checkWallet(wallet, blockNumber, baseFee, tracked);
+            } catch (IOException e) {
+                log.warn("检查钱包 {} 卡住交易时RPC调用失败，留待下一轮: {}", wallet.getAddress(), e.getMessage());
+                return;
+            } catch (Exception e) {
+                log.error("检查钱包 {} 卡住交易时发生错误", wallet.getAddress(), e);
+            }
+        }
+        pendingSince.keySet().retainAll(tracked);
+        exhausted.retainAll(tracked);
+    }
+    
+    /**
+     * 检查单个钱包已发出、尚未确认的任务交易
+     * 
+     * @param tracked 仍在挂起的交易哈希（输出）
+     */
+    private void checkWallet(SenderWalletPool.Wallet wallet, long blockNumber, BigInteger baseFee,
+                             Set<String> tracked) throws IOException {
+        for (NonceReservation reservation : reservationMapper.selectBySender(wallet.getAddress())) {
+            if (reservation.getStatus() != NonceReservation.ReservationStatus.SENT
+                    || reservation.getTaskId() == null || reservation.getRawTransaction() == null) {
+                continue;
+            }
+            
+            String txHash = reservation.getTxHash();
+            EthTransaction response = web3j.ethGetTransactionByHash(txHash).send();
+            if (response.hasError()) {
+                throw new IOException("查询交易失败: " + response.getError().getMessage());
+            }
+            Optional<Transaction> transaction = response.getTransaction();
+            if (transaction.isEmpty() || transaction.get().getBlockNumberRaw() != null) {
+                // 已打包，或已不在交易池中（由nonce对账重新广播）
+                continue;
+            }
+            
+            tracked.add(txHash);
+            long since = pendingSince.computeIfAbsent(txHash, hash -> blockNumber);
+            if (blockNumber - since < properties.getStuckBlocks() || exhausted.contains(txHash)) {
+                continue;
+            }
+            
+            try (JfrTaskContext.Scope ignored = JfrTaskContext.open(reservation.getTaskId())) {
+                String replacementHash = replace(wallet, reservation, baseFee, blockNumber - since);
+                if (replacementHash != null) {
+                    tracked.add(replacementHash);
+                    pendingSince.put(replacementHash, blockNumber);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 以相同nonce、更高费用发送替换交易
+     * 
+     * @return 替换交易哈希，未替换时返回null
+     */
+    private String replace(SenderWalletPool.Wallet wallet, NonceReservation reservation, BigInteger baseFee,
+                           long pendingBlocks) throws IOException {
+        Long taskId = reservation.getTaskId();
+        String txHash = reservation.getTxHash();
+        if (!isExecuting(taskId)) {
+            return null;
+        }
+        
+        List<TransactionReplacement> history = replacementMapper.selectByTaskId(taskId);
+        if (history.size() >= properties.getMaxFeeBumps()) {
+            log.warn("任务 {} 的交易已替换 {} 次仍未打包，不再提高费用: txHash={}", taskId, history.size(), txHash);
+            exhausted.add(txHash);
+            return null;
+        }
+        
+        RawTransaction original = TransactionDecoder.decode(reservation.getRawTransaction());
+        if (!(original.getTransaction() instanceof Transaction1559)) {
+            exhausted.add(txHash);
+            return null;
+        }
+        Transaction1559 originalFees = (Transaction1559) original.getTransaction();
+        BigInteger oldPriorityFee = originalFees.getMaxPriorityFeePerGas();
+        BigInteger oldMaxFee = originalFees.getMaxFeePerGas();
+        
+        ReplacementFees fees = replacementFees(oldPriorityFee, oldMaxFee, baseFee, properties);
+        if (fees == null) {
+            log.warn("任务 {} 的交易挂起 {} 个区块，但费用已接近上限 {}，无法替换: txHash={}, maxFeePerGas={}",
+                    taskId, pendingBlocks, properties.getMaxFeePerGas(), txHash, oldMaxFee);
+            exhausted.add(txHash);
+            return null;
+        }
+        BigInteger priorityFee = fees.priorityFee;
+        BigInteger maxFee = fees.maxFee;
+        
+        RawTransaction replacement = RawTransaction.createTransaction(originalFees.getChainId(), original.getNonce(),
+                original.getGasLimit(), original.getTo(), original.getValue(), original.getData(),
+                priorityFee, maxFee);
+        String signedTransaction = Numeric.toHexString(TransactionEncoder.signMessage(replacement,
+                wallet.getCredentials()));
+        String replacementHash = Hash.sha3(signedTransaction);
+        
+        // 发送前记录两笔交易的哈希：发送结果未知时监听仍能按任一哈希确认任务
+        replacementMapper.insert(TransactionReplacement.builder()
+                .taskId(taskId)
+                .senderAddress(wallet.getAddress())
+                .nonce(reservation.getNonce())
+                .txHash(replacementHash)
+                .replacedTxHash(txHash)
+                .maxFeePerGas(maxFee.longValueExact())
+                .maxPriorityFeePerGas(priorityFee.longValueExact())
+                .build());
+        
+        EthSendTransaction response;
+        try {
+            response = web3j.ethSendRawTransaction(signedTransaction).send();
+        } catch (IOException e) {
+            log.warn("任务 {} 替换交易发送结果未知: txHash={}, {}", taskId, replacementHash, e.getMessage());
+            recordFeeBump(wallet, "unknown");
+            return null;
+        }
+        if (response.hasError() && !isAlreadyKnown(response.getError().getMessage())) {
+            log.warn("任务 {} 替换交易被节点拒绝: {}", taskId, response.getError().getMessage());
+            replacementMapper.deleteByTxHash(replacementHash);
+            recordFeeBump(wallet, "rejected");
+            return null;
+        }
+        
+        nonceManager.recordReplacement(wallet.getAddress(), reservation.getNonce(), txHash, replacementHash,
+                signedTransaction);
+        updateTaskTxHash(taskId, replacementHash);
+        log.info("任务 {} 的交易挂起 {} 个区块，已提高费用替换: nonce={}, 原交易={}, 替换交易={}, "
+                        + "maxFeePerGas {} -> {}, maxPriorityFeePerGas {} -> {}",
+                taskId, pendingBlocks, reservation.getNonce(), txHash, replacementHash,
+                oldMaxFee, maxFee, oldPriorityFee, priorityFee);
+        recordFeeBump(wallet, "replaced");
+        return replacementHash;
+    }
+    
+    /**
+     * 任务是否仍处于执行中
+     */
+    private boolean isExecuting(Long taskId) {
+        List<BatchTransferTask> tasks = taskMapper.selectVersionsByIds(List.of(taskId));
+        return !tasks.isEmpty() && tasks.get(0).getStatus() == BatchTransferTask.TaskStatus.EXECUTING;
+    }
+    
+    /**
+     * 把任务和转账项的交易哈希更新为替换交易（任务须仍处于执行中）
+     */
+    private void updateTaskTxHash(Long taskId, String txHash) {
+        Boolean updated = transactionTemplate.execute(txStatus -> {
+            int rows = taskMapper.compareAndSetStatus(
+                    taskId,
+                    EnumSet.of(BatchTransferTask.TaskStatus.EXECUTING),
+                    null,
+                    BatchTransferTask.TaskStatus.EXECUTING,
+                    txHash,
+                    null,
+                    null
+            );
+            if (rows == 0) {
+                return false;
+            }
+            itemMapper.batchUpdateStatusAndTxHash(taskId, BatchTransferItem.ItemStatus.PENDING, txHash);
+            return true;
+        });
+        if (Boolean.TRUE.equals(updated)) {
+            taskChangeNotifier.notifyChanged(taskId);
+        } else {
+            log.info("任务 {} 已离开执行中状态，未更新为替换交易哈希 {}", taskId, txHash);
+        }
+    }
+    
+    /**
+     * 计算替换交易的费用
+     * 两项费用均按比例提高；优先费不低于配置值，最高费用不低于 2 * 当前基础费用 + 优先费，且不超过上限
+     * 
+     * @return 替换费用，受上限限制无法达到节点要求的最低提升比例时返回null
+     */
+    static ReplacementFees replacementFees(BigInteger oldPriorityFee, BigInteger oldMaxFee, BigInteger baseFee,
+                                           ExecutorProperties properties) {
+        BigInteger factor = BigInteger.valueOf(100L + properties.getFeeBumpPercent());
+        BigInteger maxFeeCap = BigInteger.valueOf(properties.getMaxFeePerGas());
+        BigInteger priorityFee = bump(oldPriorityFee, factor)
+                .max(BigInteger.valueOf(properties.getMaxPriorityFeePerGas()));
+        BigInteger maxFee = bump(oldMaxFee, factor).max(baseFee.shiftLeft(1).add(priorityFee)).min(maxFeeCap);
+        priorityFee = priorityFee.min(maxFee);
+        if (bump(oldMaxFee, MIN_REPLACEMENT_PERCENT).compareTo(maxFee) > 0
+                || bump(oldPriorityFee, MIN_REPLACEMENT_PERCENT).compareTo(priorityFee) > 0) {
+            return null;
+        }
+        return new ReplacementFees(priorityFee, maxFee);
+    }
+    
+    private static BigInteger bump(BigInteger value, BigInteger percent) {
+        // 向上取整，保证满足节点的最低提升比例
+        return value.multiply(percent).add(ONE_HUNDRED.subtract(BigInteger.ONE)).divide(ONE_HUNDRED);
+    }
+    
+    private static boolean isAlreadyKnown(String message) {
+        return message != null && message.toLowerCase().contains("already known");
+    }
+    
+    private void recordFeeBump(SenderWalletPool.Wallet wallet, String outcome) {
+        Counter.builder("batch.transfer.executor.fee_bumps")
+                .description("卡住交易提高费用替换的次数")
+                .tag("wallet", wallet.getAddress())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    /**
+     * 替换交易的费用（wei）
+     */
+    static final class ReplacementFees {
+        
+        final BigInteger priorityFee;
+        
+        final BigInteger maxFee;
+        
+        ReplacementFees(BigInteger priorityFee, BigInteger maxFee) {
+            this.priorityFee = priorityFee;
+            this.maxFee = maxFee;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.AsyncConfig;
+import com.webthree.batchtransfer.datasource.DataSourceContextHolder;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 任务变更通知服务
+ * 长轮询请求按任务ID登记等待，任务状态变更（事务提交后）时在通知线程池中回调。
+ * 其他实例上发生的变更无法直接通知，由定期按版本号复查兜底
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class TaskChangeNotifier {
+    
+    /**
+     * 复查时单次查询的任务数上限
+     */
+    private static final int RECHECK_BATCH_SIZE = 500;
+    
+    private final BatchTransferTaskMapper taskMapper;
+    
+    private final Executor executor;
+    
+    private final ConcurrentMap<Long, Set<Watch>> watches = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger watchCount = new AtomicInteger();
+    
+    /**
+     * 同时等待的请求数上限，超出时不再登记
+     */
+    @Value("${app.task-watch.max-watchers:10000}")
+    private int maxWatchers;
+    
+    public TaskChangeNotifier(BatchTransferTaskMapper taskMapper,
+                              @Qualifier(AsyncConfig.TASK_WATCH_EXECUTOR) Executor executor,
+                              MeterRegistry meterRegistry) {
+        this.taskMapper = taskMapper;
+        this.executor = executor;
+        Gauge.builder("batch.transfer.task.watchers", watchCount, AtomicInteger::get)
+                .description("等待任务变更的长轮询请求数")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 登记等待任务变更
+     * 
+     * @param taskId 任务ID
+     * @param knownVersion 调用方已知的版本号
+     * @param onChange 任务变更时的回调，在通知线程池中执行，最多执行一次
+     * @return 登记凭证，超出等待数上限时返回null
+     */
+    public Watch watch(Long taskId, Integer knownVersion, Runnable onChange) {
+        if (watchCount.incrementAndGet() > maxWatchers) {
+            watchCount.decrementAndGet();
+            log.warn("长轮询等待数已达上限: {}", maxWatchers);
+            return null;
+        }
+        
+        Watch watch = new Watch(taskId, knownVersion, onChange);
+        watches.compute(taskId, (id, set) -> {
+            Set<Watch> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(watch);
+            return target;
+        });
+        return watch;
+    }
+    
+    /**
+     * 通知任务已变更
+     * 在事务中调用时延迟到事务提交后通知，保证回调读到的是已提交的数据
+     * 
+     * @param taskId 任务ID
+     */
+    public void notifyChanged(Long taskId) {
+        if (!watches.containsKey(taskId)) {
+            return;
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fire(taskId);
+                }
+            });
+        } else {
+            fire(taskId);
+        }
+    }
+    
+    /**
+     * 定期复查等待中任务的版本号，兜底其他实例上的变更
+     */
+    @Scheduled(fixedDelayString = "${app.task-watch.recheck-interval:5000}")
+    @UseDataSource(DataSourceType.BATCH)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public void recheckWatchedTasks() {
+        if (watches.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<Long> taskIds = new ArrayList<>(watches.keySet());
+            for (int from = 0; from < taskIds.size(); from += RECHECK_BATCH_SIZE) {
+                List<Long> batch = taskIds.subList(from, Math.min(from + RECHECK_BATCH_SIZE, taskIds.size()));
+                
+                Map<Long, Integer> versions = new HashMap<>();
+                for (BatchTransferTask task : taskMapper.selectVersionsByIds(batch)) {
+                    versions.put(task.getId(), task.getVersion() == null ? 0 : task.getVersion());
+                }
+                
+                for (Long taskId : batch) {
+                    Set<Watch> taskWatches = watches.get(taskId);
+                    if (taskWatches == null) {
+                        continue;
+                    }
+                    Integer current = versions.get(taskId);
+                    boolean changed = taskWatches.stream()
+                            .anyMatch(watch -> current == null || !Objects.equals(watch.knownVersion, current));
+                    if (changed) {
+                        fire(taskId);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("复查等待中任务失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取当前等待数
+     * 
+     * @return 等待数
+     */
+    public int getWatchCount() {
+        return watchCount.get();
+    }
+    
+    /**
+     * 回调任务的全部等待方
+     * 回调中的查询读主库，避免读到尚未同步到只读副本的旧版本
+     */
+    private void fire(Long taskId) {
+        Set<Watch> taskWatches = watches.remove(taskId);
+        if (taskWatches == null) {
+            return;
+        }
+        
+        for (Watch watch : taskWatches) {
+            if (!watch.release()) {
+                continue;
+            }
+            Runnable onChange = DataSourceContextHolder.wrapPrimaryRead(watch.onChange);
+            try {
+                executor.execute(onChange);
+            } catch (RejectedExecutionException e) {
+                // 通知线程池已满，在当前线程回调，保证等待方不会一直挂起到超时
+                onChange.run();
+            }
+        }
+    }
+    
+    /**
+     * 等待登记凭证
+     */
+    public final class Watch {
+        
+        private final Long taskId;
+        
+        private final Integer knownVersion;
+        
+        private final Runnable onChange;
+        
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        
+        private Watch(Long taskId, Integer knownVersion, Runnable onChange) {
+            this.taskId = taskId;
+            this.knownVersion = knownVersion == null ? 0 : knownVersion;
+            this.onChange = onChange;
+        }
+        
+        /**
+         * 取消等待（请求超时或完成时调用），可重复调用
+         */
+        public void cancel() {
+            if (!release()) {
+                return;
+            }
+            watches.computeIfPresent(taskId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        
+        /**
+         * 释放占用的等待数，只有第一次调用返回true
+         */
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                watchCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
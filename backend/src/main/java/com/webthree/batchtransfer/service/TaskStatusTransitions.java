@@ -0,0 +1,46 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.entity.BatchTransferTask.TaskStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 任务状态转换表
+ * 以目标状态为键，记录允许转换到该状态的源状态集合，
+ * 供条件更新（UPDATE ... WHERE status IN (...)）直接作为前置条件使用
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public final class TaskStatusTransitions {
+    
+    /**
+     * 目标状态 -> 允许的源状态
+     * COMPLETED 和 FAILED 是终态，不能再转换
+     */
+    private static final Map<TaskStatus, Set<TaskStatus>> ALLOWED_SOURCES = new EnumMap<>(TaskStatus.class);
+    
+    static {
+        ALLOWED_SOURCES.put(TaskStatus.PENDING, EnumSet.noneOf(TaskStatus.class));
+        ALLOWED_SOURCES.put(TaskStatus.EXECUTING, EnumSet.of(TaskStatus.PENDING));
+        ALLOWED_SOURCES.put(TaskStatus.COMPLETED, EnumSet.of(TaskStatus.EXECUTING));
+        ALLOWED_SOURCES.put(TaskStatus.FAILED, EnumSet.of(TaskStatus.PENDING, TaskStatus.EXECUTING));
+    }
+    
+    private TaskStatusTransitions() {
+    }
+    
+    /**
+     * 获取允许转换到目标状态的源状态集合
+     * 
+     * @param target 目标状态
+     * @return 源状态集合（不可修改），为空表示不允许转换到该状态
+     */
+    public static Set<TaskStatus> sourcesOf(TaskStatus target) {
+        return Collections.unmodifiableSet(ALLOWED_SOURCES.get(target));
+    }
+}
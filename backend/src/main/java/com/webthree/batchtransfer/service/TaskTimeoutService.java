@@ -1,5 +1,7 @@
 package com.webthree.batchtransfer.service;
 
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
 import com.webthree.batchtransfer.dto.TaskResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,7 +13,7 @@ import java.util.List;
 
 /**
  * 任务超时处理服务
- * 定时检查并处理超时的执行中任务
+ * 定时检查并处理超时的执行中任务，使用后台任务连接池
  * 
  * @author WebThree Team
  * @since 1.0.0
@@ -19,6 +21,7 @@ import java.util.List;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
 public class TaskTimeoutService {
     
     private final BatchTransferService batchTransferService;
@@ -78,7 +81,7 @@ public class TaskTimeoutService {
         String errorMessage = String.format("任务执行超时，超过 %d 分钟未完成", taskTimeoutMinutes);
         
         try {
-            batchTransferService.rollbackTaskStatus(task.getId(), errorMessage);
+            batchTransferService.rollbackTaskStatus(task.getId(), errorMessage, false);
             log.info("成功回滚超时任务: taskId={}", task.getId());
         } catch (Exception e) {
             log.error("回滚超时任务失败: taskId={}, error={}", task.getId(), e.getMessage(), e);
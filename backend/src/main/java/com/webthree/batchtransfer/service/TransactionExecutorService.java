@@ -0,0 +1,635 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.AsyncConfig;
+import com.webthree.batchtransfer.config.BlockchainProperties;
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.config.PreflightProperties;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.dto.PreflightResponse;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.entity.NonceReservation;
+import com.webthree.batchtransfer.jfr.JfrTaskContext;
+import com.webthree.batchtransfer.jfr.TaskTransitionEvent;
+import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import com.webthree.batchtransfer.metrics.TaskMetrics;
+import com.webthree.batchtransfer.util.BatchTransferCalls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthChainId;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 服务端执行器
+ * 领取执行方式为SERVER的待执行任务，编码 batchTransfer(recipients, amounts, executionToken) 调用，
+ * 用发送钱包池中的热钱包签名后通过eth_sendRawTransaction提交。提交后不等待打包，同时保持多笔交易在途，
+ * 交易确认后由 {@link BlockchainMonitorService} 按收据将任务更新为已完成或失败。
+ * 交易哈希在发送前随状态变更（PENDING -> EXECUTING）一起写入，发送结果未知（如超时）时监听仍可按哈希跟踪。
+ * nonce由 {@link NonceManager} 在内存中分配并持久化已签名交易，定期对账时重新广播丢失的交易、填补nonce空缺。
+ * 任务由 {@link SenderWalletPool} 分配到各钱包队列，各钱包在提交线程池中并行、钱包内按顺序提交；
+ * 提交前由 {@link PreflightService} 以分配的钱包为发送方并行预执行，会回滚的任务直接标记为失败
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class TransactionExecutorService {
+    
+    private static final BigInteger ONE_HUNDRED = BigInteger.valueOf(100);
+    
+    /**
+     * 填补nonce空缺的转账（向自己转0 ETH）所需Gas
+     */
+    private static final BigInteger GAP_FILL_GAS_LIMIT = BigInteger.valueOf(21_000);
+    
+    private final Web3j web3j;
+    private final BatchTransferTaskMapper taskMapper;
+    private final BatchTransferItemMapper itemMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskMetrics taskMetrics;
+    private final TaskChangeNotifier taskChangeNotifier;
+    private final ExecutorProperties properties;
+    private final NonceManager nonceManager;
+    private final SenderWalletPool walletPool;
+    private final PreflightService preflightService;
+    private final PreflightProperties preflightProperties;
+    private final BlockchainProperties blockchainProperties;
+    private final MeterRegistry meterRegistry;
+    
+    @Qualifier(AsyncConfig.EXECUTOR_SUBMIT_EXECUTOR)
+    private final Executor submitExecutor;
+    
+    /**
+     * 链ID，未配置时首次提交前查询
+     */
+    private volatile Long chainId;
+    
+    /**
+     * 读取配置的链ID并注册在途交易数指标
+     */
+    @PostConstruct
+    public void init() {
+        chainId = properties.getChainId();
+        if (walletPool.isEnabled()) {
+            log.info("服务端执行已启用，发送钱包数: {}, 合约地址: {}", walletPool.getWallets().size(),
+                    blockchainProperties.getContractAddress());
+        }
+        
+        Gauge.builder("batch.transfer.executor.in_flight", walletPool, SenderWalletPool::getInFlightCount)
+                .description("服务端执行器已提交、尚未确认的交易数")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 定时领取并提交待执行任务
+     * 各钱包在途交易数未达上限时按创建顺序领取，分配到钱包队列后各钱包并行提交，钱包内逐笔签名提交，不等待上一笔打包
+     */
+    @Scheduled(fixedDelayString = "${app.executor.poll-interval:2000}")
+    public void submitPendingTasks() {
+        if (!walletPool.isEnabled()) {
+            return;
+        }
+        
+        try {
+            releaseSettledTasks();
+            
+            int slots = walletPool.getAvailableSlots();
+            if (slots <= 0) {
+                log.debug("所有发送钱包的在途交易数已达上限，本轮不领取任务");
+                return;
+            }
+            
+            List<BatchTransferTask> tasks = taskMapper.selectPendingByExecutionMode(
+                    BatchTransferTask.ExecutionMode.SERVER, slots);
+            if (tasks.isEmpty()) {
+                return;
+            }
+            resolveChainId();
+            walletPool.refreshBalances();
+            
+            Map<SenderWalletPool.Wallet, List<BatchTransferTask>> queues = walletPool.assign(tasks);
+            if (preflightProperties.isEnabled()) {
+                preflight(queues);
+            }
+            List<CompletableFuture<Void>> submissions = new ArrayList<>(queues.size());
+            for (Map.Entry<SenderWalletPool.Wallet, List<BatchTransferTask>> entry : queues.entrySet()) {
+                SenderWalletPool.Wallet wallet = entry.getKey();
+                List<BatchTransferTask> queue = entry.getValue();
+                try {
+                    submissions.add(CompletableFuture.runAsync(() -> submitQueue(wallet, queue), submitExecutor));
+                } catch (RejectedExecutionException e) {
+                    log.warn("提交线程池已满，钱包 {} 的 {} 个任务留待下一轮", wallet.getAddress(), queue.size());
+                    wallet.dequeue(queue.size());
+                }
+            }
+            // 本轮全部提交完成后再计算下一轮间隔，避免同一钱包的队列重叠
+            CompletableFuture.allOf(submissions.toArray(new CompletableFuture[0])).join();
+        } catch (IOException e) {
+            log.warn("服务端执行器领取任务时RPC调用失败，留待下一轮: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("服务端执行器提交任务时发生错误", e);
+        }
+    }
+    
+    /**
+     * 以分配的钱包为发送方并行预执行队列中的任务，会回滚的任务标记为失败并移出队列，不占用nonce
+     * 预执行本身失败（节点不可用、发送钱包余额不足等）时照常提交，提交前的Gas预估仍会拦截回滚的交易
+     */
+    private void preflight(Map<SenderWalletPool.Wallet, List<BatchTransferTask>> queues) {
+        Map<Long, SenderWalletPool.Wallet> walletByTask = new HashMap<>();
+        List<BatchTransferTask> tasks = new ArrayList<>();
+        for (Map.Entry<SenderWalletPool.Wallet, List<BatchTransferTask>> entry : queues.entrySet()) {
+            for (BatchTransferTask task : entry.getValue()) {
+                walletByTask.put(task.getId(), entry.getKey());
+                tasks.add(task);
+            }
+        }
+        
+        PreflightResponse preflight;
+        try {
+            preflight = preflightService.simulateTasks(tasks, task -> walletByTask.get(task.getId()).getAddress());
+        } catch (IOException e) {
+            log.warn("预执行时查询最新区块失败，本轮跳过预执行: {}", e.getMessage());
+            return;
+        }
+        
+        for (int i = 0; i < tasks.size(); i++) {
+            PreflightResponse.Result result = preflight.getResults().get(i);
+            if (result.getOutcome() != PreflightResponse.Outcome.REVERTED) {
+                continue;
+            }
+            BatchTransferTask task = tasks.get(i);
+            SenderWalletPool.Wallet wallet = walletByTask.get(task.getId());
+            queues.get(wallet).remove(task);
+            wallet.dequeue(1);
+            log.warn("任务 {} 预执行回滚，不提交: wallet={}, block={}, {}", task.getId(), wallet.getAddress(),
+                    preflight.getBlockNumber(), result.getReason());
+            failTask(task, BatchTransferTask.TaskStatus.PENDING, task.getVersion(), null,
+                    "预执行回滚: " + result.getReason());
+            recordSubmission(wallet, "preflight_reverted");
+        }
+        queues.values().removeIf(List::isEmpty);
+    }
+    
+    /**
+     * 按顺序提交单个钱包队列中的任务
+     * RPC调用失败时队列中剩余任务保持待执行，留待下一轮
+     */
+    private void submitQueue(SenderWalletPool.Wallet wallet, List<BatchTransferTask> queue) {
+        int processed = 0;
+        try {
+            for (BatchTransferTask task : queue) {
+                if (!wallet.isLeased()) {
+                    log.warn("钱包 {} 的租约已失效，剩余任务留待下一轮", wallet.getAddress());
+                    return;
+                }
+                try (JfrTaskContext.Scope ignored = JfrTaskContext.open(task.getId())) {
+                    submit(wallet, task);
+                } catch (IOException e) {
+                    // 节点不可用时任务保持待执行，留待下一轮
+                    log.warn("钱包 {} 提交任务 {} 时RPC调用失败，剩余任务留待下一轮: {}",
+                            wallet.getAddress(), task.getId(), e.getMessage());
+                    return;
+                } catch (NonceManager.NonceConflictException e) {
+                    // 本地nonce已失效，剩余任务留待下一轮按重新同步的nonce提交
+                    log.warn("钱包 {} 提交任务 {} 时nonce冲突，剩余任务留待下一轮: {}",
+                            wallet.getAddress(), task.getId(), e.getMessage());
+                    return;
+                } finally {
+                    processed++;
+                    wallet.dequeue(1);
+                }
+            }
+        } catch (Exception e) {
+            log.error("钱包 {} 提交任务时发生错误", wallet.getAddress(), e);
+        } finally {
+            wallet.dequeue(queue.size() - processed);
+        }
+    }
+    
+    /**
+     * 定时与链上交易数对账
+     * 重新广播已签名但未进入节点交易池的交易（发送结果未知、节点丢弃或进程重启前未发出），
+     * 没有可用交易的nonce（交易被拒绝后释放）发送0 ETH的自转账填补，避免后续交易一直排队
+     */
+    @Scheduled(fixedDelayString = "${app.executor.nonce-check-interval:15000}")
+    public void reconcileNonces() {
+        for (SenderWalletPool.Wallet wallet : walletPool.getWallets()) {
+            if (!wallet.isLeased()) {
+                continue;
+            }
+            try {
+                NonceManager.Reconciliation reconciliation = nonceManager.reconcile(wallet.getAddress());
+                for (NonceReservation reservation : reconciliation.getRebroadcasts()) {
+                    rebroadcast(reservation);
+                }
+                for (Long nonce : reconciliation.getGaps()) {
+                    fillGap(wallet, nonce);
+                }
+            } catch (IOException e) {
+                log.warn("钱包 {} nonce对账时RPC调用失败，留待下一轮: {}", wallet.getAddress(), e.getMessage());
+            } catch (Exception e) {
+                log.error("钱包 {} nonce对账时发生错误", wallet.getAddress(), e);
+            }
+        }
+    }
+    
+    /**
+     * 获取当前在途交易数
+     * 
+     * @return 在途交易数
+     */
+    public int getInFlightCount() {
+        return walletPool.getInFlightCount();
+    }
+    
+    /**
+     * 用指定钱包签名并提交单个任务的交易
+     * 
+     * @param wallet 发送钱包
+     * @param task 待执行任务
+     * @throws IOException RPC调用失败或节点返回回滚以外的错误（任务保持待执行）
+     */
+    private void submit(SenderWalletPool.Wallet wallet, BatchTransferTask task) throws IOException {
+        List<BatchTransferItem> items = itemMapper.selectByTaskId(task.getId());
+        if (items.isEmpty()) {
+            failTask(task, BatchTransferTask.TaskStatus.PENDING, task.getVersion(), null, "任务没有转账项");
+            return;
+        }
+        
+        String data = BatchTransferCalls.encode(items, task.getExecutionToken());
+        BigInteger value = BatchTransferCalls.totalValue(items);
+        
+        // 预估Gas：交易会回滚时节点返回执行错误，任务直接标记为失败，不占用nonce；
+        // 其他错误（节点不可用、限流等）与任务无关，任务保持待执行
+        EthEstimateGas estimate = web3j.ethEstimateGas(Transaction.createFunctionCallTransaction(
+                wallet.getAddress(), null, null, null, blockchainProperties.getContractAddress(), value, data)).send();
+        if (estimate.hasError()) {
+            Response.Error error = estimate.getError();
+            if (!BatchTransferCalls.isExecutionReverted(error)) {
+                throw new IOException("预估Gas失败: " + error.getMessage());
+            }
+            String reason = BatchTransferCalls.decodeRevertReason(error.getData());
+            log.warn("任务 {} 预估Gas时执行回滚: {}", task.getId(), reason != null ? reason : error.getMessage());
+            failTask(task, BatchTransferTask.TaskStatus.PENDING, task.getVersion(), null,
+                    "预估Gas失败: " + (reason != null ? reason : error.getMessage()));
+            recordSubmission(wallet, "reverted");
+            return;
+        }
+        BigInteger gasLimit = estimate.getAmountUsed()
+                .multiply(BigInteger.valueOf(100L + properties.getGasLimitMarginPercent()))
+                .divide(ONE_HUNDRED);
+        
+        BigInteger priorityFee = priorityFee();
+        BigInteger maxFee = maxFee(priorityFee);
+        
+        String sender = wallet.getAddress();
+        long nonce = nonceManager.reserve(sender);
+        String signedTransaction;
+        String txHash;
+        LocalDateTime executionStartedAt = LocalDateTime.now();
+        try {
+            RawTransaction rawTransaction = RawTransaction.createTransaction(resolveChainId(), BigInteger.valueOf(nonce),
+                    gasLimit, blockchainProperties.getContractAddress(), value, data, priorityFee, maxFee);
+            signedTransaction = Numeric.toHexString(TransactionEncoder.signMessage(rawTransaction,
+                    wallet.getCredentials()));
+            txHash = Hash.sha3(signedTransaction);
+            
+            if (!claimTask(task, txHash, executionStartedAt)) {
+                // 任务已被并发修改（如已被删除或由钱包执行），nonce未使用，归还
+                nonceManager.release(sender, nonce);
+                return;
+            }
+            // 领取成功后再落库已签名交易，对账时只会重新广播已领取任务的交易
+            nonceManager.recordSigned(sender, nonce, task.getId(), txHash, signedTransaction);
+        } catch (NonceManager.NonceConflictException e) {
+            // nonce的预留记录属于其他交易，不能释放；任务退回待执行，下一轮按重新同步的nonce提交
+            revertToPending(task);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            nonceManager.release(sender, nonce);
+            throw e;
+        }
+        wallet.markSubmitted(task.getId());
+        
+        EthSendTransaction response;
+        try {
+            response = web3j.ethSendRawTransaction(signedTransaction).send();
+        } catch (IOException e) {
+            // 节点可能已收到交易，保持执行中，由监听按交易哈希跟踪；未收到时对账重新广播
+            log.warn("任务 {} 交易发送结果未知，由监听继续跟踪: txHash={}, {}", task.getId(), txHash, e.getMessage());
+            recordSubmission(wallet, "unknown");
+            return;
+        }
+        
+        if (response.hasError() && !isAlreadyKnown(response.getError().getMessage())) {
+            // 交易被节点拒绝，nonce未被使用；nonce相关的错误说明本地状态与链上不一致，下次分配前重新同步
+            String message = response.getError().getMessage();
+            log.warn("任务 {} 交易被节点拒绝: {}", task.getId(), message);
+            nonceManager.release(sender, nonce);
+            if (message != null && message.toLowerCase().contains("nonce")) {
+                nonceManager.invalidate(sender);
+            }
+            wallet.removeInFlight(task.getId());
+            if (isInsufficientFunds(message)) {
+                // 发送钱包余额不足与任务无关：任务退回待执行，钱包队列中剩余任务留待下一轮按刷新后的余额重新分配
+                revertToPending(task);
+                recordSubmission(wallet, "insufficient_funds");
+                throw new IOException("发送钱包余额不足: " + message);
+            }
+            failTask(task, BatchTransferTask.TaskStatus.EXECUTING, task.getVersion() + 1, executionStartedAt,
+                    "交易提交失败: " + response.getError().getMessage());
+            recordSubmission(wallet, "rejected");
+            return;
+        }
+        
+        nonceManager.markSent(sender, nonce);
+        log.info("任务 {} 交易已提交: wallet={}, txHash={}, nonce={}, gasLimit={}, maxFeePerGas={}, 钱包在途交易数={}",
+                task.getId(), sender, txHash, nonce, gasLimit, maxFee, wallet.getInFlightCount());
+        recordSubmission(wallet, "submitted");
+    }
+    
+    /**
+     * 领取任务：以待执行状态和读取时的版本号为前置条件转为执行中，同时写入交易哈希
+     * 
+     * @return 是否领取成功
+     */
+    private boolean claimTask(BatchTransferTask task, String txHash, LocalDateTime executionStartedAt) {
+        boolean claimed = transition(task, BatchTransferTask.TaskStatus.PENDING, task.getVersion(),
+                BatchTransferTask.TaskStatus.EXECUTING, txHash, null, executionStartedAt,
+                BatchTransferItem.ItemStatus.PENDING);
+        if (!claimed) {
+            log.info("任务 {} 已被并发修改，放弃领取", task.getId());
+            return false;
+        }
+        taskMetrics.recordStatusReached(BatchTransferTask.TaskStatus.EXECUTING, task.getCreatedAt(),
+                executionStartedAt, TaskMetrics.SOURCE_EXECUTOR);
+        return true;
+    }
+    
+    /**
+     * 将刚领取的任务退回待执行，清空领取时写入的交易哈希和执行开始时间
+     * 
+     * @return 是否退回成功
+     */
+    private boolean revertToPending(BatchTransferTask task) {
+        Boolean reverted = transactionTemplate.execute(txStatus -> {
+            if (taskMapper.revertToPending(task.getId(), task.getVersion() + 1) == 0) {
+                return false;
+            }
+            itemMapper.batchUpdateStatusAndTxHash(task.getId(), BatchTransferItem.ItemStatus.PENDING, null);
+            return true;
+        });
+        boolean success = Boolean.TRUE.equals(reverted);
+        if (success) {
+            taskChangeNotifier.notifyChanged(task.getId());
+        }
+        return success;
+    }
+    
+    /**
+     * 将任务标记为失败
+     * 
+     * @param executionStartedAt 执行开始时间，未开始执行时为null
+     */
+    private void failTask(BatchTransferTask task, BatchTransferTask.TaskStatus expectedStatus, Integer expectedVersion,
+                          LocalDateTime executionStartedAt, String errorMessage) {
+        boolean failed = transition(task, expectedStatus, expectedVersion, BatchTransferTask.TaskStatus.FAILED,
+                null, errorMessage, null, BatchTransferItem.ItemStatus.FAILED);
+        if (failed) {
+            taskMetrics.recordStatusReached(BatchTransferTask.TaskStatus.FAILED, task.getCreatedAt(),
+                    executionStartedAt, TaskMetrics.SOURCE_EXECUTOR);
+        }
+    }
+    
+    /**
+     * 按状态和版本号前置条件变更任务状态，并同步更新所有转账项
+     */
+    private boolean transition(BatchTransferTask task, BatchTransferTask.TaskStatus expectedStatus,
+                               Integer expectedVersion, BatchTransferTask.TaskStatus status, String txHash,
+                               String errorMessage, LocalDateTime executionStartedAt,
+                               BatchTransferItem.ItemStatus itemStatus) {
+        TaskTransitionEvent event = new TaskTransitionEvent();
+        event.begin();
+        Boolean updated = transactionTemplate.execute(txStatus -> {
+            int rows = taskMapper.compareAndSetStatus(
+                    task.getId(),
+                    EnumSet.of(expectedStatus),
+                    expectedVersion,
+                    status,
+                    txHash,
+                    errorMessage,
+                    executionStartedAt
+            );
+            if (rows == 0) {
+                return false;
+            }
+            itemMapper.batchUpdateStatusAndTxHash(task.getId(), itemStatus, txHash);
+            return true;
+        });
+        boolean success = Boolean.TRUE.equals(updated);
+        event.complete(task.getId(), status, TaskMetrics.SOURCE_EXECUTOR, success);
+        
+        if (success) {
+            taskChangeNotifier.notifyChanged(task.getId());
+        }
+        return success;
+    }
+    
+    /**
+     * 移除已离开执行中状态（已确认、失败或被删除）的在途任务
+     */
+    private void releaseSettledTasks() {
+        List<Long> inFlightTaskIds = walletPool.getInFlightTaskIds();
+        if (inFlightTaskIds.isEmpty()) {
+            return;
+        }
+        
+        Set<Long> executing = new HashSet<>();
+        for (BatchTransferTask task : taskMapper.selectVersionsByIds(inFlightTaskIds)) {
+            if (task.getStatus() == BatchTransferTask.TaskStatus.EXECUTING) {
+                executing.add(task.getId());
+            }
+        }
+        walletPool.releaseSettled(executing);
+    }
+    
+    /**
+     * 重新广播已签名的交易
+     * 节点返回已存在或nonce过低时说明交易已在交易池或已打包
+     */
+    private void rebroadcast(NonceReservation reservation) {
+        try {
+            EthSendTransaction response = web3j.ethSendRawTransaction(reservation.getRawTransaction()).send();
+            if (response.hasError() && !isAlreadyAccepted(response.getError().getMessage())) {
+                log.warn("重新广播交易失败: nonce={}, txHash={}, {}", reservation.getNonce(),
+                        reservation.getTxHash(), response.getError().getMessage());
+                return;
+            }
+            nonceManager.markSent(reservation.getSenderAddress(), reservation.getNonce());
+            log.info("已重新广播交易: nonce={}, taskId={}, txHash={}", reservation.getNonce(),
+                    reservation.getTaskId(), reservation.getTxHash());
+            recordNonceRepair("rebroadcast");
+        } catch (IOException e) {
+            log.warn("重新广播交易时RPC调用失败: nonce={}, {}", reservation.getNonce(), e.getMessage());
+        }
+    }
+    
+    /**
+     * 向钱包自身转账0 ETH以填补nonce空缺
+     */
+    private void fillGap(SenderWalletPool.Wallet wallet, long nonce) throws IOException {
+        String sender = wallet.getAddress();
+        if (!nonceManager.claimGap(sender, nonce)) {
+            return;
+        }
+        
+        String signedTransaction;
+        String txHash;
+        try {
+            BigInteger priorityFee = priorityFee();
+            RawTransaction rawTransaction = RawTransaction.createEtherTransaction(resolveChainId(),
+                    BigInteger.valueOf(nonce), GAP_FILL_GAS_LIMIT, sender, BigInteger.ZERO,
+                    priorityFee, maxFee(priorityFee));
+            signedTransaction = Numeric.toHexString(TransactionEncoder.signMessage(rawTransaction,
+                    wallet.getCredentials()));
+            txHash = Hash.sha3(signedTransaction);
+            nonceManager.recordSigned(sender, nonce, null, txHash, signedTransaction);
+        } catch (NonceManager.NonceConflictException e) {
+            // 预留记录属于其他交易，不能释放
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            nonceManager.release(sender, nonce);
+            throw e;
+        }
+        
+        EthSendTransaction response = web3j.ethSendRawTransaction(signedTransaction).send();
+        if (response.hasError() && !isAlreadyAccepted(response.getError().getMessage())) {
+            log.warn("填补nonce空缺的交易被节点拒绝: nonce={}, {}", nonce, response.getError().getMessage());
+            nonceManager.release(sender, nonce);
+            return;
+        }
+        nonceManager.markSent(sender, nonce);
+        log.info("已发送交易填补nonce空缺: nonce={}, txHash={}", nonce, txHash);
+        recordNonceRepair("fill_gap");
+    }
+    
+    /**
+     * 节点返回的错误是否表示同一交易已在交易池中
+     */
+    private static boolean isAlreadyKnown(String message) {
+        return message != null && message.toLowerCase().contains("already known");
+    }
+    
+    /**
+     * 节点返回的错误是否表示发送钱包余额不足以支付转账金额和Gas
+     */
+    private static boolean isInsufficientFunds(String message) {
+        return message != null && message.toLowerCase().contains("insufficient funds");
+    }
+    
+    /**
+     * 重新发送已签名交易时节点返回的错误是否表示交易已在交易池中或该nonce已打包
+     */
+    private static boolean isAlreadyAccepted(String message) {
+        return isAlreadyKnown(message) || (message != null && message.toLowerCase().contains("nonce too low"));
+    }
+    
+    /**
+     * 优先费，不超过配置的最高费用上限
+     */
+    private BigInteger priorityFee() {
+        return BigInteger.valueOf(properties.getMaxPriorityFeePerGas())
+                .min(BigInteger.valueOf(properties.getMaxFeePerGas()));
+    }
+    
+    /**
+     * EIP-1559最高费用：maxFee = 2 * baseFee + 优先费，不超过配置的上限
+     */
+    private BigInteger maxFee(BigInteger priorityFee) throws IOException {
+        return latestBaseFee().shiftLeft(1).add(priorityFee).min(BigInteger.valueOf(properties.getMaxFeePerGas()));
+    }
+    
+    /**
+     * 获取链ID，未配置时查询一次
+     */
+    private long resolveChainId() throws IOException {
+        if (chainId == null) {
+            EthChainId response = web3j.ethChainId().send();
+            if (response.hasError()) {
+                throw new IOException("查询链ID失败: " + response.getError().getMessage());
+            }
+            chainId = response.getChainId().longValueExact();
+        }
+        return chainId;
+    }
+    
+    /**
+     * 查询最新区块的基础费用，节点不支持EIP-1559时为0
+     */
+    private BigInteger latestBaseFee() throws IOException {
+        EthBlock response = web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+        if (response.hasError()) {
+            throw new IOException("查询最新区块失败: " + response.getError().getMessage());
+        }
+        EthBlock.Block block = response.getBlock();
+        if (block == null || block.getBaseFeePerGasRaw() == null) {
+            return BigInteger.ZERO;
+        }
+        return block.getBaseFeePerGas();
+    }
+    
+    private void recordNonceRepair(String action) {
+        Counter.builder("batch.transfer.executor.nonce_repairs")
+                .description("nonce对账时重新广播交易或填补空缺的次数")
+                .tag("action", action)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    private void recordSubmission(SenderWalletPool.Wallet wallet, String outcome) {
+        Counter.builder("batch.transfer.executor.submissions")
+                .description("服务端执行器提交交易的次数")
+                .tag("wallet", wallet.getAddress())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,126 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.datasource.DataSourceType;
+import com.webthree.batchtransfer.datasource.UseDataSource;
+import com.webthree.batchtransfer.mapper.WalletLeaseMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发送钱包租约
+ * nonce由 {@link NonceManager} 在内存中分配，多个执行器实例同时使用同一热钱包会分配出相同的nonce，
+ * 因此每个钱包同一时间只由一个实例签名提交：实例定期在 executor_wallet_lease 表中续期各钱包的租约，
+ * 持有实例停止续期（宕机或数据库不可用）且租约过期后由其他实例接管。
+ * 是否仍持有租约按续期开始时间加租约时长在本地判断，续期失败时到期即停止使用该钱包；
+ * 数据库中的到期时间按各实例的本地时钟计算，实例间时钟偏差须远小于租约时长
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@UseDataSource(DataSourceType.BATCH)
+public class WalletLeaseService {
+    
+    private final WalletLeaseMapper leaseMapper;
+    
+    private final SenderWalletPool walletPool;
+    
+    private final NonceManager nonceManager;
+    
+    private final ExecutorProperties properties;
+    
+    /**
+     * 本实例的租约持有者ID（进程名加随机后缀，同一主机上重启的进程不会沿用旧租约）
+     */
+    private final String ownerId = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+    
+    /**
+     * 校验租约配置
+     */
+    @PostConstruct
+    public void init() {
+        if (walletPool.isEnabled() && properties.getWalletLeaseRenewInterval() >= properties.getWalletLeaseTtl()) {
+            throw new IllegalStateException("app.executor.wallet-lease-renew-interval 须小于 app.executor.wallet-lease-ttl");
+        }
+    }
+    
+    /**
+     * 定时续期各钱包的租约，未持有的钱包在租约过期后接管
+     */
+    @Scheduled(fixedDelayString = "${app.executor.wallet-lease-renew-interval:10000}")
+    public void renewLeases() {
+        for (SenderWalletPool.Wallet wallet : walletPool.getWallets()) {
+            try {
+                renew(wallet);
+            } catch (Exception e) {
+                log.warn("续期钱包 {} 的租约失败，到期后停止使用: {}", wallet.getAddress(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 停止时释放本实例持有的租约，其他实例无需等待过期即可接管
+     */
+    @PreDestroy
+    public void releaseLeases() {
+        for (SenderWalletPool.Wallet wallet : walletPool.getWallets()) {
+            if (!wallet.isLeased()) {
+                continue;
+            }
+            wallet.dropLease();
+            try {
+                leaseMapper.delete(wallet.getAddress(), ownerId);
+            } catch (Exception e) {
+                log.warn("释放钱包 {} 的租约失败，过期后由其他实例接管: {}", wallet.getAddress(), e.getMessage());
+            }
+        }
+    }
+    
+    private void renew(SenderWalletPool.Wallet wallet) {
+        String address = wallet.getAddress();
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getWalletLeaseTtl()));
+        
+        boolean acquired = leaseMapper.renew(address, ownerId, expiresAt, now) > 0;
+        if (!acquired) {
+            try {
+                acquired = leaseMapper.insert(address, ownerId, expiresAt) > 0;
+            } catch (DuplicateKeyException e) {
+                acquired = false;
+            }
+        }
+        
+        if (!acquired) {
+            if (wallet.isLeased()) {
+                log.error("钱包 {} 的租约已被其他执行器实例接管，停止使用: owner={}", address,
+                        leaseMapper.selectOwner(address));
+            } else {
+                log.debug("钱包 {} 的租约由其他执行器实例持有: owner={}", address, leaseMapper.selectOwner(address));
+            }
+            wallet.dropLease();
+            return;
+        }
+        
+        if (!wallet.isLeased()) {
+            // 新取得租约：其他实例可能用过该钱包，下次分配前按链上交易数和预留记录重新同步nonce
+            nonceManager.invalidate(address);
+            log.info("已取得钱包 {} 的租约: owner={}", address, ownerId);
+        }
+        wallet.leaseUntil(startedAt + TimeUnit.MILLISECONDS.toNanos(properties.getWalletLeaseTtl()));
+    }
+}
@@ -0,0 +1,168 @@
+package com.webthree.batchtransfer.util;
+
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+import lombok.experimental.UtilityClass;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.core.Response;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 批量转账合约调用工具类
+ * 编码 batchTransfer(address[] recipients, uint256[] amounts, string executionToken) 调用数据，金额以wei为单位；
+ * 解析调用回滚时节点返回的回滚数据
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@UtilityClass
+public class BatchTransferCalls {
+    
+    /**
+     * 合约批量转账函数名
+     */
+    public static final String BATCH_TRANSFER_FUNCTION = "batchTransfer";
+    
+    /**
+     * 合约单笔交易允许的最大接收者数量（与合约 MAX_RECIPIENTS 一致）
+     */
+    public static final int MAX_RECIPIENTS = 200;
+    
+    /**
+     * Error(string) 的选择器（require/revert 的原因）
+     */
+    private static final String ERROR_SELECTOR = "0x08c379a0";
+    
+    /**
+     * Panic(uint256) 的选择器（断言失败、算术溢出等）
+     */
+    private static final String PANIC_SELECTOR = "0x4e487b71";
+    
+    /**
+     * 节点返回的执行回滚错误码
+     */
+    private static final int EXECUTION_REVERTED_ERROR_CODE = 3;
+    
+    private static final List<TypeReference<Type>> ERROR_OUTPUT =
+            Utils.convert(List.of(new TypeReference<Utf8String>() { }));
+    
+    /**
+     * 按转账项编码调用数据
+     * 
+     * @param items 转账项
+     * @param executionToken 执行令牌
+     * @return 调用数据
+     */
+    public static String encode(List<BatchTransferItem> items, String executionToken) {
+        List<String> recipients = new ArrayList<>(items.size());
+        List<BigInteger> amounts = new ArrayList<>(items.size());
+        for (BatchTransferItem item : items) {
+            recipients.add(item.getRecipientAddress());
+            amounts.add(EthUtils.ethToWei(item.getAmount()));
+        }
+        return encode(recipients, amounts, executionToken);
+    }
+    
+    /**
+     * 编码调用数据
+     * 
+     * @param recipients 接收地址
+     * @param amounts 对应的金额（wei）
+     * @param executionToken 执行令牌
+     * @return 调用数据
+     */
+    public static String encode(List<String> recipients, List<BigInteger> amounts, String executionToken) {
+        List<Address> addresses = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            addresses.add(new Address(recipient));
+        }
+        List<Uint256> values = new ArrayList<>(amounts.size());
+        for (BigInteger amount : amounts) {
+            values.add(new Uint256(amount));
+        }
+        Function function = new Function(
+                BATCH_TRANSFER_FUNCTION,
+                List.of(new DynamicArray<>(Address.class, addresses),
+                        new DynamicArray<>(Uint256.class, values),
+                        new Utf8String(executionToken)),
+                Collections.emptyList());
+        return FunctionEncoder.encode(function);
+    }
+    
+    /**
+     * 计算调用需附带的ETH（各转账项金额之和）
+     * 
+     * @param items 转账项
+     * @return 金额（wei）
+     */
+    public static BigInteger totalValue(List<BatchTransferItem> items) {
+        BigInteger value = BigInteger.ZERO;
+        for (BatchTransferItem item : items) {
+            value = value.add(EthUtils.ethToWei(item.getAmount()));
+        }
+        return value;
+    }
+    
+    /**
+     * 节点错误是否表示调用执行回滚（错误码3或消息中含revert）
+     * 节点不可用、限流等错误与调用本身无关，稍后重试可能成功
+     * 
+     * @param error 节点返回的错误
+     * @return 是否执行回滚
+     */
+    public static boolean isExecutionReverted(Response.Error error) {
+        if (error == null) {
+            return false;
+        }
+        if (error.getCode() == EXECUTION_REVERTED_ERROR_CODE) {
+            return true;
+        }
+        String message = error.getMessage() == null ? "" : error.getMessage().toLowerCase(Locale.ROOT);
+        return message.contains("revert");
+    }
+    
+    /**
+     * 解析回滚数据
+     * Error(string) 返回其中的原因，Panic(uint256) 返回 Panic(0x错误码)，其他自定义错误返回原始数据
+     * 
+     * @param revertData 节点返回的回滚数据（十六进制，web3j保留了JSON字符串的引号时一并去除）
+     * @return 回滚原因，没有回滚数据时为null
+     */
+    public static String decodeRevertReason(String revertData) {
+        String data = revertData == null ? "" : revertData.trim();
+        if (data.length() >= 2 && data.startsWith("\"") && data.endsWith("\"")) {
+            data = data.substring(1, data.length() - 1);
+        }
+        if (Numeric.cleanHexPrefix(data).isEmpty()) {
+            return null;
+        }
+        data = Numeric.prependHexPrefix(data).toLowerCase(Locale.ROOT);
+        try {
+            if (data.startsWith(ERROR_SELECTOR)) {
+                List<Type> decoded = FunctionReturnDecoder.decode(data.substring(ERROR_SELECTOR.length()), ERROR_OUTPUT);
+                if (!decoded.isEmpty()) {
+                    return ((Utf8String) decoded.get(0)).getValue();
+                }
+            } else if (data.startsWith(PANIC_SELECTOR)) {
+                return "Panic(0x" + Numeric.toBigInt(data.substring(PANIC_SELECTOR.length())).toString(16) + ")";
+            }
+        } catch (RuntimeException e) {
+            // 数据格式不符时返回原始数据
+        }
+        return data;
+    }
+}
@@ -0,0 +1,55 @@
+package com.webthree.batchtransfer.util;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * ETag工具类
+ * 任务的ETag由任务ID和版本号组成；任务状态和转账项只在版本号自增的同一事务中修改，
+ * 因此版本号不变即表示任务详情（含转账项）不变
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class ETagUtils {
+    
+    private ETagUtils() {
+    }
+    
+    /**
+     * 生成任务详情的强ETag
+     * 
+     * @param taskId 任务ID
+     * @param version 版本号，为null时按0处理
+     * @return ETag（含双引号）
+     */
+    public static String taskETag(Long taskId, Integer version) {
+        return "\"" + taskId + "-" + (version == null ? 0 : version) + "\"";
+    }
+    
+    /**
+     * 判断If-None-Match请求头是否与ETag匹配
+     * 按RFC 9110使用弱比较：忽略W/前缀，支持逗号分隔的多个ETag和*
+     * 
+     * @param ifNoneMatch If-None-Match请求头
+     * @param etag 当前ETag
+     * @return 是否匹配
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch) || etag == null) {
+            return false;
+        }
+        
+        String current = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || current.equals(stripWeakPrefix(trimmed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -1,5 +1,6 @@
 package com.webthree.batchtransfer.util;
 
+import com.webthree.batchtransfer.jfr.SignatureVerificationEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.crypto.digests.KeccakDigest;
 import org.bouncycastle.jce.ECNamedCurveTable;
@@ -82,6 +83,26 @@ public class EthSignatureUtils {
      * @return 验证结果
      */
     public boolean verifySignature(String message, String signature, String expectedAddress) {
+        SignatureVerificationEvent event = new SignatureVerificationEvent();
+        event.begin();
+        boolean valid = false;
+        try {
+            valid = recoverAndCompare(message, signature, expectedAddress);
+            return valid;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.walletAddress = expectedAddress;
+                event.valid = valid;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * 从签名恢复地址并与期望地址比较
+     */
+    private boolean recoverAndCompare(String message, String signature, String expectedAddress) {
         try {
             // 清理地址格式
             expectedAddress = expectedAddress.toLowerCase();
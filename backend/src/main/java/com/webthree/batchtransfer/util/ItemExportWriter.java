@@ -0,0 +1,189 @@
+package com.webthree.batchtransfer.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.webthree.batchtransfer.entity.BatchTransferItem;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 转账项导出写入器
+ * 逐行写出CSV或NDJSON，只持有固定大小的写缓冲，不累积已写出的行。
+ * 金额按字符串原样输出（不转为浮点数），时间格式与接口的Jackson配置一致
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class ItemExportWriter implements Closeable {
+    
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private static final int BUFFER_SIZE = 32 * 1024;
+    
+    private static final String CSV_HEADER = "task_id,item_id,recipient_address,amount,status,tx_hash,created_at\n";
+    
+    private final Writer writer;
+    
+    private final JsonGenerator generator;
+    
+    private long rowCount;
+    
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        /**
+         * 按名称解析导出格式（不区分大小写）
+         * 
+         * @param value 格式名称，为空时默认CSV
+         * @return 导出格式
+         */
+        public static Format fromValue(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return CSV;
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + value);
+        }
+    }
+    
+    /**
+     * 构造函数，CSV格式立即写出表头
+     * 
+     * @param out 输出流，由调用方负责关闭
+     * @param format 导出格式
+     * @throws IOException 写出失败
+     */
+    public ItemExportWriter(OutputStream out, Format format) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.NDJSON) {
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        } else {
+            this.generator = null;
+            writer.write(CSV_HEADER);
+        }
+    }
+    
+    /**
+     * 写出一行转账项
+     * 
+     * @param item 转账项
+     * @throws IOException 写出失败（通常是客户端断开）
+     */
+    public void write(BatchTransferItem item) throws IOException {
+        if (generator != null) {
+            writeJson(item);
+        } else {
+            writeCsv(item);
+        }
+        rowCount++;
+    }
+    
+    /**
+     * 获取已写出的行数
+     * 
+     * @return 行数
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * 刷出缓冲区，不关闭底层输出流
+     */
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            if (rowCount > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+        writer.flush();
+    }
+    
+    /**
+     * 写出CSV行
+     * 字段均为地址、哈希、数字、枚举和时间，不含逗号、引号或换行，无需转义
+     */
+    private void writeCsv(BatchTransferItem item) throws IOException {
+        writer.write(String.valueOf(item.getTaskId()));
+        writer.write(',');
+        writer.write(String.valueOf(item.getId()));
+        writer.write(',');
+        writer.write(nullToEmpty(item.getRecipientAddress()));
+        writer.write(',');
+        writer.write(item.getAmount() == null ? "" : item.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(item.getStatus() == null ? "" : item.getStatus().name());
+        writer.write(',');
+        writer.write(nullToEmpty(item.getTxHash()));
+        writer.write(',');
+        writer.write(item.getCreatedAt() == null ? "" : DATE_TIME_FORMATTER.format(item.getCreatedAt()));
+        writer.write('\n');
+    }
+    
+    /**
+     * 写出NDJSON行，空值字段省略（与接口的 non-null 配置一致）
+     */
+    private void writeJson(BatchTransferItem item) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("taskId", item.getTaskId());
+        generator.writeNumberField("itemId", item.getId());
+        if (item.getRecipientAddress() != null) {
+            generator.writeStringField("recipientAddress", item.getRecipientAddress());
+        }
+        if (item.getAmount() != null) {
+            generator.writeStringField("amount", item.getAmount().toPlainString());
+        }
+        if (item.getStatus() != null) {
+            generator.writeStringField("status", item.getStatus().name());
+        }
+        if (item.getTxHash() != null) {
+            generator.writeStringField("txHash", item.getTxHash());
+        }
+        if (item.getCreatedAt() != null) {
+            generator.writeStringField("createdAt", DATE_TIME_FORMATTER.format(item.getCreatedAt()));
+        }
+        generator.writeEndObject();
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
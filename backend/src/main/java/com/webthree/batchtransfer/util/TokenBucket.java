@@ -0,0 +1,96 @@
+package com.webthree.batchtransfer.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 无锁令牌桶
+ * 状态保存在不可变对象中，通过CAS更新，适合高并发下的限流判断
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class TokenBucket {
+    
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private final double capacity;
+    
+    private final double refillPerNano;
+    
+    private final AtomicReference<State> state;
+    
+    /**
+     * 构造函数，新建的桶是满的
+     * 
+     * @param capacity 桶容量
+     * @param refillPerSecond 每秒补充的令牌数
+     * @param nowNanos 当前时间（纳秒）
+     */
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("令牌桶容量和补充速率必须大于0");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+    
+    /**
+     * 尝试获取一个令牌
+     * 
+     * @param nowNanos 当前时间（纳秒）
+     * @return 获取成功返回0，否则返回需要等待的纳秒数
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, nowNanos);
+            
+            if (tokens < 1) {
+                // 记录补充后的令牌数和访问时间，但不消耗令牌
+                State refilled = new State(tokens, Math.max(current.timestampNanos, nowNanos));
+                state.compareAndSet(current, refilled);
+                return (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            
+            State next = new State(tokens - 1, Math.max(current.timestampNanos, nowNanos));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * 获取最后访问时间
+     * 
+     * @return 最后访问时间（纳秒）
+     */
+    public long getLastAccessNanos() {
+        return state.get().timestampNanos;
+    }
+    
+    /**
+     * 计算补充后的令牌数
+     */
+    private double refill(State current, long nowNanos) {
+        long elapsed = nowNanos - current.timestampNanos;
+        if (elapsed <= 0) {
+            return current.tokens;
+        }
+        return Math.min(capacity, current.tokens + elapsed * refillPerNano);
+    }
+    
+    /**
+     * 令牌桶状态
+     */
+    private static final class State {
+        final double tokens;
+        final long timestampNanos;
+        
+        State(double tokens, long timestampNanos) {
+            this.tokens = tokens;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+}
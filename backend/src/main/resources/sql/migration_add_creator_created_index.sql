@@ -0,0 +1,10 @@
+-- 数据库迁移脚本：添加创建者+创建时间索引
+-- 按创建者和时间范围导出转账项时，先按该索引定位任务，再按 idx_task_id 读取转账项
+
+USE batch_transfer;
+
+ALTER TABLE batch_transfer_task 
+ADD INDEX idx_creator_created (creator_address, created_at);
+
+-- 验证索引
+SHOW INDEX FROM batch_transfer_task WHERE Key_name = 'idx_creator_created';
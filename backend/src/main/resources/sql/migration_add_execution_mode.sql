@@ -0,0 +1,20 @@
+-- 数据库迁移脚本：添加任务执行方式字段
+-- SERVER 方式的任务由服务端执行器按 idx_mode_status 领取并用热钱包签名提交，已有任务均为浏览器钱包执行
+
+USE batch_transfer;
+
+ALTER TABLE batch_transfer_task 
+ADD COLUMN execution_mode ENUM('WALLET', 'SERVER') NOT NULL DEFAULT 'WALLET' COMMENT '执行方式：WALLET浏览器钱包执行，SERVER服务端执行器执行' AFTER execution_token,
+ADD INDEX idx_mode_status (execution_mode, status, id);
+
+-- 验证表结构
+SELECT 
+    COLUMN_NAME,
+    DATA_TYPE,
+    IS_NULLABLE,
+    COLUMN_DEFAULT,
+    COLUMN_COMMENT
+FROM INFORMATION_SCHEMA.COLUMNS 
+WHERE TABLE_SCHEMA = 'batch_transfer' 
+    AND TABLE_NAME = 'batch_transfer_task'
+    AND COLUMN_NAME = 'execution_mode';
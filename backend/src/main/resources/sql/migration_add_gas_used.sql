@@ -0,0 +1,19 @@
+-- 数据库迁移脚本：添加任务实际消耗Gas字段
+-- 区块链监听按交易收据写入，分块规划按最近完成任务的实际Gas拟合每个接收者的Gas；已有任务为NULL，不参与拟合
+
+USE batch_transfer;
+
+ALTER TABLE batch_transfer_task 
+ADD COLUMN gas_used BIGINT NULL COMMENT '交易实际消耗的Gas（来自交易收据）' AFTER execution_started_at;
+
+-- 验证表结构
+SELECT 
+    COLUMN_NAME,
+    DATA_TYPE,
+    IS_NULLABLE,
+    COLUMN_DEFAULT,
+    COLUMN_COMMENT
+FROM INFORMATION_SCHEMA.COLUMNS 
+WHERE TABLE_SCHEMA = 'batch_transfer' 
+    AND TABLE_NAME = 'batch_transfer_task'
+    AND COLUMN_NAME = 'gas_used';
@@ -0,0 +1,21 @@
+-- 数据库迁移脚本：添加交易nonce预留表
+-- 服务端执行器签名交易后记录nonce和已签名交易，进程重启或交易被丢弃时据此重新广播或填补nonce空缺
+
+USE batch_transfer;
+
+CREATE TABLE IF NOT EXISTS tx_nonce_reservation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '记录ID',
+    sender_address VARCHAR(42) NOT NULL COMMENT '发送方钱包地址（小写）',
+    nonce BIGINT NOT NULL COMMENT 'nonce',
+    task_id BIGINT NULL COMMENT '关联任务ID，填补空缺的交易为空',
+    tx_hash VARCHAR(66) NULL COMMENT '交易哈希',
+    raw_transaction MEDIUMTEXT NULL COMMENT '已签名交易（十六进制），交易被丢弃或进程重启后重新广播',
+    status ENUM('SIGNED', 'SENT', 'RELEASED') NOT NULL COMMENT '预留状态',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_sender_nonce (sender_address, nonce),
+    INDEX idx_tx_hash (tx_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='交易nonce预留表';
+
+-- 验证表结构
+SHOW CREATE TABLE tx_nonce_reservation;
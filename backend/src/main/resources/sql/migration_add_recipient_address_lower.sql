@@ -0,0 +1,14 @@
+-- 数据库迁移脚本：添加小写接收地址列及索引
+-- 接收地址按客户端提交的大小写保存，按地址查询转账记录时使用小写的生成列，
+-- 虚拟列不占存储，添加列不重建表，索引在线创建
+
+USE batch_transfer;
+
+ALTER TABLE batch_transfer_item 
+ADD COLUMN recipient_address_lower VARCHAR(42) AS (LOWER(recipient_address)) VIRTUAL COMMENT '接收地址（小写），按地址查询使用' AFTER created_at;
+
+ALTER TABLE batch_transfer_item 
+ADD INDEX idx_recipient_lower (recipient_address_lower, id);
+
+-- 验证索引
+SHOW INDEX FROM batch_transfer_item WHERE Key_name = 'idx_recipient_lower';
@@ -0,0 +1,21 @@
+-- 数据库迁移脚本：添加替换交易记录表
+-- 服务端执行器对长时间未打包的交易以相同nonce、更高费用发送替换交易，记录原交易和替换交易的哈希
+
+USE batch_transfer;
+
+CREATE TABLE IF NOT EXISTS tx_replacement (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '记录ID',
+    task_id BIGINT NOT NULL COMMENT '任务ID',
+    sender_address VARCHAR(42) NOT NULL COMMENT '发送方钱包地址（小写）',
+    nonce BIGINT NOT NULL COMMENT 'nonce',
+    tx_hash VARCHAR(66) NOT NULL COMMENT '替换交易哈希',
+    replaced_tx_hash VARCHAR(66) NOT NULL COMMENT '被替换的交易哈希',
+    max_fee_per_gas BIGINT NOT NULL COMMENT '替换交易的最高费用（wei）',
+    max_priority_fee_per_gas BIGINT NOT NULL COMMENT '替换交易的优先费（wei）',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_task_id (task_id),
+    INDEX idx_tx_hash (tx_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='替换交易记录表';
+
+-- 验证表结构
+SHOW CREATE TABLE tx_replacement;
@@ -0,0 +1,20 @@
+-- 数据库迁移脚本：添加任务版本号字段
+-- 状态变更改为按状态前置条件的条件更新（CAS），版本号在每次更新时自增
+
+USE batch_transfer;
+
+-- 为 batch_transfer_task 表添加版本号字段
+ALTER TABLE batch_transfer_task 
+ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT '版本号，每次更新自增' AFTER updated_at;
+
+-- 验证表结构
+SELECT 
+    COLUMN_NAME,
+    DATA_TYPE,
+    IS_NULLABLE,
+    COLUMN_DEFAULT,
+    COLUMN_COMMENT
+FROM INFORMATION_SCHEMA.COLUMNS 
+WHERE TABLE_SCHEMA = 'batch_transfer' 
+    AND TABLE_NAME = 'batch_transfer_task'
+    AND COLUMN_NAME = 'version';
@@ -0,0 +1,15 @@
+-- 数据库迁移脚本：添加发送钱包租约表
+-- 同一热钱包同一时间只由一个服务端执行器实例签名提交，实例定期续期租约，停止续期后由其他实例接管
+
+USE batch_transfer;
+
+CREATE TABLE IF NOT EXISTS executor_wallet_lease (
+    sender_address VARCHAR(42) PRIMARY KEY COMMENT '发送方钱包地址（小写）',
+    owner_id VARCHAR(128) NOT NULL COMMENT '持有租约的执行器实例',
+    expires_at DATETIME(3) NOT NULL COMMENT '租约到期时间',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='发送钱包租约表';
+
+-- 验证表结构
+SHOW CREATE TABLE executor_wallet_lease;
@@ -20,9 +20,12 @@ CREATE TABLE IF NOT EXISTS batch_transfer_task (
     error_message TEXT NULL COMMENT '错误信息',
     creator_address VARCHAR(42) NOT NULL COMMENT '创建者钱包地址',
     execution_token VARCHAR(64) NULL UNIQUE COMMENT '执行令牌，防止重复执行',
+    execution_mode ENUM('WALLET', 'SERVER') NOT NULL DEFAULT 'WALLET' COMMENT '执行方式：WALLET浏览器钱包执行，SERVER服务端执行器执行',
     execution_started_at TIMESTAMP NULL COMMENT '执行开始时间',
+    gas_used BIGINT NULL COMMENT '交易实际消耗的Gas（来自交易收据）',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    version INT NOT NULL DEFAULT 0 COMMENT '版本号，每次更新自增',
     
     INDEX idx_status (status),
     INDEX idx_created_at (created_at),
@@ -30,7 +33,9 @@ CREATE TABLE IF NOT EXISTS batch_transfer_task (
     INDEX idx_status_created (status, created_at),
     INDEX idx_creator_address (creator_address),
     INDEX idx_creator_status (creator_address, status),
+    INDEX idx_creator_created (creator_address, created_at),
     INDEX idx_execution_token (execution_token),
+    INDEX idx_mode_status (execution_mode, status, id),
     INDEX idx_execution_started (execution_started_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='批量转账任务表';
 
@@ -43,9 +48,50 @@ CREATE TABLE IF NOT EXISTS batch_transfer_item (
     status ENUM('PENDING', 'SUCCESS', 'FAILED') NOT NULL DEFAULT 'PENDING' COMMENT '项状态',
     tx_hash VARCHAR(66) COMMENT '交易哈希（与任务共享）',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    recipient_address_lower VARCHAR(42) AS (LOWER(recipient_address)) VIRTUAL COMMENT '接收地址（小写），按地址查询使用',
     INDEX idx_task_id (task_id),
     INDEX idx_recipient_address (recipient_address),
+    INDEX idx_recipient_lower (recipient_address_lower, id),
     INDEX idx_status (status),
     INDEX idx_task_status (task_id, status),
     INDEX idx_tx_hash (tx_hash)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='批量转账项表';
+
+-- 创建交易nonce预留表（服务端执行器）
+CREATE TABLE IF NOT EXISTS tx_nonce_reservation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '记录ID',
+    sender_address VARCHAR(42) NOT NULL COMMENT '发送方钱包地址（小写）',
+    nonce BIGINT NOT NULL COMMENT 'nonce',
+    task_id BIGINT NULL COMMENT '关联任务ID，填补空缺的交易为空',
+    tx_hash VARCHAR(66) NULL COMMENT '交易哈希',
+    raw_transaction MEDIUMTEXT NULL COMMENT '已签名交易（十六进制），交易被丢弃或进程重启后重新广播',
+    status ENUM('SIGNED', 'SENT', 'RELEASED') NOT NULL COMMENT '预留状态',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_sender_nonce (sender_address, nonce),
+    INDEX idx_tx_hash (tx_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='交易nonce预留表';
+
+-- 创建替换交易记录表（服务端执行器提高费用重发卡住的交易）
+CREATE TABLE IF NOT EXISTS tx_replacement (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '记录ID',
+    task_id BIGINT NOT NULL COMMENT '任务ID',
+    sender_address VARCHAR(42) NOT NULL COMMENT '发送方钱包地址（小写）',
+    nonce BIGINT NOT NULL COMMENT 'nonce',
+    tx_hash VARCHAR(66) NOT NULL COMMENT '替换交易哈希',
+    replaced_tx_hash VARCHAR(66) NOT NULL COMMENT '被替换的交易哈希',
+    max_fee_per_gas BIGINT NOT NULL COMMENT '替换交易的最高费用（wei）',
+    max_priority_fee_per_gas BIGINT NOT NULL COMMENT '替换交易的优先费（wei）',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_task_id (task_id),
+    INDEX idx_tx_hash (tx_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='替换交易记录表';
+
+-- 创建发送钱包租约表（同一热钱包同一时间只由一个服务端执行器实例使用）
+CREATE TABLE IF NOT EXISTS executor_wallet_lease (
+    sender_address VARCHAR(42) PRIMARY KEY COMMENT '发送方钱包地址（小写）',
+    owner_id VARCHAR(128) NOT NULL COMMENT '持有租约的执行器实例',
+    expires_at DATETIME(3) NOT NULL COMMENT '租约到期时间',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='发送钱包租约表';
@@ -0,0 +1,112 @@
+package com.webthree.batchtransfer.harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按名称汇总的延迟记录器
+ * 保存全部样本，报告时排序计算分位数；压测规模下样本数在十万以内，无需直方图近似
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class LatencyRecorder {
+    
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    
+    /**
+     * 记录一次成功的调用
+     * 
+     * @param name 名称（接口或流程阶段）
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(String name, long nanos) {
+        seriesOf(name).samples.add(nanos);
+    }
+    
+    /**
+     * 记录一次失败的调用
+     * 
+     * @param name 名称
+     */
+    public void recordError(String name) {
+        seriesOf(name).errors.incrementAndGet();
+    }
+    
+    /**
+     * 成功调用次数
+     * 
+     * @param name 名称
+     * @return 成功样本数，未记录过返回0
+     */
+    public int count(String name) {
+        Series current = series.get(name);
+        return current == null ? 0 : current.samples.size();
+    }
+    
+    /**
+     * 清空全部记录（预热结束后调用）
+     */
+    public void reset() {
+        series.clear();
+    }
+    
+    /**
+     * 生成报告
+     * 
+     * @param title 标题
+     * @param elapsedNanos 统计区间总时长，用于计算吞吐量
+     * @return 报告文本
+     */
+    public String report(String title, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        StringBuilder report = new StringBuilder();
+        report.append(title).append('\n');
+        report.append(String.format("%-28s %8s %7s %10s %10s %10s %10s%n",
+                "name", "count", "errors", "p50(ms)", "p99(ms)", "max(ms)", "per sec"));
+        
+        List<String> names = new ArrayList<>(series.keySet());
+        Collections.sort(names);
+        for (String name : names) {
+            Series current = series.get(name);
+            List<Long> samples = new ArrayList<>(current.samples);
+            Collections.sort(samples);
+            report.append(String.format("%-28s %8d %7d %10.2f %10.2f %10.2f %10.1f%n",
+                    name,
+                    samples.size(),
+                    current.errors.get(),
+                    toMillis(percentile(samples, 0.50)),
+                    toMillis(percentile(samples, 0.99)),
+                    toMillis(samples.isEmpty() ? 0 : samples.get(samples.size() - 1)),
+                    samples.size() / elapsedSeconds));
+        }
+        return report.toString();
+    }
+    
+    private Series seriesOf(String name) {
+        return series.computeIfAbsent(name, key -> new Series());
+    }
+    
+    private static long percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+    
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    private static final class Series {
+        final ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+        final AtomicLong errors = new AtomicLong();
+    }
+}
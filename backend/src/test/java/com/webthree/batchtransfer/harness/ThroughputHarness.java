@@ -0,0 +1,295 @@
+package com.webthree.batchtransfer.harness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webthree.batchtransfer.support.StubEthereumRpcServer;
+import com.webthree.batchtransfer.util.JwtUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 端到端吞吐压测
+ * 在H2（MySQL兼容模式）和进程内JSON-RPC桩服务上启动完整的Spring上下文，按配置的并发度通过真实的
+ * 控制器驱动 创建 → 开始执行 → 链上确认 流程，报告每个接口及整个流程的p50/p99延迟和吞吐量。
+ * 报告同时输出到控制台和 target/harness/report-{platform|virtual}.txt。
+ * 
+ * 运行：mvn -Pperf test [-Dharness.concurrency=16 -Dharness.flows=500 ...]
+ * 在Java 21上追加 -Dspring.threads.virtual.enabled=true 即可得到虚拟线程模式的对照报告。
+ * 
+ * 可调参数（系统属性）：
+ * harness.concurrency 并发流程数，harness.flows 计入统计的流程数，harness.warmup-flows 预热流程数，
+ * harness.items 每个任务的转账项数，harness.rpc-latency-ms / harness.rpc-jitter-ms 桩服务延迟，
+ * harness.block-interval-ms 出块间隔，harness.confirmations 交易打包所需区块数，
+ * harness.poll-interval-ms 轮询任务状态的间隔，harness.confirm-timeout-ms 等待确认的超时，
+ * harness.max-error-rate 允许失败的流程比例（默认0，超出时压测失败）
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("harness")
+class ThroughputHarness {
+    
+    private static final String API_PREFIX = "/api/v1/batch-transfer";
+    
+    private static final int CONCURRENCY = Integer.getInteger("harness.concurrency", 16);
+    private static final int FLOWS = Integer.getInteger("harness.flows", 500);
+    private static final int WARMUP_FLOWS = Integer.getInteger("harness.warmup-flows", 50);
+    private static final int ITEMS = Integer.getInteger("harness.items", 20);
+    private static final long RPC_LATENCY_MS = Long.getLong("harness.rpc-latency-ms", 20);
+    private static final long RPC_JITTER_MS = Long.getLong("harness.rpc-jitter-ms", 10);
+    private static final long BLOCK_INTERVAL_MS = Long.getLong("harness.block-interval-ms", 200);
+    private static final int CONFIRMATIONS = Integer.getInteger("harness.confirmations", 1);
+    private static final long POLL_INTERVAL_MS = Long.getLong("harness.poll-interval-ms", 100);
+    private static final long CONFIRM_TIMEOUT_MS = Long.getLong("harness.confirm-timeout-ms", 30000);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("harness.max-error-rate", "0"));
+    
+    /**
+     * 每个流程都会调用的接口，统计区间内成功次数必须大于0
+     */
+    private static final List<String> ENDPOINTS = List.of(
+            "POST /tasks", "PUT /tasks/{id}/status", "GET /tasks", "GET /tasks/{id}");
+    
+    private static StubEthereumRpcServer stubRpcServer;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private Environment environment;
+    
+    @DynamicPropertySource
+    static void stubChain(DynamicPropertyRegistry registry) {
+        stubRpcServer = StubEthereumRpcServer.start()
+                .withLatency(Duration.ofMillis(RPC_LATENCY_MS), Duration.ofMillis(RPC_JITTER_MS))
+                .withAutoReceipts(CONFIRMATIONS, true)
+                .autoMine(Duration.ofMillis(BLOCK_INTERVAL_MS));
+        registry.add("app.blockchain.rpc-url", stubRpcServer::getUrl);
+    }
+    
+    @AfterAll
+    static void stopStubChain() {
+        if (stubRpcServer != null) {
+            stubRpcServer.close();
+        }
+    }
+    
+    @Test
+    void createExecuteConfirm() throws Exception {
+        String mode = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && Runtime.version().feature() >= 21 ? "virtual" : "platform";
+        
+        runFlows(WARMUP_FLOWS);
+        recorder.reset();
+        
+        long start = System.nanoTime();
+        int failed = runFlows(FLOWS);
+        long elapsed = System.nanoTime() - start;
+        
+        String title = String.format("吞吐压测 mode=%s concurrency=%d flows=%d (failed=%d) items=%d rpcLatency=%d±%dms "
+                        + "blockInterval=%dms elapsed=%.1fs flows/s=%.1f",
+                mode, CONCURRENCY, FLOWS, failed, ITEMS, RPC_LATENCY_MS, RPC_JITTER_MS, BLOCK_INTERVAL_MS,
+                elapsed / 1e9, (FLOWS - failed) / (elapsed / 1e9));
+        String report = recorder.report(title, elapsed)
+                + "stub rpc requests: " + stubRpcServer.getRequestCounts() + '\n';
+        
+        System.out.println(report);
+        Path reportFile = Paths.get("target", "harness", "report-" + mode + ".txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+        
+        // 报告写出后再断言，失败的压测同样保留报告用于排查
+        assertThat(failed)
+                .as("失败流程数（允许比例 %.2f%%）", MAX_ERROR_RATE * 100)
+                .isLessThanOrEqualTo((int) Math.floor(FLOWS * MAX_ERROR_RATE));
+        for (String endpoint : ENDPOINTS) {
+            assertThat(recorder.count(endpoint)).as("%s 成功次数", endpoint).isPositive();
+        }
+    }
+    
+    /**
+     * 以固定并发度执行指定数量的流程
+     * 
+     * @return 失败的流程数
+     */
+    private int runFlows(int flows) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(flows);
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                String wallet = randomAddress();
+                String token = jwtUtils.generateToken(wallet);
+                futures.add(workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        if (!runFlow(token)) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        return failed.get();
+    }
+    
+    /**
+     * 执行一次 创建 → 开始执行 → 等待链上确认 流程
+     * 
+     * @return 流程是否在超时前完成
+     */
+    private boolean runFlow(String token) {
+        long flowStart = System.nanoTime();
+        
+        JsonNode created = call("POST /tasks", "POST", API_PREFIX + "/tasks", token, createTaskBody());
+        if (created == null) {
+            recorder.recordError("flow create->confirmed");
+            return false;
+        }
+        long taskId = created.path("data").path("id").asLong();
+        
+        Map<String, Object> executeBody = new HashMap<>();
+        executeBody.put("status", "EXECUTING");
+        executeBody.put("txHash", Numeric.toHexString(randomBytes(32)));
+        long executeStart = System.nanoTime();
+        if (call("PUT /tasks/{id}/status", "PUT", API_PREFIX + "/tasks/" + taskId + "/status", token, executeBody) == null) {
+            recorder.recordError("flow create->confirmed");
+            return false;
+        }
+        
+        call("GET /tasks", "GET", API_PREFIX + "/tasks", token, null);
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONFIRM_TIMEOUT_MS);
+        while (System.nanoTime() < deadline) {
+            JsonNode task = call("GET /tasks/{id}", "GET", API_PREFIX + "/tasks/" + taskId, token, null);
+            String status = task != null ? task.path("data").path("status").asText() : "";
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                long now = System.nanoTime();
+                recorder.record("flow executing->confirmed", now - executeStart);
+                recorder.record("flow create->confirmed", now - flowStart);
+                return true;
+            }
+            sleep(POLL_INTERVAL_MS);
+        }
+        recorder.recordError("flow create->confirmed");
+        return false;
+    }
+    
+    /**
+     * 调用接口并记录延迟，失败返回null
+     */
+    private JsonNode call(String name, String method, String path, String token, Object body) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json");
+            if (body != null) {
+                builder.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+            
+            if (response.statusCode() != 200) {
+                recorder.recordError(name);
+                return null;
+            }
+            recorder.record(name, elapsed);
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            recorder.recordError(name);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recorder.recordError(name);
+            return null;
+        }
+    }
+    
+    private Map<String, Object> createTaskBody() {
+        List<Map<String, Object>> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("address", randomAddress());
+            item.put("amount", "0.01");
+            items.add(item);
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("taskName", "harness-" + random.nextInt(1_000_000));
+        body.put("transferItems", items);
+        return body;
+    }
+    
+    private String randomAddress() {
+        return Numeric.toHexString(randomBytes(20));
+    }
+    
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.webthree.batchtransfer.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * X-Forwarded-For客户端IP解析测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class RateLimitInterceptorTest {
+    
+    @Test
+    void takesEntryAppendedBySingleTrustedProxy() {
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor("6.6.6.6, 203.0.113.7", 1)).isEqualTo("203.0.113.7");
+    }
+    
+    @Test
+    void skipsEntriesAppendedByInnerProxies() {
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor("6.6.6.6, 203.0.113.7, 10.0.0.2", 2))
+                .isEqualTo("203.0.113.7");
+    }
+    
+    @Test
+    void fallsBackToLeftmostEntryWhenHeaderIsShorterThanProxyChain() {
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor("203.0.113.7", 2)).isEqualTo("203.0.113.7");
+    }
+    
+    @Test
+    void keepsIpv6Addresses() {
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor("2001:db8::1", 1)).isEqualTo("2001:db8::1");
+    }
+    
+    @Test
+    void returnsNullWithoutUsableEntry() {
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor(null, 1)).isNull();
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor(" ", 1)).isNull();
+        assertThat(RateLimitInterceptor.clientIpFromForwardedFor("6.6.6.6, ", 1)).isNull();
+    }
+}
@@ -0,0 +1,133 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.dto.CreateTaskRequest;
+import com.webthree.batchtransfer.entity.BatchTransferTask;
+import com.webthree.batchtransfer.mapper.BatchTransferItemMapper;
+import com.webthree.batchtransfer.mapper.BatchTransferTaskMapper;
+import com.webthree.batchtransfer.metrics.TaskMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 服务端执行任务创建权限和额度测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class BatchTransferServiceTest {
+    
+    private static final String CREATOR = "0xf39fd6e51aad88f6f4ce6ab8827279cfffb92266";
+    
+    private static final String RECIPIENT = "0x70997970c51812dc3a010c7d01b50e0d17dc79c8";
+    
+    private BatchTransferTaskMapper taskMapper;
+    
+    private ExecutorProperties properties;
+    
+    private BatchTransferService service;
+    
+    @BeforeEach
+    void setUp() {
+        taskMapper = mock(BatchTransferTaskMapper.class);
+        BatchTransferItemMapper itemMapper = mock(BatchTransferItemMapper.class);
+        properties = new ExecutorProperties();
+        properties.setEnabled(true);
+        properties.setAllowedCreators(List.of(CREATOR.toUpperCase().replace("0X", "0x")));
+        properties.setMaxTaskAmount(new BigDecimal("10"));
+        properties.setMaxOpenTasksPerCreator(2);
+        properties.setMaxOpenAmountPerCreator(new BigDecimal("15"));
+        service = new BatchTransferService(taskMapper, itemMapper, new TaskMetrics(new SimpleMeterRegistry()),
+                mock(TaskChangeNotifier.class), properties);
+        
+        when(taskMapper.insert(any())).thenReturn(1);
+        when(itemMapper.batchInsert(anyList())).thenReturn(1);
+        when(taskMapper.selectOpenServerTasksForUpdate(CREATOR)).thenReturn(Collections.emptyList());
+    }
+    
+    @Test
+    void allowedCreatorCreatesServerTask() {
+        assertThat(service.createTask(serverRequest("5"), CREATOR).getExecutionMode())
+                .isEqualTo(BatchTransferTask.ExecutionMode.SERVER);
+    }
+    
+    @Test
+    void rejectsCreatorNotInAllowlist() {
+        String other = "0x3c44cdddb6a900fa2b585dd299e03d12fa4293bc";
+        
+        assertThatThrownBy(() -> service.createTask(serverRequest("1"), other))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(taskMapper, never()).insert(any());
+    }
+    
+    @Test
+    void emptyAllowlistRejectsEveryone() {
+        properties.setAllowedCreators(Collections.emptyList());
+        
+        assertThatThrownBy(() -> service.createTask(serverRequest("1"), CREATOR))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void rejectsTaskAboveAmountCap() {
+        assertThatThrownBy(() -> service.createTask(serverRequest("10.000001"), CREATOR))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void rejectsWhenOpenTaskCountReached() {
+        when(taskMapper.selectOpenServerTasksForUpdate(CREATOR)).thenReturn(List.of(openTask("1"), openTask("1")));
+        
+        assertThatThrownBy(() -> service.createTask(serverRequest("1"), CREATOR))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(taskMapper, never()).insert(any());
+    }
+    
+    @Test
+    void rejectsWhenOpenAmountWouldExceedCap() {
+        when(taskMapper.selectOpenServerTasksForUpdate(CREATOR)).thenReturn(List.of(openTask("8")));
+        
+        assertThatThrownBy(() -> service.createTask(serverRequest("7.5"), CREATOR))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void walletTasksSkipServerChecks() {
+        properties.setAllowedCreators(Collections.emptyList());
+        CreateTaskRequest request = serverRequest("100");
+        request.setExecutionMode(BatchTransferTask.ExecutionMode.WALLET);
+        
+        assertThat(service.createTask(request, CREATOR).getExecutionMode())
+                .isEqualTo(BatchTransferTask.ExecutionMode.WALLET);
+        verify(taskMapper, never()).selectOpenServerTasksForUpdate(any());
+    }
+    
+    private static CreateTaskRequest serverRequest(String amount) {
+        return new CreateTaskRequest("task",
+                List.of(new CreateTaskRequest.TransferItemDto(RECIPIENT, new BigDecimal(amount))),
+                BatchTransferTask.ExecutionMode.SERVER);
+    }
+    
+    private static BatchTransferTask openTask(String amount) {
+        return BatchTransferTask.builder()
+                .creatorAddress(CREATOR)
+                .totalAmount(new BigDecimal(amount))
+                .status(BatchTransferTask.TaskStatus.PENDING)
+                .executionMode(BatchTransferTask.ExecutionMode.SERVER)
+                .build();
+    }
+}
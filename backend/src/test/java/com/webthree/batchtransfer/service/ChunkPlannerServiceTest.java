@@ -0,0 +1,100 @@
+package com.webthree.batchtransfer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 分块装箱与Gas模型拟合测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class ChunkPlannerServiceTest {
+    
+    private static final ChunkPlannerService.GasModel MODEL =
+            new ChunkPlannerService.GasModel(45_000, 100, 300, 0, null);
+    
+    @Test
+    void packFillsChunksUpToGasCapacity() {
+        List<ChunkPlannerService.Bin> bins = ChunkPlannerService.pack(new boolean[25], MODEL, 1_000, 200);
+        
+        assertThat(bins).extracting(bin -> bin.itemIndexes.size()).containsExactly(10, 10, 5);
+        assertThat(bins).allSatisfy(bin -> assertThat(bin.gas).isLessThanOrEqualTo(1_000));
+    }
+    
+    @Test
+    void packRespectsRecipientLimit() {
+        List<ChunkPlannerService.Bin> bins = ChunkPlannerService.pack(new boolean[10], MODEL, 1_000_000, 4);
+        
+        assertThat(bins).extracting(bin -> bin.itemIndexes.size()).containsExactly(4, 4, 2);
+    }
+    
+    @Test
+    void packPlacesContractsFirstAndFillsRemainingSpace() {
+        boolean[] contract = {true, false, true, false, true, false};
+        
+        List<ChunkPlannerService.Bin> bins = ChunkPlannerService.pack(contract, MODEL, 1_000, 200);
+        
+        assertThat(bins).hasSize(2);
+        assertThat(bins.get(0).itemIndexes).containsExactly(0, 2, 4, 1);
+        assertThat(bins.get(0).contracts).isEqualTo(3);
+        assertThat(bins.get(0).gas).isEqualTo(1_000);
+        assertThat(bins.get(1).itemIndexes).containsExactly(3, 5);
+        assertThat(bins.get(1).contracts).isZero();
+    }
+    
+    @Test
+    void fitRecoversLinearModelWithoutContracts() {
+        List<double[]> samples = new ArrayList<>();
+        for (int recipients = 1; recipients <= 5; recipients++) {
+            samples.add(new double[]{recipients, 0, 45_000 + 32_000.0 * recipients});
+        }
+        
+        ChunkPlannerService.GasModel model = ChunkPlannerService.fit(samples, 50_000);
+        
+        assertThat(model).isNotNull();
+        assertThat(model.baseGas).isCloseTo(45_000, within(1L));
+        assertThat(model.eoaGas).isCloseTo(32_000, within(1L));
+        // 样本中没有合约接收者时使用默认值
+        assertThat(model.contractGas).isEqualTo(50_000);
+        assertThat(model.sampleSize).isEqualTo(5);
+    }
+    
+    @Test
+    void fitRecoversContractRecipientGas() {
+        List<double[]> samples = new ArrayList<>();
+        for (int eoas = 0; eoas <= 4; eoas++) {
+            for (int contracts = 0; contracts <= 2; contracts++) {
+                if (eoas + contracts > 0) {
+                    samples.add(new double[]{eoas, contracts, 50_000 + 30_000.0 * eoas + 60_000.0 * contracts});
+                }
+            }
+        }
+        
+        ChunkPlannerService.GasModel model = ChunkPlannerService.fit(samples, 40_000);
+        
+        assertThat(model).isNotNull();
+        assertThat(model.baseGas).isCloseTo(50_000, within(1L));
+        assertThat(model.eoaGas).isCloseTo(30_000, within(1L));
+        assertThat(model.contractGas).isCloseTo(60_000, within(1L));
+    }
+    
+    @Test
+    void fitRejectsSingularSamples() {
+        List<double[]> samples = List.of(new double[]{3, 0, 141_000}, new double[]{3, 0, 141_500});
+        
+        assertThat(ChunkPlannerService.fit(samples, 50_000)).isNull();
+    }
+    
+    @Test
+    void fitRejectsBaseGasBelowIntrinsicGas() {
+        List<double[]> samples = List.of(new double[]{1, 0, 42_000}, new double[]{2, 0, 74_000});
+        
+        assertThat(ChunkPlannerService.fit(samples, 50_000)).isNull();
+    }
+}
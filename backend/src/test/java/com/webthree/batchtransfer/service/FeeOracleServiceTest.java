@@ -0,0 +1,59 @@
+package com.webthree.batchtransfer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Gas预估模型插值测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class FeeOracleServiceTest {
+    
+    @Test
+    void returnsSampledValueForExactCount() {
+        assertThat(model(1, 60_000L, 10, 330_000L, 50, 1_530_000L).estimate(10)).isEqualTo(330_000);
+    }
+    
+    @Test
+    void interpolatesBetweenNeighbouringSamples() {
+        assertThat(model(1, 60_000L, 10, 330_000L, 50, 1_530_000L).estimate(5)).isEqualTo(180_000);
+    }
+    
+    @Test
+    void roundsInterpolationUp() {
+        assertThat(model(1, 60_000L, 4, 100_000L).estimate(2)).isEqualTo(73_334);
+    }
+    
+    @Test
+    void extrapolatesAboveLargestSample() {
+        assertThat(model(1, 60_000L, 10, 330_000L, 50, 1_530_000L).estimate(100)).isEqualTo(3_030_000);
+    }
+    
+    @Test
+    void extrapolatesBelowSmallestSample() {
+        assertThat(model(10, 330_000L, 50, 1_530_000L).estimate(5)).isEqualTo(180_000);
+    }
+    
+    @Test
+    void scalesProportionallyWithSingleSample() {
+        assertThat(model(10, 300_001L).estimate(3)).isEqualTo(90_001);
+    }
+    
+    @Test
+    void neverEstimatesNegativeGas() {
+        assertThat(model(10, 100L, 20, 1_000_000L).estimate(1)).isZero();
+    }
+    
+    private static FeeOracleService.GasModel model(Object... countAndGas) {
+        TreeMap<Integer, Long> samples = new TreeMap<>();
+        for (int i = 0; i < countAndGas.length; i += 2) {
+            samples.put((Integer) countAndGas[i], (Long) countAndGas[i + 1]);
+        }
+        return new FeeOracleService.GasModel(samples, null);
+    }
+}
@@ -0,0 +1,183 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.entity.NonceReservation;
+import com.webthree.batchtransfer.mapper.NonceReservationMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 交易nonce管理器测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class NonceManagerTest {
+    
+    private static final String SENDER = "0xf39fd6e51aad88f6f4ce6ab8827279cfffb92266";
+    
+    private Web3j web3j;
+    
+    private NonceReservationMapper reservationMapper;
+    
+    private ExecutorProperties properties;
+    
+    private NonceManager nonceManager;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        web3j = mock(Web3j.class, RETURNS_DEEP_STUBS);
+        reservationMapper = mock(NonceReservationMapper.class);
+        properties = new ExecutorProperties();
+        properties.setNonceGapGrace(0);
+        nonceManager = new NonceManager(web3j, reservationMapper, properties);
+        when(reservationMapper.selectMaxNonce(anyString())).thenReturn(null);
+        chainCounts(5, 5);
+    }
+    
+    @Test
+    void reserveSyncsWithChainOnceAndIncrements() throws IOException {
+        assertThat(nonceManager.reserve(SENDER)).isEqualTo(5);
+        assertThat(nonceManager.reserve(SENDER)).isEqualTo(6);
+        assertThat(nonceManager.reserve(SENDER.toUpperCase().replace("0X", "0x"))).isEqualTo(7);
+        
+        verify(web3j, times(1)).ethGetTransactionCount(SENDER, DefaultBlockParameterName.PENDING);
+    }
+    
+    @Test
+    void reserveContinuesAfterPersistedReservations() throws IOException {
+        when(reservationMapper.selectMaxNonce(SENDER)).thenReturn(9L);
+        
+        assertThat(nonceManager.reserve(SENDER)).isEqualTo(10);
+    }
+    
+    @Test
+    void releasingLastNonceRollsBack() throws IOException {
+        nonceManager.reserve(SENDER);
+        long last = nonceManager.reserve(SENDER);
+        
+        nonceManager.release(SENDER, last);
+        
+        verify(reservationMapper).delete(SENDER, 6);
+        assertThat(nonceManager.reserve(SENDER)).isEqualTo(6);
+    }
+    
+    @Test
+    void releasingEarlierNonceLeavesGapUntilTailIsReleased() throws IOException {
+        long first = nonceManager.reserve(SENDER);
+        long second = nonceManager.reserve(SENDER);
+        
+        nonceManager.release(SENDER, first);
+        verify(reservationMapper).insert(any(NonceReservation.class));
+        
+        // 释放最后分配的nonce时，连续的空缺一并回退
+        nonceManager.release(SENDER, second);
+        verify(reservationMapper).delete(SENDER, 6);
+        verify(reservationMapper).delete(SENDER, 5);
+        assertThat(nonceManager.reserve(SENDER)).isEqualTo(5);
+    }
+    
+    @Test
+    void claimGapOnlyForAllocatedIdleNonces() throws IOException {
+        long first = nonceManager.reserve(SENDER);
+        nonceManager.reserve(SENDER);
+        nonceManager.release(SENDER, first);
+        
+        assertThat(nonceManager.claimGap(SENDER, first)).isTrue();
+        assertThat(nonceManager.claimGap(SENDER, 7)).isFalse();
+    }
+    
+    @Test
+    void claimGapSkipsRecentlyUsedNonces() throws IOException {
+        properties.setNonceGapGrace(60_000);
+        long first = nonceManager.reserve(SENDER);
+        nonceManager.reserve(SENDER);
+        nonceManager.release(SENDER, first);
+        
+        assertThat(nonceManager.claimGap(SENDER, first)).isFalse();
+    }
+    
+    @Test
+    void reconcileSplitsRebroadcastsAndGaps() throws IOException {
+        long first = nonceManager.reserve(SENDER);
+        long second = nonceManager.reserve(SENDER);
+        nonceManager.recordSigned(SENDER, second, 1L, "0xhash", "0xraw");
+        nonceManager.release(SENDER, first);
+        
+        NonceReservation signed = NonceReservation.builder()
+                .senderAddress(SENDER)
+                .nonce(second)
+                .taskId(1L)
+                .txHash("0xhash")
+                .rawTransaction("0xraw")
+                .status(NonceReservation.ReservationStatus.SIGNED)
+                .build();
+        NonceReservation released = NonceReservation.builder()
+                .senderAddress(SENDER)
+                .nonce(first)
+                .status(NonceReservation.ReservationStatus.RELEASED)
+                .build();
+        when(reservationMapper.selectBySender(SENDER)).thenReturn(List.of(released, signed));
+        
+        NonceManager.Reconciliation reconciliation = nonceManager.reconcile(SENDER);
+        
+        verify(reservationMapper).deleteBelowNonce(SENDER, 5);
+        assertThat(reconciliation.getGaps()).containsExactly(first);
+        assertThat(reconciliation.getRebroadcasts()).containsExactly(signed);
+    }
+    
+    @Test
+    void recordSignedRefusesNonceHeldByAnotherTransaction() throws IOException {
+        long nonce = nonceManager.reserve(SENDER);
+        when(reservationMapper.insert(any(NonceReservation.class)))
+                .thenThrow(new DuplicateKeyException("uk_sender_nonce"));
+        
+        assertThatThrownBy(() -> nonceManager.recordSigned(SENDER, nonce, 1L, "0xhash", "0xraw"))
+                .isInstanceOf(NonceManager.NonceConflictException.class);
+        
+        // 冲突后重新同步：链上待处理交易数和已落库的最大nonce之后继续分配
+        when(reservationMapper.selectMaxNonce(SENDER)).thenReturn(8L);
+        assertThat(nonceManager.reserve(SENDER)).isEqualTo(9);
+        verify(web3j, times(2)).ethGetTransactionCount(SENDER, DefaultBlockParameterName.PENDING);
+    }
+    
+    @Test
+    void recordReplacementRequiresReplacedTransaction() {
+        when(reservationMapper.replaceTransaction(SENDER, 5, "0xold", "0xnew", "0xraw",
+                NonceReservation.ReservationStatus.SENT)).thenReturn(0);
+        
+        assertThatThrownBy(() -> nonceManager.recordReplacement(SENDER, 5, "0xold", "0xnew", "0xraw"))
+                .isInstanceOf(NonceManager.NonceConflictException.class);
+    }
+    
+    private void chainCounts(long confirmed, long pending) throws IOException {
+        when(web3j.ethGetTransactionCount(anyString(), eq(DefaultBlockParameterName.LATEST)).send())
+                .thenReturn(transactionCount(confirmed));
+        when(web3j.ethGetTransactionCount(anyString(), eq(DefaultBlockParameterName.PENDING)).send())
+                .thenReturn(transactionCount(pending));
+    }
+    
+    private static EthGetTransactionCount transactionCount(long count) {
+        EthGetTransactionCount response = new EthGetTransactionCount();
+        response.setResult("0x" + Long.toHexString(count));
+        return response;
+    }
+}
@@ -0,0 +1,62 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 令牌桶数量上限与回收测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class RateLimitServiceTest {
+    
+    private static final String ROUTE = "auth-login";
+    
+    private RateLimitService rateLimitService;
+    
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Bandwidth bandwidth = new RateLimitProperties.Bandwidth();
+        bandwidth.setCapacity(1);
+        bandwidth.setRefillPerSecond(0.001);
+        RateLimitProperties.RouteLimit route = new RateLimitProperties.RouteLimit();
+        route.setIp(bandwidth);
+        
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(3);
+        properties.getRoutes().put(ROUTE, route);
+        rateLimitService = new RateLimitService(properties);
+    }
+    
+    @Test
+    void newClientsGetTheirOwnBucketsBeyondLimit() {
+        for (int i = 1; i <= 3; i++) {
+            assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0." + i)).isZero();
+        }
+        
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.4")).isZero();
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.5")).isZero();
+        assertThat(rateLimitService.getBucketCount()).isLessThanOrEqualTo(3);
+    }
+    
+    @Test
+    void evictsLeastRecentlyUsedBucket() {
+        for (int i = 1; i <= 3; i++) {
+            rateLimitService.tryAcquireForIp(ROUTE, "10.0.0." + i);
+        }
+        // 10.0.0.2 和 10.0.0.3 再次访问（被拒绝也会刷新访问时间），10.0.0.1 最久未访问
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.2")).isPositive();
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.3")).isPositive();
+        
+        rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.4");
+        
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.2")).isPositive();
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.3")).isPositive();
+        // 10.0.0.1 的令牌桶已被回收，重新获得满桶
+        assertThat(rateLimitService.tryAcquireForIp(ROUTE, "10.0.0.1")).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 卡住交易替换费用计算测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class StuckTransactionServiceTest {
+    
+    private static final BigInteger GWEI = BigInteger.TEN.pow(9);
+    
+    private ExecutorProperties properties;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new ExecutorProperties();
+        properties.setFeeBumpPercent(15);
+        properties.setMaxPriorityFeePerGas(gwei(1.5).longValueExact());
+        properties.setMaxFeePerGas(gwei(200).longValueExact());
+    }
+    
+    @Test
+    void bumpsBothFeesByConfiguredPercent() {
+        StuckTransactionService.ReplacementFees fees = StuckTransactionService.replacementFees(
+                gwei(2), gwei(10), gwei(1), properties);
+        
+        assertThat(fees).isNotNull();
+        assertThat(fees.priorityFee).isEqualTo(gwei(2.3));
+        assertThat(fees.maxFee).isEqualTo(gwei(11.5));
+    }
+    
+    @Test
+    void maxFeeCoversTwiceCurrentBaseFee() {
+        StuckTransactionService.ReplacementFees fees = StuckTransactionService.replacementFees(
+                gwei(1), gwei(3), gwei(20), properties);
+        
+        assertThat(fees).isNotNull();
+        // 优先费不低于配置值，最高费用不低于 2 * 基础费用 + 优先费
+        assertThat(fees.priorityFee).isEqualTo(gwei(1.5));
+        assertThat(fees.maxFee).isEqualTo(gwei(41.5));
+    }
+    
+    @Test
+    void roundsUpToMeetMinimumReplacementBump() {
+        properties.setFeeBumpPercent(10);
+        properties.setMaxPriorityFeePerGas(0);
+        
+        StuckTransactionService.ReplacementFees fees = StuckTransactionService.replacementFees(
+                BigInteger.valueOf(7), BigInteger.valueOf(7), BigInteger.ZERO, properties);
+        
+        assertThat(fees).isNotNull();
+        assertThat(fees.priorityFee).isEqualTo(BigInteger.valueOf(8));
+        assertThat(fees.maxFee).isEqualTo(BigInteger.valueOf(8));
+    }
+    
+    @Test
+    void refusesWhenCapLeavesLessThanMinimumBump() {
+        assertThat(StuckTransactionService.replacementFees(gwei(2), gwei(190), gwei(1), properties)).isNull();
+    }
+    
+    @Test
+    void capsMaxFeeWhenMinimumBumpStillFits() {
+        StuckTransactionService.ReplacementFees fees = StuckTransactionService.replacementFees(
+                gwei(2), gwei(180), gwei(1), properties);
+        
+        assertThat(fees).isNotNull();
+        assertThat(fees.maxFee).isEqualTo(gwei(200));
+    }
+    
+    private static BigInteger gwei(double value) {
+        return BigInteger.valueOf(Math.round(value * 10)).multiply(GWEI).divide(BigInteger.TEN);
+    }
+}
@@ -0,0 +1,110 @@
+package com.webthree.batchtransfer.service;
+
+import com.webthree.batchtransfer.config.ExecutorProperties;
+import com.webthree.batchtransfer.mapper.WalletLeaseMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.web3j.protocol.Web3j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 发送钱包租约测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class WalletLeaseServiceTest {
+    
+    private static final String PRIVATE_KEY = "0xac0974bec39a17e36ba4a6b4d238ff944bacb478cbed5efcae784d7bf4f2ff80";
+    
+    private static final String SENDER = "0xf39fd6e51aad88f6f4ce6ab8827279cfffb92266";
+    
+    private WalletLeaseMapper leaseMapper;
+    
+    private NonceManager nonceManager;
+    
+    private SenderWalletPool walletPool;
+    
+    private WalletLeaseService leaseService;
+    
+    @BeforeEach
+    void setUp() {
+        ExecutorProperties properties = new ExecutorProperties();
+        properties.setEnabled(true);
+        properties.setPrivateKey(PRIVATE_KEY);
+        walletPool = new SenderWalletPool(mock(Web3j.class), properties, new SimpleMeterRegistry());
+        walletPool.init();
+        leaseMapper = mock(WalletLeaseMapper.class);
+        nonceManager = mock(NonceManager.class);
+        leaseService = new WalletLeaseService(leaseMapper, walletPool, nonceManager, properties);
+        leaseService.init();
+    }
+    
+    @Test
+    void walletWithoutLeaseGetsNoSlots() {
+        assertThat(wallet().isLeased()).isFalse();
+        assertThat(walletPool.getAvailableSlots()).isZero();
+    }
+    
+    @Test
+    void acquiringLeaseResyncsNonces() {
+        when(leaseMapper.insert(eq(SENDER), anyString(), any())).thenReturn(1);
+        
+        leaseService.renewLeases();
+        
+        assertThat(wallet().isLeased()).isTrue();
+        assertThat(walletPool.getAvailableSlots()).isPositive();
+        verify(nonceManager).invalidate(SENDER);
+    }
+    
+    @Test
+    void renewingHeldLeaseKeepsNonceState() {
+        when(leaseMapper.insert(eq(SENDER), anyString(), any())).thenReturn(1);
+        leaseService.renewLeases();
+        when(leaseMapper.renew(eq(SENDER), anyString(), any(), any())).thenReturn(1);
+        
+        leaseService.renewLeases();
+        
+        assertThat(wallet().isLeased()).isTrue();
+        verify(leaseMapper).insert(eq(SENDER), anyString(), any());
+        verify(nonceManager).invalidate(SENDER);
+    }
+    
+    @Test
+    void stopsUsingWalletTakenOverByAnotherInstance() {
+        when(leaseMapper.insert(eq(SENDER), anyString(), any())).thenReturn(1);
+        leaseService.renewLeases();
+        when(leaseMapper.insert(eq(SENDER), anyString(), any())).thenThrow(new DuplicateKeyException("PRIMARY"));
+        
+        leaseService.renewLeases();
+        
+        assertThat(wallet().isLeased()).isFalse();
+    }
+    
+    @Test
+    void releasesOnlyHeldLeases() {
+        leaseService.releaseLeases();
+        verify(leaseMapper, never()).delete(anyString(), anyString());
+        
+        when(leaseMapper.insert(eq(SENDER), anyString(), any())).thenReturn(1);
+        leaseService.renewLeases();
+        leaseService.releaseLeases();
+        
+        assertThat(wallet().isLeased()).isFalse();
+        verify(leaseMapper).delete(eq(SENDER), anyString());
+    }
+    
+    private SenderWalletPool.Wallet wallet() {
+        return walletPool.getWallets().get(0);
+    }
+}
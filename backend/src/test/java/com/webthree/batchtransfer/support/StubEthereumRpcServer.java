@@ -0,0 +1,1285 @@
+package com.webthree.batchtransfer.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.utils.Numeric;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 进程内以太坊JSON-RPC桩服务
+ * 基于JDK自带HttpServer，模拟监听流程依赖的节点接口，使区块链监听可以离线压测：
+ * <ul>
+ *     <li>eth_blockNumber、eth_getTransactionReceipt、eth_getLogs、eth_call、eth_chainId、net_version、web3_clientVersion</li>
+ *     <li>交易提交：eth_sendRawTransaction（校验签名和nonce）、eth_getTransactionCount（latest/pending）、
+ *     eth_getTransactionByHash、eth_getBalance、eth_getCode、eth_estimateGas（可按接收者数量递增）、eth_getBlockByNumber（含baseFeePerGas）、
+ *     eth_gasPrice、eth_maxPriorityFeePerGas、eth_feeHistory</li>
+ *     <li>同nonce替换交易（两项费用均提高至少10%），最高费用低于基础费用的交易保持挂起</li>
+ *     <li>交易被交易池丢弃（nonce出现空缺，之后的交易不计入待处理交易数）</li>
+ *     <li>批量请求（JSON数组）</li>
+ *     <li>可编程的响应延迟（全局固定值 + 随机抖动，或按方法单独设置）</li>
+ *     <li>限流错误（HTTP 429 或 JSON-RPC -32005）</li>
+ *     <li>交易先挂起、若干区块后打包；链重组时已打包交易回到挂起状态或被丢弃</li>
+ * </ul>
+ * 其他方法可通过 {@link #handle(String, RpcHandler)} 注册。
+ * 使用时将 app.blockchain.rpc-url 指向 {@link #getUrl()}；也可通过main方法独立启动
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+public class StubEthereumRpcServer implements Closeable {
+    
+    /**
+     * 限流错误码（与Infura一致）
+     */
+    public static final int RATE_LIMIT_ERROR_CODE = -32005;
+    
+    /**
+     * 合约执行回滚错误码
+     */
+    public static final int EXECUTION_REVERTED_ERROR_CODE = 3;
+    
+    /**
+     * 方法不存在错误码
+     */
+    public static final int METHOD_NOT_FOUND_ERROR_CODE = -32601;
+    
+    /**
+     * 交易被拒绝错误码（与geth一致，如nonce过低）
+     */
+    public static final int TRANSACTION_REJECTED_ERROR_CODE = -32000;
+    
+    private static final String ERROR_SELECTOR = "0x08c379a0";
+    
+    private static final long CHAIN_ID = 1337L;
+    
+    private static final String DEFAULT_FROM = "0x90f8bf6a479f320ead074411a4b0e7944ea8c9c1";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final HttpServer server;
+    
+    private final ExecutorService requestExecutor;
+    
+    private ScheduledExecutorService miner;
+    
+    // 链状态只在持锁时修改；用ReentrantLock而非synchronized，避免在虚拟线程上钉住载体线程
+    private final ReentrantLock chainLock = new ReentrantLock();
+    
+    private long blockNumber = 1;
+    
+    private final Map<Long, Integer> blockEpochs = new ConcurrentHashMap<>();
+    
+    private final Map<String, StubTransaction> transactions = new ConcurrentHashMap<>();
+    
+    private final Map<String, RpcHandler> handlers = new ConcurrentHashMap<>();
+    
+    // 发送方地址 -> (nonce -> 交易哈希)，只包含未被丢弃的交易，持锁访问
+    private final Map<String, NavigableMap<Long, String>> accountTransactions = new ConcurrentHashMap<>();
+    
+    private final List<CallStub> callStubs = new CopyOnWriteArrayList<>();
+    
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    
+    private final Map<String, Long> methodLatencyMillis = new ConcurrentHashMap<>();
+    
+    private volatile long latencyMillis;
+    
+    private volatile long jitterMillis;
+    
+    private volatile int rateLimitPerSecond;
+    
+    private volatile RateLimitMode rateLimitMode = RateLimitMode.HTTP_429;
+    
+    private final AtomicLong rateLimitWindow = new AtomicLong();
+    
+    private final AtomicLong rateLimitWindowCount = new AtomicLong();
+    
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    
+    private volatile Integer autoReceiptConfirmations;
+    
+    private volatile boolean autoReceiptSuccess = true;
+    
+    private volatile int rawTransactionConfirmations = 1;
+    
+    private volatile BigInteger baseFeePerGas = BigInteger.valueOf(1_000_000_000L);
+    
+    private volatile BigInteger estimatedGas = BigInteger.valueOf(100_000L);
+    
+    // batchTransfer 调用每个接收者额外的预估Gas
+    private volatile BigInteger estimatedGasPerRecipient = BigInteger.ZERO;
+    
+    private volatile BigInteger priorityFeePerGas = BigInteger.valueOf(1_000_000_000L);
+    
+    // 账户地址 -> 余额（wei），未设置的账户返回默认余额；余额不随交易变化
+    private final Map<String, BigInteger> balances = new ConcurrentHashMap<>();
+    
+    private volatile BigInteger defaultBalance = BigInteger.TEN.pow(22);
+    
+    // 账户地址 -> 合约代码（eth_getCode），未设置的账户视为普通账户返回"0x"
+    private final Map<String, String> codes = new ConcurrentHashMap<>();
+    
+    /**
+     * 在随机端口上启动
+     * 
+     * @return 桩服务
+     */
+    public static StubEthereumRpcServer start() {
+        return start(0);
+    }
+    
+    /**
+     * 在指定端口上启动
+     * 
+     * @param port 端口，0表示随机端口
+     * @return 桩服务
+     */
+    public static StubEthereumRpcServer start(int port) {
+        try {
+            return new StubEthereumRpcServer(port);
+        } catch (IOException e) {
+            throw new IllegalStateException("启动JSON-RPC桩服务失败", e);
+        }
+    }
+    
+    private StubEthereumRpcServer(int port) throws IOException {
+        registerDefaultHandlers();
+        
+        requestExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-rpc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::handleExchange);
+        server.setExecutor(requestExecutor);
+        server.start();
+    }
+    
+    /**
+     * 获取服务地址
+     * 
+     * @return 形如 http://127.0.0.1:port/ 的地址
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+    
+    // ==================== 行为编程 ====================
+    
+    /**
+     * 设置每个HTTP请求的响应延迟
+     * 
+     * @param latency 固定延迟
+     * @param jitter 额外的随机延迟上限
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withLatency(Duration latency, Duration jitter) {
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+        return this;
+    }
+    
+    /**
+     * 为指定方法单独设置延迟，覆盖全局固定延迟
+     * 
+     * @param method RPC方法名
+     * @param latency 延迟
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withMethodLatency(String method, Duration latency) {
+        methodLatencyMillis.put(method, latency.toMillis());
+        return this;
+    }
+    
+    /**
+     * 开启限流，每秒超出限额的HTTP请求返回限流错误
+     * 
+     * @param requestsPerSecond 每秒允许的HTTP请求数，0表示关闭
+     * @param mode 限流错误的返回方式
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withRateLimit(int requestsPerSecond, RateLimitMode mode) {
+        this.rateLimitPerSecond = requestsPerSecond;
+        this.rateLimitMode = mode;
+        return this;
+    }
+    
+    /**
+     * 对未登记的交易哈希自动登记，从首次查询起若干区块后打包
+     * 用于压测：应用上报的任意交易哈希都会在确认若干区块后返回收据
+     * 
+     * @param confirmations 首次查询后经过的区块数，为null时关闭
+     * @param success 打包后交易是否成功
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withAutoReceipts(Integer confirmations, boolean success) {
+        this.autoReceiptConfirmations = confirmations;
+        this.autoReceiptSuccess = success;
+        return this;
+    }
+    
+    /**
+     * 设置通过eth_sendRawTransaction提交的交易在几个区块后打包
+     * 
+     * @param confirmations 提交后经过的区块数
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withRawTransactionConfirmations(int confirmations) {
+        this.rawTransactionConfirmations = confirmations;
+        return this;
+    }
+    
+    /**
+     * 设置区块的基础费用（可在运行中调整以模拟Gas飙升）
+     * 
+     * @param baseFee 基础费用（wei）
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withBaseFee(BigInteger baseFee) {
+        this.baseFeePerGas = baseFee;
+        return this;
+    }
+    
+    /**
+     * 设置账户余额（eth_getBalance）
+     * 
+     * @param address 账户地址
+     * @param balance 余额（wei）
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withBalance(String address, BigInteger balance) {
+        balances.put(normalize(address), balance);
+        return this;
+    }
+    
+    /**
+     * 设置账户代码（eth_getCode），用于把地址模拟为合约
+     * 
+     * @param address 账户地址
+     * @param code 代码（十六进制）
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withCode(String address, String code) {
+        codes.put(normalize(address), code);
+        return this;
+    }
+    
+    /**
+     * 设置未单独设置余额的账户的余额（默认10000 ETH）
+     * 
+     * @param balance 余额（wei）
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withDefaultBalance(BigInteger balance) {
+        this.defaultBalance = balance;
+        return this;
+    }
+    
+    /**
+     * 设置eth_estimateGas的返回值（调用会回滚时仍返回执行回滚错误）
+     * 
+     * @param gas Gas用量
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withEstimatedGas(long gas) {
+        this.estimatedGas = BigInteger.valueOf(gas);
+        return this;
+    }
+    
+    /**
+     * 设置eth_estimateGas的返回值为 基础Gas + 每个接收者的Gas * 接收者数量
+     * 接收者数量取调用数据第一个动态数组参数的长度（batchTransfer 的 recipients）
+     * 
+     * @param baseGas 基础Gas
+     * @param perRecipientGas 每个接收者的Gas
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withEstimatedGas(long baseGas, long perRecipientGas) {
+        this.estimatedGas = BigInteger.valueOf(baseGas);
+        this.estimatedGasPerRecipient = BigInteger.valueOf(perRecipientGas);
+        return this;
+    }
+    
+    /**
+     * 设置eth_maxPriorityFeePerGas的返回值，eth_feeHistory各百分位的优先费按其缩放
+     * 
+     * @param priorityFee 优先费（wei）
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer withPriorityFee(BigInteger priorityFee) {
+        this.priorityFeePerGas = priorityFee;
+        return this;
+    }
+    
+    /**
+     * 按固定间隔自动出块
+     * 
+     * @param interval 出块间隔
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer autoMine(Duration interval) {
+        chainLock.lock();
+        try {
+            if (miner == null) {
+                miner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "stub-rpc-miner");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                miner.scheduleAtFixedRate(() -> mineBlocks(1), interval.toMillis(), interval.toMillis(),
+                        TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            chainLock.unlock();
+        }
+        return this;
+    }
+    
+    /**
+     * 注册或覆盖RPC方法的处理器
+     * 
+     * @param method RPC方法名
+     * @param handler 处理器
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer handle(String method, RpcHandler handler) {
+        handlers.put(method, handler);
+        return this;
+    }
+    
+    /**
+     * 为eth_call设置返回值，按目标地址和调用数据前缀（通常是函数选择器）匹配，先设置的优先
+     * 
+     * @param to 合约地址
+     * @param dataPrefix 调用数据前缀，0x开头
+     * @param result 返回数据
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer whenCall(String to, String dataPrefix, String result) {
+        callStubs.add(new CallStub(to, dataPrefix, result, null));
+        return this;
+    }
+    
+    /**
+     * 设置eth_call回滚，返回带 Error(string) 编码原因的执行回滚错误
+     * 
+     * @param to 合约地址
+     * @param dataPrefix 调用数据前缀，0x开头
+     * @param reason 回滚原因
+     * @return 当前实例
+     */
+    public StubEthereumRpcServer whenCallReverts(String to, String dataPrefix, String reason) {
+        callStubs.add(new CallStub(to, dataPrefix, null, reason));
+        return this;
+    }
+    
+    // ==================== 链状态 ====================
+    
+    /**
+     * 登记一笔交易，在当前区块之后若干区块打包
+     * 
+     * @param txHash 交易哈希
+     * @param success 交易是否成功
+     * @param blocksUntilMined 再出多少个块后打包，0表示当前区块已打包
+     */
+    public void submitTransaction(String txHash, boolean success, int blocksUntilMined) {
+        chainLock.lock();
+        try {
+            StubTransaction transaction = new StubTransaction(normalize(txHash), success);
+            if (blocksUntilMined <= 0) {
+                transaction.includedBlock = blockNumber;
+            } else {
+                transaction.readyAtBlock = blockNumber + blocksUntilMined;
+            }
+            transactions.put(transaction.hash, transaction);
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    /**
+     * 为交易添加事件日志，交易打包后可通过收据和eth_getLogs查询
+     * 
+     * @param txHash 交易哈希
+     * @param address 合约地址
+     * @param topics 主题列表
+     * @param data 日志数据
+     */
+    public void addLog(String txHash, String address, List<String> topics, String data) {
+        StubTransaction transaction = transactions.get(normalize(txHash));
+        if (transaction == null) {
+            throw new IllegalArgumentException("交易未登记: " + txHash);
+        }
+        transaction.logs.add(new StubLog(normalize(address), topics, data));
+    }
+    
+    /**
+     * 出块，并打包到期的挂起交易
+     * 通过eth_sendRawTransaction提交、最高费用低于当前基础费用的交易保持挂起，直到基础费用回落或被替换
+     * 
+     * @param count 出块数
+     * @return 最新区块高度
+     */
+    public long mineBlocks(int count) {
+        chainLock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                blockNumber++;
+                for (StubTransaction transaction : transactions.values()) {
+                    if (transaction.includedBlock == null && !transaction.dropped
+                            && transaction.readyAtBlock <= blockNumber && !isUnderpriced(transaction)) {
+                        transaction.includedBlock = blockNumber;
+                    }
+                }
+            }
+            return blockNumber;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    /**
+     * 模拟链重组：最近depth个区块被替换（区块哈希改变），其中的交易回到挂起状态，
+     * 下一个区块重新打包；dropTransactions为true时这些交易被丢弃，不再返回收据
+     * 
+     * @param depth 重组深度
+     * @param dropTransactions 是否丢弃被重组的交易
+     * @return 受影响的交易数
+     */
+    public int reorg(int depth, boolean dropTransactions) {
+        chainLock.lock();
+        try {
+            long forkPoint = blockNumber - depth;
+            for (long height = forkPoint + 1; height <= blockNumber; height++) {
+                blockEpochs.merge(height, 1, Integer::sum);
+            }
+            
+            int affected = 0;
+            for (StubTransaction transaction : transactions.values()) {
+                if (transaction.includedBlock != null && transaction.includedBlock > forkPoint) {
+                    transaction.includedBlock = null;
+                    transaction.readyAtBlock = blockNumber + 1;
+                    transaction.dropped = dropTransactions;
+                    if (dropTransactions) {
+                        forgetNonce(transaction);
+                    }
+                    affected++;
+                }
+            }
+            return affected;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    /**
+     * 获取当前区块高度
+     * 
+     * @return 区块高度
+     */
+    public long getBlockNumber() {
+        chainLock.lock();
+        try {
+            return blockNumber;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    /**
+     * 交易的最高费用是否低于当前基础费用（持锁调用）
+     */
+    private boolean isUnderpriced(StubTransaction transaction) {
+        return transaction.maxFeePerGas != null && transaction.maxFeePerGas.compareTo(baseFeePerGas) < 0;
+    }
+    
+    /**
+     * 模拟交易被交易池丢弃：交易不再返回收据，发送方的nonce出现空缺
+     * 
+     * @param txHash 交易哈希
+     */
+    public void dropTransaction(String txHash) {
+        chainLock.lock();
+        try {
+            StubTransaction transaction = transactions.get(normalize(txHash));
+            if (transaction == null) {
+                throw new IllegalArgumentException("交易未登记: " + txHash);
+            }
+            transaction.dropped = true;
+            transaction.includedBlock = null;
+            forgetNonce(transaction);
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    /**
+     * 被丢弃的交易释放其nonce（持锁调用）
+     */
+    private void forgetNonce(StubTransaction transaction) {
+        NavigableMap<Long, String> sent = transaction.from != null ? accountTransactions.get(transaction.from) : null;
+        if (sent != null) {
+            sent.remove(transaction.nonce, transaction.hash);
+        }
+    }
+    
+    /**
+     * 获取账户的待处理交易数（从0开始连续的、未被丢弃的交易数，即下一个可用nonce）
+     * 
+     * @param address 账户地址
+     * @return 交易数
+     */
+    public long getTransactionCount(String address) {
+        return getTransactionCount(address, false);
+    }
+    
+    /**
+     * 获取账户的交易数
+     * 
+     * @param address 账户地址
+     * @param minedOnly 为true时只统计已打包的交易（latest），否则包含挂起交易（pending）
+     * @return 从0开始连续的交易数
+     */
+    public long getTransactionCount(String address, boolean minedOnly) {
+        chainLock.lock();
+        try {
+            NavigableMap<Long, String> sent = accountTransactions.get(normalize(address));
+            if (sent == null) {
+                return 0;
+            }
+            long count = 0;
+            while (sent.containsKey(count)
+                    && (!minedOnly || transactions.get(sent.get(count)).includedBlock != null)) {
+                count++;
+            }
+            return count;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    // ==================== 统计 ====================
+    
+    /**
+     * 获取指定方法收到的调用次数（批量请求中的每个调用分别计数）
+     * 
+     * @param method RPC方法名
+     * @return 调用次数
+     */
+    public long getRequestCount(String method) {
+        AtomicLong count = requestCounts.get(method);
+        return count != null ? count.get() : 0;
+    }
+    
+    /**
+     * 获取各方法的调用次数
+     * 
+     * @return 方法名 -> 调用次数
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        requestCounts.forEach((method, count) -> counts.put(method, count.get()));
+        return counts;
+    }
+    
+    /**
+     * 获取被限流的HTTP请求数
+     * 
+     * @return 被限流的请求数
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+    
+    @Override
+    public void close() {
+        if (miner != null) {
+            miner.shutdownNow();
+        }
+        server.stop(0);
+        requestExecutor.shutdownNow();
+    }
+    
+    // ==================== 请求处理 ====================
+    
+    private void handleExchange(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonNode request = objectMapper.readTree(body);
+            
+            if (isRateLimited()) {
+                rateLimitedCount.incrementAndGet();
+                if (rateLimitMode == RateLimitMode.HTTP_429) {
+                    writeResponse(exchange, 429, errorResponse(null, RATE_LIMIT_ERROR_CODE, "rate limit exceeded", null));
+                    return;
+                }
+                writeResponse(exchange, 200, mapRequests(request,
+                        call -> errorResponse(call.get("id"), RATE_LIMIT_ERROR_CODE, "rate limit exceeded", null)));
+                return;
+            }
+            
+            sleep(resolveLatency(request));
+            writeResponse(exchange, 200, mapRequests(request, this::dispatch));
+        } catch (Exception e) {
+            writeResponse(exchange, 500, errorResponse(null, -32603, "internal error: " + e.getMessage(), null));
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * 单个请求直接处理，批量请求逐个处理后按原顺序返回数组
+     */
+    private JsonNode mapRequests(JsonNode request, Function<JsonNode, JsonNode> mapper) {
+        if (!request.isArray()) {
+            return mapper.apply(request);
+        }
+        ArrayNode responses = objectMapper.createArrayNode();
+        for (JsonNode call : request) {
+            responses.add(mapper.apply(call));
+        }
+        return responses;
+    }
+    
+    private JsonNode dispatch(JsonNode call) {
+        String method = call.path("method").asText();
+        requestCounts.computeIfAbsent(method, key -> new AtomicLong()).incrementAndGet();
+        
+        RpcHandler handler = handlers.get(method);
+        if (handler == null) {
+            return errorResponse(call.get("id"), METHOD_NOT_FOUND_ERROR_CODE,
+                    "the method " + method + " does not exist/is not available", null);
+        }
+        
+        try {
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("jsonrpc", "2.0");
+            response.set("id", call.get("id"));
+            response.set("result", objectMapper.valueToTree(handler.handle(call.path("params"))));
+            return response;
+        } catch (RpcException e) {
+            return errorResponse(call.get("id"), e.getCode(), e.getMessage(), e.getData());
+        }
+    }
+    
+    private boolean isRateLimited() {
+        int limit = rateLimitPerSecond;
+        if (limit <= 0) {
+            return false;
+        }
+        long window = System.currentTimeMillis() / 1000;
+        long current = rateLimitWindow.get();
+        if (current != window && rateLimitWindow.compareAndSet(current, window)) {
+            rateLimitWindowCount.set(0);
+        }
+        return rateLimitWindowCount.incrementAndGet() > limit;
+    }
+    
+    private long resolveLatency(JsonNode request) {
+        long latency = latencyMillis;
+        JsonNode first = request.isArray() && request.size() > 0 ? request.get(0) : request;
+        Long methodLatency = methodLatencyMillis.get(first.path("method").asText());
+        if (methodLatency != null) {
+            latency = methodLatency;
+        }
+        long jitter = jitterMillis;
+        return jitter > 0 ? latency + ThreadLocalRandom.current().nextLong(jitter + 1) : latency;
+    }
+    
+    private void writeResponse(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+    
+    private ObjectNode errorResponse(JsonNode id, int code, String message, String data) {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("code", code);
+        error.put("message", message);
+        if (data != null) {
+            error.put("data", data);
+        }
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        response.set("error", error);
+        return response;
+    }
+    
+    // ==================== 内置方法 ====================
+    
+    private void registerDefaultHandlers() {
+        handlers.put("web3_clientVersion", params -> "StubEthereumRpcServer/1.0.0");
+        handlers.put("net_version", params -> String.valueOf(CHAIN_ID));
+        handlers.put("eth_chainId", params -> Numeric.encodeQuantity(BigInteger.valueOf(CHAIN_ID)));
+        handlers.put("eth_blockNumber", params -> Numeric.encodeQuantity(BigInteger.valueOf(getBlockNumber())));
+        handlers.put("eth_getTransactionReceipt", params -> transactionReceipt(params.path(0).asText()));
+        handlers.put("eth_getLogs", params -> logs(params.path(0)));
+        handlers.put("eth_call", params -> call(params.path(0)));
+        handlers.put("eth_estimateGas", params -> estimateGas(params.path(0)));
+        handlers.put("eth_getTransactionCount", params -> Numeric.encodeQuantity(BigInteger.valueOf(
+                getTransactionCount(params.path(0).asText(), "latest".equals(params.path(1).asText("latest"))))));
+        handlers.put("eth_getBalance", params -> Numeric.encodeQuantity(
+                balances.getOrDefault(normalize(params.path(0).asText()), defaultBalance)));
+        handlers.put("eth_getCode", params -> codes.getOrDefault(normalize(params.path(0).asText()), "0x"));
+        handlers.put("eth_getTransactionByHash", params -> transactionByHash(params.path(0).asText()));
+        handlers.put("eth_sendRawTransaction", params -> sendRawTransaction(params.path(0).asText()));
+        handlers.put("eth_getBlockByNumber", params -> block(params.path(0)));
+        handlers.put("eth_gasPrice", params -> Numeric.encodeQuantity(baseFeePerGas.add(BigInteger.valueOf(1_000_000_000L))));
+        handlers.put("eth_maxPriorityFeePerGas", params -> Numeric.encodeQuantity(priorityFeePerGas));
+        handlers.put("eth_feeHistory", params -> feeHistory(params.path(0), params.path(1), params.path(2)));
+    }
+    
+    private Object transactionReceipt(String txHash) {
+        String hash = normalize(txHash);
+        chainLock.lock();
+        try {
+            StubTransaction transaction = transactions.get(hash);
+            if (transaction == null) {
+                Integer confirmations = autoReceiptConfirmations;
+                if (confirmations == null) {
+                    return null;
+                }
+                submitTransaction(hash, autoReceiptSuccess, confirmations);
+                transaction = transactions.get(hash);
+            }
+            
+            if (transaction.includedBlock == null) {
+                return null;
+            }
+            return receipt(transaction, transaction.includedBlock);
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    private ObjectNode receipt(StubTransaction transaction, long height) {
+        String blockHash = blockHash(height);
+        ObjectNode receipt = objectMapper.createObjectNode();
+        receipt.put("transactionHash", transaction.hash);
+        receipt.put("transactionIndex", "0x0");
+        receipt.put("blockHash", blockHash);
+        receipt.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(height)));
+        receipt.put("from", transaction.from != null ? transaction.from : DEFAULT_FROM);
+        receipt.putNull("to");
+        receipt.put("cumulativeGasUsed", Numeric.encodeQuantity(transaction.gasUsed));
+        receipt.put("gasUsed", Numeric.encodeQuantity(transaction.gasUsed));
+        receipt.put("effectiveGasPrice", Numeric.encodeQuantity(BigInteger.valueOf(1_000_000_000L)));
+        receipt.putNull("contractAddress");
+        receipt.put("logsBloom", "0x" + "0".repeat(512));
+        receipt.put("status", transaction.success ? "0x1" : "0x0");
+        receipt.put("type", "0x2");
+        
+        ArrayNode logs = receipt.putArray("logs");
+        for (int i = 0; i < transaction.logs.size(); i++) {
+            logs.add(logEntry(transaction, transaction.logs.get(i), i, height, blockHash));
+        }
+        return receipt;
+    }
+    
+    private ArrayNode logs(JsonNode filter) {
+        chainLock.lock();
+        try {
+            long fromBlock = parseBlock(filter.path("fromBlock"), blockNumber);
+            long toBlock = parseBlock(filter.path("toBlock"), blockNumber);
+            List<String> addresses = textValues(filter.path("address"));
+            List<String> topic0 = textValues(filter.path("topics").path(0));
+            
+            List<StubTransaction> included = new ArrayList<>();
+            for (StubTransaction transaction : transactions.values()) {
+                Long height = transaction.includedBlock;
+                if (height != null && height >= fromBlock && height <= toBlock) {
+                    included.add(transaction);
+                }
+            }
+            included.sort((a, b) -> Long.compare(a.includedBlock, b.includedBlock));
+            
+            ArrayNode result = objectMapper.createArrayNode();
+            for (StubTransaction transaction : included) {
+                String blockHash = blockHash(transaction.includedBlock);
+                for (int i = 0; i < transaction.logs.size(); i++) {
+                    StubLog log = transaction.logs.get(i);
+                    if (!addresses.isEmpty() && !addresses.contains(log.address)) {
+                        continue;
+                    }
+                    if (!topic0.isEmpty() && (log.topics.isEmpty() || !topic0.contains(normalize(log.topics.get(0))))) {
+                        continue;
+                    }
+                    result.add(logEntry(transaction, log, i, transaction.includedBlock, blockHash));
+                }
+            }
+            return result;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    private ObjectNode logEntry(StubTransaction transaction, StubLog log, int logIndex, long height, String blockHash) {
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("address", log.address);
+        ArrayNode topics = entry.putArray("topics");
+        log.topics.forEach(topics::add);
+        entry.put("data", log.data);
+        entry.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(height)));
+        entry.put("blockHash", blockHash);
+        entry.put("transactionHash", transaction.hash);
+        entry.put("transactionIndex", "0x0");
+        entry.put("logIndex", Numeric.encodeQuantity(BigInteger.valueOf(logIndex)));
+        entry.put("removed", false);
+        return entry;
+    }
+    
+    private String call(JsonNode transaction) throws RpcException {
+        CallStub stub = matchCallStub(transaction.path("to").asText(), callData(transaction));
+        if (stub == null) {
+            return "0x";
+        }
+        if (stub.revertReason != null) {
+            throw revertError(stub.revertReason);
+        }
+        return stub.result;
+    }
+    
+    /**
+     * 预估Gas：按eth_call桩判断是否回滚，否则返回设置的Gas用量
+     */
+    private String estimateGas(JsonNode transaction) throws RpcException {
+        CallStub stub = matchCallStub(transaction.path("to").asText(), callData(transaction));
+        if (stub != null && stub.revertReason != null) {
+            throw revertError(stub.revertReason);
+        }
+        BigInteger recipients = BigInteger.valueOf(firstArrayLength(callData(transaction)));
+        return Numeric.encodeQuantity(estimatedGas.add(estimatedGasPerRecipient.multiply(recipients)));
+    }
+    
+    /**
+     * 调用数据中第一个动态数组参数的长度，无法解析时为0
+     */
+    private static long firstArrayLength(String data) {
+        try {
+            String hex = Numeric.cleanHexPrefix(data);
+            int offset = new BigInteger(hex.substring(8, 72), 16).intValueExact() * 2 + 8;
+            return new BigInteger(hex.substring(offset, offset + 64), 16).longValueExact();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * 费用历史：各区块基础费用均为当前值，使用率50%，百分位p的优先费为 优先费 * (50 + p) / 100
+     */
+    private ObjectNode feeHistory(JsonNode blockCountParam, JsonNode newestBlockParam, JsonNode percentiles) {
+        long newest = parseBlock(newestBlockParam, getBlockNumber());
+        long blockCount = Math.min(blockCountParam.isTextual()
+                ? Numeric.decodeQuantity(blockCountParam.asText()).longValueExact() : blockCountParam.asLong(), newest + 1);
+        String baseFee = Numeric.encodeQuantity(baseFeePerGas);
+        
+        ObjectNode history = objectMapper.createObjectNode();
+        history.put("oldestBlock", Numeric.encodeQuantity(BigInteger.valueOf(newest - blockCount + 1)));
+        ArrayNode baseFees = history.putArray("baseFeePerGas");
+        ArrayNode gasUsedRatios = history.putArray("gasUsedRatio");
+        ArrayNode rewards = history.putArray("reward");
+        for (long i = 0; i < blockCount; i++) {
+            baseFees.add(baseFee);
+            gasUsedRatios.add(0.5);
+            ArrayNode reward = rewards.addArray();
+            for (JsonNode percentile : percentiles) {
+                reward.add(Numeric.encodeQuantity(priorityFeePerGas
+                        .multiply(BigInteger.valueOf(50 + percentile.asLong()))
+                        .divide(BigInteger.valueOf(100))));
+            }
+        }
+        baseFees.add(baseFee);
+        return history;
+    }
+    
+    /**
+     * 接收签名交易：恢复发送方并校验nonce，通过后登记为挂起交易，若干区块后打包。
+     * 按eth_call桩会回滚的交易打包后状态为失败；收据中的gasUsed与eth_estimateGas的结果相同；
+     * 不模拟排队，nonce超过待处理交易数的交易直接拒绝
+     */
+    private String sendRawTransaction(String signedTransaction) throws RpcException {
+        RawTransaction transaction;
+        String from;
+        try {
+            transaction = TransactionDecoder.decode(signedTransaction);
+            if (!(transaction instanceof SignedRawTransaction)) {
+                throw new RpcException(TRANSACTION_REJECTED_ERROR_CODE, "transaction is not signed");
+            }
+            from = normalize(((SignedRawTransaction) transaction).getFrom());
+        } catch (RpcException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RpcException(TRANSACTION_REJECTED_ERROR_CODE, "invalid transaction: " + e.getMessage());
+        }
+        
+        String hash = normalize(Hash.sha3(signedTransaction));
+        long nonce = transaction.getNonce().longValueExact();
+        chainLock.lock();
+        try {
+            NavigableMap<Long, String> sent = accountTransactions.computeIfAbsent(from, key -> new TreeMap<>());
+            String existing = sent.get(nonce);
+            if (existing != null) {
+                if (existing.equals(hash)) {
+                    throw new RpcException(TRANSACTION_REJECTED_ERROR_CODE, "already known");
+                }
+                StubTransaction pending = transactions.get(existing);
+                if (pending.includedBlock != null) {
+                    throw new RpcException(TRANSACTION_REJECTED_ERROR_CODE, "nonce too low: tx nonce " + nonce);
+                }
+                // 与geth一致：替换交易的两项费用都须比原交易高出至少10%
+                if (!isBumped(maxFeePerGas(transaction), pending.maxFeePerGas)
+                        || !isBumped(maxPriorityFeePerGas(transaction), pending.maxPriorityFeePerGas)) {
+                    throw new RpcException(TRANSACTION_REJECTED_ERROR_CODE, "replacement transaction underpriced");
+                }
+                pending.dropped = true;
+                sent.remove(nonce);
+            }
+            long expected = getTransactionCount(from, false);
+            if (nonce > expected) {
+                throw new RpcException(TRANSACTION_REJECTED_ERROR_CODE, "nonce too high: next nonce " + expected
+                        + ", tx nonce " + nonce);
+            }
+            
+            CallStub stub = matchCallStub(transaction.getTo(), Numeric.prependHexPrefix(transaction.getData()));
+            submitTransaction(hash, stub == null || stub.revertReason == null, rawTransactionConfirmations);
+            StubTransaction submitted = transactions.get(hash);
+            submitted.from = from;
+            submitted.nonce = nonce;
+            submitted.maxFeePerGas = maxFeePerGas(transaction);
+            submitted.maxPriorityFeePerGas = maxPriorityFeePerGas(transaction);
+            submitted.gasUsed = estimatedGas.add(estimatedGasPerRecipient.multiply(
+                    BigInteger.valueOf(firstArrayLength(transaction.getData()))));
+            sent.put(nonce, hash);
+            return hash;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    private static BigInteger maxFeePerGas(RawTransaction transaction) {
+        if (transaction.getTransaction() instanceof Transaction1559) {
+            return ((Transaction1559) transaction.getTransaction()).getMaxFeePerGas();
+        }
+        return transaction.getGasPrice();
+    }
+    
+    private static BigInteger maxPriorityFeePerGas(RawTransaction transaction) {
+        if (transaction.getTransaction() instanceof Transaction1559) {
+            return ((Transaction1559) transaction.getTransaction()).getMaxPriorityFeePerGas();
+        }
+        return transaction.getGasPrice();
+    }
+    
+    private static boolean isBumped(BigInteger replacement, BigInteger original) {
+        if (original == null) {
+            return true;
+        }
+        return replacement != null
+                && replacement.multiply(BigInteger.valueOf(100)).compareTo(original.multiply(BigInteger.valueOf(110))) >= 0;
+    }
+    
+    private Object transactionByHash(String txHash) {
+        chainLock.lock();
+        try {
+            StubTransaction transaction = transactions.get(normalize(txHash));
+            if (transaction == null || transaction.dropped) {
+                return null;
+            }
+            ObjectNode result = objectMapper.createObjectNode();
+            result.put("hash", transaction.hash);
+            result.put("from", transaction.from != null ? transaction.from : DEFAULT_FROM);
+            result.put("nonce", Numeric.encodeQuantity(BigInteger.valueOf(transaction.nonce != null ? transaction.nonce : 0)));
+            result.put("type", "0x2");
+            if (transaction.maxFeePerGas != null) {
+                result.put("maxFeePerGas", Numeric.encodeQuantity(transaction.maxFeePerGas));
+                result.put("maxPriorityFeePerGas", Numeric.encodeQuantity(transaction.maxPriorityFeePerGas));
+            }
+            if (transaction.includedBlock != null) {
+                result.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(transaction.includedBlock)));
+                result.put("blockHash", blockHash(transaction.includedBlock));
+                result.put("transactionIndex", "0x0");
+            } else {
+                result.putNull("blockNumber");
+                result.putNull("blockHash");
+                result.putNull("transactionIndex");
+            }
+            return result;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    private ObjectNode block(JsonNode blockParameter) {
+        chainLock.lock();
+        try {
+            long height = Math.min(parseBlock(blockParameter, blockNumber), blockNumber);
+            ObjectNode block = objectMapper.createObjectNode();
+            block.put("number", Numeric.encodeQuantity(BigInteger.valueOf(height)));
+            block.put("hash", blockHash(height));
+            block.put("parentHash", blockHash(height - 1));
+            block.put("timestamp", Numeric.encodeQuantity(BigInteger.valueOf(System.currentTimeMillis() / 1000)));
+            block.put("gasLimit", Numeric.encodeQuantity(BigInteger.valueOf(30_000_000L)));
+            block.put("gasUsed", Numeric.encodeQuantity(BigInteger.valueOf(15_000_000L)));
+            block.put("baseFeePerGas", Numeric.encodeQuantity(baseFeePerGas));
+            block.put("miner", DEFAULT_FROM);
+            block.put("logsBloom", "0x" + "0".repeat(512));
+            block.putArray("transactions");
+            block.putArray("uncles");
+            return block;
+        } finally {
+            chainLock.unlock();
+        }
+    }
+    
+    private CallStub matchCallStub(String to, String data) {
+        String target = normalize(to);
+        String input = normalize(data);
+        for (CallStub stub : callStubs) {
+            if (stub.to.equals(target) && input.startsWith(stub.dataPrefix)) {
+                return stub;
+            }
+        }
+        return null;
+    }
+    
+    private static String callData(JsonNode transaction) {
+        return transaction.has("input") ? transaction.path("input").asText() : transaction.path("data").asText("0x");
+    }
+    
+    private static RpcException revertError(String reason) {
+        return new RpcException(EXECUTION_REVERTED_ERROR_CODE, "execution reverted: " + reason,
+                encodeRevertReason(reason));
+    }
+    
+    /**
+     * 按 Error(string) 编码回滚原因
+     */
+    private static String encodeRevertReason(String reason) {
+        return ERROR_SELECTOR
+                + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(32), 64)
+                + TypeEncoder.encode(new Utf8String(reason));
+    }
+    
+    private String blockHash(long height) {
+        int epoch = blockEpochs.getOrDefault(height, 0);
+        return Hash.sha3String("stub-block-" + height + "-" + epoch);
+    }
+    
+    private static long parseBlock(JsonNode value, long latest) {
+        if (value.isMissingNode() || value.isNull()) {
+            return latest;
+        }
+        String text = value.asText();
+        switch (text) {
+            case "latest":
+            case "pending":
+            case "safe":
+            case "finalized":
+                return latest;
+            case "earliest":
+                return 0;
+            default:
+                return Numeric.decodeQuantity(text).longValue();
+        }
+    }
+    
+    private static List<String> textValues(JsonNode value) {
+        if (value.isMissingNode() || value.isNull()) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        if (value.isArray()) {
+            value.forEach(item -> values.add(normalize(item.asText())));
+        } else {
+            values.add(normalize(value.asText()));
+        }
+        return values;
+    }
+    
+    private static String normalize(String hex) {
+        return hex == null ? null : hex.toLowerCase(Locale.ROOT);
+    }
+    
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 独立启动桩服务，默认端口8545，每2秒出一个块，任意交易哈希在1个区块后成功打包
+     * 
+     * @param args [端口]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8545;
+        StubEthereumRpcServer server = start(port)
+                .withAutoReceipts(1, true)
+                .autoMine(Duration.ofSeconds(2));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("JSON-RPC桩服务已启动: " + server.getUrl());
+        Thread.currentThread().join();
+    }
+    
+    // ==================== 类型 ====================
+    
+    /**
+     * 限流错误的返回方式
+     */
+    public enum RateLimitMode {
+        
+        /**
+         * 返回HTTP 429（Web3j抛出IOException）
+         */
+        HTTP_429,
+        
+        /**
+         * 返回HTTP 200，每个调用返回JSON-RPC错误 -32005
+         */
+        JSON_RPC_ERROR
+    }
+    
+    /**
+     * RPC方法处理器
+     */
+    @FunctionalInterface
+    public interface RpcHandler {
+        
+        /**
+         * 处理调用
+         * 
+         * @param params 调用参数（JSON数组）
+         * @return 结果，按Jackson序列化
+         * @throws RpcException 返回JSON-RPC错误
+         */
+        Object handle(JsonNode params) throws RpcException;
+    }
+    
+    /**
+     * JSON-RPC错误
+     */
+    public static class RpcException extends Exception {
+        
+        private final int code;
+        
+        private final String data;
+        
+        public RpcException(int code, String message) {
+            this(code, message, null);
+        }
+        
+        public RpcException(int code, String message, String data) {
+            super(message);
+            this.code = code;
+            this.data = data;
+        }
+        
+        public int getCode() {
+            return code;
+        }
+        
+        public String getData() {
+            return data;
+        }
+    }
+    
+    /**
+     * 登记的交易
+     */
+    private static final class StubTransaction {
+        final String hash;
+        final boolean success;
+        BigInteger gasUsed = BigInteger.valueOf(21_000L);
+        final List<StubLog> logs = new CopyOnWriteArrayList<>();
+        String from;
+        Long nonce;
+        BigInteger maxFeePerGas;
+        BigInteger maxPriorityFeePerGas;
+        long readyAtBlock;
+        Long includedBlock;
+        boolean dropped;
+        
+        StubTransaction(String hash, boolean success) {
+            this.hash = hash;
+            this.success = success;
+        }
+    }
+    
+    /**
+     * 交易日志
+     */
+    private static final class StubLog {
+        final String address;
+        final List<String> topics;
+        final String data;
+        
+        StubLog(String address, List<String> topics, String data) {
+            this.address = address;
+            this.topics = topics;
+            this.data = data;
+        }
+    }
+    
+    /**
+     * eth_call桩
+     */
+    private static final class CallStub {
+        final String to;
+        final String dataPrefix;
+        final String result;
+        final String revertReason;
+        
+        CallStub(String to, String dataPrefix, String result, String revertReason) {
+            this.to = normalize(to);
+            this.dataPrefix = normalize(dataPrefix);
+            this.result = result;
+            this.revertReason = revertReason;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.webthree.batchtransfer.util;
+
+import org.junit.jupiter.api.Test;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 回滚数据解析测试
+ * 
+ * @author WebThree Team
+ * @since 1.0.0
+ */
+class BatchTransferCallsTest {
+    
+    private static final String REASON = "Execution token already used";
+    
+    @Test
+    void decodesErrorString() {
+        assertThat(BatchTransferCalls.decodeRevertReason(errorData(REASON))).isEqualTo(REASON);
+    }
+    
+    @Test
+    void stripsJsonQuotesKeptByWeb3j() {
+        assertThat(BatchTransferCalls.decodeRevertReason("\"" + errorData(REASON) + "\"")).isEqualTo(REASON);
+    }
+    
+    @Test
+    void decodesPanicCode() {
+        String data = "0x4e487b71" + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(0x11), 64);
+        
+        assertThat(BatchTransferCalls.decodeRevertReason(data)).isEqualTo("Panic(0x11)");
+    }
+    
+    @Test
+    void returnsCustomErrorDataUnchanged() {
+        assertThat(BatchTransferCalls.decodeRevertReason("0xDEADBEEF")).isEqualTo("0xdeadbeef");
+    }
+    
+    @Test
+    void returnsRawDataWhenErrorStringIsMalformed() {
+        assertThat(BatchTransferCalls.decodeRevertReason("0x08c379a0ff")).isEqualTo("0x08c379a0ff");
+    }
+    
+    @Test
+    void returnsNullWithoutRevertData() {
+        assertThat(BatchTransferCalls.decodeRevertReason(null)).isNull();
+        assertThat(BatchTransferCalls.decodeRevertReason("")).isNull();
+        assertThat(BatchTransferCalls.decodeRevertReason("0x")).isNull();
+        assertThat(BatchTransferCalls.decodeRevertReason("\"0x\"")).isNull();
+    }
+    
+    private static String errorData(String reason) {
+        return "0x08c379a0" + FunctionEncoder.encodeConstructor(List.of(new Utf8String(reason)));
+    }
+}
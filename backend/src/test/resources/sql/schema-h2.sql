@@ -0,0 +1,85 @@
+-- 批量转账系统H2测试库表结构（MySQL兼容模式），与 src/main/resources/sql/schema.sql 保持一致
+
+CREATE TABLE IF NOT EXISTS batch_transfer_task (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_name VARCHAR(255) NOT NULL,
+    recipient_count INT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(36, 18) NOT NULL DEFAULT 0,
+    status ENUM('PENDING', 'EXECUTING', 'COMPLETED', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    tx_hash VARCHAR(66) NULL,
+    error_message TEXT NULL,
+    creator_address VARCHAR(42) NOT NULL,
+    execution_token VARCHAR(64) NULL UNIQUE,
+    execution_mode ENUM('WALLET', 'SERVER') NOT NULL DEFAULT 'WALLET',
+    execution_started_at TIMESTAMP NULL,
+    gas_used BIGINT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_status ON batch_transfer_task (status);
+CREATE INDEX IF NOT EXISTS idx_task_created_at ON batch_transfer_task (created_at);
+CREATE INDEX IF NOT EXISTS idx_task_tx_hash ON batch_transfer_task (tx_hash);
+CREATE INDEX IF NOT EXISTS idx_task_status_created ON batch_transfer_task (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_task_creator_address ON batch_transfer_task (creator_address);
+CREATE INDEX IF NOT EXISTS idx_task_creator_status ON batch_transfer_task (creator_address, status);
+CREATE INDEX IF NOT EXISTS idx_task_creator_created ON batch_transfer_task (creator_address, created_at);
+CREATE INDEX IF NOT EXISTS idx_task_execution_started ON batch_transfer_task (execution_started_at);
+CREATE INDEX IF NOT EXISTS idx_task_mode_status ON batch_transfer_task (execution_mode, status, id);
+
+CREATE TABLE IF NOT EXISTS batch_transfer_item (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    recipient_address VARCHAR(42) NOT NULL,
+    amount DECIMAL(36, 18) NOT NULL,
+    status ENUM('PENDING', 'SUCCESS', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    tx_hash VARCHAR(66),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    recipient_address_lower VARCHAR(42) GENERATED ALWAYS AS (LOWER(recipient_address))
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_task_id ON batch_transfer_item (task_id);
+CREATE INDEX IF NOT EXISTS idx_item_recipient_address ON batch_transfer_item (recipient_address);
+CREATE INDEX IF NOT EXISTS idx_item_recipient_lower ON batch_transfer_item (recipient_address_lower, id);
+CREATE INDEX IF NOT EXISTS idx_item_status ON batch_transfer_item (status);
+CREATE INDEX IF NOT EXISTS idx_item_task_status ON batch_transfer_item (task_id, status);
+CREATE INDEX IF NOT EXISTS idx_item_tx_hash ON batch_transfer_item (tx_hash);
+
+CREATE TABLE IF NOT EXISTS tx_nonce_reservation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sender_address VARCHAR(42) NOT NULL,
+    nonce BIGINT NOT NULL,
+    task_id BIGINT NULL,
+    tx_hash VARCHAR(66) NULL,
+    raw_transaction CLOB NULL,
+    status ENUM('SIGNED', 'SENT', 'RELEASED') NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uk_nonce_sender_nonce UNIQUE (sender_address, nonce)
+);
+
+CREATE INDEX IF NOT EXISTS idx_nonce_tx_hash ON tx_nonce_reservation (tx_hash);
+
+CREATE TABLE IF NOT EXISTS tx_replacement (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    sender_address VARCHAR(42) NOT NULL,
+    nonce BIGINT NOT NULL,
+    tx_hash VARCHAR(66) NOT NULL,
+    replaced_tx_hash VARCHAR(66) NOT NULL,
+    max_fee_per_gas BIGINT NOT NULL,
+    max_priority_fee_per_gas BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_replacement_task_id ON tx_replacement (task_id);
+CREATE INDEX IF NOT EXISTS idx_replacement_tx_hash ON tx_replacement (tx_hash);
+
+CREATE TABLE IF NOT EXISTS executor_wallet_lease (
+    sender_address VARCHAR(42) PRIMARY KEY,
+    owner_id VARCHAR(128) NOT NULL,
+    expires_at TIMESTAMP(3) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);